@@ -0,0 +1,239 @@
+// automatically generated by com.riiablo.codec.excel.BinderSourceGenerator, do not modify
+package com.riiablo.codec.excel;
+
+import javax.annotation.Generated;
+
+@Generated(
+    value = "com.riiablo.codec.excel.BinderSourceGenerator",
+    date = "2026-10-18T15:14:58Z",
+    comments = "com.riiablo.codec.excel.ItemStatCost.Entry"
+)
+public final class ItemStatCostBinder implements Excel.Binder<ItemStatCost.Entry> {
+  private int Stat;
+
+  private int ID;
+
+  private int Send_Other;
+
+  private int Signed;
+
+  private int Send_Bits;
+
+  private int Send_Param_Bits;
+
+  private int UpdateAnimRate;
+
+  private int Saved;
+
+  private int CSvSigned;
+
+  private int CSvBits;
+
+  private int CSvParam;
+
+  private int fCallback;
+
+  private int fMin;
+
+  private int MinAccr;
+
+  private int Encode;
+
+  private int Add;
+
+  private int Multiply;
+
+  private int Divide;
+
+  private int ValShift;
+
+  private int Save_Bits_109;
+
+  private int Save_Add_109;
+
+  private int Save_Bits;
+
+  private int Save_Add;
+
+  private int Save_Param_Bits;
+
+  private int keepzero;
+
+  private int op;
+
+  private int op_param;
+
+  private int op_base;
+
+  private int[] op_stat;
+
+  private int direct;
+
+  private int maxstat;
+
+  private int itemspecific;
+
+  private int damagerelated;
+
+  private int itemevent1;
+
+  private int itemeventfunc1;
+
+  private int itemevent2;
+
+  private int itemeventfunc2;
+
+  private int descpriority;
+
+  private int descfunc;
+
+  private int descval;
+
+  private int descstrpos;
+
+  private int descstrneg;
+
+  private int descstr2;
+
+  private int dgrp;
+
+  private int dgrpfunc;
+
+  private int dgrpval;
+
+  private int dgrpstrpos;
+
+  private int dgrpstrneg;
+
+  private int dgrpstr2;
+
+  private int stuff;
+
+  @Override
+  public void resolve(TxtParser in) {
+    this.Stat = in.getColumnId("Stat");
+    this.ID = in.getColumnId("ID");
+    this.Send_Other = in.getColumnId("Send Other");
+    this.Signed = in.getColumnId("Signed");
+    this.Send_Bits = in.getColumnId("Send Bits");
+    this.Send_Param_Bits = in.getColumnId("Send Param Bits");
+    this.UpdateAnimRate = in.getColumnId("UpdateAnimRate");
+    this.Saved = in.getColumnId("Saved");
+    this.CSvSigned = in.getColumnId("CSvSigned");
+    this.CSvBits = in.getColumnId("CSvBits");
+    this.CSvParam = in.getColumnId("CSvParam");
+    this.fCallback = in.getColumnId("fCallback");
+    this.fMin = in.getColumnId("fMin");
+    this.MinAccr = in.getColumnId("MinAccr");
+    this.Encode = in.getColumnId("Encode");
+    this.Add = in.getColumnId("Add");
+    this.Multiply = in.getColumnId("Multiply");
+    this.Divide = in.getColumnId("Divide");
+    this.ValShift = in.getColumnId("ValShift");
+    this.Save_Bits_109 = in.getColumnId("1.09-Save Bits");
+    this.Save_Add_109 = in.getColumnId("1.09-Save Add");
+    this.Save_Bits = in.getColumnId("Save Bits");
+    this.Save_Add = in.getColumnId("Save Add");
+    this.Save_Param_Bits = in.getColumnId("Save Param Bits");
+    this.keepzero = in.getColumnId("keepzero");
+    this.op = in.getColumnId("op");
+    this.op_param = in.getColumnId("op param");
+    this.op_base = in.getColumnId("op base");
+    this.op_stat = in.getColumnId(new String[] { "op stat1", "op stat2", "op stat3" });
+    this.direct = in.getColumnId("direct");
+    this.maxstat = in.getColumnId("maxstat");
+    this.itemspecific = in.getColumnId("itemspecific");
+    this.damagerelated = in.getColumnId("damagerelated");
+    this.itemevent1 = in.getColumnId("itemevent1");
+    this.itemeventfunc1 = in.getColumnId("itemeventfunc1");
+    this.itemevent2 = in.getColumnId("itemevent2");
+    this.itemeventfunc2 = in.getColumnId("itemeventfunc2");
+    this.descpriority = in.getColumnId("descpriority");
+    this.descfunc = in.getColumnId("descfunc");
+    this.descval = in.getColumnId("descval");
+    this.descstrpos = in.getColumnId("descstrpos");
+    this.descstrneg = in.getColumnId("descstrneg");
+    this.descstr2 = in.getColumnId("descstr2");
+    this.dgrp = in.getColumnId("dgrp");
+    this.dgrpfunc = in.getColumnId("dgrpfunc");
+    this.dgrpval = in.getColumnId("dgrpval");
+    this.dgrpstrpos = in.getColumnId("dgrpstrpos");
+    this.dgrpstrneg = in.getColumnId("dgrpstrneg");
+    this.dgrpstr2 = in.getColumnId("dgrpstr2");
+    this.stuff = in.getColumnId("stuff");
+  }
+
+  @Override
+  public ItemStatCost.Entry newEntry() {
+    return new ItemStatCost.Entry();
+  }
+
+  @Override
+  public void bind(ItemStatCost.Entry entry, TxtParser in) {
+    entry.Stat = in.getString(this.Stat);
+    entry.ID = in.getInt(this.ID);
+    entry.Send_Other = in.getBoolean(this.Send_Other);
+    entry.Signed = in.getBoolean(this.Signed);
+    entry.Send_Bits = in.getInt(this.Send_Bits);
+    entry.Send_Param_Bits = in.getInt(this.Send_Param_Bits);
+    entry.UpdateAnimRate = in.getBoolean(this.UpdateAnimRate);
+    entry.Saved = in.getBoolean(this.Saved);
+    entry.CSvSigned = in.getBoolean(this.CSvSigned);
+    entry.CSvBits = in.getInt(this.CSvBits);
+    entry.CSvParam = in.getInt(this.CSvParam);
+    entry.fCallback = in.getBoolean(this.fCallback);
+    entry.fMin = in.getInt(this.fMin);
+    entry.MinAccr = in.getInt(this.MinAccr);
+    entry.Encode = in.getInt(this.Encode);
+    entry.Add = in.getInt(this.Add);
+    entry.Multiply = in.getInt(this.Multiply);
+    entry.Divide = in.getInt(this.Divide);
+    entry.ValShift = in.getInt(this.ValShift);
+    entry.Save_Bits_109 = in.getInt(this.Save_Bits_109);
+    entry.Save_Add_109 = in.getInt(this.Save_Add_109);
+    entry.Save_Bits = in.getInt(this.Save_Bits);
+    entry.Save_Add = in.getInt(this.Save_Add);
+    entry.Save_Param_Bits = in.getInt(this.Save_Param_Bits);
+    entry.keepzero = in.getBoolean(this.keepzero);
+    entry.op = in.getInt(this.op);
+    entry.op_param = in.getInt(this.op_param);
+    entry.op_base = in.getString(this.op_base);
+    entry.op_stat = in.getString(this.op_stat);
+    entry.direct = in.getBoolean(this.direct);
+    entry.maxstat = in.getString(this.maxstat);
+    entry.itemspecific = in.getBoolean(this.itemspecific);
+    entry.damagerelated = in.getString(this.damagerelated);
+    entry.itemevent1 = in.getString(this.itemevent1);
+    entry.itemeventfunc1 = in.getInt(this.itemeventfunc1);
+    entry.itemevent2 = in.getString(this.itemevent2);
+    entry.itemeventfunc2 = in.getInt(this.itemeventfunc2);
+    entry.descpriority = in.getInt(this.descpriority);
+    entry.descfunc = in.getInt(this.descfunc);
+    entry.descval = in.getInt(this.descval);
+    entry.descstrpos = in.getString(this.descstrpos);
+    entry.descstrneg = in.getString(this.descstrneg);
+    entry.descstr2 = in.getString(this.descstr2);
+    entry.dgrp = in.getInt(this.dgrp);
+    entry.dgrpfunc = in.getInt(this.dgrpfunc);
+    entry.dgrpval = in.getInt(this.dgrpval);
+    entry.dgrpstrpos = in.getString(this.dgrpstrpos);
+    entry.dgrpstrneg = in.getString(this.dgrpstrneg);
+    entry.dgrpstr2 = in.getString(this.dgrpstr2);
+    entry.stuff = in.getInt(this.stuff);
+  }
+
+  @Override
+  public Class keyType() {
+    return String.class;
+  }
+
+  @Override
+  public int intKey(ItemStatCost.Entry entry) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public String stringKey(ItemStatCost.Entry entry) {
+    return entry.Stat;
+  }
+}
@@ -0,0 +1,663 @@
+// automatically generated by com.riiablo.codec.excel.BinderSourceGenerator, do not modify
+package com.riiablo.codec.excel;
+
+import javax.annotation.Generated;
+
+@Generated(
+    value = "com.riiablo.codec.excel.BinderSourceGenerator",
+    date = "2026-10-18T15:14:58Z",
+    comments = "com.riiablo.codec.excel.MonStats.Entry"
+)
+public final class MonStatsBinder implements Excel.Binder<MonStats.Entry> {
+  private int Id;
+
+  private int hcIdx;
+
+  private int BaseId;
+
+  private int NextInClass;
+
+  private int TransLvl;
+
+  private int NameStr;
+
+  private int MonStatsEx;
+
+  private int MonProp;
+
+  private int MonType;
+
+  private int AI;
+
+  private int DescStr;
+
+  private int Code;
+
+  private int enabled;
+
+  private int rangedtype;
+
+  private int placespawn;
+
+  private int spawn;
+
+  private int spawnx;
+
+  private int spawny;
+
+  private int spawnmode;
+
+  private int minion1;
+
+  private int minion2;
+
+  private int SetBoss;
+
+  private int BossXfer;
+
+  private int PartyMin;
+
+  private int PartyMax;
+
+  private int MinGrp;
+
+  private int MaxGrp;
+
+  private int sparsePopulate;
+
+  private int Velocity;
+
+  private int Run;
+
+  private int Rarity;
+
+  private int[] Level;
+
+  private int MonSound;
+
+  private int UMonSound;
+
+  private int threat;
+
+  private int[] aidel;
+
+  private int[] aidist;
+
+  private int[] aip1;
+
+  private int[] aip2;
+
+  private int[] aip3;
+
+  private int[] aip4;
+
+  private int[] aip5;
+
+  private int[] aip6;
+
+  private int[] aip7;
+
+  private int[] aip8;
+
+  private int MissA1;
+
+  private int MissA2;
+
+  private int MissS1;
+
+  private int MissS2;
+
+  private int MissS3;
+
+  private int MissS4;
+
+  private int MissC;
+
+  private int MissSQ;
+
+  private int Align;
+
+  private int isSpawn;
+
+  private int isMelee;
+
+  private int npc;
+
+  private int interact;
+
+  private int inventory;
+
+  private int inTown;
+
+  private int lUndead;
+
+  private int hUndead;
+
+  private int demon;
+
+  private int flying;
+
+  private int opendoors;
+
+  private int boss;
+
+  private int primeevil;
+
+  private int killable;
+
+  private int switchai;
+
+  private int noAura;
+
+  private int nomultishot;
+
+  private int neverCount;
+
+  private int petIgnore;
+
+  private int deathDmg;
+
+  private int genericSpawn;
+
+  private int zoo;
+
+  private int SendSkills;
+
+  private int Skill1;
+
+  private int Sk1mode;
+
+  private int Sk1lvl;
+
+  private int Skill2;
+
+  private int Sk2mode;
+
+  private int Sk2lvl;
+
+  private int Skill3;
+
+  private int Sk3mode;
+
+  private int Sk3lvl;
+
+  private int Skill4;
+
+  private int Sk4mode;
+
+  private int Sk4lvl;
+
+  private int Skill5;
+
+  private int Sk5mode;
+
+  private int Sk5lvl;
+
+  private int Skill6;
+
+  private int Sk6mode;
+
+  private int Sk6lvl;
+
+  private int Skill7;
+
+  private int Sk7mode;
+
+  private int Sk7lvl;
+
+  private int Skill8;
+
+  private int Sk8mode;
+
+  private int Sk8lvl;
+
+  private int[] Drain;
+
+  private int[] coldeffect;
+
+  private int[] ResDm;
+
+  private int[] ResMa;
+
+  private int[] ResFi;
+
+  private int[] ResLi;
+
+  private int[] ResCo;
+
+  private int[] ResPo;
+
+  private int DamageRegen;
+
+  private int SkillDamage;
+
+  private int noRatio;
+
+  private int NoShldBlock;
+
+  private int[] ToBlock;
+
+  private int Crit;
+
+  private int[] minHP;
+
+  private int[] maxHP;
+
+  private int[] AC;
+
+  private int[] Exp;
+
+  private int[] A1MinD;
+
+  private int[] A1MaxD;
+
+  private int[] A1TH;
+
+  private int[] A2MinD;
+
+  private int[] A2MaxD;
+
+  private int[] A2TH;
+
+  private int[] S1MinD;
+
+  private int[] S1MaxD;
+
+  private int[] S1TH;
+
+  private int El1Mode;
+
+  private int El1Type;
+
+  private int[] El1Pct;
+
+  private int[] El1MinD;
+
+  private int[] El1MaxD;
+
+  private int[] El1Dur;
+
+  private int El2Mode;
+
+  private int El2Type;
+
+  private int[] El2Pct;
+
+  private int[] El2MinD;
+
+  private int[] El2MaxD;
+
+  private int[] El2Dur;
+
+  private int El3Mode;
+
+  private int El3Type;
+
+  private int[] El3Pct;
+
+  private int[] El3MinD;
+
+  private int[] El3MaxD;
+
+  private int[] El3Dur;
+
+  private int[] TreasureClass1;
+
+  private int[] TreasureClass2;
+
+  private int[] TreasureClass3;
+
+  private int[] TreasureClass4;
+
+  private int TCQuestId;
+
+  private int TCQuestCP;
+
+  private int SplEndDeath;
+
+  private int SplGetModeChart;
+
+  private int SplEndGeneric;
+
+  private int SplClientEnd;
+
+  @Override
+  public void resolve(TxtParser in) {
+    this.Id = in.getColumnId("Id");
+    this.hcIdx = in.getColumnId("hcIdx");
+    this.BaseId = in.getColumnId("BaseId");
+    this.NextInClass = in.getColumnId("NextInClass");
+    this.TransLvl = in.getColumnId("TransLvl");
+    this.NameStr = in.getColumnId("NameStr");
+    this.MonStatsEx = in.getColumnId("MonStatsEx");
+    this.MonProp = in.getColumnId("MonProp");
+    this.MonType = in.getColumnId("MonType");
+    this.AI = in.getColumnId("AI");
+    this.DescStr = in.getColumnId("DescStr");
+    this.Code = in.getColumnId("Code");
+    this.enabled = in.getColumnId("enabled");
+    this.rangedtype = in.getColumnId("rangedtype");
+    this.placespawn = in.getColumnId("placespawn");
+    this.spawn = in.getColumnId("spawn");
+    this.spawnx = in.getColumnId("spawnx");
+    this.spawny = in.getColumnId("spawny");
+    this.spawnmode = in.getColumnId("spawnmode");
+    this.minion1 = in.getColumnId("minion1");
+    this.minion2 = in.getColumnId("minion2");
+    this.SetBoss = in.getColumnId("SetBoss");
+    this.BossXfer = in.getColumnId("BossXfer");
+    this.PartyMin = in.getColumnId("PartyMin");
+    this.PartyMax = in.getColumnId("PartyMax");
+    this.MinGrp = in.getColumnId("MinGrp");
+    this.MaxGrp = in.getColumnId("MaxGrp");
+    this.sparsePopulate = in.getColumnId("sparsePopulate");
+    this.Velocity = in.getColumnId("Velocity");
+    this.Run = in.getColumnId("Run");
+    this.Rarity = in.getColumnId("Rarity");
+    this.Level = in.getColumnId(new String[] { "Level", "Level(N)", "Level(H)" });
+    this.MonSound = in.getColumnId("MonSound");
+    this.UMonSound = in.getColumnId("UMonSound");
+    this.threat = in.getColumnId("threat");
+    this.aidel = in.getColumnId(new String[] { "aidel", "aidel(N)", "aidel(H)" });
+    this.aidist = in.getColumnId(new String[] { "aidist", "aidist(N)", "aidist(H)" });
+    this.aip1 = in.getColumnId(new String[] { "aip1", "aip1(N)", "aip1(H)" });
+    this.aip2 = in.getColumnId(new String[] { "aip2", "aip2(N)", "aip2(H)" });
+    this.aip3 = in.getColumnId(new String[] { "aip3", "aip3(N)", "aip3(H)" });
+    this.aip4 = in.getColumnId(new String[] { "aip4", "aip4(N)", "aip4(H)" });
+    this.aip5 = in.getColumnId(new String[] { "aip5", "aip5(N)", "aip5(H)" });
+    this.aip6 = in.getColumnId(new String[] { "aip6", "aip6(N)", "aip6(H)" });
+    this.aip7 = in.getColumnId(new String[] { "aip7", "aip7(N)", "aip7(H)" });
+    this.aip8 = in.getColumnId(new String[] { "aip8", "aip8(N)", "aip8(H)" });
+    this.MissA1 = in.getColumnId("MissA1");
+    this.MissA2 = in.getColumnId("MissA2");
+    this.MissS1 = in.getColumnId("MissS1");
+    this.MissS2 = in.getColumnId("MissS2");
+    this.MissS3 = in.getColumnId("MissS3");
+    this.MissS4 = in.getColumnId("MissS4");
+    this.MissC = in.getColumnId("MissC");
+    this.MissSQ = in.getColumnId("MissSQ");
+    this.Align = in.getColumnId("Align");
+    this.isSpawn = in.getColumnId("isSpawn");
+    this.isMelee = in.getColumnId("isMelee");
+    this.npc = in.getColumnId("npc");
+    this.interact = in.getColumnId("interact");
+    this.inventory = in.getColumnId("inventory");
+    this.inTown = in.getColumnId("inTown");
+    this.lUndead = in.getColumnId("lUndead");
+    this.hUndead = in.getColumnId("hUndead");
+    this.demon = in.getColumnId("demon");
+    this.flying = in.getColumnId("flying");
+    this.opendoors = in.getColumnId("opendoors");
+    this.boss = in.getColumnId("boss");
+    this.primeevil = in.getColumnId("primeevil");
+    this.killable = in.getColumnId("killable");
+    this.switchai = in.getColumnId("switchai");
+    this.noAura = in.getColumnId("noAura");
+    this.nomultishot = in.getColumnId("nomultishot");
+    this.neverCount = in.getColumnId("neverCount");
+    this.petIgnore = in.getColumnId("petIgnore");
+    this.deathDmg = in.getColumnId("deathDmg");
+    this.genericSpawn = in.getColumnId("genericSpawn");
+    this.zoo = in.getColumnId("zoo");
+    this.SendSkills = in.getColumnId("SendSkills");
+    this.Skill1 = in.getColumnId("Skill1");
+    this.Sk1mode = in.getColumnId("Sk1mode");
+    this.Sk1lvl = in.getColumnId("Sk1lvl");
+    this.Skill2 = in.getColumnId("Skill2");
+    this.Sk2mode = in.getColumnId("Sk2mode");
+    this.Sk2lvl = in.getColumnId("Sk2lvl");
+    this.Skill3 = in.getColumnId("Skill3");
+    this.Sk3mode = in.getColumnId("Sk3mode");
+    this.Sk3lvl = in.getColumnId("Sk3lvl");
+    this.Skill4 = in.getColumnId("Skill4");
+    this.Sk4mode = in.getColumnId("Sk4mode");
+    this.Sk4lvl = in.getColumnId("Sk4lvl");
+    this.Skill5 = in.getColumnId("Skill5");
+    this.Sk5mode = in.getColumnId("Sk5mode");
+    this.Sk5lvl = in.getColumnId("Sk5lvl");
+    this.Skill6 = in.getColumnId("Skill6");
+    this.Sk6mode = in.getColumnId("Sk6mode");
+    this.Sk6lvl = in.getColumnId("Sk6lvl");
+    this.Skill7 = in.getColumnId("Skill7");
+    this.Sk7mode = in.getColumnId("Sk7mode");
+    this.Sk7lvl = in.getColumnId("Sk7lvl");
+    this.Skill8 = in.getColumnId("Skill8");
+    this.Sk8mode = in.getColumnId("Sk8mode");
+    this.Sk8lvl = in.getColumnId("Sk8lvl");
+    this.Drain = in.getColumnId(new String[] { "Drain", "Drain(N)", "Drain(H)" });
+    this.coldeffect = in.getColumnId(new String[] { "coldeffect", "coldeffect(N)", "coldeffect(H)" });
+    this.ResDm = in.getColumnId(new String[] { "ResDm", "ResDm(N)", "ResDm(H)" });
+    this.ResMa = in.getColumnId(new String[] { "ResMa", "ResMa(N)", "ResMa(H)" });
+    this.ResFi = in.getColumnId(new String[] { "ResFi", "ResFi(N)", "ResFi(H)" });
+    this.ResLi = in.getColumnId(new String[] { "ResLi", "ResLi(N)", "ResLi(H)" });
+    this.ResCo = in.getColumnId(new String[] { "ResCo", "ResCo(N)", "ResCo(H)" });
+    this.ResPo = in.getColumnId(new String[] { "ResPo", "ResPo(N)", "ResPo(H)" });
+    this.DamageRegen = in.getColumnId("DamageRegen");
+    this.SkillDamage = in.getColumnId("SkillDamage");
+    this.noRatio = in.getColumnId("noRatio");
+    this.NoShldBlock = in.getColumnId("NoShldBlock");
+    this.ToBlock = in.getColumnId(new String[] { "ToBlock", "ToBlock(N)", "ToBlock(H)" });
+    this.Crit = in.getColumnId("Crit");
+    this.minHP = in.getColumnId(new String[] { "minHP", "minHP(N)", "minHP(H)" });
+    this.maxHP = in.getColumnId(new String[] { "maxHP", "maxHP(N)", "maxHP(H)" });
+    this.AC = in.getColumnId(new String[] { "AC", "AC(N)", "AC(H)" });
+    this.Exp = in.getColumnId(new String[] { "Exp", "Exp(N)", "Exp(H)" });
+    this.A1MinD = in.getColumnId(new String[] { "A1MinD", "A1MinD(N)", "A1MinD(H)" });
+    this.A1MaxD = in.getColumnId(new String[] { "A1MaxD", "A1MaxD(N)", "A1MaxD(H)" });
+    this.A1TH = in.getColumnId(new String[] { "A1TH", "A1TH(N)", "A1TH(H)" });
+    this.A2MinD = in.getColumnId(new String[] { "A2MinD", "A2MinD(N)", "A2MinD(H)" });
+    this.A2MaxD = in.getColumnId(new String[] { "A2MaxD", "A2MaxD(N)", "A2MaxD(H)" });
+    this.A2TH = in.getColumnId(new String[] { "A2TH", "A2TH(N)", "A2TH(H)" });
+    this.S1MinD = in.getColumnId(new String[] { "S1MinD", "S1MinD(N)", "S1MinD(H)" });
+    this.S1MaxD = in.getColumnId(new String[] { "S1MaxD", "S1MaxD(N)", "S1MaxD(H)" });
+    this.S1TH = in.getColumnId(new String[] { "S1TH", "S1TH(N)", "S1TH(H)" });
+    this.El1Mode = in.getColumnId("El1Mode");
+    this.El1Type = in.getColumnId("El1Type");
+    this.El1Pct = in.getColumnId(new String[] { "El1Pct", "El1Pct(N)", "El1Pct(H)" });
+    this.El1MinD = in.getColumnId(new String[] { "El1MinD", "El1MinD(N)", "El1MinD(H)" });
+    this.El1MaxD = in.getColumnId(new String[] { "El1MaxD", "El1MaxD(N)", "El1MaxD(H)" });
+    this.El1Dur = in.getColumnId(new String[] { "El1Dur", "El1Dur(N)", "El1Dur(H)" });
+    this.El2Mode = in.getColumnId("El2Mode");
+    this.El2Type = in.getColumnId("El2Type");
+    this.El2Pct = in.getColumnId(new String[] { "El2Pct", "El2Pct(N)", "El2Pct(H)" });
+    this.El2MinD = in.getColumnId(new String[] { "El2MinD", "El2MinD(N)", "El2MinD(H)" });
+    this.El2MaxD = in.getColumnId(new String[] { "El2MaxD", "El2MaxD(N)", "El2MaxD(H)" });
+    this.El2Dur = in.getColumnId(new String[] { "El2Dur", "El2Dur(N)", "El2Dur(H)" });
+    this.El3Mode = in.getColumnId("El3Mode");
+    this.El3Type = in.getColumnId("El3Type");
+    this.El3Pct = in.getColumnId(new String[] { "El3Pct", "El3Pct(N)", "El3Pct(H)" });
+    this.El3MinD = in.getColumnId(new String[] { "El3MinD", "El3MinD(N)", "El3MinD(H)" });
+    this.El3MaxD = in.getColumnId(new String[] { "El3MaxD", "El3MaxD(N)", "El3MaxD(H)" });
+    this.El3Dur = in.getColumnId(new String[] { "El3Dur", "El3Dur(N)", "El3Dur(H)" });
+    this.TreasureClass1 = in.getColumnId(new String[] { "TreasureClass1", "TreasureClass1(N)", "TreasureClass1(H)" });
+    this.TreasureClass2 = in.getColumnId(new String[] { "TreasureClass2", "TreasureClass2(N)", "TreasureClass2(H)" });
+    this.TreasureClass3 = in.getColumnId(new String[] { "TreasureClass3", "TreasureClass3(N)", "TreasureClass3(H)" });
+    this.TreasureClass4 = in.getColumnId(new String[] { "TreasureClass4", "TreasureClass4(N)", "TreasureClass4(H)" });
+    this.TCQuestId = in.getColumnId("TCQuestId");
+    this.TCQuestCP = in.getColumnId("TCQuestCP");
+    this.SplEndDeath = in.getColumnId("SplEndDeath");
+    this.SplGetModeChart = in.getColumnId("SplGetModeChart");
+    this.SplEndGeneric = in.getColumnId("SplEndGeneric");
+    this.SplClientEnd = in.getColumnId("SplClientEnd");
+  }
+
+  @Override
+  public MonStats.Entry newEntry() {
+    return new MonStats.Entry();
+  }
+
+  @Override
+  public void bind(MonStats.Entry entry, TxtParser in) {
+    entry.Id = in.getString(this.Id);
+    entry.hcIdx = in.getInt(this.hcIdx);
+    entry.BaseId = in.getString(this.BaseId);
+    entry.NextInClass = in.getString(this.NextInClass);
+    entry.TransLvl = in.getInt(this.TransLvl);
+    entry.NameStr = in.getString(this.NameStr);
+    entry.MonStatsEx = in.getString(this.MonStatsEx);
+    entry.MonProp = in.getString(this.MonProp);
+    entry.MonType = in.getString(this.MonType);
+    entry.AI = in.getString(this.AI);
+    entry.DescStr = in.getString(this.DescStr);
+    entry.Code = in.getString(this.Code);
+    entry.enabled = in.getBoolean(this.enabled);
+    entry.rangedtype = in.getBoolean(this.rangedtype);
+    entry.placespawn = in.getBoolean(this.placespawn);
+    entry.spawn = in.getString(this.spawn);
+    entry.spawnx = in.getInt(this.spawnx);
+    entry.spawny = in.getInt(this.spawny);
+    entry.spawnmode = in.getString(this.spawnmode);
+    entry.minion1 = in.getString(this.minion1);
+    entry.minion2 = in.getString(this.minion2);
+    entry.SetBoss = in.getBoolean(this.SetBoss);
+    entry.BossXfer = in.getBoolean(this.BossXfer);
+    entry.PartyMin = in.getInt(this.PartyMin);
+    entry.PartyMax = in.getInt(this.PartyMax);
+    entry.MinGrp = in.getInt(this.MinGrp);
+    entry.MaxGrp = in.getInt(this.MaxGrp);
+    entry.sparsePopulate = in.getInt(this.sparsePopulate);
+    entry.Velocity = in.getInt(this.Velocity);
+    entry.Run = in.getInt(this.Run);
+    entry.Rarity = in.getInt(this.Rarity);
+    entry.Level = in.getInt(this.Level);
+    entry.MonSound = in.getString(this.MonSound);
+    entry.UMonSound = in.getString(this.UMonSound);
+    entry.threat = in.getInt(this.threat);
+    entry.aidel = in.getInt(this.aidel);
+    entry.aidist = in.getInt(this.aidist);
+    entry.aip1 = in.getInt(this.aip1);
+    entry.aip2 = in.getInt(this.aip2);
+    entry.aip3 = in.getInt(this.aip3);
+    entry.aip4 = in.getInt(this.aip4);
+    entry.aip5 = in.getInt(this.aip5);
+    entry.aip6 = in.getInt(this.aip6);
+    entry.aip7 = in.getInt(this.aip7);
+    entry.aip8 = in.getInt(this.aip8);
+    entry.MissA1 = in.getString(this.MissA1);
+    entry.MissA2 = in.getString(this.MissA2);
+    entry.MissS1 = in.getString(this.MissS1);
+    entry.MissS2 = in.getString(this.MissS2);
+    entry.MissS3 = in.getString(this.MissS3);
+    entry.MissS4 = in.getString(this.MissS4);
+    entry.MissC = in.getString(this.MissC);
+    entry.MissSQ = in.getString(this.MissSQ);
+    entry.Align = in.getInt(this.Align);
+    entry.isSpawn = in.getBoolean(this.isSpawn);
+    entry.isMelee = in.getBoolean(this.isMelee);
+    entry.npc = in.getBoolean(this.npc);
+    entry.interact = in.getBoolean(this.interact);
+    entry.inventory = in.getBoolean(this.inventory);
+    entry.inTown = in.getBoolean(this.inTown);
+    entry.lUndead = in.getBoolean(this.lUndead);
+    entry.hUndead = in.getBoolean(this.hUndead);
+    entry.demon = in.getBoolean(this.demon);
+    entry.flying = in.getBoolean(this.flying);
+    entry.opendoors = in.getBoolean(this.opendoors);
+    entry.boss = in.getBoolean(this.boss);
+    entry.primeevil = in.getBoolean(this.primeevil);
+    entry.killable = in.getBoolean(this.killable);
+    entry.switchai = in.getBoolean(this.switchai);
+    entry.noAura = in.getBoolean(this.noAura);
+    entry.nomultishot = in.getBoolean(this.nomultishot);
+    entry.neverCount = in.getBoolean(this.neverCount);
+    entry.petIgnore = in.getBoolean(this.petIgnore);
+    entry.deathDmg = in.getBoolean(this.deathDmg);
+    entry.genericSpawn = in.getBoolean(this.genericSpawn);
+    entry.zoo = in.getBoolean(this.zoo);
+    entry.SendSkills = in.getInt(this.SendSkills);
+    entry.Skill1 = in.getString(this.Skill1);
+    entry.Sk1mode = in.getString(this.Sk1mode);
+    entry.Sk1lvl = in.getInt(this.Sk1lvl);
+    entry.Skill2 = in.getString(this.Skill2);
+    entry.Sk2mode = in.getString(this.Sk2mode);
+    entry.Sk2lvl = in.getInt(this.Sk2lvl);
+    entry.Skill3 = in.getString(this.Skill3);
+    entry.Sk3mode = in.getString(this.Sk3mode);
+    entry.Sk3lvl = in.getInt(this.Sk3lvl);
+    entry.Skill4 = in.getString(this.Skill4);
+    entry.Sk4mode = in.getString(this.Sk4mode);
+    entry.Sk4lvl = in.getInt(this.Sk4lvl);
+    entry.Skill5 = in.getString(this.Skill5);
+    entry.Sk5mode = in.getString(this.Sk5mode);
+    entry.Sk5lvl = in.getInt(this.Sk5lvl);
+    entry.Skill6 = in.getString(this.Skill6);
+    entry.Sk6mode = in.getString(this.Sk6mode);
+    entry.Sk6lvl = in.getInt(this.Sk6lvl);
+    entry.Skill7 = in.getString(this.Skill7);
+    entry.Sk7mode = in.getString(this.Sk7mode);
+    entry.Sk7lvl = in.getInt(this.Sk7lvl);
+    entry.Skill8 = in.getString(this.Skill8);
+    entry.Sk8mode = in.getString(this.Sk8mode);
+    entry.Sk8lvl = in.getInt(this.Sk8lvl);
+    entry.Drain = in.getInt(this.Drain);
+    entry.coldeffect = in.getInt(this.coldeffect);
+    entry.ResDm = in.getInt(this.ResDm);
+    entry.ResMa = in.getInt(this.ResMa);
+    entry.ResFi = in.getInt(this.ResFi);
+    entry.ResLi = in.getInt(this.ResLi);
+    entry.ResCo = in.getInt(this.ResCo);
+    entry.ResPo = in.getInt(this.ResPo);
+    entry.DamageRegen = in.getInt(this.DamageRegen);
+    entry.SkillDamage = in.getString(this.SkillDamage);
+    entry.noRatio = in.getBoolean(this.noRatio);
+    entry.NoShldBlock = in.getBoolean(this.NoShldBlock);
+    entry.ToBlock = in.getInt(this.ToBlock);
+    entry.Crit = in.getInt(this.Crit);
+    entry.minHP = in.getInt(this.minHP);
+    entry.maxHP = in.getInt(this.maxHP);
+    entry.AC = in.getInt(this.AC);
+    entry.Exp = in.getInt(this.Exp);
+    entry.A1MinD = in.getInt(this.A1MinD);
+    entry.A1MaxD = in.getInt(this.A1MaxD);
+    entry.A1TH = in.getInt(this.A1TH);
+    entry.A2MinD = in.getInt(this.A2MinD);
+    entry.A2MaxD = in.getInt(this.A2MaxD);
+    entry.A2TH = in.getInt(this.A2TH);
+    entry.S1MinD = in.getInt(this.S1MinD);
+    entry.S1MaxD = in.getInt(this.S1MaxD);
+    entry.S1TH = in.getInt(this.S1TH);
+    entry.El1Mode = in.getString(this.El1Mode);
+    entry.El1Type = in.getString(this.El1Type);
+    entry.El1Pct = in.getInt(this.El1Pct);
+    entry.El1MinD = in.getInt(this.El1MinD);
+    entry.El1MaxD = in.getInt(this.El1MaxD);
+    entry.El1Dur = in.getInt(this.El1Dur);
+    entry.El2Mode = in.getString(this.El2Mode);
+    entry.El2Type = in.getString(this.El2Type);
+    entry.El2Pct = in.getInt(this.El2Pct);
+    entry.El2MinD = in.getInt(this.El2MinD);
+    entry.El2MaxD = in.getInt(this.El2MaxD);
+    entry.El2Dur = in.getInt(this.El2Dur);
+    entry.El3Mode = in.getString(this.El3Mode);
+    entry.El3Type = in.getString(this.El3Type);
+    entry.El3Pct = in.getInt(this.El3Pct);
+    entry.El3MinD = in.getInt(this.El3MinD);
+    entry.El3MaxD = in.getInt(this.El3MaxD);
+    entry.El3Dur = in.getInt(this.El3Dur);
+    entry.TreasureClass1 = in.getString(this.TreasureClass1);
+    entry.TreasureClass2 = in.getString(this.TreasureClass2);
+    entry.TreasureClass3 = in.getString(this.TreasureClass3);
+    entry.TreasureClass4 = in.getString(this.TreasureClass4);
+    entry.TCQuestId = in.getInt(this.TCQuestId);
+    entry.TCQuestCP = in.getInt(this.TCQuestCP);
+    entry.SplEndDeath = in.getInt(this.SplEndDeath);
+    entry.SplGetModeChart = in.getBoolean(this.SplGetModeChart);
+    entry.SplEndGeneric = in.getBoolean(this.SplEndGeneric);
+    entry.SplClientEnd = in.getBoolean(this.SplClientEnd);
+  }
+
+  @Override
+  public Class keyType() {
+    return String.class;
+  }
+
+  @Override
+  public int intKey(MonStats.Entry entry) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public String stringKey(MonStats.Entry entry) {
+    return entry.Id;
+  }
+}
@@ -0,0 +1,163 @@
+// automatically generated by com.riiablo.codec.excel.BinderSourceGenerator, do not modify
+package com.riiablo.codec.excel;
+
+import javax.annotation.Generated;
+
+@Generated(
+    value = "com.riiablo.codec.excel.BinderSourceGenerator",
+    date = "2026-10-18T15:14:58Z",
+    comments = "com.riiablo.codec.excel.Skills.Entry"
+)
+public final class SkillsBinder implements Excel.Binder<Skills.Entry> {
+  private int Id;
+
+  private int skill;
+
+  private int charclass;
+
+  private int skilldesc;
+
+  private int stsound;
+
+  private int stsoundclass;
+
+  private int dosound;
+
+  private int castoverlay;
+
+  private int anim;
+
+  private int seqtrans;
+
+  private int monanim;
+
+  private int seqnum;
+
+  private int seqinput;
+
+  private int reqlevel;
+
+  private int startmana;
+
+  private int minmana;
+
+  private int manashift;
+
+  private int mana;
+
+  private int lvlmana;
+
+  private int[] Param;
+
+  private int leftskill;
+
+  private int passive;
+
+  private int aura;
+
+  private int srvstfunc;
+
+  private int srvdofunc;
+
+  private int cltstfunc;
+
+  private int cltdofunc;
+
+  private int cltmissilea;
+
+  private int cltmissileb;
+
+  private int cltmissilec;
+
+  private int cltmissiled;
+
+  @Override
+  public void resolve(TxtParser in) {
+    this.Id = in.getColumnId("Id");
+    this.skill = in.getColumnId("skill");
+    this.charclass = in.getColumnId("charclass");
+    this.skilldesc = in.getColumnId("skilldesc");
+    this.stsound = in.getColumnId("stsound");
+    this.stsoundclass = in.getColumnId("stsoundclass");
+    this.dosound = in.getColumnId("dosound");
+    this.castoverlay = in.getColumnId("castoverlay");
+    this.anim = in.getColumnId("anim");
+    this.seqtrans = in.getColumnId("seqtrans");
+    this.monanim = in.getColumnId("monanim");
+    this.seqnum = in.getColumnId("seqnum");
+    this.seqinput = in.getColumnId("seqinput");
+    this.reqlevel = in.getColumnId("reqlevel");
+    this.startmana = in.getColumnId("startmana");
+    this.minmana = in.getColumnId("minmana");
+    this.manashift = in.getColumnId("manashift");
+    this.mana = in.getColumnId("mana");
+    this.lvlmana = in.getColumnId("lvlmana");
+    this.Param = in.getColumnId(new String[] { "Param1", "Param2", "Param3", "Param4", "Param5", "Param6", "Param7", "Param8" });
+    this.leftskill = in.getColumnId("leftskill");
+    this.passive = in.getColumnId("passive");
+    this.aura = in.getColumnId("aura");
+    this.srvstfunc = in.getColumnId("srvstfunc");
+    this.srvdofunc = in.getColumnId("srvdofunc");
+    this.cltstfunc = in.getColumnId("cltstfunc");
+    this.cltdofunc = in.getColumnId("cltdofunc");
+    this.cltmissilea = in.getColumnId("cltmissilea");
+    this.cltmissileb = in.getColumnId("cltmissileb");
+    this.cltmissilec = in.getColumnId("cltmissilec");
+    this.cltmissiled = in.getColumnId("cltmissiled");
+  }
+
+  @Override
+  public Skills.Entry newEntry() {
+    return new Skills.Entry();
+  }
+
+  @Override
+  public void bind(Skills.Entry entry, TxtParser in) {
+    entry.Id = in.getInt(this.Id);
+    entry.skill = in.getString(this.skill);
+    entry.charclass = in.getString(this.charclass);
+    entry.skilldesc = in.getString(this.skilldesc);
+    entry.stsound = in.getString(this.stsound);
+    entry.stsoundclass = in.getString(this.stsoundclass);
+    entry.dosound = in.getString(this.dosound);
+    entry.castoverlay = in.getString(this.castoverlay);
+    entry.anim = in.getString(this.anim);
+    entry.seqtrans = in.getString(this.seqtrans);
+    entry.monanim = in.getString(this.monanim);
+    entry.seqnum = in.getInt(this.seqnum);
+    entry.seqinput = in.getInt(this.seqinput);
+    entry.reqlevel = in.getInt(this.reqlevel);
+    entry.startmana = in.getInt(this.startmana);
+    entry.minmana = in.getInt(this.minmana);
+    entry.manashift = in.getInt(this.manashift);
+    entry.mana = in.getInt(this.mana);
+    entry.lvlmana = in.getInt(this.lvlmana);
+    entry.Param = in.getInt(this.Param);
+    entry.leftskill = in.getBoolean(this.leftskill);
+    entry.passive = in.getBoolean(this.passive);
+    entry.aura = in.getBoolean(this.aura);
+    entry.srvstfunc = in.getInt(this.srvstfunc);
+    entry.srvdofunc = in.getInt(this.srvdofunc);
+    entry.cltstfunc = in.getInt(this.cltstfunc);
+    entry.cltdofunc = in.getInt(this.cltdofunc);
+    entry.cltmissilea = in.getString(this.cltmissilea);
+    entry.cltmissileb = in.getString(this.cltmissileb);
+    entry.cltmissilec = in.getString(this.cltmissilec);
+    entry.cltmissiled = in.getString(this.cltmissiled);
+  }
+
+  @Override
+  public Class keyType() {
+    return int.class;
+  }
+
+  @Override
+  public int intKey(Skills.Entry entry) {
+    return entry.Id;
+  }
+
+  @Override
+  public String stringKey(Skills.Entry entry) {
+    throw new UnsupportedOperationException();
+  }
+}
@@ -17,8 +17,10 @@ public final class ComponentP {
   public static final byte WarpP = 10;
   public static final byte MonsterP = 11;
   public static final byte ItemP = 12;
+  public static final byte PositionDeltaP = 13;
+  public static final byte VelocityDeltaP = 14;
 
-  public static final String[] names = { "NONE", "ClassP", "CofComponentsP", "CofTransformsP", "CofAlphasP", "PositionP", "VelocityP", "AngleP", "PlayerP", "DS1ObjectWrapperP", "WarpP", "MonsterP", "ItemP", };
+  public static final String[] names = { "NONE", "ClassP", "CofComponentsP", "CofTransformsP", "CofAlphasP", "PositionP", "VelocityP", "AngleP", "PlayerP", "DS1ObjectWrapperP", "WarpP", "MonsterP", "ItemP", "PositionDeltaP", "VelocityDeltaP", };
 
   public static String name(int e) { return names[e]; }
 }
@@ -13,6 +13,8 @@ import com.riiablo.codec.excel.CompCode;
 import com.riiablo.codec.excel.Composit;
 import com.riiablo.codec.excel.DifficultyLevels;
 import com.riiablo.codec.excel.Excel;
+import com.riiablo.codec.excel.ExcelLoader;
+import com.riiablo.codec.excel.ExcelLoader.Task;
 import com.riiablo.codec.excel.Gems;
 import com.riiablo.codec.excel.Inventory;
 import com.riiablo.codec.excel.ItemStatCost;
@@ -57,6 +59,9 @@ public class Files {
   private static final String TAG = "Files";
   private static final String EXCEL_PATH = "data\\global\\excel\\";
 
+  private static final boolean PARALLEL    = true;
+  private static final boolean DEBUG_TIMES = true;
+
   public final Obj    obj;
   public final Speech speech;
   public final Quests quests;
@@ -114,62 +119,129 @@ public class Files {
 
   // TODO: refactor the removal of this constructor throughout project
   public Files(AssetManager assets) {
-    long start = System.currentTimeMillis();
-    obj    = loadInternal(Obj.class);
-    speech = loadInternal(Speech.class);
-    quests = loadInternal(Quests.class);
-
-    armor            = load(Armor.class, Excel.EXPANSION);
-    ArmType          = load(ArmType.class);
-    bodylocs         = load(BodyLocs.class);
-    CharStats        = load(CharStats.class, Excel.EXPANSION);
-    colors           = load(Colors.class);
-    Composit         = load(Composit.class);
-    compcode         = load(CompCode.class);
-    DifficultyLevels = load(DifficultyLevels.class);
-    Gems             = load(Gems.class, Excel.EXPANSION);
-    inventory        = load(Inventory.class);
-    ItemStatCost     = load(ItemStatCost.class);
-    ItemTypes        = load(ItemTypes.class);
-    Levels           = load(Levels.class, Excel.EXPANSION);
-    LowQualityItems  = load(LowQualityItems.class);
-    LvlPrest         = load(LvlPrest.class);
-    LvlTypes         = load(LvlTypes.class);
-    LvlWarp          = load(LvlWarp.class, Excel.EXPANSION);
-    misc             = load(Misc.class, Excel.EXPANSION);
-    Missiles         = load(Missiles.class);
-    MagicPrefix      = load(MagicPrefix.class, Excel.EXPANSION);
-    MagicSuffix      = load(MagicSuffix.class, Excel.EXPANSION);
-    MonAI            = load(MonAI.class);
-    MonMode          = load(MonMode.class);
-    monstats         = load(MonStats.class, Excel.EXPANSION);
-    monstats2        = load(MonStats2.class, Excel.EXPANSION);
-    MonPreset        = load(MonPreset.class, Excel.EXPANSION);
-    RarePrefix       = load(RarePrefix.class, Excel.EXPANSION);
-    RareSuffix       = load(RareSuffix.class, Excel.EXPANSION);
-    Runes            = load(Runes.class);
-    objects          = load(Objects.class);
-    ObjMode          = load(ObjMode.class);
-    Overlay          = load(Overlay.class, Excel.EXPANSION);
-    PlrMode          = load(PlrMode.class);
-    PlrType          = load(PlrType.class);
-    Properties       = load(Properties.class, Excel.EXPANSION);
-    QualityItems     = load(QualityItems.class);
-    Sets             = load(Sets.class, Excel.EXPANSION);
-    SetItems         = load(SetItems.class, Excel.EXPANSION);
-    skills           = load(Skills.class);
-    skilldesc        = load(SkillDesc.class);
-    Sounds           = load(Sounds.class);
-    UniqueItems      = load(UniqueItems.class, Excel.EXPANSION);
-    //UniquePrefix   = load(UniquePrefix.class);
-    //UniqueSuffix   = load(UniqueSuffix.class);
-    WeaponClass      = load(WeaponClass.class);
-    weapons          = load(Weapons.class, Excel.EXPANSION);
-
-    long end = System.currentTimeMillis();
-    Gdx.app.debug(TAG, "Loaded files in " + (end - start) + "ms");
-
-    Sets.index(SetItems);
+    final ExcelLoader loader = new ExcelLoader(PARALLEL ? ExcelLoader.defaultThreads() : 1);
+    try {
+      final Task<Obj>              obj              = loadInternal(loader, Obj.class);
+      final Task<Speech>           speech           = loadInternal(loader, Speech.class);
+      final Task<Quests>           quests           = loadInternal(loader, Quests.class);
+
+      final Task<Armor>            armor            = load(loader, Armor.class, Excel.EXPANSION);
+      final Task<ArmType>          ArmType          = load(loader, ArmType.class);
+      final Task<BodyLocs>         bodylocs         = load(loader, BodyLocs.class);
+      final Task<CharStats>        CharStats        = load(loader, CharStats.class, Excel.EXPANSION);
+      final Task<Colors>           colors           = load(loader, Colors.class);
+      final Task<Composit>         Composit         = load(loader, Composit.class);
+      final Task<CompCode>         compcode         = load(loader, CompCode.class);
+      final Task<DifficultyLevels> DifficultyLevels = load(loader, DifficultyLevels.class);
+      final Task<Gems>             Gems             = load(loader, Gems.class, Excel.EXPANSION);
+      final Task<Inventory>        inventory        = load(loader, Inventory.class);
+      final Task<ItemStatCost>     ItemStatCost     = load(loader, ItemStatCost.class);
+      final Task<ItemTypes>        ItemTypes        = load(loader, ItemTypes.class);
+      final Task<Levels>           Levels           = load(loader, Levels.class, Excel.EXPANSION);
+      final Task<LowQualityItems>  LowQualityItems  = load(loader, LowQualityItems.class);
+      final Task<LvlPrest>         LvlPrest         = load(loader, LvlPrest.class);
+      final Task<LvlTypes>         LvlTypes         = load(loader, LvlTypes.class);
+      final Task<LvlWarp>          LvlWarp          = load(loader, LvlWarp.class, Excel.EXPANSION);
+      final Task<Misc>             misc             = load(loader, Misc.class, Excel.EXPANSION);
+      final Task<Missiles>         Missiles         = load(loader, Missiles.class);
+      final Task<MagicPrefix>      MagicPrefix      = load(loader, MagicPrefix.class, Excel.EXPANSION);
+      final Task<MagicSuffix>      MagicSuffix      = load(loader, MagicSuffix.class, Excel.EXPANSION);
+      final Task<MonAI>            MonAI            = load(loader, MonAI.class);
+      final Task<MonMode>          MonMode          = load(loader, MonMode.class);
+      final Task<MonStats>         monstats         = load(loader, MonStats.class, Excel.EXPANSION);
+      final Task<MonStats2>        monstats2        = load(loader, MonStats2.class, Excel.EXPANSION);
+      final Task<MonPreset>        MonPreset        = load(loader, MonPreset.class, Excel.EXPANSION);
+      final Task<RarePrefix>       RarePrefix       = load(loader, RarePrefix.class, Excel.EXPANSION);
+      final Task<RareSuffix>       RareSuffix       = load(loader, RareSuffix.class, Excel.EXPANSION);
+      final Task<Runes>            Runes            = load(loader, Runes.class);
+      final Task<Objects>          objects          = load(loader, Objects.class);
+      final Task<ObjMode>          ObjMode          = load(loader, ObjMode.class);
+      final Task<Overlay>          Overlay          = load(loader, Overlay.class, Excel.EXPANSION);
+      final Task<PlrMode>          PlrMode          = load(loader, PlrMode.class);
+      final Task<PlrType>          PlrType          = load(loader, PlrType.class);
+      final Task<Properties>       Properties       = load(loader, Properties.class, Excel.EXPANSION);
+      final Task<QualityItems>     QualityItems     = load(loader, QualityItems.class);
+      final Task<Sets>             Sets             = load(loader, Sets.class, Excel.EXPANSION);
+      final Task<SetItems>         SetItems         = load(loader, SetItems.class, Excel.EXPANSION);
+      final Task<Skills>           skills           = load(loader, Skills.class);
+      final Task<SkillDesc>        skilldesc        = load(loader, SkillDesc.class);
+      final Task<Sounds>           Sounds           = load(loader, Sounds.class);
+      final Task<UniqueItems>      UniqueItems      = load(loader, UniqueItems.class, Excel.EXPANSION);
+      //final Task<UniquePrefix> UniquePrefix = load(loader, UniquePrefix.class);
+      //final Task<UniqueSuffix> UniqueSuffix = load(loader, UniqueSuffix.class);
+      final Task<WeaponClass>      WeaponClass      = load(loader, WeaponClass.class);
+      final Task<Weapons>          weapons          = load(loader, Weapons.class, Excel.EXPANSION);
+
+      loader.run("Sets.index", () -> Sets.get().index(SetItems.get()), Sets, SetItems);
+      loader.await();
+      this.obj              = obj.get();
+      this.speech           = speech.get();
+      this.quests           = quests.get();
+
+      this.armor            = armor.get();
+      this.ArmType          = ArmType.get();
+      this.bodylocs         = bodylocs.get();
+      this.CharStats        = CharStats.get();
+      this.colors           = colors.get();
+      this.Composit         = Composit.get();
+      this.compcode         = compcode.get();
+      this.DifficultyLevels = DifficultyLevels.get();
+      this.Gems             = Gems.get();
+      this.inventory        = inventory.get();
+      this.ItemStatCost     = ItemStatCost.get();
+      this.ItemTypes        = ItemTypes.get();
+      this.Levels           = Levels.get();
+      this.LowQualityItems  = LowQualityItems.get();
+      this.LvlPrest         = LvlPrest.get();
+      this.LvlTypes         = LvlTypes.get();
+      this.LvlWarp          = LvlWarp.get();
+      this.misc             = misc.get();
+      this.Missiles         = Missiles.get();
+      this.MagicPrefix      = MagicPrefix.get();
+      this.MagicSuffix      = MagicSuffix.get();
+      this.MonAI            = MonAI.get();
+      this.MonMode          = MonMode.get();
+      this.monstats         = monstats.get();
+      this.monstats2        = monstats2.get();
+      this.MonPreset        = MonPreset.get();
+      this.RarePrefix       = RarePrefix.get();
+      this.RareSuffix       = RareSuffix.get();
+      this.Runes            = Runes.get();
+      this.objects          = objects.get();
+      this.ObjMode          = ObjMode.get();
+      this.Overlay          = Overlay.get();
+      this.PlrMode          = PlrMode.get();
+      this.PlrType          = PlrType.get();
+      this.Properties       = Properties.get();
+      this.QualityItems     = QualityItems.get();
+      this.Sets             = Sets.get();
+      this.SetItems         = SetItems.get();
+      this.skills           = skills.get();
+      this.skilldesc        = skilldesc.get();
+      this.Sounds           = Sounds.get();
+      this.UniqueItems      = UniqueItems.get();
+      //this.UniquePrefix = UniquePrefix.get();
+      //this.UniqueSuffix = UniqueSuffix.get();
+      this.WeaponClass      = WeaponClass.get();
+      this.weapons          = weapons.get();
+    } finally {
+      loader.dispose();
+    }
+
+    Gdx.app.debug(TAG, "Loaded files in " + loader.elapsedMillis() + "ms");
+    if (DEBUG_TIMES) Gdx.app.debug(TAG, loader.report());
+  }
+
+  private <T extends Excel> Task<T> loadInternal(ExcelLoader loader, final Class<T> clazz) {
+    return loader.load(clazz.getSimpleName(), () -> loadInternal(clazz));
+  }
+
+  private <T extends Excel> Task<T> load(ExcelLoader loader, final Class<T> clazz, final ObjectSet<String> ignore) {
+    return loader.load(clazz.getSimpleName(), () -> load(clazz, ignore));
+  }
+
+  private <T extends Excel> Task<T> load(ExcelLoader loader, final Class<T> clazz) {
+    return loader.load(clazz.getSimpleName(), () -> load(clazz));
   }
 
   private <T extends Excel> T loadInternal(Class<T> clazz) {
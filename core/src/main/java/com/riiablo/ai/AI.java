@@ -17,6 +17,7 @@ import com.riiablo.codec.excel.MonStats;
 import com.riiablo.engine.EntityFactory;
 import com.riiablo.engine.server.CofManager;
 import com.riiablo.engine.server.Pathfinder;
+import com.riiablo.engine.server.ProximityManager;
 import com.riiablo.engine.server.component.Angle;
 import com.riiablo.engine.server.component.Interactable;
 import com.riiablo.engine.server.component.MapWrapper;
@@ -60,10 +61,14 @@ public abstract class AI implements Interactable.Interactor {
 
   protected CofManager cofs;
   protected Pathfinder pathfinder;
+  protected ProximityManager proximity;
 
   @Wire(name = "factory")
   protected EntityFactory factory;
 
+  /** types of entities monsters target, e.g., hirelings and summons once implemented */
+  protected static final int ENEMIES = ProximityManager.mask(com.riiablo.engine.server.component.Class.Type.PLR);
+
   private static final Vector2 tmpVec2 = new Vector2();
 
   protected float SLEEP = Float.POSITIVE_INFINITY;
@@ -113,6 +118,14 @@ public abstract class AI implements Interactable.Interactor {
 
   public void kill() {}
 
+  /**
+   * Returns the nearest enemy within the specified range, or
+   * {@link com.riiablo.engine.server.SpatialIndex#NONE} if there is none.
+   */
+  protected int findTarget(float range) {
+    return proximity.nearest(mPosition.get(entityId).position, range, ENEMIES, entityId);
+  }
+
   protected Angle lookAt(int target) {
     Vector2 targetPos = mPosition.get(target).position;
     Vector2 entityPos = mPosition.get(entityId).position;
@@ -1,10 +1,5 @@
 package com.riiablo.ai;
 
-import com.artemis.Aspect;
-import com.artemis.ComponentMapper;
-import com.artemis.EntitySubscription;
-import com.artemis.utils.IntBag;
-
 import com.badlogic.gdx.ai.fsm.DefaultStateMachine;
 import com.badlogic.gdx.ai.fsm.StateMachine;
 import com.badlogic.gdx.ai.msg.Telegram;
@@ -14,8 +9,7 @@ import com.badlogic.gdx.math.Vector2;
 import com.riiablo.Riiablo;
 import com.riiablo.codec.excel.Missiles;
 import com.riiablo.engine.Engine;
-import com.riiablo.engine.server.component.Class;
-import com.riiablo.engine.server.component.Player;
+import com.riiablo.engine.server.SpatialIndex;
 
 public class QuillRat extends AI {
   enum State implements com.badlogic.gdx.ai.fsm.State<Integer> {
@@ -34,10 +28,6 @@ public class QuillRat extends AI {
     }
   }
 
-  protected ComponentMapper<Class> mClass;
-
-  private static EntitySubscription enemyEntities;
-
   final Vector2 tmpVec2 = new Vector2();
 
   final StateMachine<Integer, State> stateMachine;
@@ -55,11 +45,6 @@ public class QuillRat extends AI {
     super.initialize();
     monsound = "spikefiend";
     missile = Riiablo.files.Missiles.get(monster.monstats.MissA2);
-    if (enemyEntities == null) {
-      enemyEntities = Riiablo.engine.getAspectSubscriptionManager().get(Aspect
-              .all(Class.class)
-              .one(Player.class));
-    }
   }
 
   @Override
@@ -89,35 +74,29 @@ public class QuillRat extends AI {
     if (stateMachine.getCurrentState() != State.ATTACK) {
       Vector2 entityPos = mPosition.get(entityId).position;
       float melerng = 2f + monster.monstats2.MeleeRng;
-      IntBag entities = enemyEntities.getEntities();
-      for (int i = 0, size = entities.size(); i < size; i++) {
-        int ent = entities.get(i);
-        Class.Type type = mClass.get(ent).type;
-        switch (type) {
-          case PLR:
-            Vector2 targetPos = mPosition.get(ent).position;
-            float dst = entityPos.dst(targetPos);
-            if (dst < melerng) {
-              pathfinder.findPath(entityId, null);
-              lookAt(ent);
-              stateMachine.changeState(State.ATTACK);
-              mSequence.create(entityId).sequence(Engine.Monster.MODE_A1, Engine.Monster.MODE_NU);
-              Riiablo.audio.play(monsound + "_attack_1", true);
-              time = MathUtils.random(1f, 2);
-              return;
-            } else if (dst < params[0]) {
-              if (MathUtils.randomBoolean(params[1] / 100f)) {
-                pathfinder.findPath(entityId, null);
-                lookAt(ent);
-                stateMachine.changeState(State.ATTACK);
-                mSequence.create(entityId).sequence(Engine.Monster.MODE_A2, Engine.Monster.MODE_NU);
-                Riiablo.audio.play(monsound + "_shoot_1", true);
-                time = MathUtils.random(1f, 2);
-                fire(missile);
-                return;
-              }
-            }
-            break;
+      int ent = findTarget(Math.max(melerng, params[0]));
+      if (ent != SpatialIndex.NONE) {
+        Vector2 targetPos = mPosition.get(ent).position;
+        float dst = entityPos.dst(targetPos);
+        if (dst < melerng) {
+          pathfinder.findPath(entityId, null);
+          lookAt(ent);
+          stateMachine.changeState(State.ATTACK);
+          mSequence.create(entityId).sequence(Engine.Monster.MODE_A1, Engine.Monster.MODE_NU);
+          Riiablo.audio.play(monsound + "_attack_1", true);
+          time = MathUtils.random(1f, 2);
+          return;
+        } else if (dst < params[0]) {
+          if (MathUtils.randomBoolean(params[1] / 100f)) {
+            pathfinder.findPath(entityId, null);
+            lookAt(ent);
+            stateMachine.changeState(State.ATTACK);
+            mSequence.create(entityId).sequence(Engine.Monster.MODE_A2, Engine.Monster.MODE_NU);
+            Riiablo.audio.play(monsound + "_shoot_1", true);
+            time = MathUtils.random(1f, 2);
+            fire(missile);
+            return;
+          }
         }
       }
     }
@@ -136,7 +115,7 @@ public class QuillRat extends AI {
         } else {
           Vector2 dst = tmpVec2.set(mPosition.get(entityId).position);
           dst.add(MathUtils.random(-5, 5), MathUtils.random(-5, 5));
-          pathfinder.findPath(entityId, dst);
+          pathfinder.requestPath(entityId, dst);
         }
         break;
       case APPROACH:
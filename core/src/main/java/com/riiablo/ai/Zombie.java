@@ -1,10 +1,5 @@
 package com.riiablo.ai;
 
-import com.artemis.Aspect;
-import com.artemis.ComponentMapper;
-import com.artemis.EntitySubscription;
-import com.artemis.utils.IntBag;
-
 import com.badlogic.gdx.ai.fsm.DefaultStateMachine;
 import com.badlogic.gdx.ai.fsm.StateMachine;
 import com.badlogic.gdx.ai.msg.Telegram;
@@ -13,8 +8,7 @@ import com.badlogic.gdx.math.Vector2;
 
 import com.riiablo.Riiablo;
 import com.riiablo.engine.Engine;
-import com.riiablo.engine.server.component.Class;
-import com.riiablo.engine.server.component.Player;
+import com.riiablo.engine.server.SpatialIndex;
 
 public class Zombie extends AI {
   enum State implements com.badlogic.gdx.ai.fsm.State<Integer> {
@@ -32,10 +26,6 @@ public class Zombie extends AI {
     }
   }
 
-  protected ComponentMapper<Class> mClass;
-
-  private static EntitySubscription enemyEntities;
-
   final Vector2 tmpVec2 = new Vector2();
 
   final StateMachine<Integer, State> stateMachine;
@@ -47,16 +37,6 @@ public class Zombie extends AI {
     stateMachine = new DefaultStateMachine<>(entityId, State.IDLE);
   }
 
-  @Override
-  public void initialize() {
-    super.initialize();
-    if (enemyEntities == null) {
-      enemyEntities = Riiablo.engine.getAspectSubscriptionManager().get(Aspect
-              .all(Class.class)
-              .one(Player.class));
-    }
-  }
-
   @Override
   public void kill() {
     if (stateMachine.getCurrentState() == State.DEAD) return;
@@ -84,30 +64,24 @@ public class Zombie extends AI {
     if (stateMachine.getCurrentState() != State.ATTACK) {
       Vector2 entityPos = mPosition.get(entityId).position;
       float melerng = 2f + monster.monstats2.MeleeRng;
-      IntBag entities = enemyEntities.getEntities();
-      for (int i = 0, size = entities.size(); i < size; i++) {
-        int ent = entities.get(i);
-        Class.Type type = mClass.get(ent).type;
-        switch (type) {
-          case PLR:
-            Vector2 targetPos = mPosition.get(ent).position;
-            float dst = entityPos.dst(targetPos);
-            if (dst < melerng) {
-              pathfinder.findPath(entityId, null);
-              lookAt(ent);
-              stateMachine.changeState(State.ATTACK);
-              mSequence.create(entityId).sequence(MathUtils.randomBoolean(params[3] / 100f) ? Engine.Monster.MODE_A2 : Engine.Monster.MODE_A1, Engine.Monster.MODE_NU);
-              Riiablo.audio.play(monsound + "_attack_1", true);
-              time = MathUtils.random(1f, 2);
-              return;
-            } else if (dst < params[1]) {
-              if (MathUtils.randomBoolean(params[0] / 100f)) {
-                pathfinder.findPath(entityId, targetPos);
-                stateMachine.changeState(State.APPROACH);
-                return;
-              }
-            }
-            break;
+      int ent = findTarget(Math.max(melerng, params[1]));
+      if (ent != SpatialIndex.NONE) {
+        Vector2 targetPos = mPosition.get(ent).position;
+        float dst = entityPos.dst(targetPos);
+        if (dst < melerng) {
+          pathfinder.findPath(entityId, null);
+          lookAt(ent);
+          stateMachine.changeState(State.ATTACK);
+          mSequence.create(entityId).sequence(MathUtils.randomBoolean(params[3] / 100f) ? Engine.Monster.MODE_A2 : Engine.Monster.MODE_A1, Engine.Monster.MODE_NU);
+          Riiablo.audio.play(monsound + "_attack_1", true);
+          time = MathUtils.random(1f, 2);
+          return;
+        } else if (dst < params[1]) {
+          if (MathUtils.randomBoolean(params[0] / 100f)) {
+            pathfinder.requestPath(entityId, targetPos);
+            stateMachine.changeState(State.APPROACH);
+            return;
+          }
         }
       }
     }
@@ -126,7 +100,7 @@ public class Zombie extends AI {
         } else {
           Vector2 dst = tmpVec2.set(mPosition.get(entityId).position);
           dst.add(MathUtils.random(-5, 5), MathUtils.random(-5, 5));
-          pathfinder.findPath(entityId, dst);
+          pathfinder.requestPath(entityId, dst);
         }
         break;
       case APPROACH:
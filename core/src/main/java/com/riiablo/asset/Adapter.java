@@ -24,5 +24,9 @@ public abstract class Adapter<F extends FileHandle> {
 
   public abstract int defaultBufferSize(F handle);
   public abstract Future<InputStream> stream(EventExecutor executor, F handle, int bufferSize);
+  /**
+   * Returns a buffer of the specified contents, which is released by the
+   * asset manager once the asset has been loaded from it.
+   */
   public abstract Future<ByteBuf> buffer(EventExecutor executor, F handle, int offset, int length);
 }
@@ -20,6 +20,7 @@ public class AssetContainer extends AbstractReferenceCounted {
   final AssetDesc asset; // for context of which asset this contains
   final Promise<?> promise;
   final AssetDesc[] dependencies;
+  volatile LoadQueue.Task task; // pending load, if any
 
   AssetContainer(
       AssetDesc asset,
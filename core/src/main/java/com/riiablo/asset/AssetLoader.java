@@ -9,6 +9,9 @@ import com.badlogic.gdx.files.FileHandle;
 import static com.riiablo.asset.AssetDesc.EMPTY_ASSET_DESC_ARRAY;
 
 public abstract class AssetLoader<T> {
+  /** returned by {@link #loadSyncChunk0} once all chunks have been synced */
+  public static final int SYNC_DONE = -1;
+
   public final AssetDesc[] dependencies(
       Promise<T> promise,
       AssetDesc<T> asset
@@ -78,6 +81,21 @@ public abstract class AssetLoader<T> {
     }
   }
 
+  public final int loadSyncChunk(
+      Promise<T> promise,
+      AssetManager assets,
+      AssetDesc<T> asset,
+      T object,
+      int chunk
+  ) {
+    try {
+      return loadSyncChunk0(assets, asset, object, chunk);
+    } catch (Throwable t) {
+      promise.setFailure(t);
+      throw t;
+    }
+  }
+
   protected AssetDesc[] dependencies0(
       AssetDesc<T> asset
   ) {
@@ -115,4 +133,20 @@ public abstract class AssetLoader<T> {
   ) {
     return object;
   }
+
+  /**
+   * Performs the sync stage in resumable chunks, s.t. large jobs can be
+   * spread across multiple frames. Called with chunk {@code 0} first, and
+   * then with each returned chunk until {@link #SYNC_DONE} is returned.
+   * Defaults to a single chunk performing {@link #loadSync0}.
+   */
+  protected int loadSyncChunk0(
+      AssetManager assets,
+      AssetDesc<T> asset,
+      T object,
+      int chunk
+  ) {
+    loadSync0(assets, asset, object);
+    return SYNC_DONE;
+  }
 }
@@ -1,5 +1,6 @@
 package com.riiablo.asset;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.util.concurrent.DefaultEventExecutorGroup;
 import io.netty.util.concurrent.EventExecutor;
 import io.netty.util.concurrent.EventExecutorGroup;
@@ -11,6 +12,7 @@ import java.lang.reflect.Constructor;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 
 import com.badlogic.gdx.files.FileHandle;
@@ -27,25 +29,41 @@ import static com.riiablo.asset.AssetContainer.EMPTY_PROMISE_ARRAY;
 public final class AssetManager implements Disposable {
   private static final Logger log = LogManager.getLogger(AssetManager.class);
 
+  /** number of loads which may be in flight per async executor */
+  static final int LOADS_PER_EXECUTOR = 2;
+
   final ObjectMap<AssetDesc, AssetContainer> loadedAssets = new ObjectMap<>();
   final ObjectMap<Class, AssetLoader> loaders = new ObjectMap<>();
   final ObjectMap<Class, Adapter> adapters = new ObjectMap<>();
   final Array<PriorityContainer<FileHandleResolver>> resolvers = new Array<>();
   final ObjectMap<Class, Class<? extends AssetParams>> defaultParams = new ObjectMap<>();
   final BlockingQueue<SyncMessage> syncQueue = new LinkedBlockingQueue<>();
+  final LoadQueue loadQueue = new LoadQueue();
+  final ObjectMap<Class, SyncStats> syncStats = new ObjectMap<>(); // sync thread only
+  SyncMessage syncing; // partially synced message, resumed before polling syncQueue
 
   final EventExecutorGroup async;
   final EventExecutor sync;
 
+  final int maxInFlight;
+  final AtomicInteger inFlight = new AtomicInteger(); // loads polled and not yet passed to sync
+
   FileHandleResolver[] resolverCache; // ref updated when resolvers changed
 
   public AssetManager() {
-    async = new DefaultEventExecutorGroup(4);
+    this(4, LOADS_PER_EXECUTOR);
+  }
+
+  AssetManager(int nThreads, int loadsPerExecutor) {
+    async = new DefaultEventExecutorGroup(nThreads);
     sync = ImmediateEventExecutor.INSTANCE;
+    maxInFlight = nThreads * loadsPerExecutor;
   }
 
   @Override
   public void dispose() {
+    log.debug("Load queue: {}", loadQueue);
+    for (SyncStats stats : syncStats.values()) log.debug("Sync {}", stats);
     log.trace("Shutting down async executor...");
     async.shutdownGracefully();
 
@@ -57,6 +75,16 @@ public final class AssetManager implements Disposable {
     resolverCache = PriorityContainer.toArray(resolvers, FileHandleResolver.class);
   }
 
+  /** pending asset loads and their queue wait time metrics */
+  public LoadQueue loadQueue() {
+    return loadQueue;
+  }
+
+  /** number of loads which have been started and not yet passed to sync */
+  public int inFlight() {
+    return inFlight.get();
+  }
+
   public AssetLoader getLoader(Class type) {
     return loaders.get(type);
   }
@@ -146,7 +174,7 @@ public final class AssetManager implements Disposable {
     return object;
   }
 
-  <T> Promise[] loadDependencies(Promise<T> promise, AssetContainer container) {
+  <T> Promise[] loadDependencies(Promise<T> promise, AssetContainer container, LoadPriority priority) {
     final AssetDesc[] dependencies = container.dependencies;
     final int numDependencies = dependencies.length;
     if (numDependencies == 0) return EMPTY_PROMISE_ARRAY;
@@ -155,7 +183,7 @@ public final class AssetManager implements Disposable {
       final AssetDesc dependency = dependencies[i];
       // redirection to suppress unchecked warning via variable assignment
       @SuppressWarnings("unchecked") // dependencies submitted by loader
-      Promise<?> p = promises[i] = load(dependency);
+      Promise<?> p = promises[i] = load(dependency, priority);
       if (p.isDone() && p.cause() != null) {
         promise.tryFailure(new InvalidDependency(
             container.asset, "Failed to load one or more dependencies.", p.cause()));
@@ -168,30 +196,54 @@ public final class AssetManager implements Disposable {
   <T> void ioAsync(final EventExecutor executor, final AssetContainer container) {
     final AssetDesc asset = container.asset;
     final Promise promise = container.promise;
-    final AssetLoader loader = findLoader(asset.type);
-    final FileHandle handle = resolve(asset); // TODO: refactor AssetLoader#resolver?
-    final Adapter adapter = findAdapter(handle);
-    loader
-        .ioAsync(promise, executor, AssetManager.this, asset, handle, adapter)
-        .addListener((FutureListener) future -> {
-          try {
-            @SuppressWarnings("unchecked") // guaranteed by loader contract
-            T object = (T) loader.loadAsync(promise, AssetManager.this, asset, handle, future.getNow());
-            boolean inserted = syncQueue.offer(SyncMessage.wrap(container, promise, loader, object));
-            if (!inserted) log.error("Failed to enqueue {}", asset);
-          } catch (Throwable t) {
-            log.error("Failed to load {}", asset, t);
-            ExceptionUtils.rethrow(t);
-          }
-        });
+    boolean started = false;
+    try {
+      final AssetLoader loader = findLoader(asset.type);
+      final FileHandle handle = resolve(asset); // TODO: refactor AssetLoader#resolver?
+      final Adapter adapter = findAdapter(handle);
+      loader
+          .ioAsync(promise, executor, AssetManager.this, asset, handle, adapter)
+          .addListener((FutureListener) future -> {
+            final Object data = future.getNow();
+            try {
+              @SuppressWarnings("unchecked") // guaranteed by loader contract
+              T object = (T) loader.loadAsync(promise, AssetManager.this, asset, handle, data);
+              boolean inserted = syncQueue.offer(SyncMessage.wrap(container, promise, loader, object));
+              if (!inserted) log.error("Failed to enqueue {}", asset);
+            } catch (Throwable t) {
+              log.error("Failed to load {}", asset, t);
+              ExceptionUtils.rethrow(t);
+            } finally {
+              if (data instanceof ByteBuf) ((ByteBuf) data).release(); // see Adapter#buffer
+              finished();
+            }
+          });
+      started = true;
+    } finally {
+      if (!started) finished();
+    }
   }
 
   public <T> Promise<? extends T> load(final AssetDesc<T> asset) {
-    log.traceEntry("load(asset: {})", asset);
+    return load(asset, LoadPriority.VISIBLE);
+  }
+
+  /**
+   * Loads the specified asset and its dependencies with the specified
+   * priority. If the asset is already queued with a less urgent priority, it
+   * will be bumped to the specified priority.
+   *
+   * @see #bump(AssetDesc, LoadPriority)
+   */
+  public <T> Promise<? extends T> load(final AssetDesc<T> asset, final LoadPriority priority) {
+    log.traceEntry("load(asset: {}, priority: {})", asset, priority);
 
     if (asset.params == null) asset.params = defaultParams(asset.type); // TODO: required by AssetDesc#hashCode()
     final AssetContainer container0 = loadedAssets.get(asset);
-    if (container0 != null) return container0.retain().get(asset.type);
+    if (container0 != null) {
+      bump(container0, priority);
+      return container0.retain().get(asset.type);
+    }
 
     final Promise<T> promise = sync.newPromise();
     promise.setUncancellable();
@@ -210,7 +262,7 @@ public final class AssetManager implements Disposable {
     }
 
     final AssetContainer container = AssetContainer.wrap(asset, promise, dependencies);
-    final Promise[] promises = loadDependencies(promise, container);
+    final Promise[] promises = loadDependencies(promise, container, priority);
     loadedAssets.put(asset, container);
     if (promise.isDone()) return promise; // one or more dependencies was invalid
 
@@ -220,23 +272,88 @@ public final class AssetManager implements Disposable {
       return promise;
     }
 
-    final EventExecutor executor = async.next();
-    executor.execute(() -> {
-      if (dependencies.length == 0) {
-        ioAsync(executor, container);
-      } else {
-        PromiseCombiner combiner = new PromiseCombiner(executor);
-        for (Promise dependency : promises) {
-          combiner.add((Future) dependency);
-        }
+    container.task = loadQueue.offer(container, promises, priority);
+    startQueued();
+    return promise;
+  }
 
-        Promise<Void> combinerPromise = executor.newPromise();
-        combinerPromise.addListener((FutureListener<Void>) future -> ioAsync(executor, container));
-        combiner.finish(combinerPromise);
+  /**
+   * Starts the most urgent queued loads while fewer than {@link #maxInFlight}
+   * loads are in flight, s.t. loads remain queued, and thus reorderable by
+   * priority, until a load finishes. Called whenever a load is queued or
+   * finishes.
+   * <p/>
+   * Loads waiting on their dependencies remain in flight. This cannot
+   * deadlock, since dependencies are queued before, and with at least the
+   * priority of, the loads depending on them.
+   */
+  void startQueued() {
+    while (loadQueue.size() > 0 && acquire()) {
+      final LoadQueue.Task task = loadQueue.poll();
+      if (task == null) { // raced with another caller, size rechecked
+        inFlight.decrementAndGet();
+        continue;
       }
-    });
 
-    return promise;
+      final EventExecutor executor = async.next();
+      executor.execute(() -> start(executor, task));
+    }
+  }
+
+  boolean acquire() {
+    for (;;) {
+      final int inFlight = this.inFlight.get();
+      if (inFlight >= maxInFlight) return false;
+      if (this.inFlight.compareAndSet(inFlight, inFlight + 1)) return true;
+    }
+  }
+
+  /** called once a started load has been passed to sync or has failed */
+  void finished() {
+    inFlight.decrementAndGet();
+    startQueued();
+  }
+
+  void start(final EventExecutor executor, final LoadQueue.Task task) {
+    final AssetContainer container = task.container;
+    container.task = null;
+    if (task.dependencies.length == 0) {
+      ioAsync(executor, container);
+    } else {
+      PromiseCombiner combiner = new PromiseCombiner(executor);
+      for (Promise dependency : task.dependencies) {
+        combiner.add((Future) dependency);
+      }
+
+      Promise<Void> combinerPromise = executor.newPromise();
+      combinerPromise.addListener((FutureListener<Void>) future -> ioAsync(executor, container));
+      combiner.finish(combinerPromise);
+    }
+  }
+
+  /**
+   * Raises the priority of the specified asset and its dependencies if they
+   * are queued and have not yet started loading.
+   *
+   * @return whether or not the asset itself was reprioritized
+   */
+  public boolean bump(final AssetDesc asset, final LoadPriority priority) {
+    log.traceEntry("bump(asset: {}, priority: {})", asset, priority);
+    if (asset.params == null) asset.params = defaultParams(asset.type); // TODO: required by AssetDesc#hashCode()
+    final AssetContainer container = loadedAssets.get(asset);
+    return container != null && bump(container, priority);
+  }
+
+  boolean bump(final AssetContainer container, final LoadPriority priority) {
+    for (AssetDesc dependency : container.dependencies) {
+      final AssetContainer dependencyContainer = loadedAssets.get(dependency);
+      if (dependencyContainer != null) bump(dependencyContainer, priority);
+    }
+
+    final LoadQueue.Task task = container.task;
+    if (task == null || !loadQueue.bump(task, priority)) return false;
+    log.debug("Bumped {} to {}", container.asset, priority);
+    return true;
   }
 
   public void unload(AssetDesc asset) {
@@ -264,10 +381,10 @@ public final class AssetManager implements Disposable {
       while (timeoutRemaining > 0) {
         log.debug("taking... ({}ms remaining)", timeoutRemaining);
         start = end;
-        msg = syncQueue.poll(timeoutRemaining, TimeUnit.MILLISECONDS);
+        msg = pollSync(timeoutRemaining, TimeUnit.MILLISECONDS);
         if (msg == null) break;
         try {
-          msg.loadSync(this);
+          loadSync(msg);
         } catch (Throwable ignored) {
         }
         end = System.currentTimeMillis();
@@ -288,8 +405,8 @@ public final class AssetManager implements Disposable {
     if (container != null && container.promise.isDone()) return;
     SyncMessage msg;
     do {
-      msg = syncQueue.take();
-      msg.loadSync(this);
+      msg = takeSync();
+      loadSync(msg);
     } while (!asset.equals(msg.container.asset));
   }
 
@@ -310,24 +427,115 @@ public final class AssetManager implements Disposable {
 
     SyncMessage msg;
     while (!assets.isEmpty()) {
-      msg = syncQueue.take();
-      msg.loadSync(this);
+      msg = takeSync();
+      loadSync(msg);
       assets.removeValue(msg.container.asset, false);
     }
   }
 
   /**
-   * blocks and processes sync messages up to a max timeoutMillis,
-   * final message will not be interrupted and may exceed timeoutMillis
+   * processes sync messages in resumable chunks for up to timeoutMillis
+   *
+   * @see #syncAwait(long, TimeUnit)
    */
   public void syncAwait(long timeoutMillis) {
-    log.traceEntry("syncAwait(timeoutMillis: {})", timeoutMillis);
+    syncAwait(timeoutMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Processes sync messages in resumable chunks for up to the specified
+   * budget, e.g., the time left in the current frame. A chunk is only started
+   * if its estimated cost, based on previous chunks of the same asset type,
+   * fits within the remaining budget, and a message which was not fully
+   * synced is resumed by the next call. The budget is only exceeded if the
+   * first chunk of a call is itself estimated to exceed it, s.t. progress is
+   * always made.
+   *
+   * @see #syncStats(Class)
+   */
+  public void syncAwait(long budget, TimeUnit unit) {
+    log.traceEntry("syncAwait(budget: {}, unit: {})", budget, unit);
+    final long budgetNanos = unit.toNanos(budget);
+    final long startTime = System.nanoTime();
+    long elapsed = 0;
     SyncMessage msg;
-    long currentTime = System.currentTimeMillis();
-    final long endTime = currentTime + timeoutMillis;
-    while (currentTime < endTime && (msg = syncQueue.poll()) != null) {
-      msg.loadSync(this);
-      currentTime = System.currentTimeMillis();
+    while (elapsed < budgetNanos && (msg = pollSync()) != null) {
+      final SyncStats stats = syncStats(msg);
+      if (elapsed > 0 && elapsed + (long) stats.chunkNanos > budgetNanos) {
+        syncing = msg; // resumed next call
+        break;
+      }
+
+      try {
+        if (!loadSyncChunk(msg, stats)) syncing = msg;
+      } catch (Throwable t) {
+        log.error("Failed to sync {}", msg, t);
+      }
+
+      elapsed = System.nanoTime() - startTime;
+    }
+  }
+
+  /**
+   * Returns the sync stage timings of the specified asset type, or
+   * {@code null} if no assets of that type have been synced.
+   */
+  public SyncStats syncStats(Class type) {
+    return syncStats.get(type);
+  }
+
+  SyncStats syncStats(SyncMessage msg) {
+    final Class type = msg.container.asset.type;
+    SyncStats stats = syncStats.get(type);
+    if (stats == null) syncStats.put(type, stats = new SyncStats(type));
+    return stats;
+  }
+
+  /** returns the partially synced message, if any, or polls the sync queue */
+  SyncMessage pollSync() {
+    final SyncMessage msg = syncing;
+    if (msg == null) return syncQueue.poll();
+    syncing = null;
+    return msg;
+  }
+
+  SyncMessage pollSync(long timeout, TimeUnit unit) throws InterruptedException {
+    final SyncMessage msg = syncing;
+    if (msg == null) return syncQueue.poll(timeout, unit);
+    syncing = null;
+    return msg;
+  }
+
+  SyncMessage takeSync() throws InterruptedException {
+    final SyncMessage msg = syncing;
+    if (msg == null) return syncQueue.take();
+    syncing = null;
+    return msg;
+  }
+
+  /** syncs all remaining chunks of the specified message */
+  void loadSync(SyncMessage msg) {
+    final SyncStats stats = syncStats(msg);
+    while (!loadSyncChunk(msg, stats));
+  }
+
+  /**
+   * Syncs the next chunk of the specified message and records its timings.
+   *
+   * @return whether or not all chunks have been synced
+   */
+  boolean loadSyncChunk(SyncMessage msg, SyncStats stats) {
+    final long start = System.nanoTime();
+    final boolean done;
+    try {
+      done = msg.loadSyncChunk(this);
+    } finally {
+      final long nanos = System.nanoTime() - start;
+      msg.syncNanos += nanos;
+      stats.chunk(nanos);
     }
+
+    if (done) stats.synced(msg.syncNanos);
+    return done;
   }
 }
@@ -0,0 +1,28 @@
+package com.riiablo.asset;
+
+/**
+ * Priority of an asset load request. Pending loads are started in order of
+ * priority, and then in the order they were requested. Dependencies are
+ * loaded with the priority of the asset depending on them.
+ *
+ * @see AssetManager#load(AssetDesc, LoadPriority)
+ * @see AssetManager#bump(AssetDesc, LoadPriority)
+ */
+public enum LoadPriority {
+  /** required to render the current frame, e.g., the player's animation */
+  IMMEDIATE,
+
+  /** visible on screen or about to be */
+  VISIBLE,
+
+  /** speculative background loading, e.g., the tiles of an entire act */
+  PREFETCH,
+  ;
+
+  static final LoadPriority[] values = values();
+
+  /** returns whether this priority should be loaded before {@code other} */
+  public boolean before(LoadPriority other) {
+    return ordinal() < other.ordinal();
+  }
+}
@@ -0,0 +1,166 @@
+package com.riiablo.asset;
+
+import io.netty.util.concurrent.Promise;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Priority ordered queue of asset loads which have not yet been started by
+ * the async executors of an {@link AssetManager}. Loads with equal priority
+ * are started in the order they were requested.
+ *
+ * Tracks how long loads of each {@link LoadPriority} waited within the queue
+ * before being started.
+ */
+public final class LoadQueue {
+  final PriorityQueue<Task> queue = new PriorityQueue<>(); // guarded by this
+  long sequence; // guarded by this
+
+  final LongAdder[] dequeued = new LongAdder[LoadPriority.values.length];
+  final LongAdder[] waitNanos = new LongAdder[LoadPriority.values.length];
+  final LongAccumulator[] maxWaitNanos = new LongAccumulator[LoadPriority.values.length];
+  final LongAdder bumps = new LongAdder();
+
+  LoadQueue() {
+    for (int i = 0; i < LoadPriority.values.length; i++) {
+      dequeued[i] = new LongAdder();
+      waitNanos[i] = new LongAdder();
+      maxWaitNanos[i] = new LongAccumulator(Math::max, 0);
+    }
+  }
+
+  Task offer(AssetContainer container, Promise[] dependencies, LoadPriority priority) {
+    final Task task;
+    synchronized (this) {
+      task = new Task(container, dependencies, priority, sequence++, System.nanoTime());
+      task.queued = true;
+      queue.add(task);
+    }
+
+    return task;
+  }
+
+  /**
+   * Retrieves and removes the most urgent task, or returns {@code null} if
+   * this queue is empty.
+   */
+  Task poll() {
+    final Task task;
+    synchronized (this) {
+      task = queue.poll();
+      if (task == null) return null;
+      task.queued = false;
+    }
+
+    final long waited = System.nanoTime() - task.enqueuedNanos;
+    final int priority = task.priority.ordinal();
+    dequeued[priority].increment();
+    waitNanos[priority].add(waited);
+    maxWaitNanos[priority].accumulate(waited);
+    return task;
+  }
+
+  /**
+   * Raises the priority of the specified task if it has not yet been started
+   * and the specified priority is more urgent than its current priority.
+   *
+   * @return whether or not the task was reprioritized
+   */
+  boolean bump(Task task, LoadPriority priority) {
+    synchronized (this) {
+      if (!task.queued || !priority.before(task.priority)) return false;
+      queue.remove(task);
+      task.priority = priority;
+      queue.add(task);
+    }
+
+    bumps.increment();
+    return true;
+  }
+
+  public synchronized int size() {
+    return queue.size();
+  }
+
+  /** number of loads of the specified priority which have been started */
+  public long dequeued(LoadPriority priority) {
+    return dequeued[priority.ordinal()].sum();
+  }
+
+  /** total time loads of the specified priority waited before being started */
+  public long waitTime(LoadPriority priority, TimeUnit unit) {
+    return unit.convert(waitNanos[priority.ordinal()].sum(), TimeUnit.NANOSECONDS);
+  }
+
+  /** longest time a load of the specified priority waited before being started */
+  public long maxWaitTime(LoadPriority priority, TimeUnit unit) {
+    return unit.convert(maxWaitNanos[priority.ordinal()].get(), TimeUnit.NANOSECONDS);
+  }
+
+  /** mean time loads of the specified priority waited before being started */
+  public double meanWaitTime(LoadPriority priority, TimeUnit unit) {
+    final long dequeued = dequeued(priority);
+    if (dequeued == 0) return 0;
+    return (double) unit.convert(waitNanos[priority.ordinal()].sum(), TimeUnit.NANOSECONDS) / dequeued;
+  }
+
+  public long bumps() {
+    return bumps.sum();
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder(64);
+    builder.append(size()).append(" queued");
+    for (LoadPriority priority : LoadPriority.values) {
+      builder
+          .append(", ")
+          .append(priority)
+          .append('=')
+          .append(dequeued(priority))
+          .append(" (mean ")
+          .append(String.format("%.3f", meanWaitTime(priority, TimeUnit.MICROSECONDS) / 1000))
+          .append("ms, max ")
+          .append(maxWaitTime(priority, TimeUnit.MILLISECONDS))
+          .append("ms)");
+    }
+    builder.append(", ").append(bumps()).append(" bumps");
+    return builder.toString();
+  }
+
+  static final class Task implements Comparable<Task> {
+    final AssetContainer container;
+    final Promise[] dependencies;
+    final long sequence;
+    final long enqueuedNanos;
+    LoadPriority priority; // guarded by queue
+    boolean queued; // guarded by queue
+
+    Task(
+        AssetContainer container,
+        Promise[] dependencies,
+        LoadPriority priority,
+        long sequence,
+        long enqueuedNanos
+    ) {
+      this.container = container;
+      this.dependencies = dependencies;
+      this.priority = priority;
+      this.sequence = sequence;
+      this.enqueuedNanos = enqueuedNanos;
+    }
+
+    @Override
+    public int compareTo(Task other) {
+      final int compare = priority.compareTo(other.priority);
+      return compare != 0 ? compare : Long.compare(sequence, other.sequence);
+    }
+
+    @Override
+    public String toString() {
+      return priority + ":" + container.asset;
+    }
+  }
+}
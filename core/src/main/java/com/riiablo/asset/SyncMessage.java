@@ -1,6 +1,5 @@
 package com.riiablo.asset;
 
-import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.Promise;
 
 final class SyncMessage<T> {
@@ -31,11 +30,20 @@ final class SyncMessage<T> {
     this.object = object;
   }
 
+  int chunk; // next chunk to sync, resumed across calls
+  long syncNanos; // time spent syncing chunks so far
+
+  /**
+   * Syncs the next chunk of this message.
+   *
+   * @return whether or not all chunks have been synced
+   */
   @SuppressWarnings("unchecked") // guaranteed by loader contract
-  Future<?> loadSync(AssetManager assets) {
-    loader.loadSync(promise, assets, container.asset, object);
+  boolean loadSyncChunk(AssetManager assets) {
+    chunk = loader.loadSyncChunk(promise, assets, container.asset, object, chunk);
+    if (chunk != AssetLoader.SYNC_DONE) return false;
     promise.trySuccess(object);
-    return promise;
+    return true;
   }
 
   @Override
@@ -0,0 +1,113 @@
+package com.riiablo.asset;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sync stage timings of a single asset type. Tracks an estimate of the cost
+ * of a single sync chunk, used to decide whether a chunk fits within the
+ * remaining frame budget, and a histogram of the total time each asset spent
+ * syncing, using power of two microsecond buckets.
+ *
+ * Only accessed by the thread performing the sync stage.
+ *
+ * @see AssetManager#syncAwait(long, TimeUnit)
+ */
+public final class SyncStats {
+  static final int NUM_BUCKETS = 24; // up to ~16s
+  /** weight of the most recent chunk within the chunk cost estimate */
+  static final double SMOOTHING = 0.25;
+
+  final Class type;
+  final long[] buckets = new long[NUM_BUCKETS];
+  long count;
+  long totalNanos;
+  long maxNanos;
+
+  long chunks;
+  double chunkNanos; // moving average cost of a chunk
+
+  SyncStats(Class type) {
+    this.type = type;
+  }
+
+  void chunk(long nanos) {
+    chunkNanos = chunks++ == 0 ? nanos : chunkNanos + (nanos - chunkNanos) * SMOOTHING;
+  }
+
+  void synced(long nanos) {
+    count++;
+    totalNanos += nanos;
+    if (nanos > maxNanos) maxNanos = nanos;
+    buckets[bucket(nanos)]++;
+  }
+
+  static int bucket(long nanos) {
+    final long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+    final int bucket = 64 - Long.numberOfLeadingZeros(micros);
+    return Math.min(bucket, NUM_BUCKETS - 1);
+  }
+
+  /** upper bound in nanoseconds of the specified bucket */
+  static long upperBound(int bucket) {
+    return TimeUnit.MICROSECONDS.toNanos(1L << bucket);
+  }
+
+  public Class type() {
+    return type;
+  }
+
+  /** estimated cost of syncing a single chunk */
+  public long chunkEstimate(TimeUnit unit) {
+    return unit.convert((long) chunkNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /** number of assets synced */
+  public long count() {
+    return count;
+  }
+
+  public long chunks() {
+    return chunks;
+  }
+
+  public long meanTime(TimeUnit unit) {
+    return count == 0 ? 0 : unit.convert(totalNanos / count, TimeUnit.NANOSECONDS);
+  }
+
+  public long maxTime(TimeUnit unit) {
+    return unit.convert(maxNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Returns an upper bound of the specified percentile of sync times, limited
+   * to the resolution of the histogram buckets.
+   */
+  public long percentile(double percentile, TimeUnit unit) {
+    if (percentile < 0 || percentile > 1) throw new IllegalArgumentException("percentile(" + percentile + ") not in [0,1]");
+    if (count == 0) return 0;
+    final long threshold = (long) Math.ceil(count * percentile);
+    long seen = 0;
+    for (int i = 0; i < NUM_BUCKETS; i++) {
+      seen += buckets[i];
+      if (seen >= threshold) return unit.convert(Math.min(upperBound(i), maxNanos), TimeUnit.NANOSECONDS);
+    }
+
+    return unit.convert(maxNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /** number of assets whose sync time fell within the specified bucket */
+  public long bucketCount(int bucket) {
+    return buckets[bucket];
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "%s: %d synced (%d chunks, ~%dus/chunk), mean %dus, p50 %dus, p99 %dus, max %dus",
+        type.getSimpleName(), count, chunks, chunkEstimate(TimeUnit.MICROSECONDS),
+        meanTime(TimeUnit.MICROSECONDS),
+        percentile(0.50, TimeUnit.MICROSECONDS),
+        percentile(0.99, TimeUnit.MICROSECONDS),
+        maxTime(TimeUnit.MICROSECONDS));
+  }
+}
@@ -106,9 +106,25 @@ public class DccLoader extends AssetLoader<Dcc> {
   @Override
   protected Dcc loadSync0(AssetManager assets, AssetDesc<Dcc> asset, Dcc dcc) {
     log.traceEntry("loadSync0(assets: {}, asset: {}, dcc: {})", assets, asset, dcc);
-    DcParams params = asset.params(DcParams.class);
-    if (params.direction < 0) return dcc;
-    dcc.uploadTextures(params.direction, params.combineFrames);
+    int chunk = 0;
+    do {
+      chunk = loadSyncChunk0(assets, asset, dcc, chunk);
+    } while (chunk != SYNC_DONE);
     return dcc;
   }
+
+  /**
+   * Uploads the textures of a direction one frame per chunk. Both sync paths
+   * finish here.
+   */
+  @Override
+  protected int loadSyncChunk0(AssetManager assets, AssetDesc<Dcc> asset, Dcc dcc, int chunk) {
+    log.traceEntry("loadSyncChunk0(assets: {}, asset: {}, dcc: {}, chunk: {})", assets, asset, dcc, chunk);
+    DcParams params = asset.params(DcParams.class);
+    if (params.direction < 0) return SYNC_DONE;
+    if (chunk == 0) Dcc.checkCombineFrames(params.combineFrames);
+    if (chunk >= dcc.numFrames()) return SYNC_DONE;
+    dcc.uploadTexture(params.direction, chunk);
+    return chunk + 1 < dcc.numFrames() ? chunk + 1 : SYNC_DONE;
+  }
 }
@@ -5,14 +5,69 @@ import java.nio.charset.Charset;
 import java.util.Iterator;
 import org.apache.commons.io.output.ByteArrayOutputStream;
 
+import com.badlogic.gdx.utils.Pool;
+
 import com.riiablo.logger.LogManager;
 import com.riiablo.logger.Logger;
 
 public final class Attributes implements Iterable<StatRef> {
   private static final Logger log = LogManager.getLogger(Attributes.class);
 
-  private static Attributes obtain() {
-    return new Attributes();
+  /**
+   * Pools of each updatable type. Attributes returned via {@link #free} keep
+   * their stat lists, s.t. the lists are only allocated once per pooled
+   * attributes rather than each time an item is created.
+   */
+  private static final Pool<Attributes> LARGE = new AttributesPool(Type.LARGE);
+  private static final Pool<Attributes> STANDARD = new AttributesPool(Type.STANDARD);
+  private static final Pool<Attributes> COMPACT = new AttributesPool(Type.COMPACT);
+
+  private static final class AttributesPool extends Pool<Attributes> {
+    final Type type;
+
+    AttributesPool(Type type) {
+      this.type = type;
+    }
+
+    @Override
+    protected Attributes newObject() {
+      return create(type);
+    }
+  }
+
+  private static Attributes obtain(final Pool<Attributes> pool) {
+    synchronized (pool) {
+      return pool.obtain();
+    }
+  }
+
+  private static Attributes create(final Type type) {
+    final Attributes attributes = new Attributes();
+    attributes.reset(type);
+    switch (type) {
+      case LARGE:
+        attributes.list = new StatList().reset(StatList.MAX_LISTS);
+        attributes.base = new StatList().reset(1).buildList();
+        attributes.agg = new StatList(StatList.MAX_SIZE).reset(1).buildList();
+        attributes.rem = new StatList(StatList.MAX_SIZE).reset(1).buildList();
+        break;
+      case STANDARD:
+        attributes.list = new StatList().reset(StatList.MAX_LISTS);
+        attributes.base = new StatList().reset(1).buildList();
+        attributes.agg = new StatList().reset(1).buildList();
+        attributes.rem = new StatList().reset(1).buildList();
+        break;
+      case COMPACT:
+        attributes.list = new StatList().reset(StatList.MAX_LISTS);
+        attributes.base = new StatList().reset(1).buildList(); // TODO: create rem as list(4)
+        attributes.agg = new StatList().reset(1).buildList(); // TODO: set agg as rem or list(6)
+        attributes.rem = new StatList().reset(1).buildList(); // TODO: create rem as list(5)
+        break;
+      default:
+        throw new IllegalArgumentException("type(" + type + ") cannot be pooled");
+    }
+
+    return attributes;
   }
 
   /**
@@ -22,13 +77,7 @@ public final class Attributes implements Iterable<StatRef> {
    * them.
    */
   public static Attributes obtainLarge() {
-    final Attributes attributes = obtain();
-    attributes.reset(Type.LARGE);
-    attributes.list = new StatList().reset(StatList.MAX_LISTS);
-    attributes.base = new StatList().reset(1).buildList();
-    attributes.agg = new StatList(StatList.MAX_SIZE).reset(1).buildList();
-    attributes.rem = new StatList(StatList.MAX_SIZE).reset(1).buildList();
-    return attributes;
+    return obtain(LARGE);
   }
 
   /**
@@ -37,13 +86,7 @@ public final class Attributes implements Iterable<StatRef> {
    * have relatively few stats aggregated onto them.
    */
   public static Attributes obtainStandard() {
-    final Attributes attributes = obtain();
-    attributes.reset(Type.STANDARD);
-    attributes.list = new StatList().reset(StatList.MAX_LISTS);
-    attributes.base = new StatList().reset(1).buildList();
-    attributes.agg = new StatList().reset(1).buildList();
-    attributes.rem = new StatList().reset(1).buildList();
-    return attributes;
+    return obtain(STANDARD);
   }
 
   /**
@@ -52,13 +95,26 @@ public final class Attributes implements Iterable<StatRef> {
    * have only a couple stats aggregated onto them.
    */
   public static Attributes obtainCompact() {
-    final Attributes attributes = obtain();
-    attributes.reset(Type.COMPACT);
-    attributes.list = new StatList().reset(StatList.MAX_LISTS);
-    attributes.base = new StatList().reset(1).buildList(); // TODO: create rem as list(4)
-    attributes.agg = new StatList().reset(1).buildList(); // TODO: set agg as rem or list(6)
-    attributes.rem = new StatList().reset(1).buildList(); // TODO: create rem as list(5)
-    return attributes;
+    return obtain(COMPACT);
+  }
+
+  /**
+   * Clears the specified attributes and returns it to its pool. The
+   * attributes and any {@link StatListRef} of it must not be used afterwards.
+   */
+  public static void free(final Attributes attributes) {
+    final Pool<Attributes> pool;
+    switch (attributes.type) {
+      case LARGE:    pool = LARGE; break;
+      case STANDARD: pool = STANDARD; break;
+      case COMPACT:  pool = COMPACT; break;
+      default: throw new IllegalArgumentException("attributes(" + attributes + ") cannot be pooled");
+    }
+
+    attributes.clear();
+    synchronized (pool) {
+      pool.free(attributes);
+    }
   }
 
   /**
@@ -29,6 +29,36 @@ public final class AttributesUpdater {
     return UpdateSequence.obtain().reset(this, attrs, listFlags, opBase, charStats);
   }
 
+  /**
+   * Returns an {@link IncrementalUpdate} of the specified attributes tracking
+   * its lists matching {@code listFlags}. Intended for attributes which have
+   * lists frequently added and removed, e.g., the equipped items of a player.
+   */
+  public IncrementalUpdate incremental(
+      final Attributes attrs,
+      final int listFlags,
+      final Attributes opBase,
+      final CharStats.Entry charStats) {
+    return new IncrementalUpdate().reset(this, attrs, listFlags, opBase, charStats);
+  }
+
+  public IncrementalUpdate incremental(final Attributes attrs, final CharStats.Entry charStats) {
+    return incremental(null, attrs, charStats);
+  }
+
+  /**
+   * Resets the specified {@link IncrementalUpdate} s.t. it tracks no lists of
+   * the specified attributes, reusing its sums, or returns a new one if it is
+   * {@code null}.
+   */
+  public IncrementalUpdate incremental(
+      final IncrementalUpdate incremental,
+      final Attributes attrs,
+      final CharStats.Entry charStats) {
+    final IncrementalUpdate update = incremental != null ? incremental : new IncrementalUpdate();
+    return update.reset(this, attrs, StatListFlags.FLAG_NONE, attrs, charStats);
+  }
+
   void add(
       final Attributes attrs,
       final StatListRef stats) {
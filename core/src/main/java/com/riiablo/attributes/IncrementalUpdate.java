@@ -0,0 +1,259 @@
+package com.riiablo.attributes;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ShortArray;
+
+import com.riiablo.codec.excel.CharStats;
+import com.riiablo.logger.LogManager;
+import com.riiablo.logger.Logger;
+
+/**
+ * Tracks the stat lists aggregated onto an attributes, s.t. adding or
+ * removing a single list (e.g., equipping or unequipping an item) only
+ * applies the contributions of that list rather than re-aggregating every
+ * list as an {@link UpdateSequence} does. The result of {@link #apply()} is
+ * identical to applying an update sequence of every tracked list.
+ *
+ * Tracked lists must not be modified while they are tracked, i.e., a list
+ * should be removed, modified, and then added again. {@link #rebuild()} must
+ * be called if the base of the attributes changes.
+ *
+ * Single stats of a list may also be {@link #aggregate aggregated} directly,
+ * e.g., the armor class of equipped items, which is added to the aggregate
+ * regardless of the base.
+ */
+public final class IncrementalUpdate {
+  private static final Logger log = LogManager.getLogger(IncrementalUpdate.class);
+
+  private final Array<StatListRef> tracked = new Array<>(false, 16, StatListRef.class);
+  private final Array<StatListRef> aggregatedLists = new Array<>(false, 16, StatListRef.class);
+  private final ShortArray aggregatedStats = new ShortArray(false, 16);
+  private AttributesUpdater updater;
+  private Attributes attrs;
+  private Attributes opBase;
+  private CharStats.Entry charStats;
+
+  /** sums of the contributions of the tracked lists before ops are applied */
+  private StatListRef agg;
+  private StatListRef rem;
+
+  IncrementalUpdate reset(
+      final AttributesUpdater updater,
+      final Attributes attrs,
+      final int listFlags,
+      final Attributes opBase,
+      final CharStats.Entry charStats) {
+    this.updater = updater;
+    this.attrs = attrs;
+    this.opBase = opBase;
+    this.charStats = charStats;
+    agg = newList(agg, attrs.aggregate());
+    rem = newList(rem, attrs.remaining());
+    tracked.clear();
+    aggregatedLists.clear();
+    aggregatedStats.clear();
+    addAll(attrs, listFlags);
+    return rebuild();
+  }
+
+  private static StatListRef newList(final StatListRef list, final StatListRef like) {
+    final int maxSize = like.parent().maxSize();
+    if (list != null && list.parent().maxSize() == maxSize) return list;
+    return new StatList(maxSize).reset(1).buildList();
+  }
+
+  public Attributes attributes() {
+    return attrs;
+  }
+
+  /** number of lists currently tracked */
+  public int size() {
+    return tracked.size;
+  }
+
+  public boolean contains(final StatListRef stats) {
+    return tracked.contains(stats, true);
+  }
+
+  public IncrementalUpdate add(final StatListRef stats) {
+    if (log.traceEnabled()) log.traceEntry("add(stats: {})", stats);
+    tracked.add(stats);
+    AttributesUpdater.add(attrs.base(), agg, rem, stats);
+    return this;
+  }
+
+  public IncrementalUpdate addAll(final Attributes attrs, final int listFlags) {
+    if (log.traceEnabled()) log.traceEntry("addAll(attrs: {}, listFlags: {})", attrs, listFlags);
+    if (!attrs.type().updatable()) return this;
+    if (!attrs.type().isValid(listFlags)) return this;
+
+    final StatList list = attrs.list();
+    for (int i = 0, s = list.numLists(); i < s; i++) {
+      if (((listFlags >> i) & 1) == 1) {
+        add(list.get(i));
+      }
+    }
+
+    return this;
+  }
+
+  /**
+   * Removes the contributions of the specified list, restoring aggregated
+   * stats to their base value and dropping remaining stats once no other
+   * tracked list contributes to them.
+   *
+   * @throws IllegalArgumentException if the list is not tracked
+   */
+  public IncrementalUpdate remove(final StatListRef stats) {
+    if (log.traceEnabled()) log.traceEntry("remove(stats: {})", stats);
+    if (!tracked.removeValue(stats, true)) {
+      throw new IllegalArgumentException("stats(" + stats + ") is not tracked");
+    }
+
+    for (StatRef stat : stats) {
+      final StatListRef sum = sum(stat);
+      subtract(sum, stat, contributors(stat, sum));
+    }
+
+    return this;
+  }
+
+  public IncrementalUpdate removeAll(final Attributes attrs, final int listFlags) {
+    if (log.traceEnabled()) log.traceEntry("removeAll(attrs: {}, listFlags: {})", attrs, listFlags);
+    if (!attrs.type().updatable()) return this;
+    if (!attrs.type().isValid(listFlags)) return this;
+
+    final StatList list = attrs.list();
+    for (int i = 0, s = list.numLists(); i < s; i++) {
+      if (((listFlags >> i) & 1) == 1) {
+        remove(list.get(i));
+      }
+    }
+
+    return this;
+  }
+
+  /**
+   * Adds the specified stat of the list, if it contains it, directly to the
+   * aggregate rather than aggregating or propagating it by the base. The
+   * list must not be modified while the stat is aggregated.
+   */
+  public IncrementalUpdate aggregate(final StatListRef stats, final short stat) {
+    if (log.traceEnabled()) log.traceEntry("aggregate(stats: {}, stat: {})", stats, stat);
+    aggregatedLists.add(stats);
+    aggregatedStats.add(stat);
+    final StatRef ref = stats.get(stat);
+    if (ref != null) agg.add(ref);
+    return this;
+  }
+
+  /**
+   * Removes a stat which was {@link #aggregate aggregated} directly.
+   *
+   * @throws IllegalArgumentException if the stat of the list is not aggregated
+   */
+  public IncrementalUpdate unaggregate(final StatListRef stats, final short stat) {
+    if (log.traceEnabled()) log.traceEntry("unaggregate(stats: {}, stat: {})", stats, stat);
+    final int i = indexOfAggregated(stats, stat);
+    if (i < 0) {
+      throw new IllegalArgumentException("stat(" + stat + ") of stats(" + stats + ") is not aggregated");
+    }
+
+    aggregatedLists.removeIndex(i);
+    aggregatedStats.removeIndex(i);
+    final StatRef ref = stats.get(stat);
+    if (ref != null) subtract(agg, ref, contributors(ref, agg));
+    return this;
+  }
+
+  private int indexOfAggregated(final StatListRef stats, final short stat) {
+    final StatListRef[] lists = aggregatedLists.items;
+    final short[] stats0 = aggregatedStats.items;
+    for (int i = 0, s = aggregatedLists.size; i < s; i++) {
+      if (lists[i] == stats && stats0[i] == stat) return i;
+    }
+
+    return -1;
+  }
+
+  /** sum the contributions of the specified stat of a tracked list are added to */
+  private StatListRef sum(final StatRef stat) {
+    return stat.entry().op <= 0 && attrs.base().contains(stat) ? agg : rem;
+  }
+
+  /**
+   * Subtracts a contribution of the stat from the sum, restoring aggregated
+   * stats to their base value and dropping stats once there are no other
+   * contributors.
+   */
+  private void subtract(final StatListRef sum, final StatRef stat, final int contributors) {
+    final StatListRef base = attrs.base();
+    final int index = sum.indexOf(stat);
+    assert index >= 0 : "stat(" + stat.debugString() + ") was not aggregated";
+    final boolean inBase = sum == agg && base.contains(stat);
+    if (contributors > 0) {
+      sum.parent().subEncoded(sum.list, index, stat.encodedValues());
+      if (contributors == 1 && !inBase) sum.parent().forceUnmodified(index);
+    } else if (inBase) {
+      sum.parent().set(sum.list, index, base.get(stat));
+    } else {
+      sum.remove(stat);
+    }
+  }
+
+  /** number of tracked lists and aggregated stats contributing the specified stat to the sum */
+  private int contributors(final StatRef stat, final StatListRef sum) {
+    int contributors = 0;
+    if (sum == sum(stat)) {
+      final StatListRef[] tracked = this.tracked.items;
+      for (int i = 0, s = this.tracked.size; i < s; i++) {
+        if (tracked[i].contains(stat)) contributors++;
+      }
+    }
+
+    if (sum == agg) {
+      final StatListRef[] lists = aggregatedLists.items;
+      final short[] stats = aggregatedStats.items;
+      for (int i = 0, s = aggregatedLists.size; i < s; i++) {
+        if (stats[i] == stat.id() && lists[i].contains(stat)) contributors++;
+      }
+    }
+
+    return contributors;
+  }
+
+  /**
+   * Re-aggregates every tracked list, e.g., after the base of the attributes
+   * has changed.
+   */
+  public IncrementalUpdate rebuild() {
+    final StatListRef base = attrs.base();
+    agg.setAll(base);
+    rem.clear();
+    final StatListRef[] tracked = this.tracked.items;
+    for (int i = 0, s = this.tracked.size; i < s; i++) {
+      AttributesUpdater.add(base, agg, rem, tracked[i]);
+    }
+
+    final StatListRef[] lists = aggregatedLists.items;
+    final short[] stats = aggregatedStats.items;
+    for (int i = 0, s = aggregatedLists.size; i < s; i++) {
+      final StatRef stat = lists[i].get(stats[i]);
+      if (stat != null) agg.add(stat);
+    }
+
+    return this;
+  }
+
+  /**
+   * Copies the aggregated contributions of the tracked lists into the
+   * attributes and applies their ops. Unlike {@link UpdateSequence#apply()},
+   * this may be called any number of times.
+   */
+  public Attributes apply() {
+    attrs.aggregate().setAll(agg);
+    attrs.remaining().setAll(rem);
+    updater.apply(attrs, charStats, opBase);
+    return attrs;
+  }
+}
@@ -342,6 +342,24 @@ public final class StatList {
     return index;
   }
 
+  int remove(final int list, final int index) {
+    assert contains(list, index);
+    if (log.traceEnabled()) log.tracefEntry(
+        "remove(index: %d, stat: %d (%s))",
+        index, ids[index], entry(index));
+    assertMutable(list);
+    arraycopy(index + 1, index, tail - index - 1);
+    final byte[] offsets = this.offsets;
+    offsets[index(list) + 1]--;
+    for (int i = index(list + 1), s = index(numLists); i < s; i++) {
+      offsets[i]--;
+    }
+    tail--;
+    assertSorted();
+    if (log.traceEnabled()) log.trace(listDebugString(list));
+    return index;
+  }
+
   int add(final int list, final int index, final int value) {
     return addEncoded(list, index, Stat.encode(ids[index], value));
   }
@@ -209,6 +209,18 @@ public final class StatListRef implements Iterable<StatRef> {
     }
   }
 
+  /**
+   * Removes the entry of the specified stat, if it exists.
+   *
+   * @return whether or not an entry was removed
+   */
+  boolean remove(final StatRef src) {
+    final int index = indexOf(src);
+    if (index < 0) return false;
+    stats.remove(list, index);
+    return true;
+  }
+
   public StatRef subEncoded(final short stat, final int encodedValues) {
     assert containsAny(stat);
     final int index = stats.subEncoded(list, indexOf(stat), encodedValues);
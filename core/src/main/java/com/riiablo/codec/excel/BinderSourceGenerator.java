@@ -0,0 +1,293 @@
+package com.riiablo.codec.excel;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import java.io.File;
+import java.lang.reflect.Field;
+import java.util.Date;
+import javax.annotation.Generated;
+import javax.lang.model.element.Modifier;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.time.DateFormatUtils;
+
+import com.badlogic.gdx.utils.Array;
+
+import com.riiablo.codec.excel.Excel.Entry.Column;
+
+/**
+ * Generates {@link Excel.Binder} implementations for excel entry classes. The
+ * generated binders resolve the column ids of each field once per txt and then
+ * parse each line straight into the typed fields of the entry.
+ *
+ * @see Excel#bindTxt
+ */
+public class BinderSourceGenerator {
+  private static final ClassName BINDER = ClassName.get(Excel.Binder.class);
+  private static final ClassName TXT_PARSER = ClassName.get(TxtParser.class);
+
+  final Array<ColumnInfo> columns = new Array<>(true, 256, ColumnInfo.class);
+
+  String binderPackage;
+
+  ClassName excelName;
+  ClassName entryName;
+  ColumnInfo primaryKey;
+
+  public BinderSourceGenerator() {
+    this(Excel.class.getPackage().getName());
+  }
+
+  BinderSourceGenerator(String binderPackage) {
+    this.binderPackage = binderPackage;
+  }
+
+  static final class ColumnInfo {
+    final Class type;
+    final String name;
+    /** names of the columns, or {@code null} if {@link #columnIndex} is used */
+    final String[] columnNames;
+    final int columnIndex;
+
+    ColumnInfo(Field field) {
+      this.type = field.getType();
+      this.name = field.getName();
+      this.columnNames = Excel.getColumnNames(field);
+      this.columnIndex = field.getAnnotation(Column.class).columnIndex();
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+
+  /**
+   * Generates the binders of the specified excel classes into the specified
+   * source root.
+   *
+   * Usage: {@code BinderSourceGenerator <src> <excel class>...}
+   */
+  public static void main(String[] args) throws Exception {
+    Validate.isTrue(args.length >= 2, "Usage: BinderSourceGenerator <src> <excel class>...");
+    File src = new File(args[0]);
+    BinderSourceGenerator generator = new BinderSourceGenerator();
+    for (int i = 1; i < args.length; i++) {
+      Class excelClass = Class.forName(args[i]);
+      generator.configure(excelClass).generateFile().writeTo(src);
+    }
+  }
+
+  String binderName() {
+    return excelName.simpleName() + BINDER.simpleName();
+  }
+
+  String binderSource() {
+    return entryName.canonicalName();
+  }
+
+  public BinderSourceGenerator configure(Class<? extends Excel> excelClass) {
+    Class<? extends Excel.Entry> entryClass = Excel.getEntryClass(excelClass);
+    Validate.notNull(entryClass, "%s does not declare an entry class", excelClass);
+    return configure(excelClass, entryClass);
+  }
+
+  BinderSourceGenerator configure(Class excelClass, Class<? extends Excel.Entry> entryClass) {
+    excelName = ClassName.get(excelClass);
+    entryName = ClassName.get(entryClass);
+
+    final Field primaryKeyField = Excel.getPrimaryKey(entryClass);
+    primaryKey = null;
+    columns.clear();
+    for (Field field : entryClass.getFields()) {
+      if (field.getAnnotation(Column.class) == null) continue;
+      ColumnInfo column = new ColumnInfo(field);
+      if (field.equals(primaryKeyField)) primaryKey = column;
+      columns.add(column);
+    }
+
+    return this;
+  }
+
+  public JavaFile generateFile() {
+    return generateFile(binderSource());
+  }
+
+  JavaFile generateFile(String comment) {
+    Validate.notNull(excelName, "excelName not configured");
+    Validate.notNull(entryName, "entryName not configured");
+    TypeSpec binderType = generate_Binder()
+        .addAnnotation(createGeneratedAnnotation(comment))
+        .build();
+    return JavaFile
+        .builder(binderPackage, binderType)
+        .skipJavaLangImports(true)
+        .addFileComment("automatically generated by $L, do not modify", BinderSourceGenerator.class.getCanonicalName())
+        .build();
+  }
+
+  AnnotationSpec createGeneratedAnnotation(String comment) {
+    AnnotationSpec.Builder generated = AnnotationSpec
+        .builder(Generated.class)
+        .addMember("value", "$S", BinderSourceGenerator.class.getCanonicalName())
+        .addMember("date", "$S", DateFormatUtils.ISO_8601_EXTENDED_DATETIME_TIME_ZONE_FORMAT.format(new Date()))
+        ;
+    if (StringUtils.isNotBlank(comment)) generated.addMember("comments", "$S", comment);
+    return generated.build();
+  }
+
+  TypeSpec.Builder generate_Binder() {
+    TypeSpec.Builder binder = TypeSpec
+        .classBuilder(binderName())
+        .addSuperinterface(ParameterizedTypeName.get(BINDER, entryName))
+        .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+        ;
+
+    for (ColumnInfo column : columns) {
+      binder.addField(FieldSpec
+          .builder(column.type.isArray() ? int[].class : int.class, column.name, Modifier.PRIVATE)
+          .build());
+    }
+
+    return binder
+        .addMethod(generate_resolve())
+        .addMethod(generate_newEntry())
+        .addMethod(generate_bind())
+        .addMethod(generate_keyType())
+        .addMethod(generate_intKey())
+        .addMethod(generate_stringKey())
+        ;
+  }
+
+  static CodeBlock columnIds(ColumnInfo column, ParameterSpec in) {
+    if (column.columnNames == null) {
+      return column.type.isArray()
+          ? CodeBlock.of("new int[] { $L }", column.columnIndex)
+          : CodeBlock.of("$L", column.columnIndex);
+    }
+
+    CodeBlock.Builder names = CodeBlock.builder();
+    for (int i = 0; i < column.columnNames.length; i++) {
+      if (i > 0) names.add(", ");
+      names.add("$S", column.columnNames[i]);
+    }
+
+    return column.type.isArray()
+        ? CodeBlock.of("$N.getColumnId(new String[] { $L })", in, names.build())
+        : CodeBlock.of("$N.getColumnId($L)", in, names.build());
+  }
+
+  static String getParserMethod(Class type) {
+    if (type == String.class) {
+      return "getString";
+    } else if (type == byte.class) {
+      return "getByte";
+    } else if (type == short.class) {
+      return "getShort";
+    } else if (type == int.class) {
+      return "getInt";
+    } else if (type == long.class) {
+      return "getLong";
+    } else if (type == boolean.class) {
+      return "getBoolean";
+    } else {
+      throw new UnsupportedOperationException("No support for " + type + " fields");
+    }
+  }
+
+  MethodSpec generate_resolve() {
+    ParameterSpec in = ParameterSpec.builder(TXT_PARSER, "in").build();
+    MethodSpec.Builder method = MethodSpec
+        .methodBuilder("resolve")
+        .addAnnotation(Override.class)
+        .addModifiers(Modifier.PUBLIC)
+        .addParameter(in)
+        ;
+
+    for (ColumnInfo column : columns) {
+      method.addStatement("this.$N = $L", column.name, columnIds(column, in));
+    }
+
+    return method.build();
+  }
+
+  MethodSpec generate_newEntry() {
+    return MethodSpec
+        .methodBuilder("newEntry")
+        .addAnnotation(Override.class)
+        .addModifiers(Modifier.PUBLIC)
+        .returns(entryName)
+        .addStatement("return new $T()", entryName)
+        .build();
+  }
+
+  MethodSpec generate_bind() {
+    ParameterSpec entry = ParameterSpec.builder(entryName, "entry").build();
+    ParameterSpec in = ParameterSpec.builder(TXT_PARSER, "in").build();
+    MethodSpec.Builder method = MethodSpec
+        .methodBuilder("bind")
+        .addAnnotation(Override.class)
+        .addModifiers(Modifier.PUBLIC)
+        .addParameter(entry)
+        .addParameter(in)
+        ;
+
+    for (ColumnInfo column : columns) {
+      final Class type = column.type;
+      final String parse = getParserMethod(type.isArray() ? type.getComponentType() : type);
+      method.addStatement("$N.$N = $N.$N(this.$N)", entry, column.name, in, parse, column.name);
+    }
+
+    return method.build();
+  }
+
+  MethodSpec generate_keyType() {
+    MethodSpec.Builder method = MethodSpec
+        .methodBuilder("keyType")
+        .addAnnotation(Override.class)
+        .addModifiers(Modifier.PUBLIC)
+        .returns(Class.class)
+        ;
+    if (primaryKey == null) {
+      method.addStatement("return null");
+    } else {
+      method.addStatement("return $T.class", TypeName.get(primaryKey.type));
+    }
+
+    return method.build();
+  }
+
+  MethodSpec generate_intKey() {
+    return generate_key("intKey", int.class);
+  }
+
+  MethodSpec generate_stringKey() {
+    return generate_key("stringKey", String.class);
+  }
+
+  MethodSpec generate_key(String name, Class type) {
+    ParameterSpec entry = ParameterSpec.builder(entryName, "entry").build();
+    MethodSpec.Builder method = MethodSpec
+        .methodBuilder(name)
+        .addAnnotation(Override.class)
+        .addModifiers(Modifier.PUBLIC)
+        .returns(type)
+        .addParameter(entry)
+        ;
+    if (primaryKey != null && primaryKey.type == type) {
+      method.addStatement("return $N.$N", entry, primaryKey.name);
+    } else {
+      method.addStatement("throw new $T()", UnsupportedOperationException.class);
+    }
+
+    return method.build();
+  }
+}
@@ -44,6 +44,7 @@ public abstract class Excel<T extends Excel.Entry> implements Iterable<T> {
 
   private static final boolean FORCE_PRIMARY_KEY = false;
   private static final boolean FORCE_TXT = !true;
+  private static final boolean FORCE_REFLECTION = !true;
 
   private static final ObjectSet EMPTY_SET = new ObjectSet<>();
   private static final ObjectIntMap EMPTY_MAP = new ObjectIntMap<>();
@@ -88,6 +89,28 @@ public abstract class Excel<T extends Excel.Entry> implements Iterable<T> {
     public @interface Key {}
   }
 
+  /**
+   * Parses the columns of a txt directly into the fields of an entry, without
+   * reflection. Binders are generated by {@link BinderSourceGenerator} and are
+   * named after the excel they bind, e.g., {@code MonStatsBinder}.
+   */
+  public interface Binder<E extends Entry> {
+    /** resolves the column ids of each field of {@code E} within {@code in} */
+    void resolve(TxtParser in);
+
+    E newEntry();
+
+    /** parses the current line of {@code in} into {@code entry} */
+    void bind(E entry, TxtParser in);
+
+    /** type of the primary key, or {@code null} if the entries are indexed */
+    Class keyType();
+
+    int intKey(E entry);
+
+    String stringKey(E entry);
+  }
+
   ObjectIntMap<String> STRING_TO_ID = EMPTY_MAP;
   IntMap<T> entries = new IntMap<>();
   Array<Entry> orderedEntries = new Array<>(Entry.class);
@@ -145,102 +168,63 @@ public abstract class Excel<T extends Excel.Entry> implements Iterable<T> {
   }
 
   private static <T extends Excel> T loadTxt(TxtParser in, Class<T> excelClass, Class<Entry> entryClass, ObjectSet<String> ignore) throws Exception {
+    Binder<Entry> binder = getBinder(excelClass);
+    if (binder != null) {
+      if (DEBUG_TYPE) Gdx.app.debug(TAG, "Binding txt with " + binder.getClass().getSimpleName());
+      return bindTxt(in, excelClass, binder, ignore);
+    }
+
+    return reflectTxt(in, excelClass, entryClass, ignore);
+  }
+
+  /**
+   * Loads the txt using a {@link Binder} which sets the fields of each entry
+   * directly instead of through reflection.
+   */
+  @SuppressWarnings("unchecked")
+  static <T extends Excel, E extends Entry> T bindTxt(TxtParser in, Class<T> excelClass, Binder<E> binder, ObjectSet<String> ignore) throws Exception {
+    T excel = excelClass.newInstance();
+    binder.resolve(in);
+    final Class primaryKeyType = binder.keyType();
+    for (int j = excel.offset(); in.nextLine() != null;) {
+      String rowName = in.getString(0);
+      if (ignore.contains(rowName)) {
+        if (DEBUG_IGNORED) Gdx.app.debug(TAG, "Skipping row " + in.getIndex() + ", ignoring rows named " + rowName);
+        continue;
+      }
+
+      E entry = binder.newEntry();
+      binder.bind(entry, in);
+      if (preserveOrder) excel.orderedEntries.add(entry);
+      if (primaryKeyType == int.class) {
+        excel.put(binder.intKey(entry), entry);
+      } else if (primaryKeyType == String.class) {
+        putString(binder.stringKey(entry), j, excel, entry);
+      } else {
+        excel.put(j, entry);
+      }
+
+      j++;
+    }
+
+    return excel;
+  }
+
+  static <T extends Excel> T reflectTxt(TxtParser in, Class<T> excelClass, Class<Entry> entryClass, ObjectSet<String> ignore) throws Exception {
     final boolean index = ClassUtils.hasAnnotation(entryClass, Index.class);
 
-    Field primaryKey = null, firstKey = null;
+    Field primaryKey = getPrimaryKey(entryClass);
     T excel = excelClass.newInstance();
     ObjectMap<Field, int[]> columns = new ObjectMap<>();
-    String[] TMP = new String[1];
     for (Field field : entryClass.getFields()) {
       Entry.Column column = field.getAnnotation(Entry.Column.class);
       if (column == null) continue;
 
-      Entry.Key key = field.getAnnotation(Entry.Key.class);
-      if (key != null) {
-        if (index) {
-          Gdx.app.error(TAG, "primary key set in class annotated with " + Index.class);
-        } else if (primaryKey != null) {
-          boolean primaryDeclared = ClassUtils.isDeclaredField(entryClass, primaryKey);
-          boolean fieldDeclared = ClassUtils.isDeclaredField(entryClass, field);
-          if (primaryDeclared != fieldDeclared) {
-            if (fieldDeclared) {
-              if (DEBUG_KEY) Gdx.app.debug(TAG, "primary key " + primaryKey.getName() + " -> " + field.getName());
-              primaryKey = field;
-            }
-          } else {
-            Gdx.app.error(TAG, "more than one primary key for " + entryClass + " " + primaryKey.getName() + " and " + field.getName());
-          }
-        } else {
-          primaryKey = field;
-        }
-      }
-
-      if (firstKey == null) firstKey = field;
-
-      final String format      = column.format();
-      final String values[]    = column.values();
-      final int    startIndex  = column.startIndex();
-      final int    endIndex    = column.endIndex();
-      final int    columnIndex = column.columnIndex();
+      final int columnIndex = column.columnIndex();
       if (columnIndex >= 0) {
         columns.put(field, new int[] { columnIndex });
-      } else if (format.isEmpty()) {
-        final String fieldName = field.getName();
-        if (values.length > 0) {
-          String[] columnNames = new String[values.length];
-          for (int i = 0; i < values.length; i++) {
-            String name = values[i];
-            if (DEBUG_COLS) Gdx.app.debug(TAG, name);
-            columnNames[i] = name;
-          }
-
-          columns.put(field, in.getColumnId(columnNames));
-        } else if (startIndex == 0 && endIndex == 0) {
-          if (DEBUG_COLS) Gdx.app.debug(TAG, fieldName);
-          TMP[0] = fieldName;
-          columns.put(field, in.getColumnId(TMP));
-        } else {
-          String[] columnNames = new String[endIndex - startIndex];
-          for (int i = startIndex, j = 0; i < endIndex; i++, j++) {
-            String name = fieldName + i;
-            if (DEBUG_COLS) Gdx.app.debug(TAG, name);
-            columnNames[j] = name;
-          }
-
-          columns.put(field, in.getColumnId(columnNames));
-        }
       } else {
-        if (startIndex == 0 && endIndex == 0) {
-          TMP[0] = format;
-          columns.put(field, in.getColumnId(TMP));
-        } else {
-          // TODO: support custom replacement with field name %z or something
-          String[] columnNames = new String[endIndex - startIndex];
-          if (values.length == 0) {
-            for (int i = startIndex, j = 0; i < endIndex; i++, j++) {
-              String name = String.format(format, i);
-              if (DEBUG_COLS) Gdx.app.debug(TAG, name);
-              columnNames[j] = name;
-            }
-          } else {
-            for (int i = 0; i < values.length; i++) {
-              String name = String.format(format, values[i]);
-              if (DEBUG_COLS) Gdx.app.debug(TAG, name);
-              columnNames[i] = name;
-            }
-          }
-
-          columns.put(field, in.getColumnId(columnNames));
-        }
-      }
-    }
-
-    if (primaryKey == null && !index) {
-      if (FORCE_PRIMARY_KEY) {
-        throw new IllegalStateException(entryClass + " does not have a " + Entry.Key.class + " set!");
-      } else {
-        primaryKey = firstKey;
-        Gdx.app.error(TAG, entryClass + " does not have a " + Entry.Key.class + " set! Using " + firstKey.getName());
+        columns.put(field, in.getColumnId(getColumnNames(field)));
       }
     }
 
@@ -327,6 +311,134 @@ public abstract class Excel<T extends Excel.Entry> implements Iterable<T> {
     return excel;
   }
 
+  /**
+   * Returns the field annotated with {@link Entry.Key}, preferring fields
+   * declared by {@code entryClass} over inherited ones, or the first column if
+   * none is set. Returns {@code null} if {@code entryClass} is annotated with
+   * {@link Index}.
+   */
+  static Field getPrimaryKey(Class<? extends Entry> entryClass) {
+    final boolean index = ClassUtils.hasAnnotation(entryClass, Index.class);
+
+    Field primaryKey = null, firstKey = null;
+    for (Field field : entryClass.getFields()) {
+      Entry.Column column = field.getAnnotation(Entry.Column.class);
+      if (column == null) continue;
+
+      Entry.Key key = field.getAnnotation(Entry.Key.class);
+      if (key != null) {
+        if (index) {
+          Gdx.app.error(TAG, "primary key set in class annotated with " + Index.class);
+        } else if (primaryKey != null) {
+          boolean primaryDeclared = ClassUtils.isDeclaredField(entryClass, primaryKey);
+          boolean fieldDeclared = ClassUtils.isDeclaredField(entryClass, field);
+          if (primaryDeclared != fieldDeclared) {
+            if (fieldDeclared) {
+              if (DEBUG_KEY) Gdx.app.debug(TAG, "primary key " + primaryKey.getName() + " -> " + field.getName());
+              primaryKey = field;
+            }
+          } else {
+            Gdx.app.error(TAG, "more than one primary key for " + entryClass + " " + primaryKey.getName() + " and " + field.getName());
+          }
+        } else {
+          primaryKey = field;
+        }
+      }
+
+      if (firstKey == null) firstKey = field;
+    }
+
+    if (primaryKey == null && !index) {
+      if (FORCE_PRIMARY_KEY) {
+        throw new IllegalStateException(entryClass + " does not have a " + Entry.Key.class + " set!");
+      } else {
+        primaryKey = firstKey;
+        Gdx.app.error(TAG, entryClass + " does not have a " + Entry.Key.class + " set! Using " + firstKey.getName());
+      }
+    }
+
+    return primaryKey;
+  }
+
+  /**
+   * Returns the names of the columns read into {@code field}, or {@code null}
+   * if the column is referenced by {@link Entry.Column#columnIndex()}.
+   */
+  static String[] getColumnNames(Field field) {
+    final Entry.Column column = field.getAnnotation(Entry.Column.class);
+    final String format      = column.format();
+    final String values[]    = column.values();
+    final int    startIndex  = column.startIndex();
+    final int    endIndex    = column.endIndex();
+    final int    columnIndex = column.columnIndex();
+    if (columnIndex >= 0) {
+      return null;
+    } else if (format.isEmpty()) {
+      final String fieldName = field.getName();
+      if (values.length > 0) {
+        String[] columnNames = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+          String name = values[i];
+          if (DEBUG_COLS) Gdx.app.debug(TAG, name);
+          columnNames[i] = name;
+        }
+
+        return columnNames;
+      } else if (startIndex == 0 && endIndex == 0) {
+        if (DEBUG_COLS) Gdx.app.debug(TAG, fieldName);
+        return new String[] { fieldName };
+      } else {
+        String[] columnNames = new String[endIndex - startIndex];
+        for (int i = startIndex, j = 0; i < endIndex; i++, j++) {
+          String name = fieldName + i;
+          if (DEBUG_COLS) Gdx.app.debug(TAG, name);
+          columnNames[j] = name;
+        }
+
+        return columnNames;
+      }
+    } else {
+      if (startIndex == 0 && endIndex == 0) {
+        return new String[] { format };
+      } else {
+        // TODO: support custom replacement with field name %z or something
+        String[] columnNames = new String[endIndex - startIndex];
+        if (values.length == 0) {
+          for (int i = startIndex, j = 0; i < endIndex; i++, j++) {
+            String name = String.format(format, i);
+            if (DEBUG_COLS) Gdx.app.debug(TAG, name);
+            columnNames[j] = name;
+          }
+        } else {
+          for (int i = 0; i < values.length; i++) {
+            String name = String.format(format, values[i]);
+            if (DEBUG_COLS) Gdx.app.debug(TAG, name);
+            columnNames[i] = name;
+          }
+        }
+
+        return columnNames;
+      }
+    }
+  }
+
+  /**
+   * Returns a new instance of the generated {@link Binder} of the specified
+   * excel class, or {@code null} if one has not been generated.
+   */
+  @SuppressWarnings("unchecked")
+  static <E extends Entry> Binder<E> getBinder(Class excelClass) throws Exception {
+    if (FORCE_REFLECTION) return null;
+    final Class binderClass;
+    try {
+      binderClass = Class.forName(excelClass.getName() + "Binder");
+    } catch (ClassNotFoundException t) {
+      return null;
+    }
+
+    return (Binder<E>) binderClass.newInstance();
+  }
+
   @SuppressWarnings("unchecked")
   private static <T extends Excel> T loadBin(FileHandle bin, Class<T> excelClass, Class<Entry> entryClass) throws Exception {
     final boolean index = ClassUtils.hasAnnotation(entryClass, Index.class);
@@ -378,13 +490,18 @@ public abstract class Excel<T extends Excel.Entry> implements Iterable<T> {
       excel.put(id, entry);
     } else if (primaryKeyType == String.class) {
       String id = (String) primaryKey.get(entry);
-      excel.put(j, entry);
-
-      if (excel.STRING_TO_ID == EMPTY_MAP) excel.STRING_TO_ID = new ObjectIntMap<>();
-      if (!excel.STRING_TO_ID.containsKey(id)) excel.STRING_TO_ID.put(id, j);
+      putString(id, j, excel, entry);
     }
   }
 
+  @SuppressWarnings("unchecked")
+  private static <T extends Excel> void putString(String id, int j, T excel, Entry entry) {
+    excel.put(j, entry);
+
+    if (excel.STRING_TO_ID == EMPTY_MAP) excel.STRING_TO_ID = new ObjectIntMap<>();
+    if (!excel.STRING_TO_ID.containsKey(id)) excel.STRING_TO_ID.put(id, j);
+  }
+
   static boolean isBinned(Class c) {
     return ClassUtils.hasAnnotation(c, Binned.class);
   }
@@ -426,7 +543,7 @@ public abstract class Excel<T extends Excel.Entry> implements Iterable<T> {
   }
 
   @SuppressWarnings("unchecked")
-  private static Class<Entry> getEntryClass(Class excelClass) {
+  static Class<Entry> getEntryClass(Class excelClass) {
     Class[] declaredClasses = excelClass.getDeclaredClasses();
     for (Class declaredClass : declaredClasses) {
       if (Entry.class.isAssignableFrom(declaredClass)) {
@@ -0,0 +1,187 @@
+package com.riiablo.codec.excel;
+
+import java.util.Comparator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * Loads excel tables concurrently on a bounded pool of threads. Tables with
+ * no dependencies are loaded as soon as a thread is available, s.t. reading
+ * the tables from the mpqs overlaps with parsing other tables, and tasks
+ * which depend on other tables (e.g., {@link Sets#index(SetItems)}) are run
+ * once all of their dependencies have been loaded. With a single thread,
+ * tasks are run serially in the order they were submitted.
+ *
+ * Usage:
+ * <pre>
+ * ExcelLoader loader = new ExcelLoader(threads);
+ * Task&lt;Sets&gt; sets = loader.load("Sets", () -&gt; Excel.load(...));
+ * Task&lt;SetItems&gt; setItems = loader.load("SetItems", () -&gt; Excel.load(...));
+ * loader.run("Sets.index", () -&gt; sets.get().index(setItems.get()), sets, setItems);
+ * loader.await();
+ * </pre>
+ */
+public class ExcelLoader implements Disposable {
+  private final ExecutorService executor;
+  private final Array<Task<?>> tasks = new Array<>(64);
+  private final long start = System.nanoTime();
+  private long end;
+
+  public ExcelLoader(int threads) {
+    final AtomicInteger threadId = new AtomicInteger();
+    executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+      @Override
+      public Thread newThread(Runnable r) {
+        Thread thread = new Thread(r, "ExcelLoader-" + threadId.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+  }
+
+  /** returns a reasonable number of threads to load excels with */
+  public static int defaultThreads() {
+    return Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), 8));
+  }
+
+  /**
+   * Submits a task loading a table once all of the specified dependencies
+   * have been loaded.
+   */
+  public <T> Task<T> load(String name, Callable<T> loader, Task<?>... dependencies) {
+    final Task<T> task = new Task<>(name);
+    final CompletableFuture<Void> dependencyFutures = dependencies.length == 0
+        ? CompletableFuture.<Void>completedFuture(null)
+        : CompletableFuture.allOf(futures(dependencies));
+    task.future = dependencyFutures.thenApplyAsync(ignored -> task.call(loader), executor);
+    tasks.add(task);
+    return task;
+  }
+
+  /**
+   * Submits a task which runs once all of the specified dependencies have
+   * been loaded, e.g., to index one table using another.
+   */
+  public Task<Void> run(String name, Runnable runnable, Task<?>... dependencies) {
+    return load(name, () -> {
+      runnable.run();
+      return null;
+    }, dependencies);
+  }
+
+  private static CompletableFuture<?>[] futures(Task<?>[] tasks) {
+    final CompletableFuture<?>[] futures = new CompletableFuture<?>[tasks.length];
+    for (int i = 0; i < tasks.length; i++) futures[i] = tasks[i].future;
+    return futures;
+  }
+
+  /**
+   * Waits for all submitted tasks to complete and shuts down the pool.
+   *
+   * @throws RuntimeException the first failure of any submitted task
+   */
+  public void await() {
+    try {
+      for (Task<?> task : tasks) task.get();
+    } finally {
+      end = System.nanoTime();
+      dispose();
+    }
+  }
+
+  @Override
+  public void dispose() {
+    executor.shutdownNow();
+  }
+
+  public Array<Task<?>> tasks() {
+    return tasks;
+  }
+
+  /** milliseconds between creating this loader and all tasks completing */
+  public long elapsedMillis() {
+    return (end - start) / 1000000;
+  }
+
+  /** summary of the time spent by each task, slowest first */
+  public String report() {
+    final Array<Task<?>> tasks = new Array<>(this.tasks);
+    tasks.sort(new Comparator<Task<?>>() {
+      @Override
+      public int compare(Task<?> a, Task<?> b) {
+        return Long.compare(b.nanos(), a.nanos());
+      }
+    });
+
+    long total = 0;
+    final StringBuilder builder = new StringBuilder(tasks.size * 48);
+    for (Task<?> task : tasks) {
+      total += task.nanos();
+      builder
+          .append(String.format("%n  %-20s %6.1fms %s", task.name, task.nanos() / 1e6, task.thread));
+    }
+
+    return String.format("%d tables in %dms (%.1fms serial)", tasks.size, elapsedMillis(), total / 1e6)
+        + builder;
+  }
+
+  public static final class Task<T> {
+    final String name;
+    CompletableFuture<T> future;
+    String thread;
+    long startNanos;
+    long endNanos;
+
+    Task(String name) {
+      this.name = name;
+    }
+
+    T call(Callable<T> loader) {
+      thread = Thread.currentThread().getName();
+      startNanos = System.nanoTime();
+      try {
+        return loader.call();
+      } catch (RuntimeException t) {
+        throw t;
+      } catch (Exception t) {
+        throw new GdxRuntimeException("Couldn't load " + name, t);
+      } finally {
+        endNanos = System.nanoTime();
+      }
+    }
+
+    public String name() {
+      return name;
+    }
+
+    /** nanoseconds spent running this task, excluding waiting on dependencies */
+    public long nanos() {
+      return endNanos - startNanos;
+    }
+
+    /**
+     * Waits for this task to complete and returns its result.
+     *
+     * @throws RuntimeException if this task or any of its dependencies failed
+     */
+    public T get() {
+      try {
+        return future.join();
+      } catch (CompletionException t) {
+        final Throwable cause = t.getCause();
+        if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+        if (cause instanceof Error) throw (Error) cause;
+        throw t;
+      }
+    }
+  }
+}
@@ -1,12 +1,14 @@
 package com.riiablo.engine.client;
 
 import com.google.flatbuffers.ByteBufferUtil;
+import com.google.flatbuffers.FlatBufferBuilder;
 import com.google.flatbuffers.Table;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.Arrays;
 
 import com.artemis.ComponentMapper;
@@ -18,6 +20,7 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.net.Socket;
 import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.utils.IntIntMap;
 
 import com.riiablo.Riiablo;
 import com.riiablo.codec.excel.MonStats;
@@ -65,11 +68,14 @@ import com.riiablo.net.packet.d2gs.ItemP;
 import com.riiablo.net.packet.d2gs.MonsterP;
 import com.riiablo.net.packet.d2gs.Ping;
 import com.riiablo.net.packet.d2gs.PlayerP;
+import com.riiablo.net.packet.d2gs.PositionDeltaP;
 import com.riiablo.net.packet.d2gs.PositionP;
 import com.riiablo.net.packet.d2gs.StoreToCursor;
 import com.riiablo.net.packet.d2gs.SwapBeltItem;
 import com.riiablo.net.packet.d2gs.SwapBodyItem;
 import com.riiablo.net.packet.d2gs.SwapStoreItem;
+import com.riiablo.net.packet.d2gs.SyncAck;
+import com.riiablo.net.packet.d2gs.VelocityDeltaP;
 import com.riiablo.net.packet.d2gs.VelocityP;
 import com.riiablo.net.packet.d2gs.WarpP;
 import com.riiablo.save.CharData;
@@ -118,6 +124,13 @@ public class ClientNetworkReceiver extends IntervalSystem {
   private final ByteBuffer buffer = ByteBuffer.allocate(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
   private final EntitySync sync = new EntitySync();
 
+  private final IntIntMap syncTicks = new IntIntMap(); // server entity id -> tick last synced
+  private final SyncBaselines baselines = new SyncBaselines();
+  private final FlatBufferBuilder ackBuilder = new FlatBufferBuilder(32);
+  private int syncTick;
+  private int ackedTick;
+  private boolean resync;
+
   public ClientNetworkReceiver() {
     super(null, 1 / 60f);
   }
@@ -141,12 +154,30 @@ public class ClientNetworkReceiver extends IntervalSystem {
 //          System.out.println(buffer.position() + "->" + (buffer.position() + size + 4));
           buffer.position(buffer.position() + size + 4); // advance position passed current packet + size prefix of next packet
         }
+
+        if (syncTick != ackedTick || resync) acknowledge();
       }
     } catch (Throwable t) {
       Gdx.app.error(TAG, t.getMessage(), t);
     }
   }
 
+  private void acknowledge() {
+    FlatBufferBuilder builder = ackBuilder;
+    builder.clear();
+    int dataOffset = SyncAck.createSyncAck(builder, syncTick, resync);
+    int root = D2GS.createD2GS(builder, D2GSData.SyncAck, dataOffset);
+    D2GS.finishSizePrefixedD2GSBuffer(builder, root);
+    try {
+      WritableByteChannel channelOut = Channels.newChannel(socket.getOutputStream());
+      channelOut.write(builder.dataBuffer());
+      ackedTick = syncTick;
+      resync = false;
+    } catch (Throwable t) {
+      Gdx.app.error(TAG, t.getMessage(), t);
+    }
+  }
+
   private void process(D2GS packet) {
     switch (packet.dataType()) {
       case D2GSData.Connection:
@@ -343,8 +374,13 @@ public class ClientNetworkReceiver extends IntervalSystem {
   }
 
   private void Synchronize(EntitySync entityData) {
-    int entityId = syncIds.get(entityData.entityId());
+    int serverId = entityData.entityId();
+    int entityId = syncIds.get(serverId);
+    int tick = entityData.tick();
+    if (tick > syncTick) syncTick = tick;
     if ((entityData.flags() & EntityFlags.deleted) == EntityFlags.deleted) {
+      syncTicks.remove(serverId, 0);
+      baselines.remove(serverId);
       if (entityId != Engine.INVALID_ENTITY) {
         world.delete(entityId);
       }
@@ -352,6 +388,15 @@ public class ClientNetworkReceiver extends IntervalSystem {
       return;
     }
 
+    // deltas are only valid if applied to the last sync received
+    int baseline = entityData.baseline();
+    if (baseline != 0 && (entityId == Engine.INVALID_ENTITY || syncTicks.get(serverId, 0) != baseline)) {
+      if (DEBUG_SYNC) Gdx.app.debug(TAG, "missing baseline " + baseline + " of " + serverId + ", requesting resync");
+      resync = true;
+      return;
+    }
+
+    if (tick != 0) syncTicks.put(serverId, tick);
     if (entityId == Engine.INVALID_ENTITY) {
       syncIds.put(entityData.entityId(), entityId = createEntity(entityData));
     }
@@ -390,25 +435,37 @@ public class ClientNetworkReceiver extends IntervalSystem {
           break;
         }
         case ComponentP.PositionP: {
-          Vector2 position = mPosition.get(entityId).position;
           PositionP data = (PositionP) entityData.component(new PositionP(), i);
-          position.x = data.x();
-          position.y = data.y();
-          if (mBox2DBody.has(entityId)) {
-            Body body = mBox2DBody.get(entityId).body;
-            if (body != null) body.setTransform(position, body.getAngle());
-          }
+          setPosition(entityId, baselines.position(serverId, data));
           //Gdx.app.log(TAG, "  " + position);
           break;
         }
+        case ComponentP.PositionDeltaP: {
+          PositionDeltaP data = (PositionDeltaP) entityData.component(new PositionDeltaP(), i);
+          Vector2 position = baselines.position(serverId, data);
+          if (position == null) {
+            resync = true;
+            break;
+          }
+          setPosition(entityId, position);
+          break;
+        }
         case ComponentP.VelocityP: {
-          Vector2 velocity = mVelocity.get(entityId).velocity;
           VelocityP data = (VelocityP) entityData.component(new VelocityP(), i);
-          velocity.x = data.x();
-          velocity.y = data.y();
+          mVelocity.get(entityId).velocity.set(baselines.velocity(serverId, data));
           //Gdx.app.log(TAG, "  " + velocity);
           break;
         }
+        case ComponentP.VelocityDeltaP: {
+          VelocityDeltaP data = (VelocityDeltaP) entityData.component(new VelocityDeltaP(), i);
+          Vector2 velocity = baselines.velocity(serverId, data);
+          if (velocity == null) {
+            resync = true;
+            break;
+          }
+          mVelocity.get(entityId).velocity.set(velocity);
+          break;
+        }
         case ComponentP.AngleP: {
           Vector2 angle = mAngle.get(entityId).target;
           AngleP data = (AngleP) entityData.component(new AngleP(), i);
@@ -426,6 +483,16 @@ public class ClientNetworkReceiver extends IntervalSystem {
     cofs.updateAlpha(entityId, aFlags);
   }
 
+  /** sets the position and body of the entity to the position last received, discarding local simulation */
+  private void setPosition(int entityId, Vector2 received) {
+    Vector2 position = mPosition.get(entityId).position;
+    position.set(received);
+    if (mBox2DBody.has(entityId)) {
+      Body body = mBox2DBody.get(entityId).body;
+      if (body != null) body.setTransform(position, body.getAngle());
+    }
+  }
+
   private void GroundToCursor(D2GS packet) {
     GroundToCursor groundToCursor = (GroundToCursor) packet.data(new GroundToCursor());
     int entityId = syncIds.get(groundToCursor.itemId());
@@ -0,0 +1,69 @@
+package com.riiablo.engine.client;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.IntMap;
+import com.riiablo.net.packet.d2gs.PositionDeltaP;
+import com.riiablo.net.packet.d2gs.PositionP;
+import com.riiablo.net.packet.d2gs.VelocityDeltaP;
+import com.riiablo.net.packet.d2gs.VelocityP;
+
+/**
+ * Positions and velocities of synced entities as last received, keyed by
+ * server entity id. Quantized deltas are applied to these rather than to the
+ * components, which the client simulates in between syncs, s.t. they
+ * reconstruct the same values as the baselines on the server.
+ *
+ * @see com.riiablo.engine.server.SerializationManager#serialize(com.google.flatbuffers.FlatBufferBuilder, int, int, com.riiablo.engine.server.Baseline)
+ */
+public class SyncBaselines {
+  /** must match {@code SerializationManager.QUANTIZE} */
+  static final float QUANTIZE = 256;
+
+  final IntMap<Vector2> positions = new IntMap<>();
+  final IntMap<Vector2> velocities = new IntMap<>();
+
+  /** @return the baseline position, which the position component should be set to */
+  public Vector2 position(int serverId, PositionP data) {
+    return set(positions, serverId, data.x(), data.y());
+  }
+
+  /** @return the baseline position, or {@code null} if there is no baseline to apply the delta to */
+  public Vector2 position(int serverId, PositionDeltaP data) {
+    return add(positions, serverId, data.dx(), data.dy());
+  }
+
+  /** @return the baseline velocity, which the velocity component should be set to */
+  public Vector2 velocity(int serverId, VelocityP data) {
+    return set(velocities, serverId, data.x(), data.y());
+  }
+
+  /** @return the baseline velocity, or {@code null} if there is no baseline to apply the delta to */
+  public Vector2 velocity(int serverId, VelocityDeltaP data) {
+    return add(velocities, serverId, data.dx(), data.dy());
+  }
+
+  public void remove(int serverId) {
+    positions.remove(serverId);
+    velocities.remove(serverId);
+  }
+
+  public void clear() {
+    positions.clear();
+    velocities.clear();
+  }
+
+  static Vector2 set(IntMap<Vector2> baselines, int serverId, float x, float y) {
+    Vector2 baseline = baselines.get(serverId);
+    if (baseline == null) baselines.put(serverId, baseline = new Vector2());
+    return baseline.set(x, y);
+  }
+
+  static Vector2 add(IntMap<Vector2> baselines, int serverId, short dx, short dy) {
+    Vector2 baseline = baselines.get(serverId);
+    if (baseline == null) return null;
+    // same operations as SerializationManager.quantize
+    baseline.x += dx / QUANTIZE;
+    baseline.y += dy / QUANTIZE;
+    return baseline;
+  }
+}
@@ -0,0 +1,82 @@
+package com.riiablo.engine.client;
+
+import com.artemis.BaseSystem;
+import com.artemis.ComponentMapper;
+import com.artemis.annotations.Wire;
+import com.badlogic.gdx.math.Vector2;
+import com.riiablo.Riiablo;
+import com.riiablo.asset.AssetManager;
+import com.riiablo.asset.adapter.MpqFileHandleAdapter;
+import com.riiablo.asset.loader.CofLoader;
+import com.riiablo.asset.loader.Dc6Loader;
+import com.riiablo.asset.loader.DccLoader;
+import com.riiablo.asset.param.DcParams;
+import com.riiablo.engine.server.component.Position;
+import com.riiablo.engine.server.event.ZoneChangeEvent;
+import com.riiablo.file.Cof;
+import com.riiablo.file.Dc;
+import com.riiablo.file.Dc6;
+import com.riiablo.file.Dcc;
+import com.riiablo.map.Map;
+import com.riiablo.map.ZonePrefetcher;
+import com.riiablo.mpq_bytebuf.MpqFileHandle;
+import com.riiablo.mpq_bytebuf.MpqFileResolver;
+
+import net.mostlyoriginal.api.event.common.Subscribe;
+
+public class ZonePrefetchHandler extends BaseSystem {
+  /** milliseconds of each frame spent syncing prefetched assets */
+  static final long SYNC_BUDGET_MILLIS = 2;
+
+  protected ComponentMapper<Position> mPosition;
+
+  @Wire(name = "map")
+  protected Map map;
+
+  private AssetManager assets;
+  private ZonePrefetcher prefetcher;
+  private Vector2 watched;
+
+  @Subscribe
+  public void onZoneChanged(ZoneChangeEvent event) {
+    if (event.entityId != Riiablo.game.player) return;
+    Vector2 position = mPosition.get(event.entityId).position;
+    if (position != watched) {
+      if (watched != null) prefetcher.unwatch(watched);
+      prefetcher.watch(watched = position);
+    }
+
+    if (event.zone != null) prefetcher.entered(event.zone);
+  }
+
+  @Override
+  protected void initialize() {
+    assets = new AssetManager()
+        .resolver(new MpqFileResolver())
+        .paramResolver(Dc.class, DcParams.class)
+        .adapter(MpqFileHandle.class, new MpqFileHandleAdapter())
+        .loader(Cof.class, new CofLoader())
+        .loader(Dcc.class, new DccLoader())
+        .loader(Dc6.class, new Dc6Loader())
+        ;
+    prefetcher = new ZonePrefetcher(map, assets);
+  }
+
+  @Override
+  protected void processSystem() {
+    prefetcher.update(world.delta);
+    assets.syncAwait(SYNC_BUDGET_MILLIS);
+  }
+
+  /** releases all prefetched assets, must be called before the zones of the map are disposed */
+  public void clear() {
+    prefetcher.clear();
+    watched = null;
+  }
+
+  @Override
+  protected void dispose() {
+    prefetcher.dispose();
+    assets.dispose();
+  }
+}
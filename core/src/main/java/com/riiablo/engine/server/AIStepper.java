@@ -4,14 +4,60 @@ import com.artemis.ComponentMapper;
 import com.artemis.annotations.All;
 import com.artemis.annotations.Wire;
 import com.artemis.systems.IteratingSystem;
+
+import com.badlogic.gdx.math.Vector2;
+
 import com.riiablo.engine.server.component.AIWrapper;
+import com.riiablo.engine.server.component.Class;
 import com.riiablo.engine.server.component.Monster;
 import com.riiablo.engine.server.component.Position;
 import com.riiablo.map.RenderSystem;
 
+/**
+ * Steps the AI of monsters at a level of detail based on the distance to the
+ * nearest player. AI near a player is updated every tick, AI at mid-range is
+ * updated every {@link #REDUCED_INTERVAL} ticks with the time elapsed since
+ * its last update, and AI beyond {@link #REDUCED_RANGE} of every player is
+ * dormant, i.e., does not update and does not accumulate time until a player
+ * comes near again. Reduced updates are staggered by entity id, s.t. a
+ * similar number of them are processed each tick.
+ */
 @Wire(failOnNull = false)
 @All({AIWrapper.class, Position.class, Monster.class})
 public class AIStepper extends IteratingSystem {
+  /** sub-tiles from the nearest player within which AI is updated every tick */
+  public static final float ACTIVE_RANGE = 48;
+
+  /** sub-tiles from the nearest player beyond which AI is dormant */
+  public static final float REDUCED_RANGE = 96;
+
+  /** ticks between updates of AI between {@link #ACTIVE_RANGE} and {@link #REDUCED_RANGE} */
+  public static final int REDUCED_INTERVAL = 4;
+
+  static final int ACTIVE  = 0;
+  static final int REDUCED = 1;
+  static final int DORMANT = 2;
+
+  static final int PLAYERS = ProximityManager.mask(Class.Type.PLR);
+
+  public static class Metrics {
+    /** entities within {@link #ACTIVE_RANGE} of a player this tick */
+    public int active;
+    /** entities between {@link #ACTIVE_RANGE} and {@link #REDUCED_RANGE} of a player this tick */
+    public int reduced;
+    /** entities beyond {@link #REDUCED_RANGE} of every player this tick */
+    public int dormant;
+    /** entities whose ai was updated this tick */
+    public int updated;
+
+    public void reset() {
+      active = 0;
+      reduced = 0;
+      dormant = 0;
+      updated = 0;
+    }
+  }
+
   protected ComponentMapper<AIWrapper> mAIWrapper;
 //  protected ComponentMapper<Monster> mMonster;
   protected ComponentMapper<Position> mPosition;
@@ -20,6 +66,10 @@ public class AIStepper extends IteratingSystem {
 //  protected ComponentMapper<Size> mSize;
 
   protected RenderSystem renderer;
+  protected ProximityManager proximity;
+
+  final Metrics metrics = new Metrics();
+  int tick;
 
 // NOTE: Handled by EntityFactory
 //  @Override
@@ -34,9 +84,49 @@ public class AIStepper extends IteratingSystem {
 //    }
 //  }
 
+  @Override
+  protected void begin() {
+    tick++;
+    metrics.reset();
+  }
+
   @Override
   protected void process(int entityId) {
-    if (renderer != null && !renderer.withinRadius(mPosition.get(entityId).position)) return;
-    mAIWrapper.get(entityId).ai.update(world.delta);
+    Vector2 position = mPosition.get(entityId).position;
+    AIWrapper aiWrapper = mAIWrapper.get(entityId);
+    switch (levelOfDetail(position)) {
+      case ACTIVE:
+        metrics.active++;
+        update(aiWrapper, aiWrapper.elapsed + world.delta);
+        break;
+      case REDUCED:
+        metrics.reduced++;
+        aiWrapper.elapsed += world.delta;
+        if ((entityId + tick) % REDUCED_INTERVAL == 0) update(aiWrapper, aiWrapper.elapsed);
+        break;
+      case DORMANT:
+        metrics.dormant++;
+        aiWrapper.elapsed = 0;
+        break;
+    }
+  }
+
+  void update(AIWrapper aiWrapper, float delta) {
+    metrics.updated++;
+    aiWrapper.elapsed = 0;
+    aiWrapper.ai.update(delta);
+  }
+
+  int levelOfDetail(Vector2 position) {
+    if (renderer != null && !renderer.withinRadius(position)) return DORMANT;
+    if (proximity == null) return ACTIVE;
+    int player = proximity.nearest(position, REDUCED_RANGE, PLAYERS, SpatialIndex.NONE);
+    if (player == SpatialIndex.NONE) return DORMANT;
+    return position.dst2(mPosition.get(player).position) <= ACTIVE_RANGE * ACTIVE_RANGE ? ACTIVE : REDUCED;
+  }
+
+  /** counts of entities by level of detail this tick */
+  public Metrics metrics() {
+    return metrics;
   }
 }
@@ -0,0 +1,19 @@
+package com.riiablo.engine.server;
+
+import com.artemis.ComponentMapper;
+import com.artemis.annotations.All;
+import com.riiablo.attributes.Attributes;
+import com.riiablo.engine.EntitySystemAdapter;
+import com.riiablo.engine.server.component.AttributesWrapper;
+
+@All(AttributesWrapper.class)
+public class AttributesDisposer extends EntitySystemAdapter {
+  protected ComponentMapper<AttributesWrapper> mAttributesWrapper;
+
+  @Override
+  protected void removed(int entityId) {
+    if (!mAttributesWrapper.has(entityId)) return;
+    AttributesWrapper wrapper = mAttributesWrapper.get(entityId);
+    if (wrapper.pooled && wrapper.attrs != null) Attributes.free(wrapper.attrs);
+  }
+}
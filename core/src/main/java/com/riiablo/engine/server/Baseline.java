@@ -0,0 +1,53 @@
+package com.riiablo.engine.server;
+
+import com.badlogic.gdx.utils.Pool;
+
+import com.riiablo.net.packet.d2gs.ComponentP;
+
+/**
+ * State of the components of an entity as last sent to a client, which syncs
+ * of the entity are delta encoded against.
+ *
+ * @see SerializationManager#serialize(com.google.flatbuffers.FlatBufferBuilder, int, int, Baseline)
+ */
+public final class Baseline implements Pool.Poolable {
+  /** tick the entity was last sent at, or {@code 0} if it was never sent */
+  public int tick;
+
+  /** bitmask of {@link ComponentP} types sent */
+  int present;
+
+  /**
+   * {@link com.riiablo.engine.server.component.serializer.FlatBuffersSerializer#state state}
+   * of each {@link ComponentP} type sent. Quantized components hold the value
+   * the client reconstructed rather than the value of the component.
+   */
+  final long[] states = new long[ComponentP.names.length];
+
+  public boolean isEmpty() {
+    return tick == 0;
+  }
+
+  public Baseline set(Baseline other) {
+    tick = other.tick;
+    present = other.present;
+    System.arraycopy(other.states, 0, states, 0, states.length);
+    return this;
+  }
+
+  /** whether or not a delta against this baseline is also valid for the other */
+  public boolean sameAs(Baseline other) {
+    if (tick != other.tick || present != other.present) return false;
+    for (int type = 0; type < states.length; type++) {
+      if ((present & (1 << type)) != 0 && states[type] != other.states[type]) return false;
+    }
+
+    return true;
+  }
+
+  @Override
+  public void reset() {
+    tick = 0;
+    present = 0;
+  }
+}
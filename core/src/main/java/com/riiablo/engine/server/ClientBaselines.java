@@ -0,0 +1,100 @@
+package com.riiablo.engine.server;
+
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * {@link Baseline Baselines} of the entities sent to a single client.
+ *
+ * Baselines are optimistic, i.e., a sync is assumed to be received once
+ * sent. The client acknowledges the last tick it received and requests a
+ * resync if it receives a delta of a sync it did not receive. Both a resync
+ * and a sync which is not acknowledged within {@link #ACK_TIMEOUT} ticks
+ * discard all baselines of the client, s.t. the next syncs are full.
+ */
+public class ClientBaselines {
+  /** ticks a sync may remain unacknowledged before assuming it was lost */
+  public static final int ACK_TIMEOUT = 60;
+
+  final IntMap<Baseline> baselines = new IntMap<>();
+  final Pool<Baseline> pool;
+
+  int sentTick; // last tick anything was sent
+  int ackedTick; // last tick acknowledged
+  int unackedTick; // first tick sent which may not have been acknowledged, 0 if none
+  long resyncs;
+
+  public ClientBaselines(Pool<Baseline> pool) {
+    this.pool = pool;
+  }
+
+  /** returns the baseline of the specified entity, creating an empty one if needed */
+  public Baseline get(int entityId) {
+    Baseline baseline = baselines.get(entityId);
+    if (baseline == null) baselines.put(entityId, baseline = pool.obtain());
+    return baseline;
+  }
+
+  /** discards the baseline of the specified entity, s.t. its next sync is full */
+  public void remove(int entityId) {
+    Baseline baseline = baselines.remove(entityId);
+    if (baseline != null) pool.free(baseline);
+  }
+
+  /** records that a sync was sent at the specified tick */
+  public void sent(int tick) {
+    sentTick = tick;
+    if (unackedTick == 0) unackedTick = tick;
+  }
+
+  /**
+   * Records an acknowledgement from the client.
+   *
+   * @param tick   last tick received by the client
+   * @param resync whether or not the client is missing a baseline
+   */
+  public void ack(int tick, boolean resync) {
+    if (resync) {
+      reset();
+      return;
+    }
+
+    if (tick <= ackedTick) return;
+    ackedTick = tick;
+    unackedTick = tick >= sentTick ? 0 : tick + 1;
+  }
+
+  /**
+   * Checks whether any sync was not acknowledged in time, in which case all
+   * baselines are discarded.
+   *
+   * @return whether or not the baselines were discarded
+   */
+  public boolean update(int tick) {
+    if (unackedTick == 0 || tick - unackedTick <= ACK_TIMEOUT) return false;
+    reset();
+    return true;
+  }
+
+  /** discards all baselines, s.t. the next syncs are full */
+  public void reset() {
+    resyncs++;
+    clear();
+  }
+
+  /** discards all baselines, e.g., when the client disconnects */
+  public void clear() {
+    for (Baseline baseline : baselines.values()) pool.free(baseline);
+    baselines.clear();
+    unackedTick = 0;
+  }
+
+  /** number of times all baselines were discarded */
+  public long resyncs() {
+    return resyncs;
+  }
+
+  public int size() {
+    return baselines.size;
+  }
+}
@@ -0,0 +1,171 @@
+package com.riiablo.engine.server;
+
+import com.google.flatbuffers.FlatBufferBuilder;
+import java.nio.ByteBuffer;
+
+import com.badlogic.gdx.utils.Pool;
+
+import com.riiablo.net.FlatBufferBuilderArena;
+import com.riiablo.net.packet.d2gs.D2GS;
+import com.riiablo.net.packet.d2gs.D2GSData;
+
+/**
+ * Encodes entity syncs for a set of clients as deltas of the
+ * {@link ClientBaselines baselines} of each client. Clients with the same
+ * baseline of an entity share a single sync, and entities which did not
+ * change since the baseline of a client are not sent to it at all.
+ *
+ * If an {@link FlatBufferBuilderArena arena} is given, syncs are encoded
+ * using its builders, s.t. buffers passed to the {@link Sink} remain valid
+ * only until the owner of the arena resets it.
+ */
+public class EntitySyncEncoder {
+  public interface Sink {
+    /**
+     * Called with each sync encoded.
+     *
+     * @param clients bitmask of the clients to send the sync to
+     * @param buffer  size prefixed {@link D2GS} packet
+     */
+    void send(int clients, ByteBuffer buffer);
+  }
+
+  final SerializationManager serializer;
+  final FlatBufferBuilderArena builders;
+  final ClientBaselines[] clients;
+  final Pool<Baseline> pool = new Pool<Baseline>() {
+    @Override
+    protected Baseline newObject() {
+      return new Baseline();
+    }
+  };
+
+  int tick;
+
+  long full;
+  long deltas;
+  long unchanged;
+
+  public EntitySyncEncoder(SerializationManager serializer, int maxClients) {
+    this(serializer, maxClients, null);
+  }
+
+  public EntitySyncEncoder(SerializationManager serializer, int maxClients, FlatBufferBuilderArena builders) {
+    this.serializer = serializer;
+    this.builders = builders;
+    clients = new ClientBaselines[maxClients];
+    for (int i = 0; i < maxClients; i++) clients[i] = new ClientBaselines(pool);
+  }
+
+  /**
+   * Starts a new tick, discarding the baselines of clients which did not
+   * acknowledge their syncs in time.
+   *
+   * @return the tick
+   */
+  public int begin() {
+    tick++;
+    for (ClientBaselines client : clients) client.update(tick);
+    return tick;
+  }
+
+  public int tick() {
+    return tick;
+  }
+
+  /** encodes the entity for the specified bitmask of clients */
+  public void sync(int entityId, int mask, Sink sink) {
+    for (int remaining = mask; remaining != 0; ) {
+      final int first = Integer.numberOfTrailingZeros(remaining);
+      final Baseline baseline = clients[first].get(entityId);
+      int group = 1 << first;
+      for (int others = remaining & ~group; others != 0; others &= others - 1) {
+        final int client = Integer.numberOfTrailingZeros(others);
+        if (clients[client].get(entityId).sameAs(baseline)) group |= 1 << client;
+      }
+
+      remaining &= ~group;
+      if (!serializer.changed(entityId, baseline)) {
+        unchanged += Integer.bitCount(group);
+        continue;
+      }
+
+      if (baseline.isEmpty()) {
+        full++;
+      } else {
+        deltas++;
+      }
+
+      FlatBufferBuilder builder = obtainBuilder();
+      int syncOffset = serializer.serialize(builder, entityId, tick, baseline);
+      finish(builder, syncOffset);
+      for (int clients = group; clients != 0; clients &= clients - 1) {
+        final int client = Integer.numberOfTrailingZeros(clients);
+        if (client != first) this.clients[client].get(entityId).set(baseline);
+        this.clients[client].sent(tick);
+      }
+
+      sink.send(group, builder.dataBuffer());
+    }
+  }
+
+  /**
+   * Encodes a full sync of the entity for the specified bitmask of clients
+   * without updating their baselines, e.g., when it was deleted.
+   */
+  public void full(int entityId, int mask, Sink sink) {
+    full++;
+    FlatBufferBuilder builder = obtainBuilder();
+    int syncOffset = serializer.serialize(builder, entityId, tick, null);
+    finish(builder, syncOffset);
+    sink.send(mask, builder.dataBuffer());
+  }
+
+  FlatBufferBuilder obtainBuilder() {
+    return builders != null ? builders.obtain() : new FlatBufferBuilder(0);
+  }
+
+  static void finish(FlatBufferBuilder builder, int syncOffset) {
+    int root = D2GS.createD2GS(builder, D2GSData.EntitySync, syncOffset);
+    D2GS.finishSizePrefixedD2GSBuffer(builder, root);
+  }
+
+  /** @see ClientBaselines#ack(int, boolean) */
+  public void ack(int client, int tick, boolean resync) {
+    clients[client].ack(tick, resync);
+  }
+
+  /** discards the baseline of the entity for the client, s.t. its next sync is full */
+  public void remove(int client, int entityId) {
+    clients[client].remove(entityId);
+  }
+
+  /** discards the baselines of the entity for all clients */
+  public void remove(int entityId) {
+    for (ClientBaselines client : clients) client.remove(entityId);
+  }
+
+  /** discards all baselines of the client, e.g., when it disconnects */
+  public void clear(int client) {
+    clients[client].clear();
+  }
+
+  public ClientBaselines baselines(int client) {
+    return clients[client];
+  }
+
+  /** number of syncs encoded without a baseline */
+  public long full() {
+    return full;
+  }
+
+  /** number of syncs encoded as a delta of a baseline */
+  public long deltas() {
+    return deltas;
+  }
+
+  /** number of syncs skipped because an entity did not change for a client */
+  public long unchanged() {
+    return unchanged;
+  }
+}
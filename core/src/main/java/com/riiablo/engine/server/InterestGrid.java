@@ -0,0 +1,218 @@
+package com.riiablo.engine.server;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * Area of interest management for networked entities. Each tick entities are
+ * bucketed into a uniform grid by their position, and every viewer (i.e.,
+ * client) queries the cells within its view range to determine which
+ * entities it can see. The result is a bitmask of viewers per entity, which
+ * can be used directly as the id of an outbound packet.
+ *
+ * Entities enter the view of a viewer once within {@link #enterRange} and
+ * leave once beyond {@link #leaveRange}, s.t. entities at the edge of the
+ * view do not flicker in and out each tick.
+ *
+ * Usage:
+ * <pre>
+ * grid.begin();
+ * for each entity: grid.put(entityId, x, y) or grid.putGlobal(entityId)
+ * for each viewer: grid.view(viewer, x, y)
+ * grid.end(listener);
+ * for each entity: send to grid.mask(entityId)
+ * </pre>
+ */
+public class InterestGrid {
+  public static final int MAX_VIEWERS = Integer.SIZE;
+
+  public interface Listener {
+    /** called when the specified entity becomes visible to the viewer */
+    void onEnter(int viewer, int entityId);
+
+    /** called when the specified entity is no longer visible to the viewer */
+    void onLeave(int viewer, int entityId);
+  }
+
+  final float cellSize;
+  final float enterRange;
+  final float leaveRange;
+  final float enterRange2;
+  final float leaveRange2;
+
+  final LongMap<IntArray> cells = new LongMap<>();
+  final IntArray globals = new IntArray();
+  final IntArray entities = new IntArray(); // put this tick
+  final IntArray visible = new IntArray(); // visible to any viewer last tick
+  float[] x = new float[256];
+  float[] y = new float[256];
+  int[] mask = new int[256]; // viewers which see the entity this tick
+  int[] prevMask = new int[256]; // viewers which saw the entity last tick
+  int viewers; // bitmask of viewers this tick
+  final int[] numVisible = new int[MAX_VIEWERS];
+
+  public InterestGrid(float cellSize, float enterRange, float leaveRange) {
+    if (enterRange > leaveRange) {
+      throw new IllegalArgumentException(
+          "enterRange(" + enterRange + ") > leaveRange(" + leaveRange + ")");
+    }
+
+    this.cellSize = cellSize;
+    this.enterRange = enterRange;
+    this.leaveRange = leaveRange;
+    this.enterRange2 = enterRange * enterRange;
+    this.leaveRange2 = leaveRange * leaveRange;
+  }
+
+  static long key(int cellX, int cellY) {
+    return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+  }
+
+  int cell(float value) {
+    return (int) Math.floor(value / cellSize);
+  }
+
+  void ensureCapacity(int entityId) {
+    if (entityId < mask.length) return;
+    final int length = Math.max(entityId + 1, mask.length << 1);
+    x = Arrays.copyOf(x, length);
+    y = Arrays.copyOf(y, length);
+    mask = Arrays.copyOf(mask, length);
+    prevMask = Arrays.copyOf(prevMask, length);
+  }
+
+  /** starts a new tick, clearing the entities and viewers of the last tick */
+  public void begin() {
+    for (IntArray cell : cells.values()) cell.clear();
+    final int[] entities = this.entities.items;
+    for (int i = 0, s = this.entities.size; i < s; i++) mask[entities[i]] = 0;
+    final int[] globals = this.globals.items;
+    for (int i = 0, s = this.globals.size; i < s; i++) mask[globals[i]] = 0;
+    this.entities.clear();
+    this.globals.clear();
+    viewers = 0;
+    Arrays.fill(numVisible, 0);
+  }
+
+  /** adds an entity at the specified position */
+  public void put(int entityId, float x, float y) {
+    ensureCapacity(entityId);
+    this.x[entityId] = x;
+    this.y[entityId] = y;
+    entities.add(entityId);
+    final long key = key(cell(x), cell(y));
+    IntArray cell = cells.get(key);
+    if (cell == null) cells.put(key, cell = new IntArray());
+    cell.add(entityId);
+  }
+
+  /** adds an entity without a position, which is visible to every viewer */
+  public void putGlobal(int entityId) {
+    ensureCapacity(entityId);
+    globals.add(entityId);
+  }
+
+  /**
+   * Adds a viewer at the specified position, marking all entities within
+   * range as visible to it.
+   */
+  public void view(int viewer, float x, float y) {
+    final int flag = 1 << viewer;
+    viewers |= flag;
+    final int x0 = cell(x - leaveRange), x1 = cell(x + leaveRange);
+    final int y0 = cell(y - leaveRange), y1 = cell(y + leaveRange);
+    for (int cy = y0; cy <= y1; cy++) {
+      for (int cx = x0; cx <= x1; cx++) {
+        final IntArray cell = cells.get(key(cx, cy));
+        if (cell == null) continue;
+        final int[] entities = cell.items;
+        for (int i = 0, s = cell.size; i < s; i++) {
+          final int entityId = entities[i];
+          final float dx = this.x[entityId] - x, dy = this.y[entityId] - y;
+          final float range2 = (prevMask[entityId] & flag) == flag ? leaveRange2 : enterRange2;
+          if (dx * dx + dy * dy <= range2) mask[entityId] |= flag;
+        }
+      }
+    }
+  }
+
+  /**
+   * Ends the tick, notifying the listener of each entity which entered or
+   * left the view of a viewer since the last tick. Entities which were not
+   * added this tick leave the view of all viewers which could see them.
+   */
+  public void end(Listener listener) {
+    final int[] globals = this.globals.items;
+    for (int i = 0, s = this.globals.size; i < s; i++) mask[globals[i]] = viewers;
+
+    final int[] visible = this.visible.items;
+    for (int i = 0, s = this.visible.size; i < s; i++) {
+      final int entityId = visible[i];
+      final int left = prevMask[entityId] & ~mask[entityId];
+      if (left != 0) notify(listener, entityId, left, false);
+      prevMask[entityId] &= mask[entityId];
+    }
+    this.visible.clear();
+
+    update(listener, this.entities);
+    update(listener, this.globals);
+  }
+
+  void update(Listener listener, IntArray entities) {
+    final int[] items = entities.items;
+    for (int i = 0, s = entities.size; i < s; i++) {
+      final int entityId = items[i];
+      final int mask = this.mask[entityId];
+      if (mask == 0) continue;
+      final int entered = mask & ~prevMask[entityId];
+      if (entered != 0) notify(listener, entityId, entered, true);
+      prevMask[entityId] = mask;
+      visible.add(entityId);
+      for (int viewers = mask; viewers != 0; viewers &= viewers - 1) {
+        numVisible[Integer.numberOfTrailingZeros(viewers)]++;
+      }
+    }
+  }
+
+  static void notify(Listener listener, int entityId, int viewers, boolean enter) {
+    for (; viewers != 0; viewers &= viewers - 1) {
+      final int viewer = Integer.numberOfTrailingZeros(viewers);
+      if (enter) {
+        listener.onEnter(viewer, entityId);
+      } else {
+        listener.onLeave(viewer, entityId);
+      }
+    }
+  }
+
+  /** bitmask of viewers which can see the specified entity this tick */
+  public int mask(int entityId) {
+    return entityId < mask.length ? mask[entityId] : 0;
+  }
+
+  /**
+   * Removes the specified entity from the view of all viewers without
+   * notifying the listener, e.g., when it is deleted.
+   *
+   * @return bitmask of viewers which could see the entity
+   */
+  public int remove(int entityId) {
+    if (entityId >= mask.length) return 0;
+    final int mask = prevMask[entityId] | this.mask[entityId];
+    prevMask[entityId] = 0;
+    this.mask[entityId] = 0;
+    return mask;
+  }
+
+  /** number of entities visible to the specified viewer this tick */
+  public int numVisible(int viewer) {
+    return numVisible[viewer];
+  }
+
+  /** number of entities added this tick */
+  public int size() {
+    return entities.size + globals.size;
+  }
+}
@@ -8,6 +8,7 @@ import com.badlogic.gdx.ai.utils.Collision;
 import com.badlogic.gdx.ai.utils.Ray;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.Pools;
 import com.riiablo.engine.server.component.Angle;
 import com.riiablo.engine.server.component.Pathfind;
@@ -18,8 +19,10 @@ import com.riiablo.engine.server.component.Velocity;
 import com.riiablo.map.DT1;
 import com.riiablo.map.Map;
 import com.riiablo.map.pfa.GraphPath;
+import com.riiablo.map.pfa.PathRequestQueue;
 
 import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
 
 @All({Pathfind.class, Position.class, Velocity.class})
 public class Pathfinder extends IteratingSystem {
@@ -37,6 +40,51 @@ public class Pathfinder extends IteratingSystem {
   private final Ray<Vector2> ray = new Ray<>(new Vector2(), new Vector2());
   private final Collision<Vector2> collision = new Collision<>(new Vector2(), new Vector2());
 
+  /** number of threads solving requested paths */
+  protected final int numWorkers;
+  /** time per tick spent delivering requested paths */
+  public long deliveryBudgetMicros = 1000;
+  protected PathRequestQueue requests;
+
+  private final PathRequestQueue.Listener deliver = new PathRequestQueue.Listener() {
+    @Override
+    public void onPath(int entityId, IntArray cells) {
+      deliver(entityId, cells);
+    }
+  };
+
+  public Pathfinder() {
+    this(1);
+  }
+
+  public Pathfinder(int numWorkers) {
+    this.numWorkers = numWorkers;
+  }
+
+  @Override
+  protected void initialize() {
+    requests = new PathRequestQueue(map, numWorkers);
+  }
+
+  @Override
+  protected void begin() {
+    requests.deliver(deliver, deliveryBudgetMicros, TimeUnit.MICROSECONDS);
+  }
+
+  @Override
+  protected void dispose() {
+    requests.dispose();
+  }
+
+  @Override
+  protected void removed(int entityId) {
+    requests.cancel(entityId);
+  }
+
+  public PathRequestQueue requests() {
+    return requests;
+  }
+
   @Override
   protected void process(int entityId) {
     Vector2 position0 = mPosition.get(entityId).position;
@@ -87,7 +135,42 @@ public class Pathfinder extends IteratingSystem {
     return findPath(src, target, false);
   }
 
+  /**
+   * Requests a path to the specified target which is solved asynchronously
+   * and set on a later tick, replacing any path requested before. The
+   * current path, if any, is followed until then. Intended for decisions
+   * which can tolerate a delay, e.g., monsters wandering or approaching.
+   * Targets too far away to be solved asynchronously are solved immediately
+   * instead, see {@link PathRequestQueue#fits}.
+   *
+   * @param target target position, or {@code null} to stop immediately
+   */
+  public void requestPath(int src, Vector2 target) {
+    if (target == null) {
+      findPath(src, null);
+      return;
+    }
+
+    Vector2 position = mPosition.get(src).position;
+    boolean requested = requests.request(src,
+        Map.round(position.x), Map.round(position.y),
+        Map.round(target.x), Map.round(target.y),
+        DT1.Tile.FLAG_BLOCK_WALK, mSize.get(src).size);
+    if (!requested) findPath(src, target);
+  }
+
+  protected void deliver(int src, IntArray cells) {
+    if (cells == null || !mPosition.has(src)) return;
+    int flags = DT1.Tile.FLAG_BLOCK_WALK;
+    int size = mSize.get(src).size;
+    GraphPath path = Pools.obtain(GraphPath.class);
+    map.toNodePath(cells, path);
+    map.smoothPath(flags, size, path);
+    mPathfind.create(src).set(path);
+  }
+
   public boolean findPath(int src, Vector2 target, boolean raycast) {
+    requests.cancel(src);
     if (target == null) {
       mPathfind.remove(src);
       mVelocity.get(src).velocity.setZero();
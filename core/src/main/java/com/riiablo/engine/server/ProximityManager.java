@@ -0,0 +1,77 @@
+package com.riiablo.engine.server;
+
+import com.artemis.BaseEntitySystem;
+import com.artemis.ComponentMapper;
+import com.artemis.annotations.All;
+import com.artemis.utils.IntBag;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.IntArray;
+
+import com.riiablo.engine.server.component.Class;
+import com.riiablo.engine.server.component.Position;
+
+/**
+ * Maintains a {@link SpatialIndex} of the positions of all classed entities,
+ * rebuilt once per tick, which AI and other systems can query for nearby
+ * entities of given {@link Class.Type types} instead of iterating over every
+ * candidate. Must be processed before the systems querying it.
+ */
+@All({Class.class, Position.class})
+public class ProximityManager extends BaseEntitySystem {
+  /** sub-tiles */
+  static final float CELL_SIZE = 8;
+
+  protected ComponentMapper<Class> mClass;
+  protected ComponentMapper<Position> mPosition;
+
+  final SpatialIndex index = new SpatialIndex(CELL_SIZE);
+
+  /** returns the bitmask of the specified types used to filter queries */
+  public static int mask(Class.Type type) {
+    return 1 << type.ordinal();
+  }
+
+  /** returns the bitmask of the specified types used to filter queries */
+  public static int mask(Class.Type... types) {
+    int mask = 0;
+    for (Class.Type type : types) mask |= mask(type);
+    return mask;
+  }
+
+  @Override
+  protected void removed(int entityId) {
+    index.remove(entityId);
+  }
+
+  @Override
+  protected void processSystem() {
+    index.clear();
+    IntBag entities = subscription.getEntities();
+    int[] entityIds = entities.getData();
+    for (int i = 0, s = entities.size(); i < s; i++) {
+      int entityId = entityIds[i];
+      Vector2 position = mPosition.get(entityId).position;
+      index.put(entityId, position.x, position.y, mask(mClass.get(entityId).type));
+    }
+  }
+
+  /** @see SpatialIndex#range(float, float, float, int, int, IntArray) */
+  public int range(Vector2 position, float radius, int types, int exclude, IntArray out) {
+    return index.range(position.x, position.y, radius, types, exclude, out);
+  }
+
+  /** @see SpatialIndex#nearest(float, float, float, int, int) */
+  public int nearest(Vector2 position, float radius, int types, int exclude) {
+    return index.nearest(position.x, position.y, radius, types, exclude);
+  }
+
+  /** @see SpatialIndex#nearest(float, float, float, int, int, int, IntArray) */
+  public int nearest(Vector2 position, float radius, int k, int types, int exclude, IntArray out) {
+    return index.nearest(position.x, position.y, radius, k, types, exclude, out);
+  }
+
+  public SpatialIndex index() {
+    return index;
+  }
+}
@@ -6,6 +6,7 @@ import com.artemis.Component;
 import com.artemis.ComponentManager;
 import com.artemis.ComponentMapper;
 import com.artemis.utils.Bag;
+import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.ByteArray;
 import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.ObjectMap;
@@ -41,6 +42,8 @@ import com.riiablo.net.packet.d2gs.ComponentP;
 import com.riiablo.net.packet.d2gs.D2GS;
 import com.riiablo.net.packet.d2gs.EntityFlags;
 import com.riiablo.net.packet.d2gs.EntitySync;
+import com.riiablo.net.packet.d2gs.PositionDeltaP;
+import com.riiablo.net.packet.d2gs.VelocityDeltaP;
 
 import net.mostlyoriginal.api.system.core.PassiveSystem;
 
@@ -52,6 +55,9 @@ public class SerializationManager extends PassiveSystem {
   private static final boolean DEBUG_DESERIALIZE = DEBUG && true;
 
   private static final int INITIAL_SIZE = 64;
+
+  /** quanta per sub-tile of position and velocity deltas */
+  static final float QUANTIZE = 256;
   public final Bag<Component> components = new Bag<>(INITIAL_SIZE);
   public final ByteArray dataType = new ByteArray(INITIAL_SIZE);
   public final IntArray data = new IntArray(INITIAL_SIZE);
@@ -59,6 +65,8 @@ public class SerializationManager extends PassiveSystem {
   private ObjectMap<Class<? extends Component>, FlatBuffersSerializer> serializers;
   private Class<? extends Component>[] deserializers;
   private final EntitySync sync = new EntitySync();
+  private final PositionDeltaP positionDelta = new PositionDeltaP();
+  private final VelocityDeltaP velocityDelta = new VelocityDeltaP();
 
   protected ComponentMapper<Flags> mFlags;
 
@@ -121,8 +129,24 @@ public class SerializationManager extends PassiveSystem {
     cm[ComponentP.ItemP] = null;
   }
 
-  @SuppressWarnings("unchecked")
   public int serialize(FlatBufferBuilder builder, int entityId) {
+    return serialize(builder, entityId, 0, null);
+  }
+
+  /**
+   * Serializes the entity as a delta of the specified baseline, including
+   * only those components which changed since, and updates the baseline to
+   * the state sent. Position and velocity are sent as quantized deltas when
+   * possible. An empty baseline results in a full sync.
+   *
+   * @param tick     tick the sync is sent at, s.t. it can be acknowledged
+   * @param baseline baseline to delta encode against, or {@code null} for a
+   *                 full sync
+   *
+   * @see #changed(int, Baseline)
+   */
+  @SuppressWarnings("unchecked")
+  public int serialize(FlatBufferBuilder builder, int entityId, int tick, Baseline baseline) {
     dataType.clear();
     data.clear();
     components.clear();
@@ -133,15 +157,57 @@ public class SerializationManager extends PassiveSystem {
     if ((flags & EntityFlags.deleted) == EntityFlags.deleted) {
       int dataTypeOffset = EntitySync.createComponentTypeVector(builder, ArrayUtils.EMPTY_BYTE_ARRAY);
       int dataOffset = EntitySync.createComponentVector(builder, ArrayUtils.EMPTY_INT_ARRAY);
-      return EntitySync.createEntitySync(builder, entityId, type, flags, dataTypeOffset, dataOffset);
+      if (baseline != null) baseline.reset();
+      return EntitySync.createEntitySync(builder, entityId, type, flags, dataTypeOffset, dataOffset, tick, 0);
     }
 
+    final int baselineTick = baseline != null ? baseline.tick : 0;
+    final boolean delta = baselineTick != 0;
+    if (baseline != null && !delta) baseline.present = 0;
     componentManager.getComponentsFor(entityId, components);
     for (Component c : components) {
       FlatBuffersSerializer serializer = serializers.get(c.getClass());
       if (serializer == null) continue;
-      dataType.add(serializer.getDataType());
+      byte componentType = serializer.getDataType();
+      int bit = 1 << componentType;
+      if (delta && (baseline.present & bit) != 0) {
+        long state = baseline.states[componentType];
+        switch (componentType) {
+          case ComponentP.PositionP: {
+            Vector2 position = ((Position) c).position;
+            int offset = putDelta(builder, ComponentP.PositionDeltaP, position, state);
+            if (offset == 0) continue;
+            if (offset > 0) {
+              dataType.add(ComponentP.PositionDeltaP);
+              data.add(offset);
+              baseline.states[componentType] = quantized;
+              continue;
+            }
+            break;
+          }
+          case ComponentP.VelocityP: {
+            Vector2 velocity = ((Velocity) c).velocity;
+            int offset = putDelta(builder, ComponentP.VelocityDeltaP, velocity, state);
+            if (offset == 0) continue;
+            if (offset > 0) {
+              dataType.add(ComponentP.VelocityDeltaP);
+              data.add(offset);
+              baseline.states[componentType] = quantized;
+              continue;
+            }
+            break;
+          }
+          default:
+            if (serializer.state(c) == state) continue;
+        }
+      }
+
+      dataType.add(componentType);
       data.add(serializer.putData(builder, c));
+      if (baseline != null) {
+        baseline.present |= bit;
+        baseline.states[componentType] = serializer.state(c);
+      }
     }
 
     assert dataType.size == data.size;
@@ -158,7 +224,82 @@ public class SerializationManager extends PassiveSystem {
     for (int i = 0; i < dataSize; i++) builder.addOffset(data[i]);
     int dataOffset = builder.endVector();
 
-    return EntitySync.createEntitySync(builder, entityId, type, flags, dataTypeOffset, dataOffset);
+    if (baseline != null) baseline.tick = tick;
+    return EntitySync.createEntitySync(builder, entityId, type, flags, dataTypeOffset, dataOffset, tick, baselineTick);
+  }
+
+  /** state of the last value put by {@link #putDelta} */
+  private long quantized;
+
+  /**
+   * Puts the quantized delta between the value and the value the client
+   * reconstructed from the baseline state, and sets {@link #quantized} to the
+   * value the client will reconstruct from it.
+   *
+   * @return offset of the delta, {@code 0} if the value did not change
+   *         enough to be sent, or {@code -1} if the delta does not fit and
+   *         the full value should be sent instead
+   */
+  private int putDelta(FlatBufferBuilder builder, byte deltaType, Vector2 value, long state) {
+    final float x = Float.intBitsToFloat((int) (state >>> 32));
+    final float y = Float.intBitsToFloat((int) state);
+    final int dx = Math.round((value.x - x) * QUANTIZE);
+    final int dy = Math.round((value.y - y) * QUANTIZE);
+    if (dx == 0 && dy == 0) return 0;
+    if (dx != (short) dx || dy != (short) dy) return -1;
+    quantized = quantize(x, y, (short) dx, (short) dy);
+    switch (deltaType) {
+      case ComponentP.PositionDeltaP:
+        return PositionDeltaP.createPositionDeltaP(builder, (short) dx, (short) dy);
+      case ComponentP.VelocityDeltaP:
+        return VelocityDeltaP.createVelocityDeltaP(builder, (short) dx, (short) dy);
+      default:
+        throw new AssertionError("Unknown delta type: " + ComponentP.name(deltaType));
+    }
+  }
+
+  /** value reconstructed by adding a quantized delta, packed as a state */
+  static long quantize(float x, float y, short dx, short dy) {
+    x += dx / QUANTIZE;
+    y += dy / QUANTIZE;
+    return ((long) Float.floatToIntBits(x) << 32) | (Float.floatToIntBits(y) & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Returns whether or not a sync of the entity against the specified
+   * baseline would contain any components, i.e., if it needs to be sent.
+   */
+  @SuppressWarnings("unchecked")
+  public boolean changed(int entityId, Baseline baseline) {
+    if (baseline == null || baseline.isEmpty()) return true;
+    if ((mFlags.get(entityId).flags & EntityFlags.deleted) == EntityFlags.deleted) return true;
+    components.clear();
+    componentManager.getComponentsFor(entityId, components);
+    for (Component c : components) {
+      FlatBuffersSerializer serializer = serializers.get(c.getClass());
+      if (serializer == null) continue;
+      byte componentType = serializer.getDataType();
+      if ((baseline.present & (1 << componentType)) == 0) return true;
+      long state = baseline.states[componentType];
+      switch (componentType) {
+        case ComponentP.PositionP:
+          if (changed(((Position) c).position, state)) return true;
+          break;
+        case ComponentP.VelocityP:
+          if (changed(((Velocity) c).velocity, state)) return true;
+          break;
+        default:
+          if (serializer.state(c) != state) return true;
+      }
+    }
+
+    return false;
+  }
+
+  private static boolean changed(Vector2 value, long state) {
+    final float x = Float.intBitsToFloat((int) (state >>> 32));
+    final float y = Float.intBitsToFloat((int) state);
+    return Math.round((value.x - x) * QUANTIZE) != 0 || Math.round((value.y - y) * QUANTIZE) != 0;
   }
 
   public void deserialize(int entityId, D2GS packet) {
@@ -205,6 +346,16 @@ public class SerializationManager extends PassiveSystem {
 //          if (DEBUG_DESERIALIZE) Gdx.app.log(TAG, "  " + Arrays.toString(mCofAlphas.get(entityId).alpha));
           break;
         }
+        case ComponentP.PositionDeltaP: {
+          PositionDeltaP table = (PositionDeltaP) sync.component(positionDelta, i);
+          mPosition.get(entityId).position.add(table.dx() / QUANTIZE, table.dy() / QUANTIZE);
+          break;
+        }
+        case ComponentP.VelocityDeltaP: {
+          VelocityDeltaP table = (VelocityDeltaP) sync.component(velocityDelta, i);
+          mVelocity.get(entityId).velocity.add(table.dx() / QUANTIZE, table.dy() / QUANTIZE);
+          break;
+        }
         case ComponentP.ClassP:
         case ComponentP.PlayerP:
         case ComponentP.DS1ObjectWrapperP:
@@ -162,7 +162,9 @@ public class ServerEntityFactory extends EntityFactory {
       base.put(Stat.maxhp, hitpoints);
 
       attrs.reset(); // propagate base changes
-      mAttributesWrapper.create(id).attrs = attrs;
+      AttributesWrapper wrapper = mAttributesWrapper.create(id);
+      wrapper.attrs = attrs;
+      wrapper.pooled = true;
     }
 
     mPosition.create(id).position.set(x, y);
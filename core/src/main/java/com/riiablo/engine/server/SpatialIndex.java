@@ -0,0 +1,258 @@
+package com.riiablo.engine.server;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * Uniform grid of entity positions supporting range and k-nearest queries.
+ * Each entity is tagged with a bitmask of types, e.g.,
+ * {@code 1 << Class.Type.ordinal()}, and queries only consider entities
+ * which match any of the requested types. The grid is meant to be rebuilt
+ * each tick, which is cheaper than tracking moving entities.
+ *
+ * Entities are also listed by type, s.t. queries for sparse types (e.g.,
+ * monsters searching for the few players) test the entities of those types
+ * directly when there are fewer of them than cells to search.
+ *
+ * Usage:
+ * <pre>
+ * index.clear();
+ * for each entity: index.put(entityId, x, y, types)
+ * index.range(x, y, radius, types, exclude, out)
+ * index.nearest(x, y, radius, types, exclude)
+ * </pre>
+ */
+public class SpatialIndex {
+  /** entity id which never matches an entity, e.g., to not exclude any */
+  public static final int NONE = -1;
+
+  final float cellSize;
+  final LongMap<IntArray> cells = new LongMap<>();
+  final IntArray entities = new IntArray();
+  final IntArray[] byType = new IntArray[Integer.SIZE];
+  float[] x = new float[256];
+  float[] y = new float[256];
+  int[] types = new int[256];
+
+  // k-nearest results sorted by distance
+  int[] nearestIds = new int[8];
+  float[] nearestDst2 = new float[8];
+
+  public SpatialIndex(float cellSize) {
+    this.cellSize = cellSize;
+    for (int i = 0; i < byType.length; i++) byType[i] = new IntArray();
+  }
+
+  static long key(int cellX, int cellY) {
+    return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+  }
+
+  int cell(float value) {
+    return (int) Math.floor(value / cellSize);
+  }
+
+  void ensureCapacity(int entityId) {
+    if (entityId < types.length) return;
+    final int length = Math.max(entityId + 1, types.length << 1);
+    x = Arrays.copyOf(x, length);
+    y = Arrays.copyOf(y, length);
+    types = Arrays.copyOf(types, length);
+  }
+
+  /** removes all entities */
+  public void clear() {
+    for (IntArray cell : cells.values()) cell.clear();
+    final int[] entities = this.entities.items;
+    for (int i = 0, s = this.entities.size; i < s; i++) types[entities[i]] = 0;
+    this.entities.clear();
+    for (IntArray entitiesOfType : byType) entitiesOfType.clear();
+  }
+
+  /** adds an entity of the specified types at the specified position */
+  public void put(int entityId, float x, float y, int types) {
+    ensureCapacity(entityId);
+    this.x[entityId] = x;
+    this.y[entityId] = y;
+    this.types[entityId] = types;
+    entities.add(entityId);
+    for (int remaining = types; remaining != 0; remaining &= remaining - 1) {
+      byType[Integer.numberOfTrailingZeros(remaining)].add(entityId);
+    }
+
+    final long key = key(cell(x), cell(y));
+    IntArray cell = cells.get(key);
+    if (cell == null) cells.put(key, cell = new IntArray());
+    cell.add(entityId);
+  }
+
+  /** removes the entity from the results of queries until the next clear */
+  public void remove(int entityId) {
+    if (contains(entityId)) types[entityId] = 0;
+  }
+
+  /** whether or not the entity was added since the last clear */
+  public boolean contains(int entityId) {
+    return entityId >= 0 && entityId < types.length && types[entityId] != 0;
+  }
+
+  public int size() {
+    return entities.size;
+  }
+
+  /** number of entities of any of the specified types */
+  int size(int types) {
+    int size = 0;
+    for (int remaining = types; remaining != 0; remaining &= remaining - 1) {
+      size += byType[Integer.numberOfTrailingZeros(remaining)].size;
+    }
+
+    return size;
+  }
+
+  /**
+   * Adds all entities matching any of the specified types within the radius
+   * of the specified position to {@code out}, in no particular order.
+   *
+   * @param exclude entity to skip, e.g., the one querying, or {@link #NONE}
+   * @return number of entities added
+   */
+  public int range(float x, float y, float radius, int types, int exclude, IntArray out) {
+    final int size = out.size;
+    final float radius2 = radius * radius;
+    final int x0 = cell(x - radius), x1 = cell(x + radius);
+    final int y0 = cell(y - radius), y1 = cell(y + radius);
+    for (int cy = y0; cy <= y1; cy++) {
+      for (int cx = x0; cx <= x1; cx++) {
+        final IntArray cell = cells.get(key(cx, cy));
+        if (cell == null) continue;
+        final int[] entities = cell.items;
+        for (int i = 0, s = cell.size; i < s; i++) {
+          final int entityId = entities[i];
+          if (entityId == exclude || (this.types[entityId] & types) == 0) continue;
+          final float dx = this.x[entityId] - x, dy = this.y[entityId] - y;
+          if (dx * dx + dy * dy <= radius2) out.add(entityId);
+        }
+      }
+    }
+
+    return out.size - size;
+  }
+
+  /**
+   * Returns the entity matching any of the specified types nearest to the
+   * specified position within the radius, or {@link #NONE} if there is none.
+   *
+   * @param exclude entity to skip, e.g., the one querying, or {@link #NONE}
+   */
+  public int nearest(float x, float y, float radius, int types, int exclude) {
+    return search(x, y, radius, 1, types, exclude) > 0 ? nearestIds[0] : NONE;
+  }
+
+  /**
+   * Adds up to {@code k} entities matching any of the specified types within
+   * the radius of the specified position to {@code out}, nearest first.
+   *
+   * @param exclude entity to skip, e.g., the one querying, or {@link #NONE}
+   * @return number of entities added
+   */
+  public int nearest(float x, float y, float radius, int k, int types, int exclude, IntArray out) {
+    final int found = search(x, y, radius, k, types, exclude);
+    out.addAll(nearestIds, 0, found);
+    return found;
+  }
+
+  /**
+   * Searches rings of cells outwards from the cell of the specified position
+   * until the k nearest entities found are nearer than any entity in the
+   * next ring could be.
+   *
+   * @return number of entities found, stored in {@link #nearestIds}
+   */
+  int search(float x, float y, float radius, int k, int types, int exclude) {
+    if (k <= 0) return 0;
+    if (nearestIds.length < k) {
+      nearestIds = new int[k];
+      nearestDst2 = new float[k];
+    }
+
+    final float radius2 = radius * radius;
+    final int cx = cell(x), cy = cell(y);
+    final int rings = (int) Math.ceil(radius / cellSize);
+    final int diameter = 2 * rings + 1;
+    if (size(types) < diameter * diameter) {
+      return searchByType(x, y, radius2, k, types, exclude);
+    }
+
+    int found = 0;
+    for (int ring = 0; ring <= rings; ring++) {
+      final int x0 = cx - ring, x1 = cx + ring;
+      final int y0 = cy - ring, y1 = cy + ring;
+      for (int y2 = y0; y2 <= y1; y2++) {
+        final boolean edge = y2 == y0 || y2 == y1;
+        for (int x2 = x0; x2 <= x1; x2 += edge ? 1 : x1 - x0) {
+          final IntArray cell = cells.get(key(x2, y2));
+          if (cell != null) found = search(cell, x, y, radius2, k, types, exclude, found);
+          if (x1 == x0) break;
+        }
+      }
+
+      // nearest possible entity in the next ring is at least ring * cellSize away
+      if (found == k) {
+        final float next = ring * cellSize;
+        if (nearestDst2[k - 1] <= next * next) break;
+      }
+    }
+
+    return found;
+  }
+
+  int searchByType(float x, float y, float radius2, int k, int types, int exclude) {
+    int found = 0;
+    for (int remaining = types; remaining != 0; remaining &= remaining - 1) {
+      final int type = Integer.numberOfTrailingZeros(remaining);
+      // entities of multiple types are only searched within the first
+      final int skip = types & ((1 << type) - 1);
+      final IntArray entities = byType[type];
+      for (int i = 0, s = entities.size; i < s; i++) {
+        final int entityId = entities.items[i];
+        if ((this.types[entityId] & skip) != 0) continue;
+        found = insert(entityId, x, y, radius2, k, types, exclude, found);
+      }
+    }
+
+    return found;
+  }
+
+  private int search(IntArray cell, float x, float y, float radius2, int k, int types, int exclude, int found) {
+    final int[] entities = cell.items;
+    for (int i = 0, s = cell.size; i < s; i++) {
+      found = insert(entities[i], x, y, radius2, k, types, exclude, found);
+    }
+
+    return found;
+  }
+
+  /** inserts the entity into the k nearest if it matches and is near enough */
+  private int insert(int entityId, float x, float y, float radius2, int k, int types, int exclude, int found) {
+    if (entityId == exclude || (this.types[entityId] & types) == 0) return found;
+    final float dx = this.x[entityId] - x, dy = this.y[entityId] - y;
+    final float d2 = dx * dx + dy * dy;
+    if (d2 > radius2) return found;
+    final float[] dst2 = nearestDst2;
+    if (found == k && d2 >= dst2[k - 1]) return found;
+
+    // insertion sort into the k nearest, dropping the farthest if full
+    final int[] ids = nearestIds;
+    int j = found < k ? found++ : k - 1;
+    for (; j > 0 && dst2[j - 1] > d2; j--) {
+      ids[j] = ids[j - 1];
+      dst2[j] = dst2[j - 1];
+    }
+
+    ids[j] = entityId;
+    dst2[j] = d2;
+    return found;
+  }
+}
@@ -10,9 +10,13 @@ import com.riiablo.ai.AI;
 public class AIWrapper extends PooledComponent {
   public AI ai = AI.IDLE;
 
+  /** seconds elapsed since the ai was last updated while not dormant */
+  public float elapsed;
+
   @Override
   protected void reset() {
     ai = AI.IDLE;
+    elapsed = 0;
   }
 
   public AIWrapper findAI(int entityId, String ai) {
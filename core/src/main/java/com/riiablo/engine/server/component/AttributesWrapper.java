@@ -10,4 +10,6 @@ import com.riiablo.attributes.Attributes;
 @PooledWeaver
 public class AttributesWrapper extends Component {
   public Attributes attrs; // TODO: make final and call attrs.base().reset() and attrs.reset()
+  /** whether {@link #attrs} was obtained from its pool and is freed with the entity */
+  public boolean pooled;
 }
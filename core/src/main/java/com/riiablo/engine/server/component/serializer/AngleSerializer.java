@@ -36,4 +36,10 @@ public class AngleSerializer implements FlatBuffersSerializer<Angle, AngleP> {
     angle.y = table.y();
     return c;
   }
+
+  @Override
+  public long state(Angle c) {
+    Vector2 angle = c.target;
+    return ((long) Float.floatToIntBits(angle.x) << 32) | (Float.floatToIntBits(angle.y) & 0xFFFFFFFFL);
+  }
 }
@@ -40,4 +40,11 @@ public class CofAlphasSerializer implements FlatBuffersSerializer<CofAlphas, Cof
 
     return c;
   }
+
+  @Override
+  public long state(CofAlphas c) {
+    long hash = HASH_SEED;
+    for (float alpha : c.alpha) hash = FlatBuffersSerializer.hash(hash, (byte) (alpha * 255f));
+    return hash;
+  }
 }
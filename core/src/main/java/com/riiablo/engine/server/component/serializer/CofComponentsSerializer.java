@@ -43,4 +43,11 @@ public class CofComponentsSerializer implements FlatBuffersSerializer<CofCompone
 
     return c;
   }
+
+  @Override
+  public long state(CofComponents c) {
+    long hash = HASH_SEED;
+    for (int component : c.component) hash = FlatBuffersSerializer.hash(hash, (byte) component);
+    return hash;
+  }
 }
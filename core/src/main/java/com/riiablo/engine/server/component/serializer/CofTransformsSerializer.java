@@ -37,4 +37,11 @@ public class CofTransformsSerializer implements FlatBuffersSerializer<CofTransfo
 
     return c;
   }
+
+  @Override
+  public long state(CofTransforms c) {
+    long hash = HASH_SEED;
+    for (byte transform : c.transform) hash = FlatBuffersSerializer.hash(hash, transform);
+    return hash;
+  }
 }
@@ -7,8 +7,24 @@ import com.artemis.Component;
 import com.riiablo.net.packet.d2gs.EntitySync;
 
 public interface FlatBuffersSerializer<T extends Component, S extends Table> {
+  long HASH_SEED = 0xCBF29CE484222325L;
+
   byte getDataType();
   int putData(FlatBufferBuilder builder, T c);
   S getTable(EntitySync sync, int j);
   T getData(EntitySync sync, int j, T c);
+
+  /**
+   * Returns a value which changes whenever the data put for the component
+   * would, used to skip unchanged components when delta encoding syncs.
+   * Components which never change once created may keep the default.
+   */
+  default long state(T c) {
+    return 0;
+  }
+
+  /** FNV-1a */
+  static long hash(long hash, int value) {
+    return (hash ^ value) * 0x100000001B3L;
+  }
 }
@@ -36,4 +36,10 @@ public class PositionSerializer implements FlatBuffersSerializer<Position, Posit
     position.y = table.y();
     return c;
   }
+
+  @Override
+  public long state(Position c) {
+    Vector2 position = c.position;
+    return ((long) Float.floatToIntBits(position.x) << 32) | (Float.floatToIntBits(position.y) & 0xFFFFFFFFL);
+  }
 }
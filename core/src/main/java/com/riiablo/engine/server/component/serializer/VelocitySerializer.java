@@ -36,4 +36,10 @@ public class VelocitySerializer implements FlatBuffersSerializer<Velocity, Veloc
     velocity.y = table.y();
     return c;
   }
+
+  @Override
+  public long state(Velocity c) {
+    Vector2 velocity = c.velocity;
+    return ((long) Float.floatToIntBits(velocity.x) << 32) | (Float.floatToIntBits(velocity.y) & 0xFFFFFFFFL);
+  }
 }
@@ -23,6 +23,7 @@ import com.badlogic.gdx.utils.ObjectIntMap;
 import com.riiablo.logger.LogManager;
 import com.riiablo.logger.Logger;
 import com.riiablo.logger.MDC;
+import com.riiablo.mpq_bytebuf.MpqFileHandle;
 import com.riiablo.util.ClassUtils;
 
 /**
@@ -109,10 +110,18 @@ public abstract class Excel<
 
   static <E extends Entry, S extends Serializer<E>, T extends Excel<E, S>>
   T loadTxt(T excel, FileHandle handle) throws IOException {
-    InputStream in = handle.read();
+    InputStream in = null;
     try {
       MDC.put("excel", handle.path());
-      TxtParser parser = TxtParser.parse(in);
+      final TxtParser parser;
+      if (handle instanceof MpqFileHandle) {
+        // decoded mpq files are parsed in place
+        parser = TxtParser.parse(((MpqFileHandle) handle).buffer());
+      } else {
+        in = handle.read();
+        parser = TxtParser.parse(in);
+      }
+
       return loadTxt(excel, parser);
     } catch (Throwable t) {
       log.fatal("Unable to load {} as {}: {}",
@@ -1,100 +1,62 @@
 package com.riiablo.excel;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.util.AsciiString;
-import io.netty.util.CharsetUtil;
-import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import org.apache.commons.io.IOUtils;
 
 import com.badlogic.gdx.utils.Array;
-import com.badlogic.gdx.utils.ByteArray;
-import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.ObjectIntMap;
 
+import com.riiablo.io.TsvTokenizer;
 import com.riiablo.logger.LogManager;
 import com.riiablo.logger.Logger;
 
+/**
+ * Iterates the records of a txt tokenized by a {@link TsvTokenizer}, see the
+ * tokenizer for the expected format.
+ *
+ * @see TsvTokenizer
+ */
 public class TxtParser {
   private static final Logger log = LogManager.getLogger(TxtParser.class);
 
-  private static final int HT = '\t';
-  private static final int CR = '\r';
-  private static final int LF = '\n';
-
-  private static final byte[] TO_UPPER;
-  static {
-    TO_UPPER = new byte[1 << Byte.SIZE];
-    for (int i = 0; i < TO_UPPER.length; i++) {
-      TO_UPPER[i] = (byte) i;
-    }
-
-    for (int i = 'a'; i <= 'z'; i++) {
-      TO_UPPER[i] &= ~0x20;
-    }
-  }
-
-  private static final AsciiString EXPANSION = AsciiString.cached("EXPANSION");
-
   public static TxtParser parse(InputStream in) throws IOException {
-    return parse(in, 8192);
+    return parse(Unpooled.wrappedBuffer(IOUtils.toByteArray(in)));
   }
 
-  public static TxtParser parse(InputStream in, int bufferSize) throws IOException {
-    return new TxtParser(in, bufferSize);
+  /**
+   * Parses the readable bytes of {@code buffer} in place, i.e., the buffer
+   * must not be modified or released while this parser is in use.
+   */
+  public static TxtParser parse(ByteBuf buffer) throws IOException {
+    final TsvTokenizer tokens = TsvTokenizer.tokenize(buffer);
+    if (tokens.numFields() == 0) throw new IOException("Unexpected end of file while parsing column names");
+    return new TxtParser(tokens);
   }
 
+  final TsvTokenizer tokens;
   final int numColumns;
   final Array<String> columnNames;
   final ObjectIntMap<String> columnIds;
 
-  BufferedInputStream in;
-  AsciiString line;
-  int index;
-  final ByteArray cache;
-  final IntArray tokenOffsets;
-  int[] tokenOffsetsCache;
-  int numTokens;
-
-  TxtParser(InputStream in, int bufferSize) throws IOException {
-    this.in = IOUtils.buffer(in, bufferSize);
+  /** record index of the cached line */
+  int index = -1;
 
-    cache = new ByteArray(512);
-    columnNames = new Array<>();
+  TxtParser(TsvTokenizer tokens) {
+    this.tokens = tokens;
+    numColumns = tokens.numFields();
+    columnNames = new Array<>(numColumns);
     columnIds = new ObjectIntMap<>();
-    numColumns = parseColumnNames();
+    for (int i = 0; i < numColumns; i++) {
+      putColumnName(tokens.toUpperCase(-1, i));
+    }
 
     log.info("numColumns: {}", numColumns);
     log.debug("columnNames: {}", columnNames);
     log.trace("columnIds: {}", columnIds);
-
-    tokenOffsets = new IntArray();
-  }
-
-  private static String toString(ByteArray array) {
-    if (array.size == 0) return "";
-    String stringValue = new String(array.items, 0, array.size, CharsetUtil.US_ASCII);
-    array.clear();
-    return stringValue;
-  }
-
-  private int parseColumnNames() throws IOException {
-    for (int i; (i = in.read()) != -1;) {
-      switch (i) {
-        case HT:
-          putColumnName(toString(cache));
-          break;
-        case CR:
-          in.skip(1);
-        case LF:
-          putColumnName(toString(cache));
-          return columnNames.size;
-        default:
-          cache.add(TO_UPPER[i]);
-      }
-    }
-
-    throw new IOException("Unexpected end of file while parsing column names");
   }
 
   private void putColumnName(String columnName) {
@@ -106,54 +68,19 @@ public class TxtParser {
   }
 
   public int cacheLine() throws IOException {
-    cache.clear();
-    tokenOffsets.clear();
-    tokenOffsets.add(0);
-    index++;
-lineBuilder:
-    for (;;) {
-      final int i = in.read();
-      switch (i) {
-        case -1:
-          return -1;
-        case HT:
-          tokenOffsets.add(cache.size);
-          break;
-        case CR:
-          in.skip(1);
-        case LF:
-          tokenOffsets.add(cache.size);
-          break lineBuilder;
-        default:
-          cache.add((byte) i);
-      }
-    }
-
-    numTokens = tokenOffsets.size - 1;
-    tokenOffsetsCache = tokenOffsets.items;
-    line = new AsciiString(cache.items, 0, cache.size, false);
-    log.debug("line: {}", line);
-    if (line.contentEqualsIgnoreCase(EXPANSION)) {
-      log.trace("skipping row {}: {} is an ignored symbol", index, EXPANSION);
-      return cacheLine();
-    }
-
-    if (numTokens != numColumns) {
-      log.warn("skipping row {}: contains {} tokens, expected {}; tokens: {}",
-          index, numTokens, numColumns, tokens());
-      return cacheLine();
+    if (index + 1 >= tokens.numRecords()) {
+      index = tokens.numRecords();
+      return -1;
     }
 
+    index++;
     if (log.traceEnabled()) {
-      final int[] tokenOffsets = this.tokenOffsets.items;
-      for (int i = 1, j = tokenOffsets[i - 1], s = this.tokenOffsets.size; i < s; i++) {
-        final int tokenOffset = tokenOffsets[i];
-        log.trace("{}={}", columnName(i - 1), line.subSequence(j, tokenOffset, false));
-        j = tokenOffset;
+      for (int i = 0; i < numColumns; i++) {
+        log.trace("{}={}", columnName(i), token(i));
       }
     }
 
-    return tokenOffsets.size - 1;
+    return numColumns;
   }
 
   public int numColumns() {
@@ -186,7 +113,7 @@ lineBuilder:
   }
 
   public int numTokens() {
-    return numTokens;
+    return numColumns;
   }
 
   public AsciiString[] tokens() {
@@ -197,53 +124,42 @@ lineBuilder:
   }
 
   public AsciiString token(int i) {
-    final int[] tokenOffsets = tokenOffsetsCache;
-    return line.subSequence(tokenOffsets[i], tokenOffsets[i + 1]);
+    return tokens.toAsciiString(index, i);
   }
 
   public byte parseByte(int i, byte defaultValue) {
-    final int[] tokenOffsets = tokenOffsetsCache;
-    final int startOffset = tokenOffsets[i];
-    final int endOffset = tokenOffsets[i + 1];
-    if (startOffset >= endOffset) return defaultValue;
-    final int intValue = line.parseInt(startOffset, endOffset);
+    if (tokens.isEmpty(index, i)) return defaultValue;
+    final int intValue = tokens.parseInt(index, i);
     final byte result = (byte) intValue;
     if (result != intValue) {
-      throw new NumberFormatException(line.subSequence(startOffset, endOffset, false).toString());
+      throw new NumberFormatException(tokens.toString(index, i));
     }
     return result;
   }
 
   public short parseShort(int i, short defaultValue) {
-    final int[] tokenOffsets = tokenOffsetsCache;
-    final int startOffset = tokenOffsets[i];
-    final int endOffset = tokenOffsets[i + 1];
-    if (startOffset >= endOffset) return defaultValue;
-    return line.parseShort(startOffset, endOffset);
+    if (tokens.isEmpty(index, i)) return defaultValue;
+    final int intValue = tokens.parseInt(index, i);
+    final short result = (short) intValue;
+    if (result != intValue) {
+      throw new NumberFormatException(tokens.toString(index, i));
+    }
+    return result;
   }
 
   public int parseInt(int i, int defaultValue) {
-    final int[] tokenOffsets = tokenOffsetsCache;
-    final int startOffset = tokenOffsets[i];
-    final int endOffset = tokenOffsets[i + 1];
-    if (startOffset >= endOffset) return defaultValue;
-    return line.parseInt(startOffset, endOffset);
+    if (tokens.isEmpty(index, i)) return defaultValue;
+    return tokens.parseInt(index, i);
   }
 
   public long parseLong(int i, long defaultValue) {
-    final int[] tokenOffsets = tokenOffsetsCache;
-    final int startOffset = tokenOffsets[i];
-    final int endOffset = tokenOffsets[i + 1];
-    if (startOffset >= endOffset) return defaultValue;
-    return line.parseLong(startOffset, endOffset);
+    if (tokens.isEmpty(index, i)) return defaultValue;
+    return tokens.parseLong(index, i);
   }
 
   public boolean parseBoolean(int i, boolean defaultValue) {
-    final int[] tokenOffsets = tokenOffsetsCache;
-    final int startOffset = tokenOffsets[i];
-    final int endOffset = tokenOffsets[i + 1];
-    if (startOffset >= endOffset) return defaultValue;
-    final int intValue = line.parseInt(startOffset, endOffset);
+    if (tokens.isEmpty(index, i)) return defaultValue;
+    final int intValue = tokens.parseInt(index, i);
     if ((intValue & 1) != intValue) {
       log.warn("boolean exceeds boolean radix at {}:{} (\"{}\", \"{}\"): {}",
           index, i, rowName(), columnName(i), intValue);
@@ -253,26 +169,17 @@ lineBuilder:
   }
 
   public float parseFloat(int i, float defaultValue) {
-    final int[] tokenOffsets = tokenOffsetsCache;
-    final int startOffset = tokenOffsets[i];
-    final int endOffset = tokenOffsets[i + 1];
-    if (startOffset >= endOffset) return defaultValue;
-    return line.parseFloat(startOffset, endOffset);
+    if (tokens.isEmpty(index, i)) return defaultValue;
+    return Float.parseFloat(tokens.toString(index, i));
   }
 
   public double parseDouble(int i, double defaultValue) {
-    final int[] tokenOffsets = tokenOffsetsCache;
-    final int startOffset = tokenOffsets[i];
-    final int endOffset = tokenOffsets[i + 1];
-    if (startOffset >= endOffset) return defaultValue;
-    return line.parseDouble(startOffset, endOffset);
+    if (tokens.isEmpty(index, i)) return defaultValue;
+    return Double.parseDouble(tokens.toString(index, i));
   }
 
   public String parseString(int i, String defaultValue) {
-    final int[] tokenOffsets = tokenOffsetsCache;
-    final int startOffset = tokenOffsets[i];
-    final int endOffset = tokenOffsets[i + 1];
-    if (startOffset >= endOffset) return defaultValue;
-    return line.toString(tokenOffsets[i], tokenOffsets[i + 1]);
+    if (tokens.isEmpty(index, i)) return defaultValue;
+    return tokens.toString(index, i);
   }
 }
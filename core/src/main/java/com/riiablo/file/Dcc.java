@@ -114,18 +114,27 @@ public final class Dcc extends Dc<Dcc.DccDirection> {
 
   @Override
   public void uploadTextures(int d, int combineFrames) {
+    checkCombineFrames(combineFrames);
+    for (int f = 0; f < numFrames; f++) uploadTexture(d, f);
+  }
+
+  /** @throws UnsupportedOperationException if frames are to be combined */
+  public static void checkCombineFrames(int combineFrames) {
     if (combineFrames == 1) throw new UnsupportedOperationException("DCC do not support combined frames");
+  }
+
+  /**
+   * Uploads the texture of a single frame, allowing the uploads of a
+   * direction to be spread across multiple frames.
+   */
+  public void uploadTexture(int d, int f) {
     final DccDirection direction = directions[d];
-    final DccFrame[] frame = direction.frames;
     final Pixmap[] pixmap = direction.pixmap;
-    final Texture[] texture = direction.texture;
-    for (int f = 0; f < numFrames; f++) {
-      // FIXME: memory leak if called multiple times, asserted asset manger works correctly
-      Texture t = texture[f] = new Texture(pixmap[f]);
-      frame[f].texture.setRegion(t);
-      pixmap[f].dispose();
-      pixmap[f] = null;
-    }
+    // FIXME: memory leak if called multiple times, asserted asset manger works correctly
+    Texture t = direction.texture[f] = new Texture(pixmap[f]);
+    direction.frames[f].texture.setRegion(t);
+    pixmap[f].dispose();
+    pixmap[f] = null;
   }
 
   public static final class DccDirection extends Dc.Direction<DccFrame> {
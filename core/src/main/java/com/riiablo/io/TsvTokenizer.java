@@ -0,0 +1,383 @@
+package com.riiablo.io;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.AsciiString;
+import io.netty.util.CharsetUtil;
+import io.netty.util.internal.PlatformDependent;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import com.riiablo.logger.LogManager;
+import com.riiablo.logger.Logger;
+
+/**
+ * Tokenizes tab-separated values in place within a {@link ByteBuf}. Tokens are
+ * stored as start and end offsets into the buffer and are only materialized
+ * into strings when requested, numbers are parsed directly from the bytes.
+ * <p/>
+ * The buffer is scanned for delimiters eight bytes at a time, by testing each
+ * byte of a little endian {@code long} against {@code \t}, {@code \r} and
+ * {@code \n} in parallel, which only falls back to examining single bytes at
+ * the delimiters themselves and the trailing {@code length % 8} bytes.
+ * <p/>
+ * The first line defines the field names, and each following line is a
+ * record. Lines may be terminated by either {@code \r\n} or {@code \n}. Lines
+ * named {@code EXPANSION} with no other values are skipped, as are lines
+ * which do not contain the same number of tokens as there are fields.
+ *
+ * <pre>
+ * C00\tC01\tC02\r\n <--- defines field names
+ * c10\tc11\tc12\r\n
+ * EXPANSION\t\t\r\n <--- may or may not be present
+ * c30\tc31\tc32\r\n
+ * </pre>
+ */
+public final class TsvTokenizer {
+  private static final Logger log = LogManager.getLogger(TsvTokenizer.class);
+
+  private static final byte HT = '\t';
+  private static final byte CR = '\r';
+  private static final byte LF = '\n';
+
+  private static final long ONES = 0x0101010101010101L;
+  private static final long LOW7 = 0x7F7F7F7F7F7F7F7FL;
+  private static final long HTS = HT * ONES;
+  private static final long CRS = CR * ONES;
+  private static final long LFS = LF * ONES;
+
+  private static final byte[] EXPANSION = "EXPANSION".getBytes(CharsetUtil.US_ASCII);
+
+  static final boolean UNSAFE_WORDS = PlatformDependent.hasUnsafe() && PlatformDependent.isUnaligned();
+
+  static long littleEndian(long value) {
+    return PlatformDependent.BIG_ENDIAN_NATIVE_ORDER ? Long.reverseBytes(value) : value;
+  }
+
+  /**
+   * Returns a mask with the high bit set of each byte within {@code x} equal
+   * to {@code 0}. Unlike {@code (x - ONES) & ~x & ~LOW7}, no bits are set
+   * above the first match, s.t. every match can be iterated.
+   */
+  static long zeroBytes(long x) {
+    return ~(((x & LOW7) + LOW7) | x | LOW7);
+  }
+
+  /**
+   * Returns a mask with the high bit set of each byte within {@code word}
+   * which is a {@code \t}, {@code \r} or {@code \n}.
+   */
+  static long delimiters(long word) {
+    return zeroBytes(word ^ HTS) | zeroBytes(word ^ CRS) | zeroBytes(word ^ LFS);
+  }
+
+  static byte toUpper(byte b) {
+    return b >= 'a' && b <= 'z' ? (byte) (b & ~0x20) : b;
+  }
+
+  public static TsvTokenizer tokenize(byte[] bytes) {
+    return tokenize(Unpooled.wrappedBuffer(bytes));
+  }
+
+  /**
+   * Tokenizes the readable bytes of {@code buffer}. The buffer is not copied,
+   * and must not be modified or released while the tokens are in use.
+   */
+  public static TsvTokenizer tokenize(ByteBuf buffer) {
+    return new TsvTokenizer(buffer.slice());
+  }
+
+  final ByteBuf buffer;
+  final byte[] array;
+  final int arrayOffset;
+  final IntArray tokens; // start, end offset pairs of the header then every record
+
+  int numFields = -1;
+  int numRecords;
+
+  int tokenStart;
+  int lineStart;
+  int lastCr = -1;
+
+  TsvTokenizer(ByteBuf buffer) {
+    this.buffer = buffer;
+    if (buffer.hasArray()) {
+      array = buffer.array();
+      arrayOffset = buffer.arrayOffset();
+    } else {
+      array = null;
+      arrayOffset = 0;
+    }
+
+    tokens = new IntArray(Math.max(16, buffer.readableBytes() >> 2));
+    scan();
+    log.debug("{} records, {} fields, {} bytes",
+        numRecords, numFields, buffer.readableBytes());
+  }
+
+  private void scan() {
+    final int length = buffer.writerIndex();
+    final int i = UNSAFE_WORDS && array != null
+        ? scanArray(array, arrayOffset, length)
+        : scanBuffer(buffer, length);
+    for (int j = i; j < length; j++) {
+      final byte b = getByte(j);
+      if (b == HT || b == CR || b == LF) delimiter(j, b);
+    }
+
+    if (tokenStart < length || tokens.size > lineStart) {
+      tokens.add(tokenStart, length);
+      endLine();
+    }
+
+    if (numFields < 0) numFields = 0;
+  }
+
+  /** @return offset of the first byte which was not scanned */
+  private int scanArray(final byte[] array, final int arrayOffset, final int length) {
+    int i = 0;
+    for (final int s = length - Long.BYTES; i <= s; i += Long.BYTES) {
+      long delimiters = delimiters(littleEndian(PlatformDependent.getLong(array, arrayOffset + i)));
+      while (delimiters != 0) {
+        final int j = i + (Long.numberOfTrailingZeros(delimiters) >>> 3);
+        delimiter(j, array[arrayOffset + j]);
+        delimiters &= delimiters - 1;
+      }
+    }
+
+    return i;
+  }
+
+  /** @return offset of the first byte which was not scanned */
+  private int scanBuffer(final ByteBuf buffer, final int length) {
+    int i = 0;
+    for (final int s = length - Long.BYTES; i <= s; i += Long.BYTES) {
+      long delimiters = delimiters(buffer.getLongLE(i));
+      while (delimiters != 0) {
+        final int j = i + (Long.numberOfTrailingZeros(delimiters) >>> 3);
+        delimiter(j, buffer.getByte(j));
+        delimiters &= delimiters - 1;
+      }
+    }
+
+    return i;
+  }
+
+  private byte getByte(int i) {
+    return array != null ? array[arrayOffset + i] : buffer.getByte(i);
+  }
+
+  private void delimiter(int i, byte b) {
+    switch (b) {
+      case HT:
+        tokens.add(tokenStart, i);
+        break;
+      case CR:
+        tokens.add(tokenStart, i);
+        endLine();
+        lastCr = i;
+        break;
+      case LF:
+        if (lastCr != i - 1) {
+          tokens.add(tokenStart, i);
+          endLine();
+        }
+        break;
+    }
+
+    tokenStart = i + 1;
+  }
+
+  private void endLine() {
+    final int numTokens = (tokens.size - lineStart) >> 1;
+    if (numFields < 0) {
+      numFields = numTokens;
+    } else if (isExpansion(lineStart, tokens.size)) {
+      log.trace("skipping line {}: expansion", numRecords);
+      tokens.size = lineStart;
+    } else if (numTokens != numFields) {
+      if (numTokens > 1 || tokens.items[lineStart] < tokens.items[lineStart + 1]) {
+        log.warn("skipping line {}: contains {} tokens, expected {}: {}",
+            numRecords, numTokens, numFields,
+            buffer.toString(tokens.items[lineStart], tokens.items[tokens.size - 1] - tokens.items[lineStart], CharsetUtil.US_ASCII));
+      }
+
+      tokens.size = lineStart;
+    } else {
+      numRecords++;
+    }
+
+    lineStart = tokens.size;
+  }
+
+  private boolean isExpansion(int start, int end) {
+    final int[] tokens = this.tokens.items;
+    final int offset = tokens[start];
+    final int length = EXPANSION.length;
+    if (tokens[start + 1] - offset != length) return false;
+    for (int i = 0; i < length; i++) {
+      if (toUpper(getByte(offset + i)) != EXPANSION[i]) return false;
+    }
+
+    for (int i = start + 2; i < end; i += 2) {
+      if (tokens[i] != tokens[i + 1]) return false;
+    }
+
+    return true;
+  }
+
+  public ByteBuf buffer() {
+    return buffer;
+  }
+
+  public int numFields() {
+    return numFields;
+  }
+
+  public int numRecords() {
+    return numRecords;
+  }
+
+  public String fieldName(int fieldId) {
+    return toString(-1, fieldId);
+  }
+
+  /** offset of the token at {@code (recordId, fieldId)}, header is {@code -1} */
+  int offset(final int recordId, final int fieldId) {
+    return ((recordId + 1) * numFields + fieldId) << 1;
+  }
+
+  public int start(int recordId, int fieldId) {
+    return tokens.items[offset(recordId, fieldId)];
+  }
+
+  public int end(int recordId, int fieldId) {
+    return tokens.items[offset(recordId, fieldId) + 1];
+  }
+
+  public int length(int recordId, int fieldId) {
+    final int offset = offset(recordId, fieldId);
+    final int[] tokens = this.tokens.items;
+    return tokens[offset + 1] - tokens[offset];
+  }
+
+  public boolean isEmpty(int recordId, int fieldId) {
+    return length(recordId, fieldId) == 0;
+  }
+
+  /**
+   * Returns a view of the token at {@code (recordId, fieldId)}. The view
+   * shares the underlying array of the buffer if it has one, otherwise the
+   * token is copied.
+   */
+  public AsciiString toAsciiString(int recordId, int fieldId) {
+    final int offset = offset(recordId, fieldId);
+    final int[] tokens = this.tokens.items;
+    final int start = tokens[offset];
+    final int length = tokens[offset + 1] - start;
+    if (array != null) return new AsciiString(array, arrayOffset + start, length, false);
+    final byte[] bytes = new byte[length];
+    buffer.getBytes(start, bytes);
+    return new AsciiString(bytes, false);
+  }
+
+  public String toString(int recordId, int fieldId) {
+    final int offset = offset(recordId, fieldId);
+    final int[] tokens = this.tokens.items;
+    final int start = tokens[offset];
+    final int end = tokens[offset + 1];
+    if (start >= end) return "";
+    return buffer.toString(start, end - start, CharsetUtil.US_ASCII);
+  }
+
+  /** upper-cases only {@code a-z} */
+  public String toUpperCase(int recordId, int fieldId) {
+    final int offset = offset(recordId, fieldId);
+    final int[] tokens = this.tokens.items;
+    final int start = tokens[offset];
+    final int length = tokens[offset + 1] - start;
+    if (length <= 0) return "";
+    final byte[] bytes = new byte[length];
+    buffer.getBytes(start, bytes);
+    for (int i = 0; i < length; i++) bytes[i] = toUpper(bytes[i]);
+    return new String(bytes, CharsetUtil.US_ASCII);
+  }
+
+  /**
+   * This is an extremely optimized implementation which does no value
+   * checking, and only supports an optional leading {@code -}.
+   *
+   * @return token at {@code (recordId, fieldId)}, otherwise {@code 0}
+   * @see #parseInt
+   */
+  public int toInt(int recordId, int fieldId) {
+    return (int) toLong(recordId, fieldId);
+  }
+
+  /**
+   * This is an extremely optimized implementation which does no value
+   * checking, and only supports an optional leading {@code -}.
+   *
+   * @return token at {@code (recordId, fieldId)}, otherwise {@code 0}
+   * @see #parseLong
+   */
+  public long toLong(int recordId, int fieldId) {
+    final int offset = offset(recordId, fieldId);
+    final int[] tokens = this.tokens.items;
+    int i = tokens[offset];
+    final int end = tokens[offset + 1];
+    if (i >= end) return 0L;
+    final boolean negative = getByte(i) == '-';
+    if (negative) i++;
+    long result = 0L;
+    for (; i < end; i++) result = (result * 10) + (getByte(i) & 0xF);
+    return negative ? -result : result;
+  }
+
+  /**
+   * @throws NumberFormatException if the token at {@code (recordId, fieldId)}
+   *         is empty, is not a decimal integer or does not fit within an int
+   * @see #toInt
+   */
+  public int parseInt(int recordId, int fieldId) {
+    final long result = parseLong(recordId, fieldId);
+    if (result != (int) result) throw numberFormatException(recordId, fieldId);
+    return (int) result;
+  }
+
+  /**
+   * @throws NumberFormatException if the token at {@code (recordId, fieldId)}
+   *         is empty, is not a decimal integer or does not fit within a long
+   * @see #toLong
+   */
+  public long parseLong(int recordId, int fieldId) {
+    final int offset = offset(recordId, fieldId);
+    final int[] tokens = this.tokens.items;
+    int i = tokens[offset];
+    final int end = tokens[offset + 1];
+    if (i >= end) throw numberFormatException(recordId, fieldId);
+    final byte first = getByte(i);
+    final boolean negative = first == '-';
+    if (negative || first == '+') {
+      if (++i >= end) throw numberFormatException(recordId, fieldId);
+    }
+
+    // accumulates negatively to support Long.MIN_VALUE
+    final long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+    final long multiplyLimit = limit / 10;
+    long result = 0L;
+    for (; i < end; i++) {
+      final int digit = getByte(i) - '0';
+      if (digit < 0 || digit > 9 || result < multiplyLimit) throw numberFormatException(recordId, fieldId);
+      result *= 10;
+      if (result < limit + digit) throw numberFormatException(recordId, fieldId);
+      result -= digit;
+    }
+
+    return negative ? result : -result;
+  }
+
+  private NumberFormatException numberFormatException(int recordId, int fieldId) {
+    return new NumberFormatException("For input string: \"" + toString(recordId, fieldId) + "\"");
+  }
+}
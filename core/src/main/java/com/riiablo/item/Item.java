@@ -179,6 +179,7 @@ public class Item {
     runewordData  = 0;
     inscription   = null;
 
+    if (attrs != null) Attributes.free(attrs);
     attrs = null;
     aggFlags = 0;
 
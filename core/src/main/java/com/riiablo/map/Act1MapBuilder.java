@@ -10,7 +10,6 @@ import com.riiablo.Riiablo;
 import com.riiablo.codec.excel.Levels;
 import com.riiablo.codec.excel.LvlPrest;
 import com.riiablo.codec.excel.MonStats;
-import com.riiablo.engine.EntityFactory;
 import com.riiablo.map.Map.Preset;
 import com.riiablo.map.Map.Zone;
 
@@ -21,9 +20,6 @@ public enum Act1MapBuilder implements MapBuilder {
   private static final boolean DEBUG       = true;
   private static final boolean DEBUG_BUILD = DEBUG && true;
 
-  @Wire(name = "factory")
-  protected EntityFactory factory;
-
   @Wire(name = "client.socket", failOnNull = false)
   protected Socket socket;
 
@@ -111,18 +107,18 @@ public enum Act1MapBuilder implements MapBuilder {
         for (int x = 0; x < zone.gridSizeX; x++, tx++, ty = startY) {
           for (int y = 0; y < zone.gridSizeY; y++, ty++) {
             // TODO: Zone.index() can be replaced with incrementer
-            zone.getLayer(Map.FLOOR_OFFSET)[Zone.index(zone.tilesX, tx, ty)] = dt1s.get(0);
+            zone.getLayer(Map.FLOOR_OFFSET)[Zone.index(zone.tilesX, tx, ty)] = dt1s.get(0, zone.random);
             if (socket != null) continue;
-            if (MathUtils.randomBoolean(SPAWN_MULT * zone.level.MonDen[zone.diff] / 100000f)) {
-              int i = MathUtils.random(monsters.length - 1);
+            if (zone.random.nextFloat() < SPAWN_MULT * zone.level.MonDen[zone.diff] / 100000f) {
+              int i = zone.random.nextInt(monsters.length);
               MonStats.Entry monster = monsters[i];
               int count = monster.MinGrp == monster.MaxGrp
                   ? monster.MaxGrp
-                  : MathUtils.random(monster.MinGrp, monster.MaxGrp);
+                  : monster.MinGrp + zone.random.nextInt(monster.MaxGrp - monster.MinGrp + 1);
               for (i = 0; i < count; i++) {
-                float px = zone.getGlobalX(tx * DT1.Tile.SUBTILE_SIZE) + MathUtils.random(-2f, 2f);
-                float py = zone.getGlobalY(ty * DT1.Tile.SUBTILE_SIZE) + MathUtils.random(-2f, 2f);
-                factory.createMonster(monster, px, py);
+                float px = zone.getGlobalX(tx * DT1.Tile.SUBTILE_SIZE) + zone.random.nextFloat() * 4 - 2;
+                float py = zone.getGlobalY(ty * DT1.Tile.SUBTILE_SIZE) + zone.random.nextFloat() * 4 - 2;
+                zone.spawn(monster, px, py);
               }
             }
           }
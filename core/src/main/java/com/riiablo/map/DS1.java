@@ -446,7 +446,11 @@ public class DS1 {
     }
 
     Cell read(InputStream in, int orient) throws IOException {
-      value       = EndianUtils.readSwappedInteger(in);
+      return set(EndianUtils.readSwappedInteger(in), orient);
+    }
+
+    Cell set(int value, int orient) {
+      this.value  = value;
       mainIndex   = (short) ((value >>> MAIN_INDEX_OFFSET) & MAIN_INDEX_BITS);
       subIndex    = (short) ((value >>> SUB_INDEX_OFFSET)  & SUB_INDEX_BITS);
       orientation = (short) orient;
@@ -1,5 +1,7 @@
 package com.riiablo.map;
 
+import java.util.Random;
+
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.IntIntMap;
@@ -41,28 +43,44 @@ public class DT1s {
   }
 
   public DT1.Tile get(int orientation, int mainIndex, int subIndex) {
-    int id = DT1.Tile.Index.create(orientation, mainIndex, subIndex);
-    Array<DT1.Tile> tiles = this.tiles.get(id);
-    return next(id, tiles);
+    return get(orientation, mainIndex, subIndex, MathUtils.random);
   }
 
   public DT1.Tile get(DS1.Cell cell) {
-    Array<DT1.Tile> tiles = this.tiles.get(cell.id);
-    return next(cell.id, tiles);
+    return get(cell, MathUtils.random);
   }
 
   public DT1.Tile get(int id) {
+    return get(id, MathUtils.random);
+  }
+
+  /**
+   * Variants of the getters above which select variations of tiles using the
+   * specified random instead of the global one. These may be called from
+   * multiple threads at once as long as no DT1s are being added or removed.
+   */
+  public DT1.Tile get(int orientation, int mainIndex, int subIndex, Random random) {
+    return get(DT1.Tile.Index.create(orientation, mainIndex, subIndex), random);
+  }
+
+  public DT1.Tile get(DS1.Cell cell, Random random) {
+    return get(cell.id, random);
+  }
+
+  public DT1.Tile get(int id, Random random) {
     Array<DT1.Tile> tiles = this.tiles.get(id);
-    return next(id, tiles);
+    return next(id, tiles, random);
   }
 
-  private DT1.Tile next(int id, Array<DT1.Tile> tiles) {
+  private DT1.Tile next(int id, Array<DT1.Tile> tiles, Random random) {
     if (tiles == null) return null;
     int sum = prob.get(id, 0);
-    int random = sum == 0 ? 0 : MathUtils.random(sum - 1);
-    for (DT1.Tile tile : tiles) {
-      random -= tile.rarity;
-      if (random <= 0) {
+    int r = sum == 0 ? 0 : random.nextInt(sum);
+    // indexed loop -- Array iterators are shared and cannot be used concurrently
+    for (int i = 0, s = tiles.size; i < s; i++) {
+      DT1.Tile tile = tiles.get(i);
+      r -= tile.rarity;
+      if (r <= 0) {
         return tile;
       }
     }
@@ -0,0 +1,104 @@
+package com.riiablo.map;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.utils.Array;
+
+import com.riiablo.map.pfa.FlagMap;
+
+/**
+ * Immutable copy of the collision flags of the zones of a {@link Map} which
+ * can be read from any thread, e.g., by path finders running on a worker pool.
+ *
+ * Flags are stored within square chunks of {@code 1 << CHUNK_SHIFT}
+ * sub-tiles covering the bounds of all zones. Only chunks overlapping a zone
+ * are allocated, s.t. zones placed far apart, e.g., the dungeons of an act,
+ * do not require a copy of the empty space between them.
+ *
+ * @see Map#snapshotFlags()
+ */
+public final class FlagsSnapshot implements FlagMap {
+  static final int CHUNK_SHIFT = 6; // 64 sub-tiles
+  static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+  static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+  final int version;
+  final int x, y; // world sub-tile of chunk 0,0
+  final int chunksX, chunksY;
+  final byte[][] chunks;
+
+  FlagsSnapshot(int version, int x, int y, int chunksX, int chunksY, byte[][] chunks) {
+    this.version = version;
+    this.x = x;
+    this.y = y;
+    this.chunksX = chunksX;
+    this.chunksY = chunksY;
+    this.chunks = chunks;
+  }
+
+  static FlagsSnapshot of(Map map, int version) {
+    final Array<Map.Zone> zones = map.zones;
+    int x0 = Integer.MAX_VALUE, y0 = Integer.MAX_VALUE;
+    int x1 = Integer.MIN_VALUE, y1 = Integer.MIN_VALUE;
+    for (Map.Zone zone : new Array.ArrayIterator<>(zones)) {
+      if (zone.flags == null || zone.width <= 0 || zone.height <= 0) continue;
+      x0 = Math.min(x0, zone.x);
+      y0 = Math.min(y0, zone.y);
+      x1 = Math.max(x1, zone.x + zone.width);
+      y1 = Math.max(y1, zone.y + zone.height);
+    }
+
+    if (x0 > x1) return new FlagsSnapshot(version, 0, 0, 0, 0, new byte[0][]);
+
+    final int chunksX = ((x1 - x0) + CHUNK_MASK) >> CHUNK_SHIFT;
+    final int chunksY = ((y1 - y0) + CHUNK_MASK) >> CHUNK_SHIFT;
+    final byte[][] chunks = new byte[chunksX * chunksY][];
+
+    // copy in reverse s.t. overlapping zones resolve the same as Map#getZone
+    for (int i = zones.size - 1; i >= 0; i--) {
+      final Map.Zone zone = zones.get(i);
+      if (zone.flags == null || zone.width <= 0 || zone.height <= 0) continue;
+      for (int row = 0; row < zone.height; row++) {
+        final int wy = zone.y + row - y0;
+        final int chunkY = wy >> CHUNK_SHIFT;
+        final int chunkOffset = (wy & CHUNK_MASK) << CHUNK_SHIFT;
+        for (int col = 0; col < zone.width; ) {
+          final int wx = zone.x + col - x0;
+          final int length = Math.min(CHUNK_SIZE - (wx & CHUNK_MASK), zone.width - col);
+          final int chunk = chunkY * chunksX + (wx >> CHUNK_SHIFT);
+          byte[] flags = chunks[chunk];
+          if (flags == null) {
+            chunks[chunk] = flags = new byte[CHUNK_SIZE * CHUNK_SIZE];
+            Arrays.fill(flags, (byte) 0xFF);
+          }
+
+          System.arraycopy(
+              zone.flags, row * zone.width + col,
+              flags, chunkOffset + (wx & CHUNK_MASK),
+              length);
+          col += length;
+        }
+      }
+    }
+
+    return new FlagsSnapshot(version, x0, y0, chunksX, chunksY, chunks);
+  }
+
+  /** version of the map flags this snapshot was taken of */
+  public int version() {
+    return version;
+  }
+
+  @Override
+  public int flags(int x, int y) {
+    x -= this.x;
+    y -= this.y;
+    if (x < 0 || y < 0) return 0xFF;
+    final int chunkX = x >> CHUNK_SHIFT;
+    final int chunkY = y >> CHUNK_SHIFT;
+    if (chunkX >= chunksX || chunkY >= chunksY) return 0xFF;
+    final byte[] flags = chunks[chunkY * chunksX + chunkX];
+    if (flags == null) return 0xFF;
+    return flags[((y & CHUNK_MASK) << CHUNK_SHIFT) | (x & CHUNK_MASK)] & 0xFF;
+  }
+}
@@ -1,6 +1,8 @@
 package com.riiablo.map;
 
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
 import com.artemis.ComponentMapper;
@@ -17,6 +19,7 @@ import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Bits;
 import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.FloatArray;
 import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.IntIntMap;
 import com.badlogic.gdx.utils.IntMap;
@@ -29,13 +32,18 @@ import com.riiablo.codec.COFD2;
 import com.riiablo.codec.excel.Levels;
 import com.riiablo.codec.excel.LvlPrest;
 import com.riiablo.codec.excel.LvlTypes;
+import com.riiablo.codec.excel.MonStats;
 import com.riiablo.engine.Engine;
 import com.riiablo.engine.EntityFactory;
 import com.riiablo.engine.server.component.Warp;
-import com.riiablo.map.pfa.AStarPathFinder;
+import com.riiablo.map.pfa.FlagMap;
+import com.riiablo.map.pfa.GridPathFinder;
+import com.riiablo.map.pfa.HierarchicalPathFinder;
 import com.riiablo.map.pfa.Point2;
+import com.riiablo.map2.random.Random;
+import com.riiablo.map2.random.Seed;
 
-public class Map implements Disposable {
+public class Map implements Disposable, FlagMap {
   private static final String TAG = "Map";
   private static final boolean DEBUG       = true;
   private static final boolean DEBUG_BUILD = DEBUG && true;
@@ -322,7 +330,10 @@ public class Map implements Disposable {
   int act = -1;
 
   final IntMap<DT1s> dt1s = new IntMap<>();
-  final Array<Zone> zones = new Array<>(); // TODO: replace with R-tree? https://en.wikipedia.org/wiki/R-tree
+  final Array<Zone> zones = new Array<>();
+  final ZoneIndex zoneIndex = new ZoneIndex(zones);
+  int flagsVersion;
+  FlagsSnapshot flagsSnapshot;
 
   ComponentMapper<Warp> mWarp;
   EntityFactory factory;
@@ -358,20 +369,69 @@ public class Map implements Disposable {
   }
 
   public void generate() {
+    generate(null);
+  }
+
+  /**
+   * Generates the zones of this map, filling independent zones concurrently
+   * on the specified pool, or serially if {@code pool} is {@code null}. Each
+   * zone draws from its own random stream derived from the map seed, so the
+   * generated map is the same regardless of the number of threads used.
+   */
+  public void generate(ForkJoinPool pool) {
     /**
-     * FIXME: throwing nested iterator error if not creating new wrapper
+     * FIXME: throwing nested iterator error if not iterating a copy
      *        nested iterator is within systems which use Map#getZone()
      */
-    for (Zone zone : new Array.ArrayIterator<>(zones)) zone.generate();
+    final Zone[] zones = this.zones.toArray(Zone.class);
+    for (int i = 0; i < zones.length; i++) zones[i].prepare(zoneSeed(zones[i], i));
+    if (pool == null || zones.length <= 1) {
+      for (Zone zone : zones) zone.fill();
+    } else {
+      pool.invoke(new FillZones(zones, 0, zones.length));
+    }
+
+    pathFinder.clear();
+    flagsVersion++;
+  }
+
+  Seed zoneSeed(Zone zone, int index) {
+    return Seed.derive(seed, ((long) zone.level.Id << 32) | index);
+  }
+
+  static final class FillZones extends RecursiveAction {
+    final Zone[] zones;
+    final int from, to;
+
+    FillZones(Zone[] zones, int from, int to) {
+      this.zones = zones;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from == 1) {
+        zones[from].fill();
+        return;
+      }
+
+      final int mid = (from + to) >>> 1;
+      invokeAll(new FillZones(zones, from, mid), new FillZones(zones, mid, to));
+    }
   }
 
   @Override
   public void dispose() {
     for (Zone zone : zones) Zone.free(zone);
     zones.clear();
+    zoneIndex.clear();
+    flagsVersion++;
+    flagsSnapshot = null;
     for (DT1s dt1s : this.dt1s.values()) dt1s.clear();
     dt1s.clear();
     mapGraph.clear();
+    pathFinder.clear();
   }
 
   public Array<AssetDescriptor> getDependencies() {
@@ -392,7 +452,7 @@ public class Map implements Disposable {
     }
   }
 
-  private COFD2 updateCofs(int act) {
+  COFD2 updateCofs(int act) {
     switch (act) {
       case 0:  return Riiablo.cofs.cmncof_a1;
       case 1:  return Riiablo.cofs.cmncof_a2;
@@ -403,8 +463,9 @@ public class Map implements Disposable {
     }
   }
 
-  private MapGraph        mapGraph   = new MapGraph(this);
-  private AStarPathFinder pathFinder = new AStarPathFinder(mapGraph, true);
+  private MapGraph               mapGraph       = new MapGraph(this);
+  private GridPathFinder         gridPathFinder = new GridPathFinder(this, mapGraph);
+  private HierarchicalPathFinder pathFinder     = new HierarchicalPathFinder(this, mapGraph, gridPathFinder);
 
   public boolean findPath(Vector2 src, Vector2 dst, GraphPath<Point2> path) {
     return findPath(src, dst, DT1.Tile.FLAG_BLOCK_WALK, 0, path);
@@ -478,6 +539,7 @@ public class Map implements Disposable {
     return flags(round(vec.x), round(vec.y));
   }
 
+  @Override
   public int flags(int x, int y) {
     Zone zone = getZone(x, y);
     if (zone == null) return 0xFF;
@@ -494,6 +556,33 @@ public class Map implements Disposable {
         if (zone != null) zone.or(dx - zone.x, dy - zone.y, flags);
       }
     }
+
+    pathFinder.invalidate(x0, y0, width, height);
+    flagsVersion++;
+  }
+
+  void zonesChanged() {
+    zoneIndex.invalidate();
+    flagsVersion++;
+  }
+
+  /**
+   * Returns an immutable snapshot of the flags of all zones which can be read
+   * from other threads. Snapshots are reused until the flags change.
+   */
+  public FlagsSnapshot snapshotFlags() {
+    if (flagsSnapshot == null || flagsSnapshot.version != flagsVersion) {
+      flagsSnapshot = FlagsSnapshot.of(this, flagsVersion);
+    }
+
+    return flagsSnapshot;
+  }
+
+  /** appends the nodes of the specified sub-tiles, stored as x,y pairs, to the path */
+  public void toNodePath(IntArray cells, GraphPath<Point2> path) {
+    for (int i = 0, s = cells.size; i < s; i += 2) {
+      path.add(mapGraph.getOrCreate(cells.get(i), cells.get(i + 1)));
+    }
   }
 
   public Material material(Vector2 vec) {
@@ -519,8 +608,7 @@ public class Map implements Disposable {
   }
 
   public Zone getZone(int x, int y) {
-    for (Zone zone : zones) if (zone.contains(x, y)) return zone;
-    return null;
+    return zoneIndex.get(x, y);
   }
 
   public Zone findZone(Levels.Entry level) {
@@ -539,6 +627,7 @@ public class Map implements Disposable {
     Zone zone = Zone.obtain(this, level, diff, gridSizeX, gridSizeY);
     if (DEBUG_ZONES) Gdx.app.debug(TAG, zone.toString());
     zones.add(zone);
+    zonesChanged();
     return zone;
   }
 
@@ -546,6 +635,7 @@ public class Map implements Disposable {
     Zone zone = Zone.obtain(this, level, diff, gridSizeX, gridSizeY, gridsX, gridsY);
     if (DEBUG_ZONES) Gdx.app.debug(TAG, zone.toString());
     zones.add(zone);
+    zonesChanged();
     return zone;
   }
 
@@ -563,7 +653,10 @@ public class Map implements Disposable {
     static DT1.Tile[] obtainTileArray(int size) {
       for (int i = 0; i < sizes.length; i++) {
         if (size <= sizes[i]) {
-          DT1.Tile[] tiles = tilePools[i].obtain();
+          DT1.Tile[] tiles;
+          synchronized (tilePools[i]) {
+            tiles = tilePools[i].obtain();
+          }
           Arrays.fill(tiles, 0, size, null);
           return tiles;
         }
@@ -576,7 +669,9 @@ public class Map implements Disposable {
       if (layer == null) return;
       for (int i = 0; i < sizes.length; i++) {
         if (layer.length <= sizes[i]) {
-          tilePools[i].free(layer);
+          synchronized (tilePools[i]) {
+            tilePools[i].free(layer);
+          }
           return;
         }
       }
@@ -585,7 +680,10 @@ public class Map implements Disposable {
     static byte[] obtainByteArray(int size) {
       for (int i = 0; i < sizes.length; i++) {
         if (size <= sizes[i] * DT1.Tile.NUM_SUBTILES) {
-          byte[] bytes = bytePools[i].obtain();
+          byte[] bytes;
+          synchronized (bytePools[i]) {
+            bytes = bytePools[i].obtain();
+          }
           Arrays.fill(bytes, 0, size, (byte) 0);
           return bytes;
         }
@@ -597,7 +695,9 @@ public class Map implements Disposable {
     static void free(byte[] b) {
       for (int i = 0; i < sizes.length; i++) {
         if (b.length <= sizes[i] * DT1.Tile.NUM_SUBTILES) {
-          bytePools[i].free(b);
+          synchronized (bytePools[i]) {
+            bytePools[i].free(b);
+          }
           return;
         }
       }
@@ -621,9 +721,18 @@ public class Map implements Disposable {
     final DT1.Tile tiles[][] = new DT1.Tile[Map.MAX_LAYERS][];
     Preset         presets[][];
 
+    /** random stream of this zone, seeded from the map seed when generated */
+    final Random random = new Random();
+
     static final IntArray EMPTY_ENTITY_ARRAY = new IntArray(0);
     IntArray entities = EMPTY_ENTITY_ARRAY;
 
+    static final Array<MonStats.Entry> EMPTY_MONSTER_ARRAY = new Array<>(0);
+    Array<MonStats.Entry> spawns = EMPTY_MONSTER_ARRAY;
+
+    static final FloatArray EMPTY_FLOAT_ARRAY = new FloatArray(0);
+    FloatArray spawnPositions = EMPTY_FLOAT_ARRAY;
+
     static final IntIntMap EMPTY_INT_INT_MAP = new IntIntMap(0);
     IntIntMap warps = EMPTY_INT_INT_MAP;
 
@@ -720,6 +829,8 @@ public class Map implements Disposable {
       dt1s = null; // TODO: setting null -- depending on Map dispose to clear DT1s on act change
       town = false;
       entities = EMPTY_ENTITY_ARRAY;
+      spawns = EMPTY_MONSTER_ARRAY;
+      spawnPositions = EMPTY_FLOAT_ARRAY;
       warps = EMPTY_INT_INT_MAP;
       generator = EMPTY_GENERATOR;
       specials = EMPTY_INT_CELL_MAP;
@@ -750,6 +861,7 @@ public class Map implements Disposable {
       this.y = y;
       tx = x / DT1.Tile.SUBTILE_SIZE;
       ty = y / DT1.Tile.SUBTILE_SIZE;
+      if (map != null) map.zonesChanged();
     }
 
     public boolean isTown() {
@@ -804,6 +916,17 @@ public class Map implements Disposable {
       addEntity(entityId);
     }
 
+    /** Records a monster to be created by {@link com.riiablo.map.MapManager} */
+    void spawn(MonStats.Entry monster, float x, float y) {
+      if (spawns == EMPTY_MONSTER_ARRAY) {
+        spawns = new Array<>(MonStats.Entry.class);
+        spawnPositions = new FloatArray();
+      }
+
+      spawns.add(monster);
+      spawnPositions.add(x, y);
+    }
+
     void setWarp(int src, int dst) {
       if (warps == EMPTY_INT_INT_MAP) warps = new IntIntMap(4);
       warps.put(src, dst);
@@ -872,13 +995,27 @@ public class Map implements Disposable {
       }
     }
 
-    void generate() {
+    /**
+     * Seeds this zone and resolves everything {@link #fill()} needs from
+     * shared state, i.e., assets and excels. Called serially in zone order.
+     */
+    void prepare(Seed seed) {
 //      boolean allNull = true;
 //      for (int i = 0; allNull && i < MAX_LAYERS; i++) allNull = tiles[i] == null;
 //      Validate.validState(allNull, "tiles have already been loaded");
+      random.seed(seed);
       generator.init(this);
       dt1s = map.dt1s.get(type.Id);
       tiles[Map.FLOOR_OFFSET] = Zone.obtainTileArray(tilesX * tilesY);
+      for (Preset[] x : presets) for (Preset preset : x) if (preset != null) preset.finishLoading();
+    }
+
+    /**
+     * Fills the tiles and flags of this zone. Only writes to this zone (and
+     * its presets, which are not shared between zones) and only draws from
+     * {@link #random}, so different zones may be filled concurrently.
+     */
+    void fill() {
       for (int x = 0, gridX = 0, gridY = 0; x < gridsX; x++, gridX += gridSizeX, gridY = 0) {
         for (int y = 0; y < gridsY; y++, gridY += gridSizeY) {
           Preset preset = presets[x][y];
@@ -887,7 +1024,6 @@ public class Map implements Disposable {
             continue;
           }
 
-          preset.finishLoading();
           preset.copyTo(this, gridX, gridY);
         }
       }
@@ -934,6 +1070,13 @@ public class Map implements Disposable {
 
     interface Generator {
       void init(Zone zone);
+
+      /**
+       * Fills the specified grid of the zone. May be called concurrently for
+       * different zones, so implementations should only draw from
+       * {@link Zone#random} and record entities with {@link Zone#spawn}
+       * instead of creating them.
+       */
       void generate(Zone zone, DT1s dt1s, int tx, int ty);
     }
   }
@@ -1063,7 +1206,7 @@ public class Map implements Disposable {
               continue;
             }
 
-            DT1.Tile tile = zone.tiles[layer][zone.tileIndex(tx, ty)] = zone.dt1s.get(cell);
+            DT1.Tile tile = zone.tiles[layer][zone.tileIndex(tx, ty)] = zone.dt1s.get(cell, zone.random);
             // FIXME: These are "empty"/"unknown" tiles, in caves, they fill in the gaps
             if (tile == null) {
               continue;
@@ -1135,14 +1278,14 @@ public class Map implements Disposable {
             //  System.out.println("found it! " + String.format("%08x", cell.value));
             //}
 
-            DT1.Tile tile = zone.tiles[layer][zone.tileIndex(tx, ty)] = zone.dt1s.get(cell);
+            DT1.Tile tile = zone.tiles[layer][zone.tileIndex(tx, ty)] = zone.dt1s.get(cell, zone.random);
             or(zone, tx, ty, tile);
 
             // Special case, because LEFT_NORTH_CORNER_WALL don't seem to exist, but they contain
             // collision data for RIGHT_NORTH_CORNER_WALL, ORing the data just in case some
             // RIGHT_NORTH_CORNER_WALL actually does anything
             if (cell.orientation == Orientation.RIGHT_NORTH_CORNER_WALL) {
-              DT1.Tile sibling = zone.dt1s.get(Orientation.LEFT_NORTH_CORNER_WALL, cell.mainIndex, cell.subIndex);
+              DT1.Tile sibling = zone.dt1s.get(Orientation.LEFT_NORTH_CORNER_WALL, cell.mainIndex, cell.subIndex, zone.random);
               or(zone, tx, ty, sibling);
             }
           }
@@ -1167,7 +1310,7 @@ public class Map implements Disposable {
               continue;
             }
 
-            zone.tiles[layer][zone.tileIndex(tx, ty)] = zone.dt1s.get(cell);
+            zone.tiles[layer][zone.tileIndex(tx, ty)] = zone.dt1s.get(cell, zone.random);
           }
         }
       }
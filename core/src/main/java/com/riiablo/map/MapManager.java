@@ -2,7 +2,9 @@ package com.riiablo.map;
 
 import com.artemis.annotations.Wire;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
 import com.badlogic.gdx.utils.IntMap;
+import com.riiablo.codec.excel.MonStats;
 import com.riiablo.engine.Engine;
 import com.riiablo.engine.EntityFactory;
 
@@ -20,6 +22,7 @@ public class MapManager extends PassiveSystem {
     for (Map.Zone zone : new Array.ArrayIterator<>(map.zones)) {
       createWarps(zone);
       createEntities(zone);
+      createSpawns(zone);
     }
   }
 
@@ -37,6 +40,14 @@ public class MapManager extends PassiveSystem {
     }
   }
 
+  private void createSpawns(Map.Zone zone) {
+    Array<MonStats.Entry> spawns = zone.spawns;
+    FloatArray positions = zone.spawnPositions;
+    for (int i = 0, size = spawns.size; i < size; i++) {
+      factory.createMonster(spawns.get(i), positions.get(i << 1), positions.get((i << 1) + 1));
+    }
+  }
+
   public void createEntities(Map.Zone zone) {
     for (int x = 0, gridX = 0, gridY = 0; x < zone.gridsX; x++, gridX += zone.gridSizeX, gridY = 0) {
       for (int y = 0; y < zone.gridsY; y++, gridY += zone.gridSizeY) {
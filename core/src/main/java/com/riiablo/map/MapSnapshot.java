@@ -0,0 +1,531 @@
+package com.riiablo.map;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import org.apache.commons.lang3.Validate;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import com.riiablo.Riiablo;
+import com.riiablo.codec.excel.Levels;
+import com.riiablo.codec.excel.LvlPrest;
+import com.riiablo.codec.excel.MonStats;
+import com.riiablo.logger.LogManager;
+import com.riiablo.logger.Logger;
+
+/**
+ * Binary snapshot of a generated {@link Map}, i.e., the state after
+ * {@link Map#generate(int)}, {@link Map#load()}, {@link Map#finishLoading()}
+ * and {@link Map#generate()}, which is read in place, e.g., from a memory
+ * mapped file. Restoring a snapshot only copies the zones and their flags
+ * and resolves their tiles, so it skips running the map builders and
+ * filling the zones.
+ *
+ * Format (big-endian):
+ * <pre>
+ * header   magic, version, seed, diff, act, long[2] MathUtils.random state,
+ *          numZones, int[numZones] zone offsets
+ * zones    for each zone:
+ *            tilesOffset, level id, x, y, width, height, gridSizeX,
+ *            gridSizeY, gridsX, gridsY, tilesX, tilesY, town
+ *            numPresets, presets (LvlPrest def, ds1 path, pop pads),
+ *              int[gridsX * gridsY] preset refs (index + 1, 0 if empty)
+ *            numSpecials, specials (tile hash, cell value, orientation)
+ *            numWarps, warps (src, dst)
+ *            numSpawns, spawns (MonStats id, x, y)
+ *            flags length, byte[] flags
+ *            numTiles, tiles (tile id, variant), layer mask,
+ *              int[tilesX * tilesY] tile refs (index + 1, 0 if null) for
+ *              each layer within the mask
+ * </pre>
+ * Tiles are stored as the index of their variant within the {@link DT1s} of
+ * the zone, so they can only be resolved once the DT1s of the zones have
+ * been loaded.
+ *
+ * @see MapSnapshotCache
+ */
+public final class MapSnapshot {
+  private static final Logger log = LogManager.getLogger(MapSnapshot.class);
+
+  static final int MAGIC = 0x524D5331; // RMS1
+  static final int VERSION = 1;
+
+  private static final int HEADER_SIZE = 10 * Integer.BYTES;
+
+  /** resolves the excel entries referenced by snapshots */
+  interface Resolver {
+    LvlPrest.Entry preset(int def);
+    MonStats.Entry monster(String id);
+  }
+
+  static final Resolver FILES = new Resolver() {
+    @Override
+    public LvlPrest.Entry preset(int def) {
+      return Riiablo.files.LvlPrest.get(def);
+    }
+
+    @Override
+    public MonStats.Entry monster(String id) {
+      return Riiablo.files.monstats.get(id);
+    }
+  };
+
+  public static MapSnapshot map(File file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      return wrap(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  public static MapSnapshot wrap(ByteBuffer buffer) {
+    return new MapSnapshot(buffer);
+  }
+
+  final ByteBuffer buffer;
+  final int seed;
+  final int diff;
+  final int act;
+  final long random0, random1;
+  final int[] zoneOffsets;
+
+  MapSnapshot(ByteBuffer buffer) {
+    this.buffer = buffer;
+    final int magic = buffer.getInt(0);
+    Validate.isTrue(magic == MAGIC, "magic(%08x) != MAGIC(%08x)", magic, MAGIC);
+    final int version = buffer.getInt(4);
+    Validate.isTrue(version == VERSION, "version(%d) != VERSION(%d)", version, VERSION);
+    seed = buffer.getInt(8);
+    diff = buffer.getInt(12);
+    act = buffer.getInt(16);
+    random0 = buffer.getLong(20);
+    random1 = buffer.getLong(28);
+    final int numZones = buffer.getInt(36);
+    zoneOffsets = new int[numZones];
+    for (int i = 0; i < numZones; i++) {
+      zoneOffsets[i] = buffer.getInt(HEADER_SIZE + i * Integer.BYTES);
+      Validate.isTrue(zoneOffsets[i] < buffer.limit(),
+          "snapshot truncated: %d bytes <= %d", buffer.limit(), zoneOffsets[i]);
+    }
+  }
+
+  public int seed() {
+    return seed;
+  }
+
+  public int diff() {
+    return diff;
+  }
+
+  public int act() {
+    return act;
+  }
+
+  public int numZones() {
+    return zoneOffsets.length;
+  }
+
+  /**
+   * Restores the snapshot into the specified map, which must have the seed
+   * and difficulty of the snapshot and must not contain any zones. This
+   * loads the assets of the zones like {@link Map#load()} and
+   * {@link Map#finishLoading()}, and leaves the map as {@link Map#generate()}
+   * would, so it should not be generated again.
+   */
+  public void restore(Map map) {
+    Validate.isTrue(map.seed == seed, "map.seed(%d) != seed(%d)", map.seed, seed);
+    Validate.isTrue(map.diff == diff, "map.diff(%d) != diff(%d)", map.diff, diff);
+    Validate.validState(map.zones.size == 0, "map has already been generated");
+    MathUtils.random.setSeed(seed);
+    if (MathUtils.random instanceof RandomXS128) ((RandomXS128) MathUtils.random).setState(random0, random1);
+    Riiablo.cofs.active = map.updateCofs(act);
+    for (int i = 0, s = numZones(); i < s; i++) {
+      final Levels.Entry level = Riiablo.files.Levels.get(buffer.getInt(zoneOffsets[i] + Integer.BYTES));
+      final Map.Zone zone = Map.Zone.pool.obtain();
+      zone.map = map;
+      zone.level = level;
+      zone.diff = diff;
+      zone.type = Riiablo.files.LvlTypes.get(level.LevelType);
+      readZone(i, zone, FILES);
+      map.zones.add(zone);
+    }
+
+    map.zonesChanged();
+    map.load();
+    map.finishLoading();
+    for (int i = 0, s = numZones(); i < s; i++) {
+      final Map.Zone zone = map.zones.get(i);
+      for (Map.Preset[] x : zone.presets) for (Map.Preset preset : x) if (preset != null) preset.finishLoading();
+      readTiles(i, zone, map.dt1s.get(zone.type.Id));
+    }
+
+    map.flagsVersion++;
+    log.debug("Restored {} zones of act {} (seed {}, diff {})", numZones(), act, seed, diff);
+  }
+
+  /**
+   * Reads everything but the tiles of the specified zone, which must
+   * already have its {@link Map.Zone#level} and {@link Map.Zone#type} set.
+   */
+  void readZone(int index, Map.Zone zone, Resolver resolver) {
+    final ByteBuffer in = buffer.duplicate();
+    in.position(zoneOffsets[index] + 2 * Integer.BYTES); // tilesOffset, level id
+    final int x = in.getInt();
+    final int y = in.getInt();
+    zone.width = in.getInt();
+    zone.height = in.getInt();
+    zone.gridSizeX = in.getInt();
+    zone.gridSizeY = in.getInt();
+    zone.gridsX = in.getInt();
+    zone.gridsY = in.getInt();
+    zone.tilesX = in.getInt();
+    zone.tilesY = in.getInt();
+    zone.town = in.getInt() != 0;
+    zone.setPosition(x, y);
+
+    final Map.Preset[] presets = new Map.Preset[in.getInt()];
+    for (int i = 0; i < presets.length; i++) {
+      final int def = in.getInt();
+      final Map.Preset preset = presets[i] = Map.Preset.of(resolver.preset(def), readString(in));
+      final int numPopPads = in.getInt();
+      if (numPopPads > 0) preset.popPads = new IntMap<>(numPopPads);
+      for (int j = 0; j < numPopPads; j++) {
+        final Map.Preset.PopPad popPad = new Map.Preset.PopPad(in.getInt(), in.getInt(), in.getInt());
+        popPad.setEnd(in.getInt(), in.getInt());
+        preset.popPads.put(popPad.id, popPad);
+      }
+    }
+
+    zone.presets = new Map.Preset[zone.gridsX][zone.gridsY];
+    for (int gx = 0; gx < zone.gridsX; gx++) {
+      for (int gy = 0; gy < zone.gridsY; gy++) {
+        final int ref = in.getInt();
+        zone.presets[gx][gy] = ref == 0 ? null : presets[ref - 1];
+      }
+    }
+
+    for (int i = 0, s = in.getInt(); i < s; i++) {
+      final int hash = in.getInt();
+      final DS1.Cell cell = new DS1.Cell().set(in.getInt(), in.getInt());
+      if (zone.specials == Map.Zone.EMPTY_INT_CELL_MAP) zone.specials = new IntMap<>();
+      zone.specials.put(hash, cell);
+    }
+
+    for (int i = 0, s = in.getInt(); i < s; i++) {
+      zone.setWarp(in.getInt(), in.getInt());
+    }
+
+    for (int i = 0, s = in.getInt(); i < s; i++) {
+      zone.spawn(resolver.monster(readString(in)), in.getFloat(), in.getFloat());
+    }
+
+    final int flagsLength = in.getInt();
+    zone.flags = Map.Zone.obtainByteArray(flagsLength);
+    in.get(zone.flags, 0, flagsLength);
+  }
+
+  /** Resolves the tiles of the specified zone from the specified DT1s. */
+  void readTiles(int index, Map.Zone zone, DT1s dt1s) {
+    final ByteBuffer in = buffer.duplicate();
+    in.position(buffer.getInt(zoneOffsets[index]));
+    final DT1.Tile[] tiles = new DT1.Tile[in.getInt()];
+    for (int i = 0; i < tiles.length; i++) {
+      final int id = in.getInt();
+      final int variant = in.getInt();
+      final Array<DT1.Tile> variants = dt1s == null ? null : dt1s.tiles.get(id);
+      if (variants == null || variant >= variants.size) {
+        throw new IllegalStateException(String.format(
+            "%s does not contain variant %d of tile %08x", zone.level.LevelName, variant, id));
+      }
+
+      tiles[i] = variants.get(variant);
+    }
+
+    zone.dt1s = dt1s;
+    final int layerMask = in.getInt();
+    final int numTiles = zone.tilesX * zone.tilesY;
+    for (int layer = 0; layer < Map.MAX_LAYERS; layer++) {
+      if ((layerMask & (1 << layer)) == 0) continue;
+      final DT1.Tile[] dst = zone.tiles[layer] = Map.Zone.obtainTileArray(numTiles);
+      for (int i = 0; i < numTiles; i++) {
+        final int ref = in.getInt();
+        if (ref != 0) dst[i] = tiles[ref - 1];
+      }
+    }
+  }
+
+  static String readString(ByteBuffer in) {
+    final byte[] bytes = new byte[in.getInt()];
+    in.get(bytes);
+    return new String(bytes, StandardCharsets.US_ASCII);
+  }
+
+  static void writeString(DataOutputStream out, String string) throws IOException {
+    final byte[] bytes = string.getBytes(StandardCharsets.US_ASCII);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  /**
+   * Writes a snapshot of the specified generated map of the specified act,
+   * including the current state of {@link MathUtils#random}.
+   */
+  public static byte[] write(Map map, int act) throws IOException {
+    final Random random = MathUtils.random;
+    final long random0, random1;
+    if (random instanceof RandomXS128) {
+      random0 = ((RandomXS128) random).getState(0);
+      random1 = ((RandomXS128) random).getState(1);
+    } else {
+      random0 = random1 = 0;
+    }
+
+    return write(map, act, random0, random1);
+  }
+
+  static byte[] write(Map map, int act, long random0, long random1) throws IOException {
+    final Array<Map.Zone> zones = map.zones;
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 20);
+    final DataOutputStream out = new DataOutputStream(bytes);
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeInt(map.seed);
+    out.writeInt(map.diff);
+    out.writeInt(act);
+    out.writeLong(random0);
+    out.writeLong(random1);
+    out.writeInt(zones.size);
+    for (int i = 0; i < zones.size; i++) out.writeInt(0); // zone offsets, patched below
+
+    final int[] zoneOffsets = new int[zones.size];
+    final int[] tilesOffsets = new int[zones.size];
+    for (int i = 0; i < zones.size; i++) {
+      zoneOffsets[i] = out.size();
+      tilesOffsets[i] = writeZone(out, zones.get(i));
+    }
+
+    out.flush();
+    final ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+    for (int i = 0; i < zones.size; i++) {
+      buffer.putInt(HEADER_SIZE + i * Integer.BYTES, zoneOffsets[i]);
+      buffer.putInt(zoneOffsets[i], tilesOffsets[i]);
+    }
+
+    return buffer.array();
+  }
+
+  /** @return offset of the tiles of the zone */
+  static int writeZone(DataOutputStream out, Map.Zone zone) throws IOException {
+    out.writeInt(0); // tilesOffset, patched by caller
+    out.writeInt(zone.level.Id);
+    out.writeInt(zone.x);
+    out.writeInt(zone.y);
+    out.writeInt(zone.width);
+    out.writeInt(zone.height);
+    out.writeInt(zone.gridSizeX);
+    out.writeInt(zone.gridSizeY);
+    out.writeInt(zone.gridsX);
+    out.writeInt(zone.gridsY);
+    out.writeInt(zone.tilesX);
+    out.writeInt(zone.tilesY);
+    out.writeInt(zone.town ? 1 : 0);
+
+    final ObjectIntMap<Map.Preset> presetIds = new ObjectIntMap<>();
+    final Array<Map.Preset> presets = new Array<>(Map.Preset.class);
+    for (Map.Preset[] x : zone.presets) {
+      for (Map.Preset preset : x) {
+        if (preset != null && !presetIds.containsKey(preset)) {
+          presetIds.put(preset, presets.size + 1);
+          presets.add(preset);
+        }
+      }
+    }
+
+    out.writeInt(presets.size);
+    for (int i = 0; i < presets.size; i++) {
+      final Map.Preset preset = presets.get(i);
+      out.writeInt(preset.preset.Def);
+      writeString(out, preset.ds1Path);
+      final IntMap<Map.Preset.PopPad> popPads = preset.popPads;
+      out.writeInt(popPads == null ? 0 : popPads.size);
+      if (popPads == null) continue;
+      for (Map.Preset.PopPad popPad : popPads.values()) {
+        out.writeInt(popPad.id);
+        out.writeInt(popPad.startX);
+        out.writeInt(popPad.startY);
+        out.writeInt(popPad.endX);
+        out.writeInt(popPad.endY);
+      }
+    }
+
+    for (int gx = 0; gx < zone.gridsX; gx++) {
+      for (int gy = 0; gy < zone.gridsY; gy++) {
+        final Map.Preset preset = zone.presets[gx][gy];
+        out.writeInt(preset == null ? 0 : presetIds.get(preset, 0));
+      }
+    }
+
+    out.writeInt(zone.specials.size);
+    for (IntMap.Entry<DS1.Cell> entry : zone.specials.entries()) {
+      out.writeInt(entry.key);
+      out.writeInt(entry.value.value);
+      out.writeInt(entry.value.orientation);
+    }
+
+    out.writeInt(zone.warps.size);
+    for (IntIntMap.Entry entry : zone.warps.entries()) {
+      out.writeInt(entry.key);
+      out.writeInt(entry.value);
+    }
+
+    out.writeInt(zone.spawns.size);
+    for (int i = 0; i < zone.spawns.size; i++) {
+      writeString(out, zone.spawns.get(i).Id);
+      out.writeFloat(zone.spawnPositions.get(i << 1));
+      out.writeFloat(zone.spawnPositions.get((i << 1) + 1));
+    }
+
+    final int flagsLength = zone.width * zone.height;
+    out.writeInt(flagsLength);
+    out.write(zone.flags, 0, flagsLength);
+
+    final int tilesOffset = out.size();
+    final int numTiles = zone.tilesX * zone.tilesY;
+    final ObjectIntMap<DT1.Tile> tileIds = new ObjectIntMap<>();
+    final Array<DT1.Tile> tiles = new Array<>(DT1.Tile.class);
+    int layerMask = 0;
+    for (int layer = 0; layer < Map.MAX_LAYERS; layer++) {
+      final DT1.Tile[] src = zone.tiles[layer];
+      if (src == null) continue;
+      layerMask |= 1 << layer;
+      for (int i = 0; i < numTiles; i++) {
+        final DT1.Tile tile = src[i];
+        if (tile != null && !tileIds.containsKey(tile)) {
+          tileIds.put(tile, tiles.size + 1);
+          tiles.add(tile);
+        }
+      }
+    }
+
+    out.writeInt(tiles.size);
+    for (int i = 0; i < tiles.size; i++) {
+      final DT1.Tile tile = tiles.get(i);
+      final Array<DT1.Tile> variants = zone.dt1s.tiles.get(tile.id);
+      final int variant = variants == null ? -1 : variants.indexOf(tile, true);
+      if (variant < 0) {
+        throw new IllegalStateException(String.format(
+            "%s contains tile %08x which is not within its DT1s", zone.level.LevelName, tile.id));
+      }
+
+      out.writeInt(tile.id);
+      out.writeInt(variant);
+    }
+
+    out.writeInt(layerMask);
+    for (int layer = 0; layer < Map.MAX_LAYERS; layer++) {
+      final DT1.Tile[] src = zone.tiles[layer];
+      if (src == null) continue;
+      for (int i = 0; i < numTiles; i++) {
+        out.writeInt(src[i] == null ? 0 : tileIds.get(src[i], 0));
+      }
+    }
+
+    return tilesOffset;
+  }
+
+  /**
+   * Compares the generated state of the specified maps, e.g., a map restored
+   * from a snapshot against one generated live.
+   *
+   * @return description of the first difference, or {@code null} if the maps
+   *         are the same
+   */
+  public static String compare(Map expected, Map actual) {
+    if (expected.zones.size != actual.zones.size) {
+      return "zones: " + expected.zones.size + " != " + actual.zones.size;
+    }
+
+    for (int i = 0; i < expected.zones.size; i++) {
+      final String difference = compare(expected.zones.get(i), actual.zones.get(i));
+      if (difference != null) return "zone " + i + " " + difference;
+    }
+
+    return null;
+  }
+
+  static String compare(Map.Zone expected, Map.Zone actual) {
+    if (expected.level.Id != actual.level.Id) return "level: " + expected.level.Id + " != " + actual.level.Id;
+    final int[] e = {
+        expected.x, expected.y, expected.width, expected.height,
+        expected.gridSizeX, expected.gridSizeY, expected.gridsX, expected.gridsY,
+        expected.tx, expected.ty, expected.tilesX, expected.tilesY, expected.town ? 1 : 0,
+    };
+    final int[] a = {
+        actual.x, actual.y, actual.width, actual.height,
+        actual.gridSizeX, actual.gridSizeY, actual.gridsX, actual.gridsY,
+        actual.tx, actual.ty, actual.tilesX, actual.tilesY, actual.town ? 1 : 0,
+    };
+    if (!Arrays.equals(e, a)) return "geometry: " + Arrays.toString(e) + " != " + Arrays.toString(a);
+
+    for (int i = 0, s = expected.width * expected.height; i < s; i++) {
+      if (expected.flags[i] != actual.flags[i]) return "flags[" + i + "]: " + expected.flags[i] + " != " + actual.flags[i];
+    }
+
+    for (int layer = 0; layer < Map.MAX_LAYERS; layer++) {
+      final DT1.Tile[] el = expected.tiles[layer], al = actual.tiles[layer];
+      if ((el == null) != (al == null)) return "layer " + layer + ": " + (el != null) + " != " + (al != null);
+      if (el == null) continue;
+      for (int i = 0, s = expected.tilesX * expected.tilesY; i < s; i++) {
+        if (el[i] != al[i]) return "tiles[" + layer + "][" + i + "]: " + el[i] + " != " + al[i];
+      }
+    }
+
+    for (int x = 0; x < expected.gridsX; x++) {
+      for (int y = 0; y < expected.gridsY; y++) {
+        final Map.Preset ep = expected.presets[x][y], ap = actual.presets[x][y];
+        if (ep == null && ap == null) continue;
+        if (ep == null || ap == null || ep.preset != ap.preset || !ep.ds1Path.equals(ap.ds1Path)) {
+          return "presets[" + x + "][" + y + "]: " + ep + " != " + ap;
+        }
+      }
+    }
+
+    if (expected.specials.size != actual.specials.size) {
+      return "specials: " + expected.specials.size + " != " + actual.specials.size;
+    }
+
+    for (IntMap.Entry<DS1.Cell> entry : expected.specials.entries()) {
+      final DS1.Cell cell = actual.specials.get(entry.key);
+      if (cell == null || cell.value != entry.value.value || cell.orientation != entry.value.orientation) {
+        return "specials[" + Integer.toHexString(entry.key) + "]";
+      }
+    }
+
+    if (!expected.warps.equals(actual.warps)) return "warps: " + expected.warps + " != " + actual.warps;
+
+    if (expected.spawns.size != actual.spawns.size) {
+      return "spawns: " + expected.spawns.size + " != " + actual.spawns.size;
+    }
+
+    for (int i = 0; i < expected.spawns.size; i++) {
+      if (expected.spawns.get(i) != actual.spawns.get(i)
+          || expected.spawnPositions.get(i << 1) != actual.spawnPositions.get(i << 1)
+          || expected.spawnPositions.get((i << 1) + 1) != actual.spawnPositions.get((i << 1) + 1)) {
+        return "spawns[" + i + "]";
+      }
+    }
+
+    return null;
+  }
+}
@@ -0,0 +1,166 @@
+package com.riiablo.map;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import org.apache.commons.lang3.Validate;
+
+import com.riiablo.logger.LogManager;
+import com.riiablo.logger.Logger;
+
+/**
+ * Bounded on-disk cache of {@link MapSnapshot snapshots} keyed by seed,
+ * difficulty and act. Snapshots are memory mapped when restored, and the
+ * least recently used snapshots are deleted once the cache holds more than
+ * its maximum number of snapshots.
+ */
+public class MapSnapshotCache {
+  private static final Logger log = LogManager.getLogger(MapSnapshotCache.class);
+
+  static final String EXTENSION = ".rms";
+
+  private static final FileFilter SNAPSHOTS = new FileFilter() {
+    @Override
+    public boolean accept(File file) {
+      return file.isFile() && file.getName().endsWith(EXTENSION);
+    }
+  };
+
+  final File dir;
+  final int maxSnapshots;
+  boolean validate;
+
+  public MapSnapshotCache(File dir, int maxSnapshots) {
+    Validate.isTrue(maxSnapshots > 0, "maxSnapshots(%d) <= 0", maxSnapshots);
+    this.dir = dir;
+    this.maxSnapshots = maxSnapshots;
+  }
+
+  /**
+   * Sets whether or not restored maps are validated against a map generated
+   * live. Snapshots which do not match are discarded and regenerated.
+   */
+  public MapSnapshotCache validate(boolean validate) {
+    this.validate = validate;
+    return this;
+  }
+
+  File file(int seed, int diff, int act) {
+    return new File(dir, String.format("%08x-%d-%d%s", seed, diff, act, EXTENSION));
+  }
+
+  /**
+   * Restores the specified act of the specified map from its snapshot, or
+   * generates it like {@link #generate} and caches a snapshot of it.
+   *
+   * @return whether or not the map was restored from a snapshot
+   */
+  public boolean load(Map map, int act, ForkJoinPool pool) {
+    final MapSnapshot snapshot = get(map.seed, map.diff, act);
+    if (snapshot != null) {
+      try {
+        snapshot.restore(map);
+        if (!validate || validate(map, act, pool)) return true;
+      } catch (Throwable t) {
+        log.error("Failed to restore {}, regenerating it", file(map.seed, map.diff, act), t);
+      }
+
+      map.dispose();
+      evict(file(map.seed, map.diff, act));
+    }
+
+    generate(map, act, pool);
+    put(map, act);
+    return false;
+  }
+
+  /** Generates the specified act of the specified map as a snapshot would restore it. */
+  public static void generate(Map map, int act, ForkJoinPool pool) {
+    map.generate(act);
+    map.load();
+    map.finishLoading();
+    map.generate(pool);
+  }
+
+  boolean validate(Map map, int act, ForkJoinPool pool) {
+    final Map live = new Map(map.seed, map.diff);
+    try {
+      generate(live, act, pool);
+      final String difference = MapSnapshot.compare(live, map);
+      if (difference == null) return true;
+      log.error("{} does not match live generation: {}", file(map.seed, map.diff, act), difference);
+      return false;
+    } finally {
+      live.dispose();
+    }
+  }
+
+  /** @return the cached snapshot, or {@code null} if there is no valid snapshot */
+  public MapSnapshot get(int seed, int diff, int act) {
+    final File file = file(seed, diff, act);
+    if (!file.isFile()) return null;
+    try {
+      final MapSnapshot snapshot = MapSnapshot.map(file);
+      if (!file.setLastModified(System.currentTimeMillis())) {
+        log.warn("Failed to touch {}", file);
+      }
+
+      log.debug("Mapped {}", file);
+      return snapshot;
+    } catch (Throwable t) {
+      log.error("Failed to map {}, discarding it", file, t);
+      evict(file);
+      return null;
+    }
+  }
+
+  /** Caches a snapshot of the specified generated act of the specified map. */
+  public void put(Map map, int act) {
+    final File file = file(map.seed, map.diff, act);
+    try {
+      if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("Failed to create " + dir);
+      final byte[] bytes = MapSnapshot.write(map, act);
+      final File tmp = File.createTempFile(file.getName(), ".tmp", dir);
+      try {
+        Files.write(tmp.toPath(), bytes);
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(tmp.toPath());
+      }
+
+      log.debug("Wrote {} ({} bytes)", file, bytes.length);
+    } catch (Throwable t) {
+      log.error("Failed to write {}", file, t);
+      return;
+    }
+
+    trim();
+  }
+
+  /** deletes the least recently used snapshots in excess of {@link #maxSnapshots} */
+  void trim() {
+    final File[] snapshots = dir.listFiles(SNAPSHOTS);
+    if (snapshots == null || snapshots.length <= maxSnapshots) return;
+    Arrays.sort(snapshots, new Comparator<File>() {
+      @Override
+      public int compare(File a, File b) {
+        return Long.compare(b.lastModified(), a.lastModified());
+      }
+    });
+
+    for (int i = maxSnapshots; i < snapshots.length; i++) evict(snapshots[i]);
+  }
+
+  void evict(File file) {
+    if (file.delete()) {
+      log.debug("Evicted {}", file);
+    } else if (file.exists()) {
+      log.warn("Failed to evict {}", file);
+    }
+  }
+}
@@ -0,0 +1,173 @@
+package com.riiablo.map;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import com.riiablo.Riiablo;
+import com.riiablo.asset.AssetDesc;
+import com.riiablo.asset.param.DcParams;
+import com.riiablo.asset.param.MpqParams;
+import com.riiablo.codec.DC6;
+import com.riiablo.codec.DCC;
+import com.riiablo.codec.excel.MonStats;
+import com.riiablo.codec.excel.MonStats2;
+import com.riiablo.codec.excel.Objects;
+import com.riiablo.engine.Engine;
+import com.riiablo.engine.server.component.Class;
+import com.riiablo.file.Cof;
+import com.riiablo.file.Dc6;
+import com.riiablo.file.Dcc;
+
+/**
+ * Maps a zone to the animations of the monsters spawned within it and of the
+ * monsters and objects placed by its presets, i.e., the assets which are
+ * otherwise loaded lazily once those entities are created. The cof of each
+ * entity's spawn mode is prefetched first, and once it has loaded, the
+ * layers it references are prefetched for every component variant the
+ * entity may be created with.
+ *
+ * @see com.riiablo.engine.server.ServerEntityFactory#createMonster
+ * @see com.riiablo.engine.server.ServerEntityFactory#createStaticObject
+ * @see com.riiablo.engine.client.CofLayerLoader
+ */
+public class ZoneEntityAssets implements ZonePrefetcher.ZoneAssets {
+  static final String LIT = "LIT";
+
+  /** prefetched cofs and the entities they animate */
+  final ObjectMap<AssetDesc, Entity> entities = new ObjectMap<>();
+  final StringBuilder builder = new StringBuilder(64);
+
+  @Override
+  public void assets(Map.Zone zone, Array<AssetDesc> assets) {
+    final Array<MonStats.Entry> spawns = zone.spawns;
+    for (int i = 0, s = spawns.size; i < s; i++) addMonster(spawns.get(i), assets);
+    if (zone.presets == null) return;
+    for (Map.Preset[] x : zone.presets) {
+      for (Map.Preset preset : x) {
+        if (preset == null || preset.ds1 == null) continue;
+        final DS1 ds1 = preset.ds1;
+        final int act = ds1.getAct();
+        for (DS1.Object object : ds1.objects) {
+          switch (object.type) {
+            case DS1.Object.DYNAMIC_TYPE:
+              addMonster(Riiablo.files.monstats.get(Riiablo.files.MonPreset.getPlace(act, object.id)), assets);
+              break;
+            case DS1.Object.STATIC_TYPE:
+              addObject(Riiablo.files.objects.get(Riiablo.files.obj.getObjectId(act, object.id)), assets);
+              break;
+          }
+        }
+      }
+    }
+  }
+
+  /** @see com.riiablo.engine.server.ServerEntityFactory#createMonster */
+  void addMonster(MonStats.Entry monstats, Array<AssetDesc> assets) {
+    if (monstats == null) return; // MonPlace or SuperUniques
+    final MonStats2.Entry monstats2 = Riiablo.files.monstats2.get(monstats.MonStatsEx);
+    if (monstats2 == null) return;
+    final Class.Type type = Class.Type.MON;
+    final String mode = monstats.spawnmode.isEmpty()
+        ? type.getMode(Engine.Monster.MODE_NU)
+        : monstats.spawnmode;
+    final String[][] components = new String[monstats2.ComponentV.length][];
+    for (int i = 0; i < components.length; i++) {
+      final String ComponentV = monstats2.ComponentV[i];
+      if (!ComponentV.isEmpty()) components[i] = StringUtils.remove(ComponentV, '"').split(",");
+    }
+
+    add(type, monstats.Code, mode, monstats2.BaseW, components, assets);
+  }
+
+  /** @see com.riiablo.engine.server.ServerEntityFactory#createStaticObject */
+  void addObject(Objects.Entry base, Array<AssetDesc> assets) {
+    if (base == null || !base.Draw) return;
+    final Class.Type type = Class.Type.OBJ;
+    add(type, base.Token, type.getMode(type.DEFAULT_MODE), Engine.getWClass(Engine.WEAPON_HTH), null, assets);
+  }
+
+  void add(Class.Type type, String token, String mode, String wclass, String[][] components, Array<AssetDesc> assets) {
+    final String path = type.PATH + '\\' + token + "\\cof\\" + token + mode + wclass + ".cof";
+    if (!Riiablo.mpqs.contains(path)) return;
+    final AssetDesc<Cof> cof = AssetDesc.of(path, Cof.class, MpqParams.<Cof>of());
+    if (!entities.containsKey(cof)) entities.put(cof, new Entity(type, token, mode, components));
+    assets.add(cof);
+  }
+
+  @Override
+  public void loaded(AssetDesc asset, Object object, Array<AssetDesc> assets) {
+    if (!(object instanceof Cof)) return;
+    final Entity entity = entities.get(asset);
+    if (entity == null) return;
+    final Cof cof = (Cof) object;
+    for (int l = 0, s = cof.numLayers(); l < s; l++) {
+      final Cof.Layer layer = cof.layer(l);
+      final int c = layer.component;
+      final String[] variants = entity.components(c);
+      if (variants == null) {
+        addLayer(entity, c, LIT, layer.weaponClass, assets);
+      } else {
+        for (String variant : variants) addLayer(entity, c, variant, layer.weaponClass, assets);
+      }
+    }
+  }
+
+  /** @see com.riiablo.engine.client.CofLayerLoader */
+  void addLayer(Entity entity, int c, String component, String weaponClass, Array<AssetDesc> assets) {
+    final String composite = Engine.getComposite(c);
+    builder.setLength(0);
+    builder
+        .append(entity.type.PATH).append('\\')
+        .append(entity.token).append('\\')
+        .append(composite).append('\\')
+        .append(entity.token).append(composite).append(component).append(entity.mode).append(weaponClass)
+        .append('.');
+    final int extension = builder.length();
+    String path = builder.append(DCC.EXT).toString();
+    if (Riiablo.mpqs.contains(path)) {
+      assets.add(AssetDesc.of(path, Dcc.class, DcParams.of(-1)));
+      return;
+    }
+
+    builder.setLength(extension);
+    path = builder.append(DC6.EXT).toString();
+    if (Riiablo.mpqs.contains(path)) {
+      assets.add(AssetDesc.of(path, Dc6.class, DcParams.of(-1)));
+    }
+  }
+
+  @Override
+  public void clear() {
+    entities.clear();
+  }
+
+  static final class Entity {
+    static final String[] EMPTY = new String[0];
+
+    final Class.Type type;
+    final String token;
+    final String mode;
+    /** component variants indexed by component, {@code null} for objects */
+    final String[][] components;
+
+    Entity(Class.Type type, String token, String mode, String[][] components) {
+      this.type = type;
+      this.token = token;
+      this.mode = mode;
+      this.components = components;
+    }
+
+    /**
+     * Returns the variants the specified component may be created with,
+     * {@code null} if it is always {@link #LIT}, or an empty array if the
+     * layer is not drawn.
+     */
+    String[] components(int c) {
+      if (components == null) return null;
+      if (c >= components.length || components[c] == null) return EMPTY;
+      return components[c];
+    }
+  }
+}
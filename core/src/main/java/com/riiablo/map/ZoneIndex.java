@@ -0,0 +1,135 @@
+package com.riiablo.map;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Spatial index resolving the {@link Map.Zone} containing a world sub-tile in
+ * constant time. The bounds of all zones are divided into square cells of
+ * {@code 1 << CELL_SHIFT} sub-tiles, each storing the zones which overlap it
+ * in the order they were added to the map, s.t. overlapping zones resolve the
+ * same as a linear scan of {@link Map#zones}. Zones only overlap cells along
+ * their edges, so most cells store a single zone.
+ *
+ * The index references zones rather than copying their flags, so changes to
+ * zone flags, e.g., {@link Map#or}, are always visible. Changes to the set of
+ * zones or their positions must {@link #invalidate()} the index, which is then
+ * rebuilt on the next lookup.
+ */
+final class ZoneIndex {
+  static final int CELL_SHIFT = 5; // 32 sub-tiles
+  static final int CELL_SIZE = 1 << CELL_SHIFT;
+
+  static final Map.Zone[] EMPTY_CELL = new Map.Zone[0];
+
+  final Array<Map.Zone> zones;
+  boolean dirty = true;
+  int x, y; // world sub-tile of cell 0,0
+  int cellsX, cellsY;
+  Map.Zone[][] cells = new Map.Zone[0][];
+  int[] counts = new int[0];
+  int rebuilds;
+
+  ZoneIndex(Array<Map.Zone> zones) {
+    this.zones = zones;
+  }
+
+  void invalidate() {
+    dirty = true;
+  }
+
+  Map.Zone get(int x, int y) {
+    if (dirty) rebuild();
+    x -= this.x;
+    y -= this.y;
+    if (x < 0 || y < 0) return null;
+    final int cellX = x >> CELL_SHIFT;
+    final int cellY = y >> CELL_SHIFT;
+    if (cellX >= cellsX || cellY >= cellsY) return null;
+    final Map.Zone[] cell = cells[cellY * cellsX + cellX];
+    x += this.x;
+    y += this.y;
+    for (Map.Zone zone : cell) if (zone.contains(x, y)) return zone;
+    return null;
+  }
+
+  void rebuild() {
+    dirty = false;
+    rebuilds++;
+
+    int x0 = Integer.MAX_VALUE, y0 = Integer.MAX_VALUE;
+    int x1 = Integer.MIN_VALUE, y1 = Integer.MIN_VALUE;
+    for (Map.Zone zone : new Array.ArrayIterator<>(zones)) {
+      if (zone.width <= 0 || zone.height <= 0) continue;
+      x0 = Math.min(x0, zone.x);
+      y0 = Math.min(y0, zone.y);
+      x1 = Math.max(x1, zone.x + zone.width);
+      y1 = Math.max(y1, zone.y + zone.height);
+    }
+
+    if (x0 > x1) {
+      x = y = 0;
+      cellsX = cellsY = 0;
+      return;
+    }
+
+    x = x0;
+    y = y0;
+    cellsX = ((x1 - x0) + CELL_SIZE - 1) >> CELL_SHIFT;
+    cellsY = ((y1 - y0) + CELL_SIZE - 1) >> CELL_SHIFT;
+    final int numCells = cellsX * cellsY;
+    if (cells.length < numCells) {
+      cells = new Map.Zone[numCells][];
+      counts = new int[numCells];
+    }
+
+    final int[] counts = this.counts;
+    Arrays.fill(counts, 0, numCells, 0);
+    for (Map.Zone zone : new Array.ArrayIterator<>(zones)) {
+      if (zone.width <= 0 || zone.height <= 0) continue;
+      for (int cy = cellY0(zone), cy1 = cellY1(zone); cy <= cy1; cy++) {
+        for (int cx = cellX0(zone), cx1 = cellX1(zone); cx <= cx1; cx++) {
+          counts[cy * cellsX + cx]++;
+        }
+      }
+    }
+
+    for (int i = 0; i < numCells; i++) {
+      cells[i] = counts[i] == 0 ? EMPTY_CELL : new Map.Zone[counts[i]];
+      counts[i] = 0;
+    }
+
+    for (Map.Zone zone : new Array.ArrayIterator<>(zones)) {
+      if (zone.width <= 0 || zone.height <= 0) continue;
+      for (int cy = cellY0(zone), cy1 = cellY1(zone); cy <= cy1; cy++) {
+        for (int cx = cellX0(zone), cx1 = cellX1(zone); cx <= cx1; cx++) {
+          final int cell = cy * cellsX + cx;
+          cells[cell][counts[cell]++] = zone;
+        }
+      }
+    }
+  }
+
+  int cellX0(Map.Zone zone) {
+    return (zone.x - x) >> CELL_SHIFT;
+  }
+
+  int cellY0(Map.Zone zone) {
+    return (zone.y - y) >> CELL_SHIFT;
+  }
+
+  int cellX1(Map.Zone zone) {
+    return (zone.x + zone.width - 1 - x) >> CELL_SHIFT;
+  }
+
+  int cellY1(Map.Zone zone) {
+    return (zone.y + zone.height - 1 - y) >> CELL_SHIFT;
+  }
+
+  void clear() {
+    Arrays.fill(cells, null);
+    cellsX = cellsY = 0;
+    dirty = true;
+  }
+}
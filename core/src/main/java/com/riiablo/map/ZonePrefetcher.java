@@ -0,0 +1,331 @@
+package com.riiablo.map;
+
+import io.netty.util.concurrent.Future;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectSet;
+
+import com.riiablo.asset.AssetDesc;
+import com.riiablo.asset.AssetManager;
+import com.riiablo.asset.LoadPriority;
+import com.riiablo.logger.LogManager;
+import com.riiablo.logger.Logger;
+
+/**
+ * Prefetches the lazily loaded assets of zones which watched positions are
+ * predicted to enter within {@link #lookahead} seconds, e.g., the animations
+ * of the monsters and objects within them (see {@link ZoneEntityAssets}).
+ * Assets are queued with {@link LoadPriority#PREFETCH}, and bumped to
+ * {@link LoadPriority#VISIBLE} once a watched position {@link #entered} their
+ * zone. Assets which can only be determined once another asset has loaded,
+ * e.g., the layers of a cof, are queued as they are discovered.
+ *
+ * Each watched position is extrapolated along its smoothed velocity, and any
+ * zone whose bounds, expanded by {@link #margin}, intersect the resulting
+ * segment is predicted. Zones which stop being predicted, e.g., because the
+ * player turned away, have their prefetched assets unloaded once they have
+ * not been predicted for {@link #cancelDelay} seconds.
+ *
+ * A prefetch is counted as used when its zone is entered before the prefetch
+ * was cancelled, and its assets which had loaded by then are counted as ready.
+ *
+ * @see #hitRate()
+ * @see #readyRate()
+ */
+public class ZonePrefetcher implements Disposable {
+  private static final Logger log = LogManager.getLogger(ZonePrefetcher.class);
+
+  /** maps a zone to the assets to prefetch */
+  public interface ZoneAssets {
+    /** adds the assets of the specified zone which can be determined up front */
+    void assets(Map.Zone zone, Array<AssetDesc> assets);
+
+    /** adds the assets determined by a prefetched asset once it has loaded */
+    void loaded(AssetDesc asset, Object object, Array<AssetDesc> assets);
+
+    /** releases any state kept for zones which were prefetched */
+    void clear();
+  }
+
+  final Map map;
+  final AssetManager assets;
+  final ZoneAssets zoneAssets;
+
+  /** seconds ahead watched positions are extrapolated */
+  public float lookahead = 3;
+  /** subtiles zone bounds are expanded by when predicting */
+  public float margin = 8 * DT1.Tile.SUBTILE_SIZE;
+  /** seconds a zone must not be predicted before its prefetch is cancelled */
+  public float cancelDelay = 2;
+  /** seconds between predictions */
+  public float interval = 0.25f;
+
+  final Array<Watcher> watchers = new Array<>(false, 4);
+  final ObjectMap<Map.Zone, Prefetch> prefetches = new ObjectMap<>();
+  final ObjectSet<Map.Zone> predicted = new ObjectSet<>();
+  float elapsed;
+
+  long zonesPrefetched;
+  long zonesUsed;
+  long zonesCancelled;
+  long assetsUsed;
+  long assetsReady;
+
+  public ZonePrefetcher(Map map, AssetManager assets) {
+    this(map, assets, new ZoneEntityAssets());
+  }
+
+  public ZonePrefetcher(Map map, AssetManager assets, ZoneAssets zoneAssets) {
+    this.map = map;
+    this.assets = assets;
+    this.zoneAssets = zoneAssets;
+  }
+
+  /**
+   * Watches the specified position, e.g., the position component of the
+   * player. The position is read, never written, on each {@link #update}.
+   */
+  public void watch(Vector2 position) {
+    watchers.add(new Watcher(position));
+  }
+
+  public void unwatch(Vector2 position) {
+    for (int i = 0; i < watchers.size; i++) {
+      if (watchers.get(i).position == position) {
+        watchers.removeIndex(i);
+        return;
+      }
+    }
+  }
+
+  /**
+   * Notifies this prefetcher that a watched position entered the specified
+   * zone, e.g., on a zone change event. The prefetched assets of the zone
+   * which have not yet started loading are bumped to
+   * {@link LoadPriority#VISIBLE}.
+   */
+  public void entered(Map.Zone zone) {
+    final Prefetch prefetch = prefetches.get(zone);
+    if (prefetch == null || prefetch.used) return;
+    prefetch.used = true;
+    prefetch.priority = LoadPriority.VISIBLE;
+    zonesUsed++;
+    assetsUsed += prefetch.assets.size;
+    assetsReady += prefetch.ready;
+    int bumped = 0;
+    for (AssetDesc asset : prefetch.assets) {
+      if (assets.bump(asset, LoadPriority.VISIBLE)) bumped++;
+    }
+
+    log.debug("Entered {}: {}/{} prefetched assets ready, {} bumped",
+        zone, prefetch.ready, prefetch.assets.size, bumped);
+  }
+
+  public void update(float delta) {
+    for (Watcher watcher : watchers) watcher.update(delta);
+    elapsed += delta;
+    if (elapsed < interval) return;
+    final float dt = elapsed;
+    elapsed = 0;
+
+    predicted.clear();
+    for (Watcher watcher : watchers) predict(watcher, predicted);
+
+    for (Map.Zone zone : predicted) {
+      Prefetch prefetch = prefetches.get(zone);
+      if (prefetch == null) {
+        prefetches.put(zone, prefetch = prefetch(zone));
+      }
+
+      prefetch.idle = 0;
+    }
+
+    for (ObjectMap.Entries<Map.Zone, Prefetch> it = prefetches.entries(); it.hasNext(); ) {
+      final ObjectMap.Entry<Map.Zone, Prefetch> entry = it.next();
+      if (predicted.contains(entry.key)) continue;
+      final Prefetch prefetch = entry.value;
+      prefetch.idle += dt;
+      if (prefetch.idle >= cancelDelay) {
+        it.remove();
+        cancel(entry.key, prefetch);
+      }
+    }
+  }
+
+  void predict(Watcher watcher, ObjectSet<Map.Zone> predicted) {
+    final Vector2 position = watcher.position;
+    final float x0 = position.x;
+    final float y0 = position.y;
+    final float x1 = x0 + watcher.velocity.x * lookahead;
+    final float y1 = y0 + watcher.velocity.y * lookahead;
+    final Array<Map.Zone> zones = map.zones;
+    for (int i = 0, s = zones.size; i < s; i++) {
+      final Map.Zone zone = zones.get(i);
+      if (intersects(x0, y0, x1, y1,
+          zone.x - margin, zone.y - margin,
+          zone.x + zone.width + margin, zone.y + zone.height + margin)) {
+        predicted.add(zone);
+      }
+    }
+  }
+
+  /**
+   * Tests whether the segment (x0,y0)-(x1,y1) intersects the axis-aligned
+   * rectangle [minX,maxX)x[minY,maxY) using slab clipping.
+   */
+  static boolean intersects(
+      float x0, float y0, float x1, float y1,
+      float minX, float minY, float maxX, float maxY) {
+    float t0 = 0, t1 = 1;
+    final float dx = x1 - x0;
+    if (dx == 0) {
+      if (x0 < minX || x0 >= maxX) return false;
+    } else {
+      float near = (minX - x0) / dx, far = (maxX - x0) / dx;
+      if (near > far) { final float tmp = near; near = far; far = tmp; }
+      if (near > t0) t0 = near;
+      if (far < t1) t1 = far;
+      if (t0 > t1) return false;
+    }
+
+    final float dy = y1 - y0;
+    if (dy == 0) {
+      if (y0 < minY || y0 >= maxY) return false;
+    } else {
+      float near = (minY - y0) / dy, far = (maxY - y0) / dy;
+      if (near > far) { final float tmp = near; near = far; far = tmp; }
+      if (near > t0) t0 = near;
+      if (far < t1) t1 = far;
+      if (t0 > t1) return false;
+    }
+
+    return true;
+  }
+
+  Prefetch prefetch(Map.Zone zone) {
+    final Prefetch prefetch = new Prefetch();
+    final Array<AssetDesc> assets = new Array<>(AssetDesc.class);
+    zoneAssets.assets(zone, assets);
+    log.debug("Prefetching {} ({} assets)", zone, assets.size);
+    for (AssetDesc asset : assets) load(prefetch, asset);
+    zonesPrefetched++;
+    return prefetch;
+  }
+
+  /** queues the specified asset once per prefetch, with the priority of the prefetch */
+  void load(final Prefetch prefetch, final AssetDesc asset) {
+    if (!prefetch.queued.add(asset)) return;
+    prefetch.assets.add(asset);
+    @SuppressWarnings("unchecked")
+    final Future<Object> future = (Future<Object>) assets.load(asset, prefetch.priority);
+    future.addListener(f -> loaded(prefetch, asset, f));
+  }
+
+  /** called on the sync thread once a prefetched asset has loaded or failed */
+  void loaded(final Prefetch prefetch, final AssetDesc asset, final Future<?> future) {
+    if (prefetch.cancelled || !future.isSuccess()) return;
+    prefetch.ready++;
+    final Array<AssetDesc> discovered = new Array<>(AssetDesc.class);
+    zoneAssets.loaded(asset, future.getNow(), discovered);
+    for (AssetDesc dependent : discovered) load(prefetch, dependent);
+  }
+
+  void cancel(Map.Zone zone, Prefetch prefetch) {
+    log.debug("Cancelling prefetch of {}", zone);
+    release(prefetch);
+    zonesCancelled++;
+  }
+
+  /** unloads the prefetched assets, assets still queued will be dropped once loaded */
+  void release(Prefetch prefetch) {
+    prefetch.cancelled = true;
+    for (AssetDesc asset : prefetch.assets) assets.unload(asset);
+  }
+
+  /** number of zones whose assets have been prefetched */
+  public long zonesPrefetched() {
+    return zonesPrefetched;
+  }
+
+  /** number of prefetched zones which were entered before being cancelled */
+  public long zonesUsed() {
+    return zonesUsed;
+  }
+
+  /** number of zone prefetches which were cancelled */
+  public long zonesCancelled() {
+    return zonesCancelled;
+  }
+
+  /** ratio of prefetched zones which were entered before being cancelled */
+  public double hitRate() {
+    return zonesPrefetched == 0 ? 0 : (double) zonesUsed / zonesPrefetched;
+  }
+
+  /** ratio of the prefetched assets of entered zones which had loaded when entered */
+  public double readyRate() {
+    return assetsUsed == 0 ? 0 : (double) assetsReady / assetsUsed;
+  }
+
+  /**
+   * Releases all prefetched assets and stops watching all positions. Must be
+   * called before the zones of the map are disposed, e.g., on act change.
+   */
+  public void clear() {
+    for (Prefetch prefetch : prefetches.values()) release(prefetch);
+    prefetches.clear();
+    predicted.clear();
+    watchers.clear();
+    zoneAssets.clear();
+    elapsed = 0;
+  }
+
+  @Override
+  public void dispose() {
+    log.debug("Prefetched {} zones, {} used, {} cancelled, {}/{} assets ready when used",
+        zonesPrefetched, zonesUsed, zonesCancelled, assetsReady, assetsUsed);
+    clear();
+  }
+
+  static final class Prefetch {
+    final Array<AssetDesc> assets = new Array<>(AssetDesc.class);
+    final ObjectSet<AssetDesc> queued = new ObjectSet<>();
+    LoadPriority priority = LoadPriority.PREFETCH;
+    float idle; // seconds since last predicted
+    int ready; // assets which have loaded
+    boolean used;
+    boolean cancelled;
+  }
+
+  static final class Watcher {
+    /** weight of the most recent velocity sample */
+    static final float SMOOTHING = 0.5f;
+
+    final Vector2 position;
+    final Vector2 previous = new Vector2();
+    final Vector2 velocity = new Vector2();
+    boolean initialized;
+
+    Watcher(Vector2 position) {
+      this.position = position;
+    }
+
+    void update(float delta) {
+      if (!initialized) {
+        initialized = true;
+        previous.set(position);
+        return;
+      }
+
+      if (delta <= 0) return;
+      final float vx = (position.x - previous.x) / delta;
+      final float vy = (position.y - previous.y) / delta;
+      velocity.x += (vx - velocity.x) * SMOOTHING;
+      velocity.y += (vy - velocity.y) * SMOOTHING;
+      previous.set(position);
+    }
+  }
+}
@@ -0,0 +1,10 @@
+package com.riiablo.map.pfa;
+
+/**
+ * Collision flags of world sub-tiles, e.g., a {@link com.riiablo.map.Map} or
+ * an immutable snapshot of one.
+ */
+public interface FlagMap {
+  /** returns the flags of the specified sub-tile, or {@code 0xFF} if it is outside of the world */
+  int flags(int x, int y);
+}
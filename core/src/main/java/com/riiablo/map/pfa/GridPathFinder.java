@@ -0,0 +1,339 @@
+package com.riiablo.map.pfa;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.utils.IntArray;
+
+import com.riiablo.map.MapGraph;
+
+/**
+ * A* over a flat, primitive grid of sub-tiles centered between the start and
+ * end nodes of each search. Node state is kept within preallocated arrays
+ * indexed by grid cell and invalidated using a search id instead of being
+ * reset, and the open list is an indexed binary heap of cell indexes, s.t. a
+ * search allocates nothing other than the {@link Point2} nodes of the
+ * resulting path, which are interned by the {@link MapGraph}.
+ *
+ * A cell is walkable if none of the specified flags are set for it within
+ * {@link FlagMap#flags(int, int)}, and only cells whose clearance is at least the
+ * specified size are expanded, where clearance is computed as in
+ * {@link Point2#updateClearance}. Cells outside of the grid are not walkable,
+ * so searches whose nodes do not both fit within the grid fail immediately.
+ *
+ * Path finders created without a {@link MapGraph} only support searching
+ * sub-tiles using {@link #search(int, int, int, int, int, int, IntArray)},
+ * which does not depend on the map, s.t. they can search immutable snapshots
+ * of its flags from other threads.
+ */
+public class GridPathFinder implements PathFinder {
+  static final float DIAGONAL_COST = (float) Math.sqrt(2);
+
+  // orthogonal neighbors first, same order as MapGraph#getNeighbors
+  static final int[] DX = {-1,  0, 0, 1, -1, -1,  1, 1};
+  static final int[] DY = { 0, -1, 1, 0, -1,  1, -1, 1};
+
+  // rings of cells checked when computing clearance, see Point2#updateClearance
+  static final int[][] CLEARANCE_X = {
+      {0},
+      {-1, 0, 1, -1, 1, -1, 0, 1},
+      {-1, 0, 1, -2, 2, -2, 2, -2, 2, -1, 0, 1},
+  };
+  static final int[][] CLEARANCE_Y = {
+      {0},
+      {-1, -1, -1, 0, 0, 1, 1, 1},
+      {-2, -2, -2, -1, -1, 0, 0, 1, 1, 2, 2, 2},
+  };
+
+  // cell marks: search id << 5 | clearance known << 4 | clearance << 2 | state
+  static final int UNVISITED = 0;
+  static final int OPEN = 1;
+  static final int CLOSED = 2;
+  static final int STATE_MASK = 0x3;
+  static final int CLEARANCE_SHIFT = 2;
+  static final int CLEARANCE_MASK = 0x3 << CLEARANCE_SHIFT;
+  static final int CLEARANCE_KNOWN = 1 << 4;
+  static final int SEARCH_SHIFT = 5;
+  static final int MAX_SEARCH_ID = (1 << (Integer.SIZE - SEARCH_SHIFT)) - 1;
+
+  FlagMap map;
+  final MapGraph graph;
+  final int gridSize;
+  final int[] marks;
+  final float[] g;
+  final float[] f;
+  final byte[] parent; // index into DX/DY of the step taken to reach a cell
+  final int[] heap;
+  final int[] heapIndex;
+  int heapSize;
+
+  int searchId;
+  int originX, originY;
+
+  /** maximum number of nodes expanded per search */
+  public int maxExpansions;
+  public AStarPathFinder.Metrics metrics;
+
+  public GridPathFinder(FlagMap map, MapGraph graph) {
+    this(map, graph, 256, false);
+  }
+
+  public GridPathFinder(FlagMap map, int gridSize) {
+    this(map, null, gridSize, false);
+  }
+
+  /**
+   * @param gridSize width and height of the grid searched in sub-tiles,
+   *                 bounding the distance between start and end nodes
+   */
+  public GridPathFinder(FlagMap map, MapGraph graph, int gridSize, boolean calculateMetrics) {
+    if (gridSize <= 0) throw new IllegalArgumentException("gridSize(" + gridSize + ") <= 0");
+    this.map = map;
+    this.graph = graph;
+    this.gridSize = gridSize;
+    final int numCells = gridSize * gridSize;
+    marks = new int[numCells];
+    g = new float[numCells];
+    f = new float[numCells];
+    parent = new byte[numCells];
+    heap = new int[numCells];
+    heapIndex = new int[numCells];
+    maxExpansions = numCells;
+    if (calculateMetrics) metrics = new AStarPathFinder.Metrics();
+  }
+
+  /**
+   * Rebinds this finder to the specified map, e.g., a newer snapshot of the
+   * same map, reusing its grid. Clearances are only cached for the duration
+   * of a search, so none computed against the previous map are kept.
+   */
+  public void setMap(FlagMap map) {
+    this.map = map;
+  }
+
+  @Override
+  public boolean search(Point2 startNode, Point2 endNode, int flags, int size, GraphPath<Point2> outPath) {
+    if (!search(startNode.x, startNode.y, endNode.x, endNode.y, flags, size)) return false;
+    generateNodePath(startNode.x, startNode.y, endNode.x, endNode.y, outPath);
+    return true;
+  }
+
+  /**
+   * Searches for a path between the specified sub-tiles, appending each
+   * sub-tile of the path, including the start and end, to {@code outPath} as
+   * x,y pairs.
+   */
+  public boolean search(int startX, int startY, int endX, int endY, int flags, int size, IntArray outPath) {
+    if (!search(startX, startY, endX, endY, flags, size)) return false;
+    generateCellPath(startX, startY, endX, endY, outPath);
+    return true;
+  }
+
+  boolean search(int startX, int startY, int endX, int endY, int flags, int size) {
+    if (!initSearch(startX, startY, endX, endY)) return false;
+    final int start = index(startX, startY);
+    final int end = index(endX, endY);
+    final int minClearance = Math.max(size, 1);
+    if (clearance(end, endX, endY, flags) < minClearance) return false;
+
+    g[start] = 0;
+    parent[start] = -1;
+    push(start, heuristic(startX, startY, endX, endY));
+    for (int expansions = 0; heapSize > 0 && expansions < maxExpansions; expansions++) {
+      final int current = pop();
+      marks[current] = (marks[current] & ~STATE_MASK) | CLOSED;
+      if (current == end) return true;
+
+      if (metrics != null) metrics.visitedNodes++;
+      final int cx = originX + current % gridSize;
+      final int cy = originY + current / gridSize;
+      final float currentG = g[current];
+      for (int d = 0; d < 8; d++) {
+        final int nx = cx + DX[d], ny = cy + DY[d];
+        if (!contains(nx, ny)) continue;
+        final int neighbor = index(nx, ny);
+        final int state = mark(neighbor) & STATE_MASK;
+        if (state == CLOSED) continue;
+        if (clearance(neighbor, nx, ny, flags) < minClearance) continue;
+        final float neighborG = currentG + (d < 4 ? 1 : DIAGONAL_COST);
+        if (state == OPEN && g[neighbor] <= neighborG) continue;
+        g[neighbor] = neighborG;
+        parent[neighbor] = (byte) d;
+        final float neighborF = neighborG + heuristic(nx, ny, endX, endY);
+        if (state == OPEN) {
+          f[neighbor] = neighborF;
+          siftUp(heapIndex[neighbor]);
+        } else {
+          push(neighbor, neighborF);
+        }
+      }
+    }
+
+    return false;
+  }
+
+  boolean initSearch(int startX, int startY, int endX, int endY) {
+    if (metrics != null) metrics.reset();
+    if (Math.abs(endX - startX) >= gridSize || Math.abs(endY - startY) >= gridSize) return false;
+    originX = ((startX + endX) >> 1) - (gridSize >> 1);
+    originY = ((startY + endY) >> 1) - (gridSize >> 1);
+    if (++searchId > MAX_SEARCH_ID) {
+      Arrays.fill(marks, 0);
+      searchId = 1;
+    }
+
+    heapSize = 0;
+    return contains(startX, startY) && contains(endX, endY);
+  }
+
+  boolean contains(int x, int y) {
+    x -= originX;
+    y -= originY;
+    return 0 <= x && x < gridSize && 0 <= y && y < gridSize;
+  }
+
+  int index(int x, int y) {
+    return (y - originY) * gridSize + (x - originX);
+  }
+
+  /** returns the mark of the specified cell, resetting it if stale */
+  int mark(int index) {
+    final int mark = marks[index];
+    if ((mark >>> SEARCH_SHIFT) == searchId) return mark;
+    return marks[index] = searchId << SEARCH_SHIFT;
+  }
+
+  int clearance(int index, int x, int y, int flags) {
+    final int mark = mark(index);
+    if ((mark & CLEARANCE_KNOWN) == CLEARANCE_KNOWN) {
+      return (mark & CLEARANCE_MASK) >>> CLEARANCE_SHIFT;
+    }
+
+    final int clearance = clearance(map, x, y, flags);
+    marks[index] = mark | CLEARANCE_KNOWN | (clearance << CLEARANCE_SHIFT);
+    return clearance;
+  }
+
+  /**
+   * Returns the clearance of the specified sub-tile, i.e., the number of
+   * consecutive rings around it, starting with the sub-tile itself, which
+   * contain none of the specified flags.
+   */
+  static int clearance(FlagMap map, int x, int y, int flags) {
+    int i;
+size:
+    for (i = 0; i < CLEARANCE_X.length; i++) {
+      final int[] ringX = CLEARANCE_X[i], ringY = CLEARANCE_Y[i];
+      for (int j = 0; j < ringX.length; j++) {
+        if ((map.flags(x + ringX[j], y + ringY[j]) & flags) != 0) {
+          break size;
+        }
+      }
+    }
+
+    return i;
+  }
+
+  /** octile distance, consistent with the cost of orthogonal and diagonal steps */
+  static float heuristic(int x, int y, int endX, int endY) {
+    final int dx = Math.abs(endX - x);
+    final int dy = Math.abs(endY - y);
+    return (dx + dy) + (DIAGONAL_COST - 2) * Math.min(dx, dy);
+  }
+
+  void generateNodePath(int startX, int startY, int endX, int endY, GraphPath<Point2> outPath) {
+    int x = endX, y = endY;
+    while (x != startX || y != startY) {
+      outPath.add(graph.getOrCreate(x, y));
+      final int d = parent[index(x, y)];
+      x -= DX[d];
+      y -= DY[d];
+    }
+
+    outPath.add(graph.getOrCreate(startX, startY));
+    outPath.reverse();
+  }
+
+  void generateCellPath(int startX, int startY, int endX, int endY, IntArray outPath) {
+    int length = 1;
+    for (int x = endX, y = endY; x != startX || y != startY; length++) {
+      final int d = parent[index(x, y)];
+      x -= DX[d];
+      y -= DY[d];
+    }
+
+    final int offset = outPath.size;
+    final int[] cells = outPath.setSize(offset + (length << 1));
+    for (int x = endX, y = endY, i = outPath.size; ; ) {
+      cells[--i] = y;
+      cells[--i] = x;
+      if (i == offset) break;
+      final int d = parent[index(x, y)];
+      x -= DX[d];
+      y -= DY[d];
+    }
+  }
+
+  void push(int index, float f) {
+    this.f[index] = f;
+    marks[index] = (mark(index) & ~STATE_MASK) | OPEN;
+    heap[heapSize] = index;
+    heapIndex[index] = heapSize;
+    siftUp(heapSize++);
+    if (metrics != null) {
+      metrics.openListAdditions++;
+      metrics.openListPeak = Math.max(metrics.openListPeak, heapSize);
+    }
+  }
+
+  int pop() {
+    final int[] heap = this.heap;
+    final int top = heap[0];
+    final int last = heap[--heapSize];
+    if (heapSize > 0) {
+      heap[0] = last;
+      heapIndex[last] = 0;
+      siftDown(0);
+    }
+
+    return top;
+  }
+
+  void siftUp(int i) {
+    final int[] heap = this.heap;
+    final int index = heap[i];
+    final float value = f[index];
+    while (i > 0) {
+      final int p = (i - 1) >>> 1;
+      final int parentIndex = heap[p];
+      if (f[parentIndex] <= value) break;
+      heap[i] = parentIndex;
+      heapIndex[parentIndex] = i;
+      i = p;
+    }
+
+    heap[i] = index;
+    heapIndex[index] = i;
+  }
+
+  void siftDown(int i) {
+    final int[] heap = this.heap;
+    final int size = heapSize;
+    final int index = heap[i];
+    final float value = f[index];
+    for (;;) {
+      int child = (i << 1) + 1;
+      if (child >= size) break;
+      final int right = child + 1;
+      if (right < size && f[heap[right]] < f[heap[child]]) child = right;
+      final int childIndex = heap[child];
+      if (value <= f[childIndex]) break;
+      heap[i] = childIndex;
+      heapIndex[childIndex] = i;
+      i = child;
+    }
+
+    heap[i] = index;
+    heapIndex[index] = i;
+  }
+}
@@ -0,0 +1,569 @@
+package com.riiablo.map.pfa;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BinaryHeap;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.LongMap;
+
+import com.riiablo.map.DT1;
+import com.riiablo.map.Map;
+import com.riiablo.map.MapGraph;
+
+/**
+ * Hierarchical path finder (HPA*) for paths longer than a {@link GridPathFinder}
+ * can search. The world is divided into square clusters of
+ * {@link #CLUSTER_SIZE} sub-tiles, the size of the preset grids of most
+ * outdoor zones. Wherever walkable sub-tiles line up across a cluster border,
+ * abstract nodes are placed on both sides and linked. Abstract nodes within
+ * the same cluster are linked by the cost of the shortest path between them
+ * which does not leave the cluster.
+ *
+ * A search links the start and end nodes to the abstract nodes of their
+ * clusters, runs A* over the abstract graph and then refines each abstract
+ * edge using the grid path finder, s.t. the number of nodes expanded grows
+ * with the number of clusters crossed rather than the number of sub-tiles.
+ * Nearby nodes are searched directly using the grid path finder.
+ *
+ * A separate abstract graph is kept for each combination of flags and
+ * clearance searched. Clusters are built lazily as searches reach them and
+ * rebuilt after {@link #invalidate} reports a change of walkability within
+ * or near them.
+ */
+public class HierarchicalPathFinder implements PathFinder {
+  /** width and height of a cluster in sub-tiles */
+  public static final int CLUSTER_SIZE = 8 * DT1.Tile.SUBTILE_SIZE;
+  static final int CLUSTER_CELLS = CLUSTER_SIZE * CLUSTER_SIZE;
+
+  /** entrances at least this wide are linked at both ends rather than the middle */
+  static final int MAX_ENTRANCE_WIDTH = 6;
+
+  /** largest clearance computed, see {@link GridPathFinder#clearance} */
+  static final int MAX_CLEARANCE = 3;
+
+  final Map map;
+  final MapGraph graph;
+  final GridPathFinder grid;
+  final IntMap<Layer> layers = new IntMap<>();
+
+  /** maximum number of abstract nodes expanded per search */
+  public int maxExpansions = 4096;
+  public AStarPathFinder.Metrics metrics;
+
+  final BinaryHeap<Node> openList = new BinaryHeap<>();
+  final Array<Node> abstractPath = new Array<>();
+  final GraphPath<Point2> segment = new DefaultGraphPath<>();
+  int searchId;
+
+  // sub-tiles of the cluster loaded for intra-cluster searches
+  Layer loadedLayer;
+  Cluster loadedCluster;
+  int loadedX, loadedY;
+  final boolean[] walkable = new boolean[CLUSTER_CELLS];
+  final float[] dist = new float[CLUSTER_CELLS];
+  final int[] heap = new int[CLUSTER_CELLS];
+  final int[] heapIndex = new int[CLUSTER_CELLS];
+  int heapSize;
+
+  public HierarchicalPathFinder(Map map, MapGraph graph, GridPathFinder grid) {
+    this(map, graph, grid, false);
+  }
+
+  public HierarchicalPathFinder(Map map, MapGraph graph, GridPathFinder grid, boolean calculateMetrics) {
+    this.map = map;
+    this.graph = graph;
+    this.grid = grid;
+    if (calculateMetrics) metrics = new AStarPathFinder.Metrics();
+  }
+
+  /** discards all abstract graphs, e.g., after the map has been (re)generated */
+  public void clear() {
+    layers.clear();
+    loadedLayer = null;
+    loadedCluster = null;
+  }
+
+  /**
+   * Rebuilds the clusters whose walkability may have changed after the flags
+   * of the specified sub-tiles changed, including those whose clearance
+   * depends on them.
+   */
+  public void invalidate(int x, int y, int width, int height) {
+    final int margin = MAX_CLEARANCE - 1;
+    final int cx0 = clusterOf(x - margin), cx1 = clusterOf(x + width - 1 + margin);
+    final int cy0 = clusterOf(y - margin), cy1 = clusterOf(y + height - 1 + margin);
+    for (Layer layer : layers.values()) {
+      for (int cy = cy0; cy <= cy1; cy++) {
+        for (int cx = cx0; cx <= cx1; cx++) {
+          final Cluster cluster = layer.clusters.get(key(cx, cy));
+          if (cluster != null) invalidate(layer, cluster);
+        }
+      }
+    }
+
+    loadedLayer = null;
+    loadedCluster = null;
+  }
+
+  void invalidate(Layer layer, Cluster cluster) {
+    final Array<Node> nodes = cluster.nodes;
+    for (int i = 0, s = nodes.size; i < s; i++) {
+      final Node node = nodes.get(i);
+      final Array<Node> edges = node.edges;
+      for (int j = 0, t = edges.size; j < t; j++) {
+        final Node other = edges.get(j);
+        if (other.cluster != cluster) other.unlink(node);
+      }
+      layer.nodes.remove(key(node.x, node.y));
+    }
+
+    nodes.clear();
+    cluster.eastBuilt = cluster.southBuilt = false;
+    cluster.connected = false;
+    final Cluster west = layer.clusters.get(key(cluster.x - 1, cluster.y));
+    if (west != null) west.eastBuilt = false;
+    final Cluster north = layer.clusters.get(key(cluster.x, cluster.y - 1));
+    if (north != null) north.southBuilt = false;
+  }
+
+  @Override
+  public boolean search(Point2 startNode, Point2 endNode, int flags, int size, GraphPath<Point2> outPath) {
+    if (metrics != null) metrics.reset();
+    final int clearance = Math.max(size, 1);
+    if (clearance > MAX_CLEARANCE) return false;
+    if (isNear(startNode, endNode) && grid.search(startNode, endNode, flags, size, outPath)) return true;
+
+    final Layer layer = layer(flags, clearance);
+    if (!isWalkable(layer, endNode.x, endNode.y)) return false;
+    final Cluster startCluster = cluster(layer, clusterOf(startNode.x), clusterOf(startNode.y));
+    final Cluster endCluster = cluster(layer, clusterOf(endNode.x), clusterOf(endNode.y));
+    connect(layer, startCluster);
+    connect(layer, endCluster);
+
+    // temporary nodes belong to no cluster, s.t. rebuilding a cluster keeps their links
+    final Node source = new Node(null, startNode.x, startNode.y);
+    final Node target = new Node(null, endNode.x, endNode.y);
+    try {
+      load(layer, startCluster);
+      flood(startNode.x, startNode.y);
+      for (Node node : startCluster.nodes) {
+        final float cost = dist[local(node.x, node.y)];
+        if (cost < Float.POSITIVE_INFINITY) source.link(node, cost);
+      }
+      if (startCluster == endCluster) {
+        final float cost = dist[local(endNode.x, endNode.y)];
+        if (cost < Float.POSITIVE_INFINITY) source.link(target, cost);
+      }
+
+      load(layer, endCluster);
+      flood(endNode.x, endNode.y);
+      for (Node node : endCluster.nodes) {
+        final float cost = dist[local(node.x, node.y)];
+        if (cost < Float.POSITIVE_INFINITY) node.link(target, cost);
+      }
+
+      return searchAbstract(layer, source, target)
+          && refine(flags, size, outPath);
+    } finally {
+      for (Node node : endCluster.nodes) node.unlink(target);
+      abstractPath.clear();
+    }
+  }
+
+  static boolean isNear(Point2 startNode, Point2 endNode) {
+    return Math.abs(endNode.x - startNode.x) <= CLUSTER_SIZE
+        && Math.abs(endNode.y - startNode.y) <= CLUSTER_SIZE;
+  }
+
+  boolean searchAbstract(Layer layer, Node source, Node target) {
+    if (++searchId < 0) searchId = 1;
+    openList.clear();
+    reset(source);
+    source.g = 0;
+    open(source, GridPathFinder.heuristic(source.x, source.y, target.x, target.y));
+    for (int expansions = 0; openList.size > 0 && expansions < maxExpansions; expansions++) {
+      final Node current = openList.pop();
+      current.state = Node.CLOSED;
+      if (current == target) {
+        for (Node node = target; node != null; node = node.parent) abstractPath.add(node);
+        abstractPath.reverse();
+        return true;
+      }
+
+      if (metrics != null) metrics.visitedNodes++;
+      if (current.cluster != null) connect(layer, current.cluster);
+      final Array<Node> edges = current.edges;
+      final FloatArray costs = current.costs;
+      for (int i = 0, s = edges.size; i < s; i++) {
+        final Node node = edges.get(i);
+        reset(node);
+        if (node.state == Node.CLOSED) continue;
+        final float g = current.g + costs.get(i);
+        if (node.state == Node.OPEN && node.g <= g) continue;
+        node.g = g;
+        node.parent = current;
+        final float f = g + GridPathFinder.heuristic(node.x, node.y, target.x, target.y);
+        if (node.state == Node.OPEN) {
+          openList.setValue(node, f);
+        } else {
+          open(node, f);
+        }
+      }
+    }
+
+    return false;
+  }
+
+  void reset(Node node) {
+    if (node.searchId == searchId) return;
+    node.searchId = searchId;
+    node.state = Node.UNVISITED;
+    node.parent = null;
+  }
+
+  void open(Node node, float f) {
+    node.state = Node.OPEN;
+    openList.add(node, f);
+    if (metrics != null) {
+      metrics.openListAdditions++;
+      metrics.openListPeak = Math.max(metrics.openListPeak, openList.size);
+    }
+  }
+
+  boolean refine(int flags, int size, GraphPath<Point2> outPath) {
+    Node prev = abstractPath.first();
+    outPath.add(graph.getOrCreate(prev.x, prev.y));
+    for (int i = 1; i < abstractPath.size; i++) {
+      final Node next = abstractPath.get(i);
+      if (next.x == prev.x && next.y == prev.y) continue;
+      segment.clear();
+      if (!grid.search(graph.getOrCreate(prev.x, prev.y), graph.getOrCreate(next.x, next.y), flags, size, segment)) {
+        outPath.clear();
+        return false;
+      }
+
+      for (int j = 1, s = segment.getCount(); j < s; j++) outPath.add(segment.get(j));
+      prev = next;
+    }
+
+    return true;
+  }
+
+  Layer layer(int flags, int clearance) {
+    final int key = flags << 2 | clearance;
+    Layer layer = layers.get(key);
+    if (layer == null) layers.put(key, layer = new Layer(flags, clearance));
+    return layer;
+  }
+
+  Cluster cluster(Layer layer, int x, int y) {
+    final long key = key(x, y);
+    Cluster cluster = layer.clusters.get(key);
+    if (cluster == null) layer.clusters.put(key, cluster = new Cluster(x, y));
+    return cluster;
+  }
+
+  Node node(Layer layer, Cluster cluster, int x, int y) {
+    final long key = key(x, y);
+    Node node = layer.nodes.get(key);
+    if (node == null) {
+      layer.nodes.put(key, node = new Node(cluster, x, y));
+      cluster.nodes.add(node);
+      cluster.connected = false;
+    }
+
+    return node;
+  }
+
+  static int clusterOf(int x) {
+    return Math.floorDiv(x, CLUSTER_SIZE);
+  }
+
+  static long key(int x, int y) {
+    return (long) x << 32 | (y & 0xFFFFFFFFL);
+  }
+
+  boolean isWalkable(Layer layer, int x, int y) {
+    return GridPathFinder.clearance(map, x, y, layer.flags) >= layer.clearance;
+  }
+
+  /**
+   * Builds the borders of the specified cluster and links its abstract nodes
+   * by the costs of the shortest paths between them within the cluster.
+   */
+  void connect(Layer layer, Cluster cluster) {
+    if (!cluster.eastBuilt) {
+      final Cluster east = cluster(layer, cluster.x + 1, cluster.y);
+      final int x = (cluster.x + 1) * CLUSTER_SIZE - 1;
+      buildBorder(layer, cluster, east, x, cluster.y * CLUSTER_SIZE, 1, 0, 0, 1);
+      cluster.eastBuilt = true;
+    }
+
+    if (!cluster.southBuilt) {
+      final Cluster south = cluster(layer, cluster.x, cluster.y + 1);
+      final int y = (cluster.y + 1) * CLUSTER_SIZE - 1;
+      buildBorder(layer, cluster, south, cluster.x * CLUSTER_SIZE, y, 0, 1, 1, 0);
+      cluster.southBuilt = true;
+    }
+
+    final Cluster west = cluster(layer, cluster.x - 1, cluster.y);
+    if (!west.eastBuilt) {
+      final int x = cluster.x * CLUSTER_SIZE - 1;
+      buildBorder(layer, west, cluster, x, cluster.y * CLUSTER_SIZE, 1, 0, 0, 1);
+      west.eastBuilt = true;
+    }
+
+    final Cluster north = cluster(layer, cluster.x, cluster.y - 1);
+    if (!north.southBuilt) {
+      final int y = cluster.y * CLUSTER_SIZE - 1;
+      buildBorder(layer, north, cluster, cluster.x * CLUSTER_SIZE, y, 0, 1, 1, 0);
+      north.southBuilt = true;
+    }
+
+    if (cluster.connected) return;
+    final Array<Node> nodes = cluster.nodes;
+    for (Node node : nodes) node.unlinkCluster();
+
+    load(layer, cluster);
+    for (int i = 0, s = nodes.size; i < s; i++) {
+      final Node src = nodes.get(i);
+      flood(src.x, src.y);
+      for (int j = i + 1; j < s; j++) {
+        final Node dst = nodes.get(j);
+        final float cost = dist[local(dst.x, dst.y)];
+        if (cost == Float.POSITIVE_INFINITY) continue;
+        src.link(dst, cost);
+        dst.link(src, cost);
+      }
+    }
+
+    cluster.connected = true;
+  }
+
+  /**
+   * Places abstract nodes where sub-tiles line up across the border between
+   * clusters {@code a} and {@code b}. The border is walked from (x,y) along
+   * (stepX,stepY), pairing each sub-tile of {@code a} with the sub-tile of
+   * {@code b} at offset (dx,dy).
+   */
+  void buildBorder(Layer layer, Cluster a, Cluster b, int x, int y, int dx, int dy, int stepX, int stepY) {
+    int start = -1;
+    for (int i = 0; i <= CLUSTER_SIZE; i++) {
+      final int ax = x + i * stepX, ay = y + i * stepY;
+      final boolean open = i < CLUSTER_SIZE
+          && isWalkable(layer, ax, ay)
+          && isWalkable(layer, ax + dx, ay + dy);
+      if (open) {
+        if (start < 0) start = i;
+        continue;
+      }
+
+      if (start < 0) continue;
+      final int width = i - start;
+      if (width >= MAX_ENTRANCE_WIDTH) {
+        link(layer, a, b, x + start * stepX, y + start * stepY, dx, dy);
+        link(layer, a, b, x + (i - 1) * stepX, y + (i - 1) * stepY, dx, dy);
+      } else {
+        final int mid = start + width / 2;
+        link(layer, a, b, x + mid * stepX, y + mid * stepY, dx, dy);
+      }
+
+      start = -1;
+    }
+  }
+
+  void link(Layer layer, Cluster a, Cluster b, int x, int y, int dx, int dy) {
+    final Node src = node(layer, a, x, y);
+    final Node dst = node(layer, b, x + dx, y + dy);
+    src.link(dst, 1);
+    dst.link(src, 1);
+  }
+
+  /** loads the walkability of the sub-tiles of the specified cluster */
+  void load(Layer layer, Cluster cluster) {
+    if (loadedLayer == layer && loadedCluster == cluster) return;
+    loadedLayer = layer;
+    loadedCluster = cluster;
+    loadedX = cluster.x * CLUSTER_SIZE;
+    loadedY = cluster.y * CLUSTER_SIZE;
+    for (int y = 0, i = 0; y < CLUSTER_SIZE; y++) {
+      for (int x = 0; x < CLUSTER_SIZE; x++, i++) {
+        walkable[i] = isWalkable(layer, loadedX + x, loadedY + y);
+      }
+    }
+  }
+
+  int local(int x, int y) {
+    return (y - loadedY) * CLUSTER_SIZE + (x - loadedX);
+  }
+
+  /**
+   * Computes the cost of the shortest path from the specified sub-tile to
+   * each sub-tile of the loaded cluster without leaving it.
+   */
+  void flood(int x, int y) {
+    final float[] dist = this.dist;
+    Arrays.fill(dist, Float.POSITIVE_INFINITY);
+    heapSize = 0;
+    final int src = local(x, y);
+    dist[src] = 0;
+    push(src);
+    while (heapSize > 0) {
+      final int cell = pop();
+      final int cx = cell % CLUSTER_SIZE, cy = cell / CLUSTER_SIZE;
+      for (int d = 0; d < 8; d++) {
+        final int nx = cx + GridPathFinder.DX[d], ny = cy + GridPathFinder.DY[d];
+        if (nx < 0 || nx >= CLUSTER_SIZE || ny < 0 || ny >= CLUSTER_SIZE) continue;
+        final int neighbor = ny * CLUSTER_SIZE + nx;
+        if (!walkable[neighbor]) continue;
+        final float cost = dist[cell] + (d < 4 ? 1 : GridPathFinder.DIAGONAL_COST);
+        if (cost >= dist[neighbor]) continue;
+        final boolean queued = dist[neighbor] != Float.POSITIVE_INFINITY;
+        dist[neighbor] = cost;
+        if (queued) {
+          siftUp(heapIndex[neighbor]);
+        } else {
+          push(neighbor);
+        }
+      }
+    }
+  }
+
+  void push(int cell) {
+    heap[heapSize] = cell;
+    heapIndex[cell] = heapSize;
+    siftUp(heapSize++);
+  }
+
+  int pop() {
+    final int top = heap[0];
+    final int last = heap[--heapSize];
+    if (heapSize > 0) {
+      heap[0] = last;
+      heapIndex[last] = 0;
+      siftDown(0);
+    }
+
+    return top;
+  }
+
+  void siftUp(int i) {
+    final int cell = heap[i];
+    final float value = dist[cell];
+    while (i > 0) {
+      final int p = (i - 1) >>> 1;
+      final int parent = heap[p];
+      if (dist[parent] <= value) break;
+      heap[i] = parent;
+      heapIndex[parent] = i;
+      i = p;
+    }
+
+    heap[i] = cell;
+    heapIndex[cell] = i;
+  }
+
+  void siftDown(int i) {
+    final int cell = heap[i];
+    final float value = dist[cell];
+    for (;;) {
+      int child = (i << 1) + 1;
+      if (child >= heapSize) break;
+      final int right = child + 1;
+      if (right < heapSize && dist[heap[right]] < dist[heap[child]]) child = right;
+      final int childCell = heap[child];
+      if (value <= dist[childCell]) break;
+      heap[i] = childCell;
+      heapIndex[childCell] = i;
+      i = child;
+    }
+
+    heap[i] = cell;
+    heapIndex[cell] = i;
+  }
+
+  static final class Layer {
+    final int flags;
+    final int clearance;
+    final LongMap<Cluster> clusters = new LongMap<>();
+    final LongMap<Node> nodes = new LongMap<>();
+
+    Layer(int flags, int clearance) {
+      this.flags = flags;
+      this.clearance = clearance;
+    }
+  }
+
+  static final class Cluster {
+    final int x, y;
+    final Array<Node> nodes = new Array<>(false, 16);
+    boolean eastBuilt, southBuilt;
+    boolean connected; // whether nodes are linked by intra-cluster costs
+
+    Cluster(int x, int y) {
+      this.x = x;
+      this.y = y;
+    }
+
+    @Override
+    public String toString() {
+      return "(" + x + "," + y + ")";
+    }
+  }
+
+  static final class Node extends BinaryHeap.Node {
+    static final byte UNVISITED = 0;
+    static final byte OPEN = 1;
+    static final byte CLOSED = 2;
+
+    final Cluster cluster;
+    final int x, y;
+    final Array<Node> edges = new Array<>(false, 8);
+    final FloatArray costs = new FloatArray(false, 8);
+
+    int searchId;
+    byte state;
+    Node parent;
+    float g;
+
+    Node(Cluster cluster, int x, int y) {
+      super(0f);
+      this.cluster = cluster;
+      this.x = x;
+      this.y = y;
+    }
+
+    void link(Node node, float cost) {
+      edges.add(node);
+      costs.add(cost);
+    }
+
+    void unlink(Node node) {
+      for (int i = edges.size - 1; i >= 0; i--) {
+        if (edges.get(i) == node) {
+          edges.removeIndex(i);
+          costs.removeIndex(i);
+        }
+      }
+    }
+
+    /** removes links to the other nodes within this node's cluster */
+    void unlinkCluster() {
+      for (int i = edges.size - 1; i >= 0; i--) {
+        if (edges.get(i).cluster == cluster) {
+          edges.removeIndex(i);
+          costs.removeIndex(i);
+        }
+      }
+    }
+
+    @Override
+    public String toString() {
+      return "(" + x + "," + y + ")";
+    }
+  }
+}
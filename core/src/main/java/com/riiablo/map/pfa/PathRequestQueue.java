@@ -0,0 +1,353 @@
+package com.riiablo.map.pfa;
+
+import io.netty.util.concurrent.DefaultEventExecutorGroup;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.EventExecutorGroup;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import com.riiablo.logger.LogManager;
+import com.riiablo.logger.Logger;
+import com.riiablo.map.FlagsSnapshot;
+import com.riiablo.map.Map;
+
+/**
+ * Queue of path requests which are solved by a pool of worker threads
+ * against an immutable {@link FlagsSnapshot} of the map, and delivered back
+ * to the thread owning the map on a later {@link #deliver}.
+ *
+ * Requests for the same start and end sub-tiles, flags and size which are
+ * submitted while an identical request is still being solved are coalesced
+ * into it. Each entity has at most a single pending request: requesting a
+ * new path or {@link #cancel cancelling} discards the result of the previous
+ * request for that entity.
+ *
+ * All methods other than those returning metrics must be called by the
+ * thread owning the map.
+ */
+public class PathRequestQueue implements Disposable {
+  private static final Logger log = LogManager.getLogger(PathRequestQueue.class);
+
+  /** size of the grid searched by workers, see {@link GridPathFinder} */
+  static final int GRID_SIZE = 256;
+
+  public interface Listener {
+    /**
+     * Called for each entity whose requested path was solved.
+     *
+     * @param path sub-tiles of the path, stored as x,y pairs, including the
+     *             start and end, or {@code null} if no path was found. Only
+     *             valid for the duration of the call.
+     */
+    void onPath(int entityId, IntArray path);
+  }
+
+  final Map map;
+  final EventExecutorGroup workers;
+  final ThreadLocal<GridPathFinder> finders = new ThreadLocal<>();
+
+  final ObjectMap<Request, Request> inFlight = new ObjectMap<>();
+  final IntMap<Request> pending = new IntMap<>();
+  final Queue<Request> solved = new ConcurrentLinkedQueue<>();
+  final ArrayDeque<Request> ready = new ArrayDeque<>();
+  final Request key = new Request();
+
+  long requested;
+  long rejected;
+  long coalesced;
+  long cancelled;
+  long delivered;
+  long discarded;
+  final LongAdder solvedCount = new LongAdder();
+  final LongAdder found = new LongAdder();
+  final LongAdder solveNanos = new LongAdder();
+  long latencyNanos;
+
+  long ticks;
+  int tickDelivered;
+  long tickNanos;
+  long maxTickNanos;
+  long overBudgetTicks;
+
+  public PathRequestQueue(Map map, int numWorkers) {
+    this.map = map;
+    this.workers = new DefaultEventExecutorGroup(numWorkers, new DefaultThreadFactory("pathfinder", true));
+  }
+
+  /** whether or not a path between the specified sub-tiles can be solved by workers */
+  public static boolean fits(int srcX, int srcY, int dstX, int dstY) {
+    return Math.abs(dstX - srcX) < GRID_SIZE && Math.abs(dstY - srcY) < GRID_SIZE;
+  }
+
+  /**
+   * Requests a path for the specified entity, replacing any pending request
+   * of that entity.
+   *
+   * @return {@code false} if the request was rejected because it does not
+   *         {@link #fits fit} within the grid searched by workers, in which
+   *         case nothing will be delivered and the path should be solved by
+   *         the caller
+   */
+  public boolean request(int entityId, int srcX, int srcY, int dstX, int dstY, int flags, int size) {
+    requested++;
+    if (!fits(srcX, srcY, dstX, dstY)) {
+      rejected++;
+      cancel(entityId);
+      return false;
+    }
+
+    Request request = inFlight.get(key.set(srcX, srcY, dstX, dstY, flags, size));
+    if (request != null) {
+      coalesced++;
+    } else {
+      request = new Request().set(srcX, srcY, dstX, dstY, flags, size);
+      request.queue = this;
+      request.snapshot = map.snapshotFlags();
+      request.submittedNanos = System.nanoTime();
+      inFlight.put(request, request);
+      workers.next().execute(request);
+    }
+
+    request.entities.add(entityId);
+    pending.put(entityId, request);
+    return true;
+  }
+
+  /** discards the result of the pending request of the specified entity, if any */
+  public void cancel(int entityId) {
+    if (pending.remove(entityId) != null) cancelled++;
+  }
+
+  public boolean isPending(int entityId) {
+    return pending.containsKey(entityId);
+  }
+
+  /**
+   * Delivers solved paths to the listener until all have been delivered or
+   * the specified budget has been spent, in which case the remainder are
+   * delivered on the next call. At least one path is delivered per call.
+   *
+   * @return number of paths delivered
+   */
+  public int deliver(Listener listener, long budget, TimeUnit unit) {
+    final long startNanos = System.nanoTime();
+    final long budgetNanos = unit.toNanos(budget);
+    for (Request request; (request = solved.poll()) != null; ) {
+      inFlight.remove(request);
+      ready.add(request);
+    }
+
+    int delivered = 0;
+    long elapsed = 0;
+    for (Request request; (request = ready.peek()) != null; ) {
+      if (delivered > 0 && elapsed >= budgetNanos) {
+        overBudgetTicks++;
+        break;
+      }
+
+      ready.poll();
+      final IntArray entities = request.entities;
+      for (int i = 0, s = entities.size; i < s; i++) {
+        final int entityId = entities.get(i);
+        if (pending.get(entityId) != request) {
+          discarded++;
+          continue;
+        }
+
+        pending.remove(entityId);
+        listener.onPath(entityId, request.found ? request.path : null);
+        delivered++;
+      }
+
+      latencyNanos += (System.nanoTime() - request.submittedNanos) * entities.size;
+      elapsed = System.nanoTime() - startNanos;
+    }
+
+    this.delivered += delivered;
+    ticks++;
+    tickDelivered = delivered;
+    tickNanos = elapsed;
+    if (elapsed > maxTickNanos) maxTickNanos = elapsed;
+    return delivered;
+  }
+
+  GridPathFinder finder(FlagsSnapshot snapshot) {
+    GridPathFinder finder = finders.get();
+    if (finder == null) {
+      finders.set(finder = new GridPathFinder(snapshot, GRID_SIZE));
+    } else if (finder.map != snapshot) {
+      finder.setMap(snapshot);
+    }
+
+    return finder;
+  }
+
+  /** number of paths requested */
+  public long requested() {
+    return requested;
+  }
+
+  /** number of requests rejected because they did not fit within the grid searched by workers */
+  public long rejected() {
+    return rejected;
+  }
+
+  /** number of requests coalesced into an identical request in flight */
+  public long coalesced() {
+    return coalesced;
+  }
+
+  public long cancelled() {
+    return cancelled;
+  }
+
+  /** number of paths delivered */
+  public long delivered() {
+    return delivered;
+  }
+
+  /** number of results discarded because a newer request replaced them */
+  public long discarded() {
+    return discarded;
+  }
+
+  /** number of searches performed by workers */
+  public long solved() {
+    return solvedCount.sum();
+  }
+
+  /** number of searches performed by workers which found a path */
+  public long found() {
+    return found.sum();
+  }
+
+  /** mean time workers spent per search */
+  public long meanSolveTime(TimeUnit unit) {
+    final long solved = solved();
+    return solved == 0 ? 0 : unit.convert(solveNanos.sum() / solved, TimeUnit.NANOSECONDS);
+  }
+
+  /** mean time between requesting and delivering a path */
+  public long meanLatency(TimeUnit unit) {
+    final long delivered = this.delivered + discarded;
+    return delivered == 0 ? 0 : unit.convert(latencyNanos / delivered, TimeUnit.NANOSECONDS);
+  }
+
+  /** number of paths delivered by the last call to {@link #deliver} */
+  public int tickDelivered() {
+    return tickDelivered;
+  }
+
+  /** time spent by the last call to {@link #deliver} */
+  public long tickTime(TimeUnit unit) {
+    return unit.convert(tickNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /** longest time spent by a call to {@link #deliver} */
+  public long maxTickTime(TimeUnit unit) {
+    return unit.convert(maxTickNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /** number of calls to {@link #deliver} which ran out of budget */
+  public long overBudgetTicks() {
+    return overBudgetTicks;
+  }
+
+  /** number of requests being solved or waiting to be delivered */
+  public int size() {
+    return inFlight.size + ready.size();
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "%d requested (%d rejected, %d coalesced, %d cancelled), %d solved (%d found, ~%dus), "
+            + "%d delivered (%d discarded, ~%dms latency), max %dus/tick, %d ticks over budget",
+        requested(), rejected(), coalesced(), cancelled(),
+        solved(), found(), meanSolveTime(TimeUnit.MICROSECONDS),
+        delivered(), discarded(), meanLatency(TimeUnit.MILLISECONDS),
+        maxTickTime(TimeUnit.MICROSECONDS), overBudgetTicks());
+  }
+
+  @Override
+  public void dispose() {
+    log.debug("Path requests: {}", this);
+    workers.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS);
+    inFlight.clear();
+    pending.clear();
+    solved.clear();
+    ready.clear();
+  }
+
+  static final class Request implements Runnable {
+    int srcX, srcY, dstX, dstY, flags, size;
+    PathRequestQueue queue;
+    FlagsSnapshot snapshot;
+    long submittedNanos;
+    final IntArray entities = new IntArray(false, 4); // owning thread only
+
+    // written by the worker, read after being published through the solved queue
+    final IntArray path = new IntArray();
+    boolean found;
+
+    Request set(int srcX, int srcY, int dstX, int dstY, int flags, int size) {
+      this.srcX = srcX;
+      this.srcY = srcY;
+      this.dstX = dstX;
+      this.dstY = dstY;
+      this.flags = flags;
+      this.size = size;
+      return this;
+    }
+
+    @Override
+    public void run() {
+      final long start = System.nanoTime();
+      try {
+        found = queue.finder(snapshot).search(srcX, srcY, dstX, dstY, flags, size, path);
+      } catch (Throwable t) {
+        log.error("Failed to solve {}", this, t);
+        found = false;
+      } finally {
+        queue.solveNanos.add(System.nanoTime() - start);
+        queue.solvedCount.increment();
+        if (found) queue.found.increment();
+        queue.solved.add(this);
+      }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Request)) return false;
+      final Request other = (Request) o;
+      return srcX == other.srcX && srcY == other.srcY
+          && dstX == other.dstX && dstY == other.dstY
+          && flags == other.flags && size == other.size;
+    }
+
+    @Override
+    public int hashCode() {
+      int result = srcX;
+      result = 31 * result + srcY;
+      result = 31 * result + dstX;
+      result = 31 * result + dstY;
+      result = 31 * result + flags;
+      result = 31 * result + size;
+      return result;
+    }
+
+    @Override
+    public String toString() {
+      return "(" + srcX + "," + srcY + ")->(" + dstX + "," + dstY + ") flags=" + flags + " size=" + size;
+    }
+  }
+}
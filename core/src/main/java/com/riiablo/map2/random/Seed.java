@@ -22,6 +22,25 @@ public final class Seed {
     return new Seed(seed0, seed1);
   }
 
+  /**
+   * Derives the seed of an independent stream from the specified seed, e.g.,
+   * one stream per zone of a map. Uses the SplitMix64 finalizer so adjacent
+   * seeds and streams produce uncorrelated states.
+   */
+  public static Seed derive(long seed, long stream) {
+    long seed0 = mix64(seed ^ mix64(stream + GOLDEN_GAMMA));
+    long seed1 = mix64(seed0 + GOLDEN_GAMMA);
+    return new Seed(seed0, seed1);
+  }
+
+  static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+  static long mix64(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
   public static Seed decode(String base64) {
     byte[] bytes = Base64Coder.decode(StringUtils.rightPad(base64, 24, '='));
     long seed0 = Conversion.byteArrayToLong(bytes, 0, 0L, 0, 8);
@@ -3,7 +3,6 @@ package com.riiablo.mpq.util;
 import com.badlogic.gdx.Gdx;
 
 import java.nio.ByteBuffer;
-import java.util.concurrent.atomic.AtomicReference;
 
 public class Decompressor {
   private Decompressor() {}
@@ -24,7 +23,13 @@ public class Decompressor {
 
   private static final byte ADPCM_MASK   = FLAG_ADPCM1C | FLAG_ADPCM2C;
 
-  private static AtomicReference<Huffman> huffman = new AtomicReference<>();
+  /** Huffman is stateful, so each thread reading from mpqs needs its own */
+  private static final ThreadLocal<Huffman> huffman = new ThreadLocal<Huffman>() {
+    @Override
+    protected Huffman initialValue() {
+      return new Huffman();
+    }
+  };
 
   public static void decompress(ByteBuffer sector, ByteBuffer buffer, ByteBuffer scratch, int CSize, int FSize) {
     if (CSize == FSize) {
@@ -60,7 +65,6 @@ public class Decompressor {
       }
 
       if ((compressionFlags & FLAG_HUFFMAN) == FLAG_HUFFMAN) {
-        huffman.compareAndSet(null, new Huffman());
         if (flip) {
           sector.clear();
           huffman.get().decompress(buffer, sector);
@@ -344,15 +344,40 @@ public enum Decrypter {
     return decrypt(key, SEED2, inout);
   }
 
+  /**
+   * Decrypts the readable bytes of {@code inout} in place. Heap buffers are
+   * decrypted using their backing array and direct buffers using their memory
+   * address, any other buffer falls back to {@link ByteBuf#getIntLE}.
+   */
   public static long decrypt(final int key, final int seed, final ByteBuf inout) {
-    return decrypt(key, seed, inout.array(), inout.arrayOffset(), inout.readableBytes());
+    final int length = inout.readableBytes();
+    if (inout.hasArray()) {
+      return decrypt(key, seed, inout.array(), inout.arrayOffset() + inout.readerIndex(), length);
+    } else if (inout.hasMemoryAddress() && UNSAFE_WORDS) {
+      return decrypt(key, seed, inout.memoryAddress() + inout.readerIndex(), length);
+    } else {
+      return decryptBuffer(key, seed, inout, inout.readerIndex(), length);
+    }
   }
 
   public static long decrypt(final int key, final int seed, final byte[] inout, final int inoutOffset, final int inoutLen) {
     return decrypt(key, seed, inout, inout, inoutOffset, inoutLen);
   }
 
+  /**
+   * Unaligned little-endian word access is used to read and write two blocks
+   * at a time when supported by the platform.
+   */
+  static final boolean UNSAFE_WORDS = PlatformDependent.hasUnsafe() && PlatformDependent.isUnaligned();
+
   public static long decrypt(int key, int seed, final byte[] in, final byte[] out, final int offset, final int length) {
+    return UNSAFE_WORDS
+        ? decryptWords(key, seed, in, out, offset, length)
+        : decryptBlocks(key, seed, in, out, offset, length);
+  }
+
+  /** decrypts one 4-byte block at a time, reference implementation */
+  static long decryptBlocks(int key, int seed, final byte[] in, final byte[] out, final int offset, final int length) {
     int i = offset;
     final int[] table = ENCRYPTION.table;
     for (int blocks = length >> 2; blocks > 0; blocks--, i += 4) {
@@ -363,11 +388,93 @@ public enum Decrypter {
       key = (~key << 0x15) + 0x11111111 | key >>> 0x0B;
     }
 
-    if (in != out && i < length) {
-      System.arraycopy(in, i, out, i, length - i);
-      assert false;
+    copyRemaining(in, out, i, offset + length);
+    return state(key, seed);
+  }
+
+  /** decrypts two 4-byte blocks per 8-byte word using unsafe array access */
+  static long decryptWords(int key, int seed, final byte[] in, final byte[] out, final int offset, final int length) {
+    int i = offset;
+    final int[] table = ENCRYPTION.table;
+    for (final int end = offset + (length & ~0x7); i < end; i += 8) {
+      final long words = littleEndian(PlatformDependent.getLong(in, i));
+      seed += table[key & 0xFF];
+      final int lo = (int) words ^ (key + seed);
+      seed += lo + (seed << 5) + 3;
+      key = (~key << 0x15) + 0x11111111 | key >>> 0x0B;
+      seed += table[key & 0xFF];
+      final int hi = (int) (words >>> Integer.SIZE) ^ (key + seed);
+      seed += hi + (seed << 5) + 3;
+      key = (~key << 0x15) + 0x11111111 | key >>> 0x0B;
+      PlatformDependent.putLong(out, i, littleEndian(((long) hi << Integer.SIZE) | (lo & 0xFFFFFFFFL)));
     }
 
+    if ((length & 0x4) != 0) {
+      seed += table[key & 0xFF];
+      final int block = littleEndian(PlatformDependent.getInt(in, i)) ^ (key + seed);
+      PlatformDependent.putInt(out, i, littleEndian(block));
+      seed += block + (seed << 5) + 3;
+      key = (~key << 0x15) + 0x11111111 | key >>> 0x0B;
+      i += 4;
+    }
+
+    copyRemaining(in, out, i, offset + length);
     return state(key, seed);
   }
+
+  /** decrypts two 4-byte blocks per 8-byte word in place at a memory address */
+  static long decrypt(int key, int seed, final long address, final int length) {
+    long i = address;
+    final int[] table = ENCRYPTION.table;
+    for (final long end = address + (length & ~0x7); i < end; i += 8) {
+      final long words = littleEndian(PlatformDependent.getLong(i));
+      seed += table[key & 0xFF];
+      final int lo = (int) words ^ (key + seed);
+      seed += lo + (seed << 5) + 3;
+      key = (~key << 0x15) + 0x11111111 | key >>> 0x0B;
+      seed += table[key & 0xFF];
+      final int hi = (int) (words >>> Integer.SIZE) ^ (key + seed);
+      seed += hi + (seed << 5) + 3;
+      key = (~key << 0x15) + 0x11111111 | key >>> 0x0B;
+      PlatformDependent.putLong(i, littleEndian(((long) hi << Integer.SIZE) | (lo & 0xFFFFFFFFL)));
+    }
+
+    if ((length & 0x4) != 0) {
+      seed += table[key & 0xFF];
+      final int block = littleEndian(PlatformDependent.getInt(i)) ^ (key + seed);
+      PlatformDependent.putInt(i, littleEndian(block));
+      seed += block + (seed << 5) + 3;
+      key = (~key << 0x15) + 0x11111111 | key >>> 0x0B;
+    }
+
+    return state(key, seed);
+  }
+
+  /** decrypts one 4-byte block at a time in place using buffer accessors */
+  static long decryptBuffer(int key, int seed, final ByteBuf inout, final int offset, final int length) {
+    final int[] table = ENCRYPTION.table;
+    for (int i = offset, blocks = length >> 2; blocks > 0; blocks--, i += 4) {
+      seed += table[key & 0xFF];
+      final int block = inout.getIntLE(i) ^ (key + seed);
+      inout.setIntLE(i, block);
+      seed += block + (seed << 5) + 3;
+      key = (~key << 0x15) + 0x11111111 | key >>> 0x0B;
+    }
+
+    return state(key, seed);
+  }
+
+  static void copyRemaining(final byte[] in, final byte[] out, final int i, final int end) {
+    if (in != out && i < end) {
+      System.arraycopy(in, i, out, i, end - i);
+    }
+  }
+
+  static int littleEndian(int value) {
+    return PlatformDependent.BIG_ENDIAN_NATIVE_ORDER ? Integer.reverseBytes(value) : value;
+  }
+
+  static long littleEndian(long value) {
+    return PlatformDependent.BIG_ENDIAN_NATIVE_ORDER ? Long.reverseBytes(value) : value;
+  }
 }
@@ -8,9 +8,14 @@ import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
 
+import io.netty.util.IllegalReferenceCountException;
+
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.Disposable;
 
@@ -90,6 +95,17 @@ public final class Mpq implements Disposable {
     return ALLOC.heapBuffer(size, size);
   }
 
+  /**
+   * Allocates a buffer which may be evicted by the memory budget. These are
+   * not pooled, s.t. reading a slice of an evicted buffer which was not
+   * retained fails instead of reading memory reused by another buffer.
+   *
+   * @see MpqMemoryBudget
+   */
+  ByteBuf evictableFileBuffer(int size) {
+    return Unpooled.buffer(size, size);
+  }
+
   static Mpq open(FileHandle handle) {
     log.info("Loading {}...", handle.name());
     RandomAccessFile raf = null;
@@ -177,6 +193,11 @@ public final class Mpq implements Disposable {
   HashTable hashTable;
   Block[] blockTable;
 
+  MpqFileCache cache; // nullable, persistent cache of decoded files
+  MpqMemoryBudget budget; // nullable, global budget of decoded files
+  final AtomicLong residentBytes = new AtomicLong(); // heap bytes of decoded files
+  final AtomicLong mappedBytes = new AtomicLong(); // bytes of files read directly from map
+
   Mpq(
       FileHandle handle,
       ByteBuf map,
@@ -220,34 +241,27 @@ public final class Mpq implements Disposable {
      * mapped byte buffer, and log an error for each file which still has
      * non-zero number of references.
      */
-    final MpqFileHandle[] handles = hashTable.handle;
+    final AtomicReferenceArray<MpqFileHandle> handles = hashTable.handle;
     for (int i = 0, s = hashTableSize; i < s; i++) {
-      dispose(handles, i);
+      final MpqFileHandle handle = handles.get(i);
+      if (handle != null) dispose(handle);
     }
   }
 
   /**
-   * disposes the handle given by its hash table index and returns whether the
-   * handle was leaked (disposed with non-zero number of remaining references).
+   * disposes the specified handle, removes it from the hash table if it is
+   * still interned and returns whether the handle was leaked (disposed with
+   * non-zero number of remaining references).
    */
-  boolean dispose(final int index) {
-    return dispose(hashTable.handle, index);
-  }
-
-  /**
-   * disposes the handle given by its hash table index and returns whether the
-   * handle was leaked (disposed with non-zero number of remaining references).
-   */
-  boolean dispose(final MpqFileHandle[] handles, final int index) {
-    final MpqFileHandle handle = handles[index];
-    if (handle == null) return false;
+  boolean dispose(final MpqFileHandle handle) {
     try {
       handle.dispose();
       final boolean leaked = handle.refCnt() != 0;
       if (leaked) log.error("{} was disposed but reference(s) will outlive its mpq", handle);
       return leaked;
     } finally {
-      handles[index] = null;
+      // handle may have already been replaced by a subsequent open
+      hashTable.handle.compareAndSet(handle.index, handle, null);
     }
   }
 
@@ -371,6 +385,18 @@ public final class Mpq implements Disposable {
     return map;
   }
 
+  /**
+   * Returns the number of heap bytes currently allocated for the decoded
+   * contents of files within this mpq.
+   */
+  public long residentBytes() {
+    return residentBytes.get();
+  }
+
+  public long mappedBytes() {
+    return mappedBytes.get();
+  }
+
   /** @deprecated for use in tests, use MpqFileResolver instead */
   @Deprecated
   boolean contains(final String filename, final short locale) {
@@ -406,6 +432,16 @@ public final class Mpq implements Disposable {
     return hashTable.open(decoder, this, index, filename);
   }
 
+  /** number of hash table lookups performed on this mpq */
+  public long searches() {
+    return hashTable.searches.sum();
+  }
+
+  /** number of hash table entries probed without matching */
+  public long misses() {
+    return hashTable.misses.sum();
+  }
+
   static int encryptionKey(final String filename, final int flags, final int offset, final int FSize) {
     if ((flags & Block.FLAG_ENCRYPTED) == Block.FLAG_ENCRYPTED) {
       final String basename = FilenameUtils.getName(filename);
@@ -443,10 +479,10 @@ public final class Mpq implements Disposable {
     final short[] locale;
     final short[] platform;
     final int[] blockId;
-    final MpqFileHandle[] handle;
+    final AtomicReferenceArray<MpqFileHandle> handle;
 
-    int searches;
-    int misses;
+    final LongAdder searches = new LongAdder();
+    final LongAdder misses = new LongAdder();
 
     HashTable(int size) {
       this.size = size;
@@ -454,7 +490,7 @@ public final class Mpq implements Disposable {
       this.locale = new short[size];
       this.platform = new short[size];
       this.blockId = new int[size];
-      this.handle = new MpqFileHandle[size];
+      this.handle = new AtomicReferenceArray<>(size);
     }
 
     void put(final int i, final long key, final short locale, final short platform, final int blockId) {
@@ -472,42 +508,67 @@ public final class Mpq implements Disposable {
       this.blockId[i] = blockId;
     }
 
+    /**
+     * Thread-safe, table contents are immutable once read and statistics are
+     * accumulated using striped counters.
+     */
     int get(final long key, final int hash, final short locale) {
       // FIXME: misses not incremented if first i in tables[i] is unused
-      searches++;
+      searches.increment();
+      int misses = 0;
       int bestId = -1;
       final long[] keys = this.key;
       final short[] locales = this.locale;
-      final short[] platforms = this.platform;
       final int[] blockIds = this.blockId;
       short tLocale;
-      for (int i = hash & (size - 1), s = size; i < s; i++, misses++) {
-        final int blockId = blockIds[i];
-        switch (blockId) {
-          case BLOCK_DELETED:
-            continue;
-          case BLOCK_UNUSED:
-            return bestId;
-          default:
-            if (keys[i] != key) continue;
-            tLocale = locales[i];
-            if (tLocale == locale) {
-              return i;
-            } else if (bestId == -1 || tLocale == DEFAULT_LOCALE) {
-              bestId = i;
-            }
+      try {
+        for (int i = hash & (size - 1), s = size; i < s; i++, misses++) {
+          final int blockId = blockIds[i];
+          switch (blockId) {
+            case BLOCK_DELETED:
+              continue;
+            case BLOCK_UNUSED:
+              return bestId;
+            default:
+              if (keys[i] != key) continue;
+              tLocale = locales[i];
+              if (tLocale == locale) {
+                return i;
+              } else if (bestId == -1 || tLocale == DEFAULT_LOCALE) {
+                bestId = i;
+              }
+          }
         }
-      }
 
-      return bestId;
+        return bestId;
+      } finally {
+        if (misses > 0) this.misses.add(misses);
+      }
     }
 
+    /**
+     * Returns the interned handle for the specified index, creating it if it
+     * does not exist. Lock-free: racing threads attempt to publish their own
+     * handle and the losers retain the winner instead. Handles which have
+     * already been released are replaced.
+     */
     MpqFileHandle open(final DecoderExecutorGroup decoder, final Mpq mpq, final int index, final CharSequence filename) {
-      MpqFileHandle handle = this.handle[index];
-      if (handle == null) {
+      final AtomicReferenceArray<MpqFileHandle> handles = this.handle;
+      for (;;) {
+        final MpqFileHandle handle = handles.get(index);
+        if (handle != null) {
+          try {
+            return handle.retain();
+          } catch (IllegalReferenceCountException t) {
+            // released concurrently, deallocation will not remove a successor
+            handles.compareAndSet(index, handle, null);
+            continue;
+          }
+        }
+
         final int blockId = this.blockId[index];
         final Block block = mpq.blockTable[blockId];
-        return this.handle[index] = new MpqFileHandle(
+        final MpqFileHandle newHandle = new MpqFileHandle(
             decoder,
             mpq,
             index,
@@ -516,8 +577,9 @@ public final class Mpq implements Disposable {
             block.CSize,
             block.FSize,
             block.flags);
+        if (handles.compareAndSet(index, null, newHandle)) return newHandle;
+        newHandle.dispose();
       }
-      return handle.retain();
     }
   }
 
@@ -1,7 +1,6 @@
 package com.riiablo.mpq_bytebuf;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.EmptyByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.util.ReferenceCountUtil;
 import io.netty.util.concurrent.EventExecutor;
@@ -35,6 +34,7 @@ public final class MpqBufferStream extends InputStream {
   Promise<InputStream> init;
 
   ByteBuf buffer;
+  ByteBuf source; // retained backing buffer of handle which buffer slices
   int bytesRead;
   int limit;
 
@@ -68,6 +68,9 @@ public final class MpqBufferStream extends InputStream {
 
   @Override
   public void close() {
+    ReferenceCountUtil.safeRelease(source);
+    source = null;
+    buffer = Unpooled.EMPTY_BUFFER;
     if (releaseOnClose) {
       releaseHandle();
     }
@@ -168,15 +171,26 @@ public final class MpqBufferStream extends InputStream {
     final int bufferOffset = currentSector * sectorSize;
     final int sectorFSize = Math.min(handle.FSize - bufferOffset, sectorSize);
     handle
-        .bufferAsync(executor, bufferOffset, sectorFSize)
+        .retainedBufferAsync(executor, bufferOffset, sectorFSize)
         .addListener(new FutureListener<ByteBuf>() {
           @Override
           public void operationComplete(Future<ByteBuf> future) {
-            if (buffer instanceof EmptyByteBuf) {
-              buffer = handle.buffer.slice(0, handle.FSize).clear();
+            if (future.isSuccess()) {
+              // backing buffer may change if it was evicted by the memory budget,
+              // a single reference of the current one is kept until closed
+              final ByteBuf retained = future.getNow();
+              final ByteBuf source = retained.unwrap();
+              if (MpqBufferStream.this.source != source) {
+                ReferenceCountUtil.safeRelease(MpqBufferStream.this.source);
+                MpqBufferStream.this.source = source;
+                buffer = source.slice(0, handle.FSize).clear();
+              } else {
+                retained.release();
+              }
+
+              buffer.setIndex(bufferOffset, bufferOffset + sectorFSize);
             }
 
-            buffer.setIndex(bufferOffset, bufferOffset + sectorFSize);
             @SuppressWarnings("unchecked") // don't care, unused result anyways
             final Promise<? super ByteBuf> promise0 = (Promise<? super ByteBuf>) promise;
             UnaryPromiseNotifier.cascadeTo(future, promise0);
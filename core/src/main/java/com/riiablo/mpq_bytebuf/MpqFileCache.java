@@ -0,0 +1,258 @@
+package com.riiablo.mpq_bytebuf;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import com.riiablo.logger.LogManager;
+import com.riiablo.logger.Logger;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+
+/**
+ * Opt-in persistent cache of decoded mpq file contents.
+ *
+ * Files which require decrypting and/or decompressing are written to the
+ * cache directory once all of their sectors have been decoded, and subsequent
+ * runs will map the cached contents directly instead of submitting sector
+ * decoding tasks. Entries are keyed by the mpq name, the modification time and
+ * size of the mpq archive and the hash table index of the file, s.t. patching
+ * an archive invalidates its cached entries.
+ *
+ * The cache is bounded by {@link #maxBytes()} and evicts least recently used
+ * entries. Access order is persisted using the last modified time of each
+ * entry on disk.
+ */
+public final class MpqFileCache {
+  private static final Logger log = LogManager.getLogger(MpqFileCache.class);
+
+  static final String EXTENSION = "bin";
+
+  final File dir;
+  final long maxBytes;
+  final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+  long residentBytes;
+
+  final LongAdder hits = new LongAdder();
+  final LongAdder misses = new LongAdder();
+  final LongAdder evictions = new LongAdder();
+
+  public MpqFileCache(FileHandle dir, long maxBytes) {
+    if (maxBytes <= 0) throw new IllegalArgumentException("maxBytes(" + maxBytes + ") <= 0");
+    this.dir = dir.file();
+    this.maxBytes = maxBytes;
+    dir.mkdirs();
+    scan();
+  }
+
+  /**
+   * Rebuilds the LRU from the entries already present within the cache
+   * directory, oldest entries first.
+   */
+  void scan() {
+    final File[] files = dir.listFiles(new FileFilter() {
+      @Override
+      public boolean accept(File file) {
+        return file.isFile() && FilenameUtils.isExtension(file.getName(), EXTENSION);
+      }
+    });
+    if (files == null) return;
+    Arrays.sort(files, new Comparator<File>() {
+      @Override
+      public int compare(File a, File b) {
+        return Long.compare(a.lastModified(), b.lastModified());
+      }
+    });
+
+    synchronized (entries) {
+      for (File file : files) {
+        final String key = FilenameUtils.getBaseName(file.getName());
+        final Entry entry = new Entry(key, file, file.length());
+        entries.put(key, entry);
+        residentBytes += entry.size;
+      }
+
+      evict(null);
+    }
+
+    log.debug("{} entries ({} bytes) in {}", entries.size(), residentBytes, dir);
+  }
+
+  static String key(final Mpq mpq, final int index) {
+    final FileHandle handle = mpq.handle;
+    return String.format("%s-%x-%x-%x", mpq.name, handle.lastModified(), handle.length(), index);
+  }
+
+  /**
+   * Returns a read-only buffer mapping the cached contents of the specified
+   * mpq file, or {@code null} if the file is not cached.
+   */
+  ByteBuf get(final Mpq mpq, final int index, final int FSize) {
+    if (mpq.handle == null) return null;
+    return get(key(mpq, index), FSize);
+  }
+
+  ByteBuf get(final String key, final int FSize) {
+    final Entry entry;
+    synchronized (entries) {
+      entry = entries.get(key);
+      if (entry == null || entry.size != FSize) {
+        if (entry != null) remove(entry);
+        misses.increment();
+        return null;
+      }
+    }
+
+    FileChannel fc = null;
+    try {
+      fc = FileChannel.open(entry.file.toPath(), StandardOpenOption.READ);
+      final ByteBuf buffer = Unpooled.wrappedBuffer(fc.map(READ_ONLY, 0, FSize));
+      touch(entry);
+      hits.increment();
+      return buffer;
+    } catch (IOException t) {
+      log.warn("Failed to map {}", entry.file, t);
+      synchronized (entries) {
+        remove(entry);
+      }
+      misses.increment();
+      return null;
+    } finally {
+      IOUtils.closeQuietly(fc);
+    }
+  }
+
+  /**
+   * Writes the decoded contents of the specified mpq file into the cache,
+   * evicting least recently used entries if needed.
+   */
+  void put(final Mpq mpq, final int index, final ByteBuf buffer, final int FSize) {
+    if (mpq.handle == null) return;
+    put(key(mpq, index), buffer, FSize);
+  }
+
+  void put(final String key, final ByteBuf buffer, final int FSize) {
+    if (FSize > maxBytes) return;
+    final File file = new File(dir, key + '.' + EXTENSION);
+    Path tmp = null;
+    FileChannel fc = null;
+    try {
+      tmp = Files.createTempFile(dir.toPath(), key, ".tmp");
+      fc = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+      for (int position = 0; position < FSize; ) {
+        position += buffer.getBytes(position, fc, position, FSize - position);
+      }
+      fc.close();
+      Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException t) {
+      log.warn("Failed to write {}", file, t);
+      IOUtils.closeQuietly(fc);
+      if (tmp != null) tmp.toFile().delete();
+      return;
+    }
+
+    final Entry entry = new Entry(key, file, FSize);
+    synchronized (entries) {
+      final Entry previous = entries.put(key, entry);
+      if (previous != null) residentBytes -= previous.size;
+      residentBytes += entry.size;
+      evict(entry);
+    }
+
+    log.trace("Cached {} ({} bytes)", key, FSize);
+  }
+
+  void touch(final Entry entry) {
+    if (!entry.file.setLastModified(System.currentTimeMillis())) {
+      log.trace("Failed to update access time of {}", entry.file);
+    }
+  }
+
+  /** must be called while holding the lock on {@link #entries} */
+  void evict(final Entry retain) {
+    final Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+    while (residentBytes > maxBytes && it.hasNext()) {
+      final Entry entry = it.next().getValue();
+      if (entry == retain) continue;
+      it.remove();
+      delete(entry);
+    }
+  }
+
+  /** must be called while holding the lock on {@link #entries} */
+  void remove(final Entry entry) {
+    if (entries.remove(entry.key) != null) delete(entry);
+  }
+
+  void delete(final Entry entry) {
+    residentBytes -= entry.size;
+    evictions.increment();
+    // mapped buffers remain valid on platforms supporting it, otherwise the
+    // file will be replaced the next time it is written
+    if (!entry.file.delete()) log.debug("Failed to delete {}", entry.file);
+  }
+
+  public long maxBytes() {
+    return maxBytes;
+  }
+
+  public long residentBytes() {
+    synchronized (entries) {
+      return residentBytes;
+    }
+  }
+
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  public long hits() {
+    return hits.sum();
+  }
+
+  public long misses() {
+    return misses.sum();
+  }
+
+  public long evictions() {
+    return evictions.sum();
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "%s: %d entries, %d/%d bytes, %d hits, %d misses, %d evictions",
+        dir, size(), residentBytes(), maxBytes, hits(), misses(), evictions());
+  }
+
+  static final class Entry {
+    final String key;
+    final File file;
+    final long size;
+
+    Entry(String key, File file, long size) {
+      this.key = key;
+      this.file = file;
+      this.size = size;
+    }
+  }
+}
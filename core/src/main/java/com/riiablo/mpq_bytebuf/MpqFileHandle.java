@@ -104,9 +104,18 @@ public final class MpqFileHandle extends FileHandle implements ReferenceCounted
   final BitVector decoded = new BitVector();
   int numSectors = -1; // number of sectors, single contiguous block of memory
   ByteBuf sectorOffsets; // direct slice of archive or decoded heap bytebuf
-  ByteBuf buffer; // heap bytebuf of decoded data
+  ByteBuf buffer; // heap bytebuf of decoded data, or mapped from cache or archive -- retained while read
+  boolean cached; // buffer contents are persisted in mpq.cache
+  boolean mapped; // buffer is a read-only view of mpq.map
   int encryptionKey;
 
+  // Memory budget
+  MpqMemoryBudget budget; // budget buffer is charged against, if any
+  int charged; // heap bytes charged for buffer, 0 if evicted or mapped
+  MpqFileHandle lruPrev; // guarded by budget
+  MpqFileHandle lruNext; // guarded by budget
+  boolean lruLinked; // guarded by budget
+
   MpqFileHandle(
       DecoderExecutorGroup decoder,
       Mpq mpq,
@@ -253,6 +262,25 @@ public final class MpqFileHandle extends FileHandle implements ReferenceCounted
   }
 
   public Future<ByteBuf> bufferAsync(EventExecutor executor, int offset, int length) {
+    return bufferAsync(executor, offset, length, false);
+  }
+
+  /**
+   * Schedules the contents of this mpq file for decoding and returns a future
+   * used to track the progress.
+   * <p/>
+   * Unlike {@link #bufferAsync(EventExecutor, int, int)}, the returned buffer
+   * retains the backing buffer of this handle, s.t. it cannot be evicted by
+   * the memory budget of the mpq while it is being read, and must be released
+   * once it is no longer needed.
+   *
+   * @see MpqMemoryBudget
+   */
+  public Future<ByteBuf> retainedBufferAsync(EventExecutor executor, int offset, int length) {
+    return bufferAsync(executor, offset, length, true);
+  }
+
+  Future<ByteBuf> bufferAsync(EventExecutor executor, int offset, int length, boolean retained) {
     if (offset + length > FSize) {
       throw new IndexOutOfBoundsException(
           String.format(
@@ -260,7 +288,7 @@ public final class MpqFileHandle extends FileHandle implements ReferenceCounted
               offset, length, FSize));
     }
 
-    return ensureReadable(executor, offset, length);
+    return ensureReadable(executor, offset, length, retained);
   }
 
   int encryptionKey() {
@@ -269,15 +297,49 @@ public final class MpqFileHandle extends FileHandle implements ReferenceCounted
         : encryptionKey;
   }
 
-  Future<ByteBuf> ensureReadable(EventExecutor executor, int offset, int length) {
-    if (numSectors < 0) {
-      readSectorOffsets();
-      allocateBuffer();
+  /**
+   * Decodes the specified range of the backing buffer. The backing buffer is
+   * retained until the range has been decoded, s.t. it cannot be evicted
+   * while sectors are being decoded into it, and if {@code retained}, that
+   * reference is passed on to the returned buffer.
+   */
+  Future<ByteBuf> ensureReadable(EventExecutor executor, int offset, int length, boolean retained) {
+    if (numSectors < 0) readSectorOffsets();
+    ByteBuf buffer = retainBuffer();
+    if (buffer == null) { // not yet allocated or evicted
+      buffer = mapArchive();
+      if (buffer == null) buffer = readCache();
+      if (buffer == null) buffer = allocateBuffer();
+    } else {
+      final MpqMemoryBudget budget = this.budget;
+      if (budget != null) budget.touch(this);
     }
 
     return numSectors == 0
-        ? readRawArchive(executor, offset, length)
-        : decodeSectors(executor, offset, length);
+        ? readRawArchive(executor, buffer, offset, length, retained)
+        : decodeSectors(executor, buffer, offset, length, retained);
+  }
+
+  /**
+   * Returns the specified range of the retained backing buffer, passing on
+   * its reference if {@code retained}, otherwise releasing it.
+   */
+  static ByteBuf slice(final ByteBuf buffer, final int offset, final int length, final boolean retained) {
+    final ByteBuf slice = buffer.slice(offset, length).writerIndex(length);
+    if (!retained) buffer.release();
+    return slice;
+  }
+
+  /**
+   * Retains and returns the backing buffer, or returns {@code null} if there
+   * is none. Two readers may both find no buffer, in which case the first to
+   * publish one wins and the other uses it.
+   */
+  ByteBuf retainBuffer() {
+    synchronized (decoded) {
+      final ByteBuf buffer = this.buffer;
+      return buffer != null ? buffer.retain() : null;
+    }
   }
 
   ByteBuf readSectorOffsets() {
@@ -305,17 +367,138 @@ public final class MpqFileHandle extends FileHandle implements ReferenceCounted
     return sectorOffsets;
   }
 
+  /**
+   * Releases a backing buffer which lost the race to be published, returning
+   * the buffer published by another reader instead.
+   */
+  static ByteBuf unpublished(final ByteBuf buffer, final ByteBuf published) {
+    buffer.release();
+    return published;
+  }
+
+  /**
+   * Allocates the backing buffer, returning it retained, and charges it
+   * against the memory budget of the mpq, if any. If another reader has
+   * since published a backing buffer, the allocated buffer is released and
+   * that one is returned retained instead, without charging it again.
+   */
   ByteBuf allocateBuffer() {
-    assert buffer == null : "buffer != null";
-    buffer = mpq.fileBuffer(FSize);
+    final MpqMemoryBudget budget = mpq.budget;
+    final ByteBuf buffer = budget == null
+        ? mpq.fileBuffer(FSize)
+        : mpq.evictableFileBuffer(FSize);
+    synchronized (decoded) {
+      final ByteBuf published = retainBuffer();
+      if (published != null) return unpublished(buffer, published);
+      this.buffer = buffer.retain();
+      this.budget = budget;
+      charged = FSize;
+    }
+
+    mpq.residentBytes.addAndGet(FSize);
+    if (budget != null) budget.charge(this, FSize);
+    return buffer;
+  }
+
+  /**
+   * Releases the backing buffer and marks all sectors as not decoded, s.t.
+   * they will be decoded again on demand. Returns the number of bytes which
+   * were charged for the buffer, or {@code -1} if the buffer is retained by a
+   * reader and cannot be evicted.
+   */
+  int evict() {
+    final ByteBuf buffer;
+    final int bytes;
+    synchronized (decoded) {
+      bytes = charged;
+      if (bytes == 0) return 0;
+      buffer = this.buffer;
+      if (buffer.refCnt() > 1) return -1;
+      charged = 0;
+      this.buffer = null;
+      decoded.clear();
+    }
+
+    buffer.release();
+    mpq.residentBytes.addAndGet(-bytes);
+    return bytes;
+  }
+
+  /**
+   * Attempts to use a read-only view of {@link Mpq#map} as the backing buffer
+   * of files stored without compression or encryption, s.t. their contents
+   * are never copied onto the heap. The view is only used when the map
+   * supports unsafe memory access, since other direct buffer implementations
+   * cannot be safely copied from concurrently (see {@link Mpq#lock()}).
+   * Views are not charged against the memory budget and remain valid for as
+   * long as this handle is retained.
+   */
+  ByteBuf mapArchive() {
+    if (numSectors != 0 || CSize != FSize) return null;
+    final ByteBuf map = mpq.map();
+    if (!map.hasMemoryAddress()) return null;
+    final ByteBuf buffer = Unpooled.wrappedBuffer(map.nioBuffer(offset, FSize)).asReadOnly();
+    if (!buffer.hasMemoryAddress()) {
+      buffer.release();
+      return null;
+    }
+
+    synchronized (decoded) {
+      final ByteBuf published = retainBuffer();
+      if (published != null) return unpublished(buffer, published);
+      this.buffer = buffer.retain();
+      decoded.unsafeSet(0); // using bit 0 as decoded tag for buffer
+      mapped = true;
+    }
+
+    mpq.mappedBytes.addAndGet(FSize);
+    if (DEBUG_MODE) log.trace("Mapped {} ({} bytes)", this, FSize);
+    return buffer;
+  }
+
+  /**
+   * Attempts to use the contents persisted within {@link Mpq#cache} as the
+   * backing buffer, marking all sectors as decoded. Uncompressed files are
+   * never cached, since they can be mapped or copied directly from the archive.
+   */
+  ByteBuf readCache() {
+    final MpqFileCache cache = mpq.cache;
+    if (cache == null || numSectors == 0) return null;
+    final ByteBuf buffer = cache.get(mpq, index, FSize);
+    if (buffer == null) return null;
+    synchronized (decoded) {
+      final ByteBuf published = retainBuffer();
+      if (published != null) return unpublished(buffer, published);
+      this.buffer = buffer.retain();
+      for (int i = 0; i < numSectors; i++) decoded.unsafeSet(i);
+      cached = true;
+    }
     return buffer;
   }
 
-  Future<ByteBuf> readRawArchive(EventExecutor executor, final int offset, final int length) {
+  /**
+   * Persists the contents of {@code buffer} within {@link Mpq#cache} iff
+   * {@code buffer} is the backing buffer and all sectors have been decoded.
+   */
+  void writeCache(final ByteBuf buffer) {
+    final MpqFileCache cache = mpq.cache;
+    if (cache == null) return;
+    synchronized (decoded) {
+      if (cached || this.buffer != buffer) return;
+      for (int i = 0; i < numSectors; i++) {
+        if (!decoded.get(i)) return;
+      }
+      cached = true;
+    }
+
+    cache.put(mpq, index, buffer, FSize);
+  }
+
+  Future<ByteBuf> readRawArchive(
+      EventExecutor executor, final ByteBuf buffer, final int offset, final int length, final boolean retained) {
     assert numSectors == 0 : "copyBuffer requires numSectors=" + numSectors;
-    if (decoded(0)) { // using bit 0 as decoded tag for buffer
-      final ByteBuf buffer = this.buffer.slice(offset, length).writerIndex(length);
-      return executor.newSucceededFuture(buffer);
+    if (decoded(0, buffer)) { // using bit 0 as decoded tag for buffer
+      return executor.newSucceededFuture(slice(buffer, offset, length, retained));
     }
 
     final Promise<ByteBuf> promise = executor.newPromise();
@@ -326,28 +509,27 @@ public final class MpqFileHandle extends FileHandle implements ReferenceCounted
           @Override
           public void operationComplete(Future<ByteBuf> future) {
             setDecoded(0, buffer); // using bit 0 as decoded tag for buffer
-            promise.setSuccess(buffer.slice(offset, length).writerIndex(length));
+            promise.setSuccess(slice(buffer, offset, length, retained));
           }
         });
     return promise;
   }
 
-  Future<ByteBuf> decodeSectors(EventExecutor executor, final int offset, final int length) {
+  Future<ByteBuf> decodeSectors(
+      EventExecutor executor, final ByteBuf buffer, final int offset, final int length, final boolean retained) {
     final int sectorSize = mpq.sectorSize;
     int startSector = offset / sectorSize;
     int endSector = (offset + length + sectorSize - 1) / sectorSize;
     DecodingTask task = null;
     for (int i = startSector; i < endSector; i++) {
       final int sector = i;
-      if (decoded(sector)) continue;
+      if (decoded(sector, buffer)) continue;
       final int bufferOffset = sector * sectorSize;
       final int sectorOffset = sectorOffsets.getIntLE(sector << 2);
       final int nextSectorOffset = sectorOffsets.getIntLE((sector + 1) << 2);
       final int sectorCSize = nextSectorOffset - sectorOffset;
       final int sectorFSize = Math.min(FSize - bufferOffset, sectorSize);
       if (task == null) task = decoder.newDecodingTask(executor, this, offset, length);
-      // if (buffer == null) throw new AssertionError("buffer was null?");
-      final ByteBuf buffer = this.buffer;
       task.submit(sector, sectorOffset, sectorCSize, sectorFSize, buffer, bufferOffset)
           .addListener(new FutureListener<Object>() {
             @Override
@@ -364,14 +546,14 @@ public final class MpqFileHandle extends FileHandle implements ReferenceCounted
           .addListener(new FutureListener<Void>() {
             @Override
             public void operationComplete(Future<Void> future) {
-              aggregatePromise.setSuccess(buffer.slice(offset, length).writerIndex(length));
+              writeCache(buffer); // while still retained
+              aggregatePromise.setSuccess(slice(buffer, offset, length, retained));
             }
           });
       return aggregatePromise;
     }
 
-    ByteBuf buffer = this.buffer.slice(offset, length).writerIndex(length);
-    return executor.newSucceededFuture(buffer);
+    return executor.newSucceededFuture(slice(buffer, offset, length, retained));
   }
 
   /**
@@ -393,8 +575,7 @@ public final class MpqFileHandle extends FileHandle implements ReferenceCounted
    */
   boolean decoded(final int sector, final ByteBuf buffer) {
     assert buffer != null : "buffer cannot be null";
-    if (this.buffer != buffer) return false;
-    synchronized (decoded) { return decoded.get(sector); }
+    synchronized (decoded) { return this.buffer == buffer && decoded.get(sector); }
   }
 
   /**
@@ -403,8 +584,7 @@ public final class MpqFileHandle extends FileHandle implements ReferenceCounted
    */
   void setDecoded(final int sector, final ByteBuf buffer) {
     assert buffer != null : "buffer cannot be null";
-    if (this.buffer != buffer) return;
-    synchronized (decoded) { decoded.unsafeSet(sector); }
+    synchronized (decoded) { if (this.buffer == buffer) decoded.unsafeSet(sector); }
   }
 
   public InputStream stream() {
@@ -468,10 +648,15 @@ public final class MpqFileHandle extends FileHandle implements ReferenceCounted
    * sector offsets which are shared amongst references of this file handle.
    */
   void deallocate() {
-    mpq.dispose(index);
+    mpq.dispose(this);
     if (numSectors < 0) return;
     numSectors = -1;
     decoded.clear();
+    cached = false;
+    if (mapped) {
+      mapped = false;
+      mpq.mappedBytes.addAndGet(-FSize);
+    }
     releaseSectorOffsets();
     releaseBuffer();
   }
@@ -482,8 +667,22 @@ public final class MpqFileHandle extends FileHandle implements ReferenceCounted
   }
 
   void releaseBuffer() {
+    final ByteBuf buffer;
+    final int bytes;
+    synchronized (decoded) {
+      buffer = this.buffer;
+      bytes = charged;
+      this.buffer = null;
+      charged = 0;
+    }
+
+    if (bytes > 0) {
+      mpq.residentBytes.addAndGet(-bytes);
+      if (budget != null) budget.remove(this, bytes);
+    }
+
+    budget = null;
     ReferenceCountUtil.safeRelease(buffer);
-    buffer = null;
   }
 
   void dispose() {
@@ -3,6 +3,7 @@ package com.riiablo.mpq_bytebuf;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectIntMap;
 import com.badlogic.gdx.utils.ObjectMap;
 
 import com.riiablo.Riiablo;
@@ -12,8 +13,6 @@ import com.riiablo.asset.FileHandleResolver;
 import com.riiablo.asset.param.MpqParams;
 import com.riiablo.logger.LogManager;
 import com.riiablo.logger.Logger;
-import com.riiablo.mpq_bytebuf.Mpq.HashTable;
-
 import static com.riiablo.mpq_bytebuf.Mpq.DEFAULT_LOCALE;
 import static org.apache.commons.lang3.StringUtils.appendIfMissingIgnoreCase;
 
@@ -43,6 +42,21 @@ public class MpqFileResolver implements FileHandleResolver, Disposable {
   final Array<Mpq> mpqs = Array.of(true, 16, Mpq.class);
   final ObjectMap<String, Mpq> lookup = new ObjectMap<>();
   final DecoderExecutorGroup decoder = new DecoderExecutorGroup(2);
+  MpqFileCache cache;
+  MpqMemoryBudget budget;
+
+  static final int NOT_PRERESOLVED = Integer.MIN_VALUE;
+  static final int NOT_FOUND = -1;
+
+  /**
+   * Flat table of paths resolved in bulk, mapping to the packed index of the
+   * mpq within {@link #mpqs} and the hash table index within that mpq.
+   * Immutable once published, rebuilt by {@link #preresolve}.
+   *
+   * @see #pack(int, int)
+   */
+  volatile ObjectIntMap<MpqPath> preresolved;
+  short preresolvedLocale;
 
   public MpqFileResolver() {
     this(Riiablo.home);
@@ -76,10 +90,54 @@ public class MpqFileResolver implements FileHandleResolver, Disposable {
   }
 
   public Mpq add(Mpq mpq) {
+    mpq.cache = cache;
+    mpq.budget = budget;
     mpqs.add(mpq);
+    preresolved = null; // indexes and precedence of mpqs may have changed
     return mpq;
   }
 
+  /**
+   * Enables persisting decoded files of all mpqs managed by this resolver
+   * into the specified cache, or disables it if {@code cache} is null.
+   */
+  public MpqFileResolver cache(MpqFileCache cache) {
+    log.debug("Cache set {}", cache);
+    this.cache = cache;
+    for (Mpq mpq : mpqs) mpq.cache = cache;
+    return this;
+  }
+
+  public MpqFileCache cache() {
+    return cache;
+  }
+
+  /**
+   * Limits the heap bytes of decoded files across all mpqs managed by this
+   * resolver, or removes the limit if {@code budget} is null. Only applies to
+   * buffers allocated afterwards.
+   */
+  public MpqFileResolver budget(MpqMemoryBudget budget) {
+    log.debug("Budget set {}", budget);
+    this.budget = budget;
+    for (Mpq mpq : mpqs) mpq.budget = budget;
+    return this;
+  }
+
+  public MpqMemoryBudget budget() {
+    return budget;
+  }
+
+  /**
+   * Logs the heap bytes of decoded files resident within each mpq.
+   */
+  public void logResidentBytes() {
+    for (Mpq mpq : mpqs) {
+      log.info("{}: {} bytes resident, {} bytes mapped", mpq, mpq.residentBytes(), mpq.mappedBytes());
+    }
+    if (budget != null) log.info("budget: {}", budget);
+  }
+
   public Mpq get(String name) {
     Mpq mpq = lookup.get(name);
     if (mpq == null) throw new RuntimeException("MPQ not found: " + name);
@@ -91,11 +149,9 @@ public class MpqFileResolver implements FileHandleResolver, Disposable {
   }
 
   public boolean contains(String filename, short locale) {
-    filename = Decrypter.fix(filename);
-    final long key = HashTable.key(filename);
-    final int hash = HashTable.hash(filename);
+    final MpqPath path = MpqPath.of(filename);
     for (Mpq mpq : mpqs) {
-      if (mpq.contains(key, hash, locale)) {
+      if (mpq.contains(path.key, path.hash, locale)) {
         return true;
       }
     }
@@ -103,6 +159,62 @@ public class MpqFileResolver implements FileHandleResolver, Disposable {
     return false;
   }
 
+  static int pack(int mpq, int index) {
+    assert mpq >= 0 && mpq <= 0x7F : "mpq(" + mpq + ") exceeds 0x7F";
+    assert index >= 0 && index <= 0xFFFFFF : "index(" + index + ") exceeds 0xFFFFFF";
+    return (mpq << 24) | index;
+  }
+
+  static int mpq(int packed) {
+    return packed >>> 24;
+  }
+
+  static int index(int packed) {
+    return packed & 0xFFFFFF;
+  }
+
+  /**
+   * Resolves every path listed within the specified listfile (one path per
+   * line) and builds a flat table used to resolve them in subsequent lookups
+   * using {@code locale}, without probing the hash table of each mpq.
+   *
+   * @return number of listed paths found within an mpq
+   */
+  public int preresolve(FileHandle listfile, short locale) {
+    final String[] paths = listfile.readString("US-ASCII").split("[\\r\\n;]+");
+    return preresolve(Array.with(paths), locale);
+  }
+
+  /**
+   * @see #preresolve(FileHandle, short)
+   */
+  public int preresolve(Iterable<? extends CharSequence> paths, short locale) {
+    int found = 0;
+    final Mpq[] mpqs = this.mpqs.items;
+    final int numMpqs = this.mpqs.size;
+    final ObjectIntMap<MpqPath> preresolved = new ObjectIntMap<>(8192);
+    for (CharSequence filename : paths) {
+      if (filename.length() == 0) continue;
+      final MpqPath path = MpqPath.of(filename);
+      int packed = NOT_FOUND;
+      for (int i = 0; i < numMpqs; i++) {
+        final int index = mpqs[i].get(path.key, path.hash, locale);
+        if (index >= 0) {
+          packed = pack(i, index);
+          found++;
+          break;
+        }
+      }
+
+      preresolved.put(path, packed);
+    }
+
+    this.preresolvedLocale = locale;
+    this.preresolved = preresolved;
+    log.debug("Preresolved {} paths ({} found)", preresolved.size, found);
+    return found;
+  }
+
   @Override
   public MpqFileHandle resolve(AssetDesc<?> asset) {
     final AssetParams assetParams = asset.params();
@@ -112,20 +224,31 @@ public class MpqFileResolver implements FileHandleResolver, Disposable {
   }
 
   public MpqFileHandle resolve(AssetDesc<?> asset, MpqParams mpqParams) {
-    String filename = Decrypter.fix(asset.path());
+    final MpqPath filename = MpqPath.of(asset.path());
     log.trace("Resolving {}:{}...", mpqParams.localeToString(), filename);
 
-    int misses = 0;
-    final long key = HashTable.key(filename);
-    final int hash = HashTable.hash(filename);
     final Mpq[] mpqs = this.mpqs.items;
+    final ObjectIntMap<MpqPath> preresolved = this.preresolved;
+    if (preresolved != null && mpqParams.locale == preresolvedLocale) {
+      final int packed = preresolved.get(filename, NOT_PRERESOLVED);
+      if (packed != NOT_PRERESOLVED) {
+        if (packed == NOT_FOUND) {
+          log.debug("Failed to resolve {}:{} (preresolved)", mpqParams.localeToString(), filename);
+          return null;
+        }
+
+        final Mpq mpq = mpqs[mpq(packed)];
+        final int index = index(packed);
+        log.debug("{}:{} found in {}[{}] (preresolved)", mpqParams.localeToString(), filename, mpq, index);
+        return mpq.open(decoder, index, filename);
+      }
+    }
+
     for (int i = 0, s = this.mpqs.size; i < s; i++) {
       final Mpq mpq = mpqs[i];
-      final int m = mpq.hashTable.misses;
-      final int index = mpq.get(key, hash, mpqParams.locale);
-      misses += (mpq.hashTable.misses - m);
+      final int index = mpq.get(filename.key, filename.hash, mpqParams.locale);
       if (index >= 0) {
-        log.debug("{}:{} found in {}[{}] ({} misses)", mpqParams.localeToString(), filename, mpq, index, misses);
+        log.debug("{}:{} found in {}[{}]", mpqParams.localeToString(), filename, mpq, index);
         return mpq.open(decoder, index, filename);
       }
     }
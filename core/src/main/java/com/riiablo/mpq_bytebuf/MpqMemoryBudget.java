@@ -0,0 +1,144 @@
+package com.riiablo.mpq_bytebuf;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.riiablo.logger.LogManager;
+import com.riiablo.logger.Logger;
+
+/**
+ * Global memory budget for decoded mpq file buffers shared by all mpqs of a
+ * {@link MpqFileResolver}.
+ *
+ * Decoded buffers are tracked in least recently used order, and once the
+ * resident bytes exceed {@link #maxBytes()}, the coldest buffers are released
+ * by their handles and their sectors are marked as not decoded, s.t. they
+ * will be decoded again on demand. Buffers which are retained by a reader,
+ * e.g., while sectors are being decoded into them or through
+ * {@link MpqFileHandle#retainedBufferAsync}, are skipped.
+ */
+public final class MpqMemoryBudget {
+  private static final Logger log = LogManager.getLogger(MpqMemoryBudget.class);
+
+  final long maxBytes;
+  final AtomicLong residentBytes = new AtomicLong(); // modified while holding this
+  final LongAdder evictions = new LongAdder();
+  final LongAdder evictedBytes = new LongAdder();
+
+  // lru list, head is least recently used -- guarded by this
+  MpqFileHandle head;
+  MpqFileHandle tail;
+
+  public MpqMemoryBudget(long maxBytes) {
+    if (maxBytes <= 0) throw new IllegalArgumentException("maxBytes(" + maxBytes + ") <= 0");
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Charges the decoded buffer of the specified handle against this budget,
+   * evicting least recently used buffers of other handles if necessary.
+   */
+  void charge(final MpqFileHandle handle, final int bytes) {
+    synchronized (this) {
+      if (handle.lruLinked) unlink(handle);
+      linkLast(handle);
+      residentBytes.addAndGet(bytes);
+      evict(handle);
+    }
+  }
+
+  /** marks the decoded buffer of the specified handle as most recently used */
+  void touch(final MpqFileHandle handle) {
+    synchronized (this) {
+      if (!handle.lruLinked || handle == tail) return;
+      unlink(handle);
+      linkLast(handle);
+    }
+  }
+
+  /** removes the decoded buffer of the specified handle from this budget */
+  void remove(final MpqFileHandle handle, final int bytes) {
+    synchronized (this) {
+      if (handle.lruLinked) unlink(handle);
+      residentBytes.addAndGet(-bytes);
+    }
+  }
+
+  /**
+   * Evicts least recently used buffers other than that of {@code retain}
+   * until the resident bytes are within budget, skipping retained buffers.
+   * Must be called while holding this.
+   */
+  private void evict(final MpqFileHandle retain) {
+    assert Thread.holdsLock(this);
+    for (MpqFileHandle victim = head, next; victim != null && residentBytes.get() > maxBytes; victim = next) {
+      next = victim.lruNext;
+      if (victim == retain) continue;
+      final int bytes = victim.evict();
+      if (bytes < 0) continue; // retained by a reader
+      unlink(victim);
+      if (bytes == 0) continue;
+      residentBytes.addAndGet(-bytes);
+      evictions.increment();
+      evictedBytes.add(bytes);
+      log.trace("Evicted {} ({} bytes)", victim, bytes);
+    }
+  }
+
+  private void linkLast(final MpqFileHandle handle) {
+    assert !handle.lruLinked : handle + " already linked";
+    handle.lruLinked = true;
+    handle.lruPrev = tail;
+    handle.lruNext = null;
+    if (tail == null) {
+      head = handle;
+    } else {
+      tail.lruNext = handle;
+    }
+    tail = handle;
+  }
+
+  private void unlink(final MpqFileHandle handle) {
+    assert handle.lruLinked : handle + " not linked";
+    final MpqFileHandle prev = handle.lruPrev;
+    final MpqFileHandle next = handle.lruNext;
+    if (prev == null) {
+      head = next;
+    } else {
+      prev.lruNext = next;
+    }
+
+    if (next == null) {
+      tail = prev;
+    } else {
+      next.lruPrev = prev;
+    }
+
+    handle.lruPrev = null;
+    handle.lruNext = null;
+    handle.lruLinked = false;
+  }
+
+  public long maxBytes() {
+    return maxBytes;
+  }
+
+  public long residentBytes() {
+    return residentBytes.get();
+  }
+
+  public long evictions() {
+    return evictions.sum();
+  }
+
+  public long evictedBytes() {
+    return evictedBytes.sum();
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "%d/%d bytes, %d evictions (%d bytes)",
+        residentBytes(), maxBytes, evictions(), evictedBytes());
+  }
+}
@@ -0,0 +1,90 @@
+package com.riiablo.mpq_bytebuf;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.riiablo.mpq_bytebuf.Mpq.HashTable;
+
+/**
+ * Interned mpq file path which caches the hash table hashes of its
+ * case-folded path, s.t. they are only computed once and can be reused to
+ * probe the hash tables of every mpq.
+ *
+ * Paths are interned for the lifetime of the application, which is bounded by
+ * the number of distinct files referenced by the game.
+ */
+public final class MpqPath implements CharSequence {
+  static final ConcurrentMap<String, MpqPath> interned = new ConcurrentHashMap<>(4096);
+
+  /**
+   * Returns the interned path for the specified filename. Filenames differing
+   * only in case or path separators return the same instance.
+   */
+  public static MpqPath of(CharSequence filename) {
+    final String str = filename.toString();
+    MpqPath path = interned.get(str);
+    if (path != null) return path;
+
+    final String fixed = Decrypter.fix(str);
+    path = interned.get(fixed);
+    if (path == null) {
+      final MpqPath newPath = new MpqPath(fixed);
+      path = interned.putIfAbsent(fixed, newPath);
+      if (path == null) path = newPath;
+    }
+
+    if (!fixed.equals(str)) interned.putIfAbsent(str, path);
+    return path;
+  }
+
+  final String path;
+  final long key; // HASH_TABLE_KEY2 << 32 | HASH_TABLE_KEY1
+  final int hash; // HASH_TABLE_OFFSET
+
+  MpqPath(String path) {
+    this.path = path;
+    this.key = HashTable.key(path);
+    this.hash = HashTable.hash(path);
+  }
+
+  public long key() {
+    return key;
+  }
+
+  public int hash() {
+    return hash;
+  }
+
+  @Override
+  public int length() {
+    return path.length();
+  }
+
+  @Override
+  public char charAt(int index) {
+    return path.charAt(index);
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    return path.subSequence(start, end);
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof MpqPath)) return false;
+    MpqPath other = (MpqPath) o;
+    return key == other.key && hash == other.hash && path.equals(other.path);
+  }
+
+  @Override
+  public String toString() {
+    return path;
+  }
+}
@@ -0,0 +1,68 @@
+package com.riiablo.net;
+
+import com.google.flatbuffers.FlatBufferBuilder;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Arena of {@link FlatBufferBuilder builders} which are recycled all at once.
+ * Builders obtained from the arena, and the buffers they finished, remain
+ * valid until the arena is {@link #reset() reset}, e.g., once the packets
+ * of a tick have been written. Builders keep the capacity they grew to, so
+ * once warmed up, encoding packets does not allocate.
+ *
+ * Not thread-safe.
+ */
+public class FlatBufferBuilderArena {
+  /** initial capacity of new builders in bytes */
+  public static final int DEFAULT_BUILDER_SIZE = 256;
+
+  final Array<FlatBufferBuilder> builders = new Array<>(false, 64, FlatBufferBuilder.class);
+  final int builderSize;
+
+  int next;
+  int peak;
+
+  public FlatBufferBuilderArena() {
+    this(DEFAULT_BUILDER_SIZE);
+  }
+
+  public FlatBufferBuilderArena(int builderSize) {
+    this.builderSize = builderSize;
+  }
+
+  /** returns a cleared builder which remains valid until the next {@link #reset()} */
+  public FlatBufferBuilder obtain() {
+    final FlatBufferBuilder builder;
+    if (next < builders.size) {
+      builder = builders.items[next];
+      builder.clear();
+    } else {
+      builders.add(builder = new FlatBufferBuilder(builderSize));
+    }
+
+    next++;
+    return builder;
+  }
+
+  /** recycles all builders, invalidating any buffers they finished */
+  public void reset() {
+    if (next > peak) peak = next;
+    next = 0;
+  }
+
+  /** number of builders obtained since the last reset */
+  public int size() {
+    return next;
+  }
+
+  /** number of builders allocated */
+  public int capacity() {
+    return builders.size;
+  }
+
+  /** max number of builders obtained between resets */
+  public int peak() {
+    return Math.max(peak, next);
+  }
+}
@@ -7,9 +7,8 @@ import com.badlogic.gdx.utils.IntIntMap;
 import com.riiablo.Riiablo;
 import com.riiablo.attributes.Attributes;
 import com.riiablo.attributes.AttributesUpdater;
+import com.riiablo.attributes.IncrementalUpdate;
 import com.riiablo.attributes.Stat;
-import com.riiablo.attributes.StatRef;
-import com.riiablo.attributes.UpdateSequence;
 import com.riiablo.codec.excel.CharStats;
 import com.riiablo.codec.excel.SetItems;
 import com.riiablo.item.BodyLoc;
@@ -46,6 +45,13 @@ public class ItemData {
 
   private static final AttributesUpdater updater = new AttributesUpdater(); // TODO: inject
 
+  /**
+   * Tracks the stats of the active equipped items and charms, s.t. equipping,
+   * unequipping and swapping items only applies the changed items. Rebuilt by
+   * {@link #updateStats()}, which must be called if the base stats change.
+   */
+  IncrementalUpdate incremental;
+
   ItemData(Attributes stats, CharStats.Entry charStats) {
     this.stats = stats;
     this.charStats = charStats;
@@ -62,6 +68,7 @@ public class ItemData {
     equippedSets.clear();
     setItemsOwned.clear();
     updateListeners.clear();
+    incremental = null;
   }
 
   public void load() {
@@ -145,10 +152,28 @@ public class ItemData {
 
   public void setAlternate(int alternate) {
     if (this.alternate != alternate) {
-      this.alternate = alternate;
-      updateStats();
       Item LH = getEquipped(BodyLoc.LARM);
       Item RH = getEquipped(BodyLoc.RARM);
+      this.alternate = alternate;
+      if (incremental == null || isSet(LH) || isSet(RH)) {
+        updateStats();
+        LH = getEquipped(BodyLoc.LARM);
+        RH = getEquipped(BodyLoc.RARM);
+      } else {
+        untrack(LH);
+        if (RH != LH) untrack(RH);
+        LH = getEquipped(BodyLoc.LARM);
+        RH = getEquipped(BodyLoc.RARM);
+        if (isSet(LH) || isSet(RH)) {
+          updateStats();
+        } else {
+          addStats(LH);
+          if (RH != LH) addStats(RH);
+          incremental.apply();
+          notifyUpdated();
+        }
+      }
+
       notifyAlternated(alternate, LH, RH);
     }
   }
@@ -258,7 +283,13 @@ public class ItemData {
     item.bodyLoc = bodyLoc;
     int j = equipped.put(bodyLoc, i);
     assert j == INVALID_ITEM : "Item " + j + " should have been unequipped by this point.";
-    updateStats(); // TODO: add support for appending to existing stats if this is an additional item
+    if (incremental == null || isSet(item)) {
+      updateStats();
+    } else {
+      addStats(item);
+      incremental.apply();
+      notifyUpdated();
+    }
     updateSet(item, 1);
     notifyEquip(bodyLoc, item);
   }
@@ -266,15 +297,21 @@ public class ItemData {
   int unequip(BodyLoc bodyLoc) {
     int i = equipped.remove(bodyLoc);
     Item item = itemData.get(i);
-    updateStats();
+    if (incremental == null || isSet(item)) {
+      updateStats();
+    } else {
+      untrack(item);
+      incremental.apply();
+      notifyUpdated();
+    }
     updateSet(item, -1);
     notifyUnequip(bodyLoc, item);
     return i;
   }
 
   void updateStats() {
-    StatRef stat;
-    final UpdateSequence update = updater.update(stats, charStats);
+    stats.reset();
+    incremental = updater.incremental(incremental, stats, charStats);
     int[] cache = equipped.values();
     for (int i = 0, s = cache.length, j; i < s; i++) {
       j = cache[i];
@@ -282,10 +319,7 @@ public class ItemData {
       Item item = itemData.get(j);
       if (isActive(item)) {
         item.update(updater, stats, charStats, equippedSets);
-        update.add(item.attrs.remaining());
-        if ((stat = item.attrs.get(Stat.armorclass)) != null) {
-          stats.aggregate().add(stat); // TODO: necessary anymore?
-        }
+        track(item);
       }
     }
 
@@ -297,15 +331,42 @@ public class ItemData {
       Item item = itemData.get(j);
       if (item.type.is(Type.CHAR)) {
         item.update(updater, stats, charStats, equippedSets);
-        update.add(item.attrs.remaining());
+        incremental.add(item.attrs.remaining());
       } else if (item.type.is(Type.BOOK)) { // TODO: may not be needed since not stat -- calculate elsewhere?
         item.update(updater, stats, charStats, equippedSets);
       }
     }
-    update.apply();
+    incremental.apply();
     notifyUpdated();
   }
 
+  /**
+   * Updates and tracks the stats of the specified item if it is active. Items
+   * are updated against the applied stats rather than the base stats as they
+   * are in {@link #updateStats()}, which is equivalent since the only op base
+   * of item stats is the level.
+   */
+  private void addStats(Item item) {
+    if (!isActive(item)) return;
+    item.update(updater, stats, charStats, equippedSets);
+    track(item);
+  }
+
+  private void track(Item item) {
+    incremental.add(item.attrs.remaining());
+    incremental.aggregate(item.attrs.aggregate(), Stat.armorclass);
+  }
+
+  private void untrack(Item item) {
+    if (item == null || !incremental.contains(item.attrs.remaining())) return;
+    incremental.remove(item.attrs.remaining());
+    incremental.unaggregate(item.attrs.aggregate(), Stat.armorclass);
+  }
+
+  private static boolean isSet(Item item) {
+    return item != null && item.quality == Quality.SET;
+  }
+
   private void updateSet(Item item, int add) {
     if (item != null && item.quality == Quality.SET) {
       SetItems.Entry setItem = (SetItems.Entry) item.qualityData;
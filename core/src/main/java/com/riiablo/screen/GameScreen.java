@@ -80,6 +80,7 @@ import com.riiablo.engine.client.SoundEmitterHandler;
 import com.riiablo.engine.client.WarpSubstManager;
 import com.riiablo.engine.client.ZoneChangeTracker;
 import com.riiablo.engine.client.ZoneEntryDisplayer;
+import com.riiablo.engine.client.ZonePrefetchHandler;
 import com.riiablo.engine.client.debug.Box2DDebugger;
 import com.riiablo.engine.client.debug.PathDebugger;
 import com.riiablo.engine.client.debug.PathfindDebugger;
@@ -89,6 +90,7 @@ import com.riiablo.engine.server.Actioneer;
 import com.riiablo.engine.server.AngularVelocity;
 import com.riiablo.engine.server.AnimDataResolver;
 import com.riiablo.engine.server.AnimStepper;
+import com.riiablo.engine.server.AttributesDisposer;
 import com.riiablo.engine.server.Box2DDisposer;
 import com.riiablo.engine.server.Box2DSynchronizerPost;
 import com.riiablo.engine.server.Box2DSynchronizerPre;
@@ -100,6 +102,7 @@ import com.riiablo.engine.server.ObjectCollisionUpdater;
 import com.riiablo.engine.server.ObjectInitializer;
 import com.riiablo.engine.server.ObjectInteractor;
 import com.riiablo.engine.server.Pathfinder;
+import com.riiablo.engine.server.ProximityManager;
 import com.riiablo.engine.server.PlayerItemHandler;
 import com.riiablo.engine.server.SequenceHandler;
 import com.riiablo.engine.server.VelocityModeChanger;
@@ -581,6 +584,7 @@ public class GameScreen extends ScreenAdapter implements GameLoadingScreen.Loada
         .with(new DamageHandler()) // TODO: move to more appropriate spot in list
         .with(new DeathHandler()) // TODO: move to more appropriate spot in list
         ;
+    builder.with(new ProximityManager());
     if (socket == null) {
       builder.with(new ItemGenerator());
       builder.with(new VendorGenerator());
@@ -602,6 +606,7 @@ public class GameScreen extends ScreenAdapter implements GameLoadingScreen.Loada
         .with(new CofAlphaHandler(), new CofTransformHandler())
         .with(new ItemLoader())
         .with(new MissileLoader())
+        .with(new AttributesDisposer())
         .with(new AnimationStepper())
         .with(new ObjectCollisionUpdater())
 
@@ -621,6 +626,7 @@ public class GameScreen extends ScreenAdapter implements GameLoadingScreen.Loada
         .with(new ZoneChangeTracker())
         .with(new ZoneMovementModesChanger())
         .with(new ZoneEntryDisplayer())
+        .with(new ZonePrefetchHandler())
 
         .with(new FootstepEmitter())
 
@@ -929,6 +935,7 @@ public class GameScreen extends ScreenAdapter implements GameLoadingScreen.Loada
     }
 
     engine.getSystem(Box2DPhysics.class).clear();
+    engine.getSystem(ZonePrefetchHandler.class).clear();
 
     loadingScreen.loadAct(act);
     Riiablo.client.pushScreen(loadingScreen);
@@ -1,11 +1,7 @@
 package com.riiablo.table;
 
-import io.netty.buffer.ByteBufUtil;
-import io.netty.buffer.Unpooled;
-
 import com.badlogic.gdx.files.FileHandle;
 
-import com.riiablo.io.ByteOutput;
 import com.riiablo.logger.LogManager;
 import com.riiablo.logger.Logger;
 
@@ -24,16 +20,17 @@ public class BinGenerator {
     }
   }
 
+  /**
+   * Writes a {@link BinParser snapshot} of the tsv the table was loaded from.
+   */
   void generateBin(Table table, FileHandle dst) {
     log.trace("generating {}", dst);
-
-    Serializer serializer = table.newSerializer();
-    ByteOutput out = ByteOutput.wrap(Unpooled.buffer());
-    for (Object record : table) {
-      // TODO: ByteOutput needs to implement DataOutput
-      // serializer.writeRecord(record, out);
+    final Parser parser = table.parser();
+    if (parser == null || !(parser.parser() instanceof TsvParser)) {
+      log.warn("{} was not loaded from a tsv, skipping {}", table.getClass().getSimpleName(), dst);
+      return;
     }
 
-    log.trace("dump of {}:\n{}", dst, ByteBufUtil.prettyHexDump(out.buffer()));
+    Tables.writeBin((TsvParser) parser.parser(), dst);
   }
 }
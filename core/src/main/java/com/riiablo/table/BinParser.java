@@ -0,0 +1,370 @@
+package com.riiablo.table;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import org.apache.commons.lang3.Validate;
+
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import com.riiablo.logger.LogManager;
+import com.riiablo.logger.Logger;
+
+/**
+ * Binary snapshot of a {@link TsvParser tsv} which is read in place, e.g.,
+ * from a memory mapped file, s.t. loading a table does no tokenizing and
+ * records are only materialized when they are first accessed. Mapped
+ * snapshots are backed by the page cache, so they are shared between
+ * processes loading the same files.
+ *
+ * Format (big-endian, 4-byte aligned):
+ * <pre>
+ * header   magic, version, numRecords, numFields, numStrings, poolLength
+ * fields   int[numFields] name string ids, int[numFields] column flags
+ * strings  int[numStrings + 1] offsets into pool
+ * columns  for each field:
+ *            int[numRecords] token string ids
+ *            int[numRecords] {@link TsvParser#parseInt} values
+ *            long[numRecords] {@link TsvParser#parseLong} values, if they
+ *              differ from the int values ({@link #FLAG_LONG})
+ * pool     byte[poolLength] interned tokens
+ * </pre>
+ * Columns store the values exactly as the tsv parser parsed them, s.t. a
+ * table loaded from a snapshot is identical to one loaded from its tsv.
+ */
+public class BinParser implements ParserInput {
+  private static final Logger log = LogManager.getLogger(BinParser.class);
+
+  static final int MAGIC = 0x52544231; // RTB1
+  static final int VERSION = 2; // 2: negative ints are no longer misparsed
+
+  static final int FLAG_LONG = 1 << 0;
+
+  private static final int HEADER_SIZE = 6 * Integer.BYTES;
+
+  public static BinParser map(FileHandle handle) throws IOException {
+    if (handle.type() == Files.FileType.Classpath
+        || (handle.type() == Files.FileType.Internal && !handle.file().exists())) {
+      return wrap(ByteBuffer.wrap(handle.readBytes()));
+    }
+
+    return map(handle.file());
+  }
+
+  public static BinParser map(File file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      return wrap(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  public static BinParser wrap(ByteBuffer buffer) {
+    return new BinParser(buffer);
+  }
+
+  final ByteBuffer buffer;
+  final int numRecords;
+  final int numFields;
+  final int numStrings;
+  final int fieldFlagsOffset;
+  final int stringOffsetsOffset;
+  final int[] columnOffsets;
+  final int poolOffset;
+  final String[] strings;
+
+  final Array<String> fieldNames;
+  final ObjectIntMap<String> fieldIds;
+  ObjectIntMap<String> recordIds;
+
+  int primaryKeyFieldId = -1;
+
+  BinParser(ByteBuffer buffer) {
+    this.buffer = buffer;
+    final int magic = buffer.getInt(0);
+    Validate.isTrue(magic == MAGIC, "magic(%08x) != MAGIC(%08x)", magic, MAGIC);
+    final int version = buffer.getInt(4);
+    Validate.isTrue(version == VERSION, "version(%d) != VERSION(%d)", version, VERSION);
+    numRecords = buffer.getInt(8);
+    numFields = buffer.getInt(12);
+    numStrings = buffer.getInt(16);
+    final int poolLength = buffer.getInt(20);
+    strings = new String[numStrings];
+
+    fieldFlagsOffset = HEADER_SIZE + numFields * Integer.BYTES;
+    stringOffsetsOffset = fieldFlagsOffset + numFields * Integer.BYTES;
+    columnOffsets = new int[numFields];
+    int offset = stringOffsetsOffset + (numStrings + 1) * Integer.BYTES;
+    for (int i = 0; i < numFields; i++) {
+      columnOffsets[i] = offset;
+      offset += columnSize(numRecords, fieldFlags(i));
+    }
+
+    poolOffset = offset;
+    Validate.isTrue(poolOffset + poolLength <= buffer.limit(),
+        "snapshot truncated: %d bytes < %d", buffer.limit(), poolOffset + poolLength);
+
+    fieldNames = new Array<>(true, numFields, String.class);
+    fieldIds = new ObjectIntMap<>(numFields);
+    for (int i = 0; i < numFields; i++) {
+      final String fieldName = string(buffer.getInt(HEADER_SIZE + i * Integer.BYTES));
+      if (!fieldIds.containsKey(fieldName)) fieldIds.put(fieldName, i);
+      fieldNames.add(fieldName);
+    }
+
+    log.debug("{} records, {} fields, {} strings", numRecords, numFields, numStrings);
+  }
+
+  static int columnSize(int numRecords, int flags) {
+    int size = 2 * numRecords * Integer.BYTES;
+    if ((flags & FLAG_LONG) == FLAG_LONG) size += numRecords * Long.BYTES;
+    return size;
+  }
+
+  int fieldFlags(int fieldId) {
+    return buffer.getInt(fieldFlagsOffset + fieldId * Integer.BYTES);
+  }
+
+  /** materializes the interned string, caching it for subsequent calls */
+  String string(int stringId) {
+    String string = strings[stringId];
+    if (string == null) {
+      final int offset = buffer.getInt(stringOffsetsOffset + stringId * Integer.BYTES);
+      final int end = buffer.getInt(stringOffsetsOffset + (stringId + 1) * Integer.BYTES);
+      final byte[] bytes = new byte[end - offset];
+      final ByteBuffer pool = buffer.duplicate();
+      pool.position(poolOffset + offset);
+      pool.get(bytes);
+      strings[stringId] = string = new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    return string;
+  }
+
+  private int stringId(int recordId, int fieldId) {
+    return buffer.getInt(columnOffsets[fieldId] + recordId * Integer.BYTES);
+  }
+
+  @Override
+  public int numFields() {
+    return numFields;
+  }
+
+  public Iterable<String> fieldNames() {
+    return fieldNames;
+  }
+
+  public String fieldName(int fieldId) {
+    return fieldNames.get(fieldId);
+  }
+
+  @Override
+  public int fieldId(String fieldName) {
+    return fieldIds.get(fieldName.toUpperCase(), -1);
+  }
+
+  @Override
+  public int numRecords() {
+    return numRecords;
+  }
+
+  @Override
+  public String recordName(int recordId) {
+    return primaryKeyFieldId == -1
+        ? "" + recordId
+        : parseString(recordId, primaryKeyFieldId);
+  }
+
+  @Override
+  public int recordId(String recordName) {
+    if (recordIds == null) {
+      if (primaryKeyFieldId == -1) return -1;
+      final ObjectIntMap<String> recordIds = new ObjectIntMap<>(numRecords);
+      for (int i = 0, s = numRecords; i < s; i++) recordIds.put(recordName(i), i);
+      this.recordIds = recordIds;
+    }
+
+    return recordIds.get(recordName.toUpperCase(), -1);
+  }
+
+  /**
+   * Record names are upper-cased when the primary key is set to match
+   * {@link TsvParser#primaryKey(String)}, which upper-cases them.
+   */
+  @Override
+  public int primaryKey(String fieldName) {
+    Validate.validState(primaryKeyFieldId == -1, "primary key already set");
+    if (fieldName == null) return primaryKeyFieldId;
+    return primaryKeyFieldId = fieldId(fieldName);
+  }
+
+  @Override
+  public int primaryKey() {
+    return primaryKeyFieldId;
+  }
+
+  @Override
+  public String token(int recordId, int fieldId) {
+    return parseString(recordId, fieldId);
+  }
+
+  @Override
+  public byte parseByte(int recordId, int fieldId) {
+    return (byte) parseInt(recordId, fieldId);
+  }
+
+  @Override
+  public short parseShort(int recordId, int fieldId) {
+    return (short) parseInt(recordId, fieldId);
+  }
+
+  @Override
+  public int parseInt(int recordId, int fieldId) {
+    if (fieldId < 0) return 0;
+    return buffer.getInt(columnOffsets[fieldId] + (numRecords + recordId) * Integer.BYTES);
+  }
+
+  @Override
+  public long parseLong(int recordId, int fieldId) {
+    if (fieldId < 0) return 0L;
+    if ((fieldFlags(fieldId) & FLAG_LONG) == 0) return parseInt(recordId, fieldId);
+    return buffer.getLong(columnOffsets[fieldId] + 2 * numRecords * Integer.BYTES + recordId * Long.BYTES);
+  }
+
+  @Override
+  public boolean parseBoolean(int recordId, int fieldId) {
+    final int intValue = parseInt(recordId, fieldId);
+    if ((intValue & 1) != intValue) {
+      log.warn("boolean exceeds binary radix at {}:{} ({}, {}): {}",
+          recordId, fieldId,
+          TsvTranslators.escapeTsv(recordName(recordId)),
+          TsvTranslators.escapeTsv(fieldName(fieldId)),
+          token(recordId, fieldId));
+    }
+
+    return intValue != 0;
+  }
+
+  @Override
+  public float parseFloat(int recordId, int fieldId) {
+    if (fieldId < 0) return 0f;
+    return Float.parseFloat(parseString(recordId, fieldId));
+  }
+
+  @Override
+  public double parseDouble(int recordId, int fieldId) {
+    if (fieldId < 0) return 0d;
+    return Double.parseDouble(parseString(recordId, fieldId));
+  }
+
+  @Override
+  public String parseString(int recordId, int fieldId) {
+    if (fieldId < 0) return null;
+    final String string = string(stringId(recordId, fieldId));
+    return fieldId == primaryKeyFieldId ? toUpper(string) : string;
+  }
+
+  /** upper-cases only {@code a-z}, as {@link TsvParser} does */
+  private static String toUpper(String string) {
+    for (int i = 0, s = string.length(); i < s; i++) {
+      final char c = string.charAt(i);
+      if (c >= 'a' && c <= 'z') {
+        final char[] chars = string.toCharArray();
+        for (int j = i; j < s; j++) {
+          if (chars[j] >= 'a' && chars[j] <= 'z') chars[j] &= ~0x20;
+        }
+
+        return new String(chars);
+      }
+    }
+
+    return string;
+  }
+
+  /**
+   * Writes a snapshot of the specified tsv to the specified stream.
+   */
+  public static void write(TsvParser in, OutputStream stream) throws IOException {
+    final int numRecords = in.numRecords();
+    final int numFields = in.numFields();
+
+    final ObjectIntMap<String> stringIds = new ObjectIntMap<>();
+    final Array<String> strings = new Array<>();
+    final int[] fieldNames = new int[numFields];
+    for (int i = 0; i < numFields; i++) {
+      fieldNames[i] = intern(in.fieldName(i), stringIds, strings);
+    }
+
+    final int[][] tokens = new int[numFields][numRecords];
+    final int[][] ints = new int[numFields][numRecords];
+    final long[][] longs = new long[numFields][];
+    final int[] flags = new int[numFields];
+    for (int f = 0; f < numFields; f++) {
+      for (int r = 0; r < numRecords; r++) {
+        tokens[f][r] = intern(in.parseString(r, f), stringIds, strings);
+        ints[f][r] = in.parseInt(r, f);
+        final long longValue = in.parseLong(r, f);
+        if (longValue != ints[f][r] && longs[f] == null) {
+          longs[f] = new long[numRecords];
+          flags[f] |= FLAG_LONG;
+        }
+      }
+
+      if (longs[f] != null) {
+        for (int r = 0; r < numRecords; r++) longs[f][r] = in.parseLong(r, f);
+      }
+    }
+
+    final byte[][] bytes = new byte[strings.size][];
+    int poolLength = 0;
+    for (int i = 0; i < strings.size; i++) {
+      bytes[i] = strings.get(i).getBytes(StandardCharsets.ISO_8859_1);
+      poolLength += bytes[i].length;
+    }
+
+    final DataOutputStream out = new DataOutputStream(stream);
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeInt(numRecords);
+    out.writeInt(numFields);
+    out.writeInt(strings.size);
+    out.writeInt(poolLength);
+    for (int i = 0; i < numFields; i++) out.writeInt(fieldNames[i]);
+    for (int i = 0; i < numFields; i++) out.writeInt(flags[i]);
+    int offset = 0;
+    for (int i = 0; i < strings.size; i++) {
+      out.writeInt(offset);
+      offset += bytes[i].length;
+    }
+    out.writeInt(offset);
+
+    for (int f = 0; f < numFields; f++) {
+      for (int r = 0; r < numRecords; r++) out.writeInt(tokens[f][r]);
+      for (int r = 0; r < numRecords; r++) out.writeInt(ints[f][r]);
+      if (longs[f] != null) {
+        for (int r = 0; r < numRecords; r++) out.writeLong(longs[f][r]);
+      }
+    }
+
+    for (byte[] string : bytes) out.write(string);
+    out.flush();
+    log.debug("wrote {} records, {} fields, {} strings ({} bytes)",
+        numRecords, numFields, strings.size, out.size());
+  }
+
+  private static int intern(String string, ObjectIntMap<String> stringIds, Array<String> strings) {
+    int stringId = stringIds.get(string, -1);
+    if (stringId == -1) {
+      stringIds.put(string, stringId = strings.size);
+      strings.add(string);
+    }
+
+    return stringId;
+  }
+}
@@ -1,9 +1,13 @@
 package com.riiablo.table;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 import com.badlogic.gdx.files.FileHandle;
 
 import com.riiablo.logger.LogManager;
 import com.riiablo.logger.Logger;
+import com.riiablo.mpq_bytebuf.MpqFileHandle;
 
 public class Tables {
   private static final Logger log = LogManager.getLogger(Tables.class);
@@ -17,40 +21,87 @@ public class Tables {
     return load(table, tsv, null);
   }
 
+  /**
+   * Loads the table from its binary snapshot if there is an up-to-date one,
+   * otherwise parses the tsv and writes the snapshot for subsequent loads.
+   */
   public static <R, T extends Table<R>>
   T load(T table, FileHandle tsv, FileHandle bin) {
-    if (!USE_TSV_ONLY && bin != null && bin.exists()) {
+    if (!USE_TSV_ONLY && bin != null && bin.exists() && !isStale(tsv, bin)) {
+      BinParser parser = null;
       try {
-        return loadBin(table, bin);
+        parser = BinParser.map(bin);
       } catch (Throwable t) {
-        log.error("Failed to load {}, defaulting to tsv", bin, t);
-        return loadTsv(table, tsv);
+        log.error("Failed to load {}, regenerating it from {}", bin, tsv, t);
+      }
+
+      if (parser != null) {
+        log.info("Loading {}", bin);
+        return load(table, parser);
       }
+    }
+
+    if (!USE_TSV_ONLY && bin != null) {
+      log.info("Loading {}", tsv);
+      TsvParser parser = parseTsv(tsv);
+      writeBin(parser, bin);
+      return loadTsv(table, parser);
     } else {
       return loadTsv(table, tsv);
     }
   }
 
+  static boolean isStale(FileHandle tsv, FileHandle bin) {
+    return tsv != null && tsv.lastModified() > bin.lastModified();
+  }
+
   static <R, T extends Table<R>>
   T loadTsv(T table, FileHandle tsv) {
     log.info("Loading {}", tsv);
-    TsvParser parser = TsvParser.parse(tsv.readBytes());
+    TsvParser parser = parseTsv(tsv);
     return loadTsv(table, parser);
   }
 
+  /**
+   * Parses decoded mpq files in place, other files are read into memory.
+   */
+  static TsvParser parseTsv(FileHandle tsv) {
+    return tsv instanceof MpqFileHandle
+        ? TsvParser.parse(((MpqFileHandle) tsv).buffer())
+        : TsvParser.parse(tsv.readBytes());
+  }
+
   static <R, T extends Table<R>>
   T loadTsv(T table, TsvParser parser) {
-    parser.primaryKey(table.primaryKey());
-    table.initialize(parser);
-    table.initialize();
-    return table;
+    return load(table, parser);
   }
 
   static <R, T extends Table<R>>
-  T loadBin(T table, FileHandle bin) {
+  T loadBin(T table, FileHandle bin) throws IOException {
     log.info("Loading {}", bin);
-    //...
+    return load(table, BinParser.map(bin));
+  }
+
+  static <R, T extends Table<R>>
+  T load(T table, ParserInput parser) {
+    parser.primaryKey(table.primaryKey());
+    table.initialize(parser);
     table.initialize();
     return table;
   }
+
+  /**
+   * Writes a snapshot of the tsv, deleting any partially written snapshot
+   * if it could not be written.
+   */
+  static void writeBin(TsvParser parser, FileHandle bin) {
+    try (OutputStream out = bin.write(false, 1 << 16)) {
+      BinParser.write(parser, out);
+    } catch (Throwable t) {
+      log.warn("Failed to write {}", bin, t);
+      try {
+        bin.delete();
+      } catch (Throwable ignored) {}
+    }
+  }
 }
@@ -1,26 +1,23 @@
 package com.riiablo.table;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.util.AsciiString;
-import io.netty.util.CharsetUtil;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.commons.lang3.Validate;
 
 import com.badlogic.gdx.utils.Array;
-import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.ObjectIntMap;
 
+import com.riiablo.io.TsvTokenizer;
 import com.riiablo.logger.LogManager;
 import com.riiablo.logger.Logger;
 
 /**
- * Written under the assumptions that the tab-separated value file format is
- * consistent as:
+ * {@link ParserInput} over the tokens of a {@link TsvTokenizer}, see the
+ * tokenizer for the expected format.
  *
- * C00\tC01\tC02\r\n <--- defines column names
- * c10\tc11\tc12\r\n
- * EXPANSION\t\t\r\n <--- may or may not be present
- * c30\tc31\tc32\r\n
+ * @see TsvTokenizer
  */
 public class TsvParser implements ParserInput {
   private static final Logger log = LogManager.getLogger(TsvParser.class);
@@ -28,147 +25,38 @@ public class TsvParser implements ParserInput {
   /** Log warnings if {@link #parseBoolean} parses non-binary radixes */
   private static final boolean CHECK_BINARY_RADIX = true;
 
-  private static final byte HT = '\t';
-  private static final byte CR = '\r';
-  private static final byte LF = '\n';
-
-  private static final byte[] TO_UPPER;
-  static {
-    TO_UPPER = new byte[1 << Byte.SIZE];
-    for (int i = 0; i < TO_UPPER.length; i++) {
-      TO_UPPER[i] = (byte) i;
-    }
-
-    for (int i = 'a'; i <= 'z'; i++) {
-      TO_UPPER[i] &= ~0x20;
-    }
-  }
-
-  private static AsciiString toUpper(AsciiString string) {
-    final byte[] bytes = string.array();
-    for (int i = string.arrayOffset(), s = i + string.length(); i < s; i++) {
-      bytes[i] = TO_UPPER[bytes[i]];
-    }
-
-    string.arrayChanged();
-    return string;
-  }
-
-  private static String toUpper(final AsciiString buffer, final int start, final int end) {
-    final byte[] bytes = buffer.array();
-    for (int i = start; i < end; i++) {
-      bytes[i] = TO_UPPER[bytes[i]];
-    }
-
-    return buffer.toString(start, end);
+  public static TsvParser parse(byte[] bytes) {
+    return new TsvParser(TsvTokenizer.tokenize(bytes));
   }
 
-  private static final byte[] EXPANSION = "\nEXPANSION".getBytes(CharsetUtil.US_ASCII);
-
   /**
-   * Consumes the regexp {@code \nEXPANSION\t*\r}
+   * Parses the readable bytes of {@code buffer} in place, i.e., the buffer
+   * must not be modified or released while this parser is in use.
    */
-  static int skipExpansion(final byte[] bytes, final int offset) {
-    final byte[] EXPANSION = TsvParser.EXPANSION;
-    final int length = EXPANSION.length;
-    if (offset + length >= bytes.length) return offset;
-    int i = offset;
-    for (int j = 0; j < length; i++, j++) {
-      if (TO_UPPER[bytes[i]] != EXPANSION[j]) {
-        return offset;
-      }
-    }
-
-    while (bytes[i] != CR) i++;
-    return i + 1;
-  }
-
-  public static TsvParser parse(byte[] bytes) {
-    return new TsvParser(bytes);
+  public static TsvParser parse(ByteBuf buffer) {
+    return new TsvParser(TsvTokenizer.tokenize(buffer));
   }
 
-  final byte[] bytes;
-  final AsciiString buffer;
+  final TsvTokenizer tokens;
 
   final int numRecords;
   final ObjectIntMap<String> recordIds = new ObjectIntMap<>(389);
-  final IntArray lineOffsets = new IntArray(256);
 
   final int numFields;
   final Array<String> fieldNames = new Array<>(16);
   final ObjectIntMap<String> fieldIds = new ObjectIntMap<>(53);
-  final IntArray tokenOffsets = new IntArray(256 * 16);
 
   int primaryKeyFieldId = -1;
 
-  TsvParser(byte[] bytes) {
-    this.bytes = bytes;
-    buffer = new AsciiString(bytes, false);
-    final int firstRecordOffset = preprocessFieldNames();
-    numFields = parseFieldNames();
-    numRecords = preprocess(firstRecordOffset);
-    log.debug("{} records, {} fields, {} tokens",
-        lineOffsets.size, numFields, tokenOffsets.size);
-  }
-
-  private int preprocessFieldNames() {
-    lineOffsets.add(0);
-    tokenOffsets.add(0);
-    final byte[] bytes = this.bytes;
-    final int length = bytes.length;
-    for (int i = 0; i < length; i++) {
-      switch (bytes[i]) {
-        case HT:
-          tokenOffsets.add(i);
-          tokenOffsets.add(i + 1);
-          break;
-        case CR:
-          tokenOffsets.add(i);
-          lineOffsets.add(tokenOffsets.size);
-          break;
-        case LF:
-          return i + 1;
-      }
-    }
-
-    return -1;
-  }
-
-  private int parseFieldNames() {
-    final int numFields = lineOffsets.get(1);
-    final int[] tokenOffsets = this.tokenOffsets.items;
-    for (int i = 0; i < numFields;) {
-      putFieldName(toUpper(buffer, tokenOffsets[i++], tokenOffsets[i++]));
-    }
-
-    return numFields >> 1;
-  }
-
-  private int preprocess(int offset) {
-    lineOffsets.clear();
-    lineOffsets.add(0);
-    tokenOffsets.clear();
-    tokenOffsets.add(offset);
-    final byte[] bytes = this.bytes;
-    final int length = bytes.length;
-    for (int i = offset; i < length; i++) {
-      switch (bytes[i]) {
-        case HT:
-          tokenOffsets.add(i);
-          tokenOffsets.add(i + 1);
-          break;
-        case CR:
-          tokenOffsets.add(i);
-          lineOffsets.add(tokenOffsets.size);
-          break;
-        case LF:
-          i = skipExpansion(bytes, i);
-          tokenOffsets.add(i + 1);
-          break;
-      }
+  TsvParser(TsvTokenizer tokens) {
+    this.tokens = tokens;
+    numFields = tokens.numFields();
+    numRecords = tokens.numRecords();
+    for (int i = 0; i < numFields; i++) {
+      putFieldName(tokens.toUpperCase(-1, i));
     }
 
-    return --lineOffsets.size;
+    log.debug("{} records, {} fields", numRecords, numFields);
   }
 
   private void putFieldName(String fieldName) {
@@ -210,11 +98,7 @@ public class TsvParser implements ParserInput {
   public String recordName(int recordId) {
     return primaryKeyFieldId == -1
         ? "" + recordId
-        : _recordName(recordId).toString();
-  }
-
-  private AsciiString _recordName(int recordId) {
-    return token(recordId, primaryKeyFieldId);
+        : tokens.toUpperCase(recordId, primaryKeyFieldId);
   }
 
   @Override
@@ -222,11 +106,8 @@ public class TsvParser implements ParserInput {
     Validate.validState(primaryKeyFieldId == -1, "primary key already set");
     if (fieldName == null) return primaryKeyFieldId;
     final int fieldId = primaryKeyFieldId = fieldId(fieldName);
-    final int[] tokenOffsets = this.tokenOffsets.items;
     for (int i = 0, s = numRecords(); i < s; i++) {
-      final int offset = lineOffset(i, fieldId);
-      String recordName = toUpper(buffer, tokenOffsets[offset], tokenOffsets[offset + 1]);
-      recordIds.put(recordName, i);
+      recordIds.put(tokens.toUpperCase(i, fieldId), i);
     }
     return primaryKeyFieldId;
   }
@@ -236,15 +117,15 @@ public class TsvParser implements ParserInput {
     return primaryKeyFieldId;
   }
 
-  private int lineOffset(final int recordId, final int fieldId) {
-    return lineOffsets.items[recordId] + (fieldId << 1);
-  }
-
+  /**
+   * Returns the token at {@code (recordId, fieldId)}. Tokens of the primary
+   * key are upper-cased.
+   */
   @Override
   public AsciiString token(final int recordId, final int fieldId) {
-    final int offset = lineOffset(recordId, fieldId);
-    final int[] tokenOffsets = this.tokenOffsets.items;
-    return buffer.subSequence(tokenOffsets[offset], tokenOffsets[offset + 1]);
+    return fieldId == primaryKeyFieldId
+        ? new AsciiString(tokens.toUpperCase(recordId, fieldId))
+        : tokens.toAsciiString(recordId, fieldId);
   }
 
   public Iterable<String> tokens(final int recordId) {
@@ -287,23 +168,12 @@ public class TsvParser implements ParserInput {
    * checking.
    *
    * @return token at {@code (recordId, fieldId)}, otherwise {@code 0}
+   * @see TsvTokenizer#toInt
    */
   @Override
   public int parseInt(int recordId, int fieldId) {
     if (fieldId < 0) return 0;
-    final int offset = lineOffset(recordId, fieldId);
-    final int[] tokenOffsets = this.tokenOffsets.items;
-    final int start = tokenOffsets[offset];
-    final int end = tokenOffsets[offset + 1];
-    if (start >= end) return 0;
-    int i = start;
-    final byte[] bytes = this.bytes;
-    boolean negative = bytes[i] == '-';
-    if (negative) i++;
-    int result = 0;
-    final int l = end - start;
-    for (final int s = i + l; i < s; i++) result = (result * 10) + (bytes[i] & 0xF);
-    return negative ? -result : result;
+    return tokens.toInt(recordId, fieldId);
   }
 
   /**
@@ -311,23 +181,12 @@ public class TsvParser implements ParserInput {
    * checking.
    *
    * @return token at {@code (recordId, fieldId)}, otherwise {@code 0}
+   * @see TsvTokenizer#toLong
    */
   @Override
   public long parseLong(int recordId, int fieldId) {
     if (fieldId < 0) return 0L;
-    final int offset = lineOffset(recordId, fieldId);
-    final int[] tokenOffsets = this.tokenOffsets.items;
-    final int start = tokenOffsets[offset];
-    final int end = tokenOffsets[offset + 1];
-    if (start >= end) return 0;
-    int i = start;
-    final byte[] bytes = this.bytes;
-    boolean negative = bytes[i] == '-';
-    if (negative) i++;
-    long result = 0L;
-    final int l = end - start;
-    for (final int s = i + l; i < s; i++) result = (result * 10) + (bytes[i] & 0xF);
-    return negative ? -result : result;
+    return tokens.toLong(recordId, fieldId);
   }
 
   @Override
@@ -356,11 +215,15 @@ public class TsvParser implements ParserInput {
     return Double.parseDouble(parseString(recordId, fieldId));
   }
 
+  /**
+   * Returns the token at {@code (recordId, fieldId)}. Tokens of the primary
+   * key are upper-cased.
+   */
   @Override
   public String parseString(int recordId, int fieldId) {
     if (fieldId < 0) return null;
-    final int offset = lineOffset(recordId, fieldId);
-    final int[] tokenOffsets = this.tokenOffsets.items;
-    return buffer.toString(tokenOffsets[offset], tokenOffsets[offset + 1]);
+    return fieldId == primaryKeyFieldId
+        ? tokens.toUpperCase(recordId, fieldId)
+        : tokens.toString(recordId, fieldId);
   }
 }
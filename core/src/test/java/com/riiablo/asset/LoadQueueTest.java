@@ -0,0 +1,135 @@
+package com.riiablo.asset;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import io.netty.util.concurrent.Promise;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import com.riiablo.asset.adapter.GdxFileHandleAdapter;
+
+import static com.riiablo.asset.AssetContainer.EMPTY_PROMISE_ARRAY;
+import static com.riiablo.asset.LoadPriority.IMMEDIATE;
+import static com.riiablo.asset.LoadPriority.PREFETCH;
+import static com.riiablo.asset.LoadPriority.VISIBLE;
+
+public class LoadQueueTest {
+  static LoadQueue.Task offer(LoadQueue queue, String path, LoadPriority priority) {
+    AssetDesc<Object> asset = AssetDesc.of(path, Object.class, new AssetParams<>());
+    AssetContainer container = AssetContainer.wrap(asset, ImmediateEventExecutor.INSTANCE.newPromise(), AssetDesc.EMPTY_ASSET_DESC_ARRAY);
+    return queue.offer(container, EMPTY_PROMISE_ARRAY, priority);
+  }
+
+  @Test
+  void orders_by_priority_then_request() {
+    LoadQueue queue = new LoadQueue();
+    LoadQueue.Task prefetch1 = offer(queue, "prefetch1", PREFETCH);
+    LoadQueue.Task visible1 = offer(queue, "visible1", VISIBLE);
+    LoadQueue.Task prefetch2 = offer(queue, "prefetch2", PREFETCH);
+    LoadQueue.Task immediate = offer(queue, "immediate", IMMEDIATE);
+    LoadQueue.Task visible2 = offer(queue, "visible2", VISIBLE);
+    assertSame(immediate, queue.poll());
+    assertSame(visible1, queue.poll());
+    assertSame(visible2, queue.poll());
+    assertSame(prefetch1, queue.poll());
+    assertSame(prefetch2, queue.poll());
+    assertNull(queue.poll());
+    assertEquals(1, queue.dequeued(IMMEDIATE));
+    assertEquals(2, queue.dequeued(VISIBLE));
+    assertEquals(2, queue.dequeued(PREFETCH));
+  }
+
+  @Test
+  void bump_queued() {
+    LoadQueue queue = new LoadQueue();
+    LoadQueue.Task visible = offer(queue, "visible", VISIBLE);
+    LoadQueue.Task prefetch = offer(queue, "prefetch", PREFETCH);
+    assertTrue(queue.bump(prefetch, IMMEDIATE));
+    assertFalse(queue.bump(visible, PREFETCH)); // never demoted
+    assertSame(prefetch, queue.poll());
+    assertSame(visible, queue.poll());
+    assertEquals(1, queue.bumps());
+    assertEquals(1, queue.dequeued(IMMEDIATE));
+    assertEquals(0, queue.dequeued(PREFETCH));
+  }
+
+  @Test
+  void bump_started() {
+    LoadQueue queue = new LoadQueue();
+    LoadQueue.Task prefetch = offer(queue, "prefetch", PREFETCH);
+    assertSame(prefetch, queue.poll());
+    assertFalse(queue.bump(prefetch, IMMEDIATE));
+    assertEquals(0, queue.size());
+  }
+
+  /** loads a path as its own asset, the I/O of {@code blocker} waits on {@code gate} */
+  static final class PathLoader extends AssetLoader<String> {
+    final Promise<Object> gate = ImmediateEventExecutor.INSTANCE.newPromise();
+
+    @Override
+    protected <F extends FileHandle> Future<?> ioAsync0(
+        EventExecutor executor,
+        AssetManager assets,
+        AssetDesc<String> asset,
+        F handle,
+        Adapter<F> adapter
+    ) {
+      return asset.path().equals("blocker") ? gate : executor.newSucceededFuture(null);
+    }
+
+    @Override
+    protected <F extends FileHandle> String loadAsync0(
+        AssetManager assets,
+        AssetDesc<String> asset,
+        F handle,
+        Object data
+    ) {
+      return asset.path();
+    }
+  }
+
+  @Test
+  void urgent_load_finishes_before_queued_prefetches() {
+    final int numPrefetches = 8;
+    PathLoader loader = new PathLoader();
+    AssetManager assets = new AssetManager(1, 1)
+        .resolver(asset -> new FileHandle(asset.path()))
+        .adapter(FileHandle.class, new GdxFileHandleAdapter())
+        .loader(String.class, loader);
+    try {
+      final List<String> loaded = Collections.synchronizedList(new ArrayList<>());
+      assets.load(AssetDesc.of("blocker", String.class, new AssetParams<>()), PREFETCH)
+          .addListener(future -> loaded.add((String) future.getNow()));
+      for (int i = 0; i < numPrefetches; i++) {
+        assets.load(AssetDesc.of("prefetch" + i, String.class, new AssetParams<>()), PREFETCH)
+            .addListener(future -> loaded.add((String) future.getNow()));
+      }
+
+      assets.load(AssetDesc.of("urgent", String.class, new AssetParams<>()), IMMEDIATE)
+          .addListener(future -> loaded.add((String) future.getNow()));
+      assertEquals(1, assets.inFlight());
+      assertEquals(numPrefetches + 1, assets.loadQueue().size());
+
+      loader.gate.setSuccess(null);
+      final long deadline = System.currentTimeMillis() + 10_000;
+      while (loaded.size() < numPrefetches + 2 && System.currentTimeMillis() < deadline) {
+        assets.sync(100);
+      }
+
+      assertEquals(numPrefetches + 2, loaded.size(), loaded.toString());
+      assertEquals("blocker", loaded.get(0));
+      assertEquals("urgent", loaded.get(1));
+      for (int i = 0; i < numPrefetches; i++) assertEquals("prefetch" + i, loaded.get(i + 2));
+      assertEquals(0, assets.inFlight());
+    } finally {
+      assets.dispose();
+    }
+  }
+}
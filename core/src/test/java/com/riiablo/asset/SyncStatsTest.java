@@ -0,0 +1,81 @@
+package com.riiablo.asset;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import io.netty.util.concurrent.Promise;
+import java.util.concurrent.TimeUnit;
+
+public class SyncStatsTest {
+  @Test
+  void buckets() {
+    assertEquals(0, SyncStats.bucket(TimeUnit.NANOSECONDS.toNanos(999)));
+    assertEquals(1, SyncStats.bucket(TimeUnit.MICROSECONDS.toNanos(1)));
+    assertEquals(2, SyncStats.bucket(TimeUnit.MICROSECONDS.toNanos(3)));
+    assertEquals(10, SyncStats.bucket(TimeUnit.MILLISECONDS.toNanos(1)));
+    assertEquals(SyncStats.NUM_BUCKETS - 1, SyncStats.bucket(TimeUnit.HOURS.toNanos(1)));
+  }
+
+  @Test
+  void percentiles() {
+    SyncStats stats = new SyncStats(Object.class);
+    for (int i = 0; i < 99; i++) stats.synced(TimeUnit.MICROSECONDS.toNanos(100));
+    stats.synced(TimeUnit.MILLISECONDS.toNanos(10));
+    assertEquals(100, stats.count());
+    assertEquals(128, stats.percentile(0.50, TimeUnit.MICROSECONDS));
+    assertEquals(128, stats.percentile(0.99, TimeUnit.MICROSECONDS));
+    assertEquals(10_000, stats.percentile(1.00, TimeUnit.MICROSECONDS));
+    assertEquals(10_000, stats.maxTime(TimeUnit.MICROSECONDS));
+  }
+
+  /** loader whose sync stage consists of {@code chunks} chunks of fixed cost */
+  static final class ChunkedLoader extends AssetLoader<Object> {
+    final int chunks;
+    final long chunkMillis;
+
+    ChunkedLoader(int chunks, long chunkMillis) {
+      this.chunks = chunks;
+      this.chunkMillis = chunkMillis;
+    }
+
+    @Override
+    protected int loadSyncChunk0(AssetManager assets, AssetDesc<Object> asset, Object object, int chunk) {
+      final long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(chunkMillis);
+      while (System.nanoTime() < end);
+      return chunk + 1 < chunks ? chunk + 1 : SYNC_DONE;
+    }
+  }
+
+  @Test
+  void resumes_chunks_within_budget() {
+    AssetManager assets = new AssetManager();
+    try {
+      AssetDesc<Object> asset = AssetDesc.of("chunked", Object.class, new AssetParams<>());
+      Promise<Object> promise = ImmediateEventExecutor.INSTANCE.newPromise();
+      AssetContainer container = AssetContainer.wrap(asset, promise, AssetDesc.EMPTY_ASSET_DESC_ARRAY);
+      SyncMessage<Object> msg = SyncMessage.wrap(container, promise, new ChunkedLoader(8, 2), new Object());
+      assets.syncQueue.add(msg);
+
+      assets.syncAwait(5, TimeUnit.MILLISECONDS);
+      assertFalse(promise.isDone());
+      assertSame(msg, assets.syncing);
+      assertTrue(msg.chunk > 0 && msg.chunk < 8, "chunk=" + msg.chunk);
+
+      int calls = 1;
+      while (!promise.isDone()) {
+        assets.syncAwait(5, TimeUnit.MILLISECONDS);
+        assertTrue(++calls <= 8);
+      }
+
+      assertTrue(promise.isSuccess());
+      assertNull(assets.syncing);
+      SyncStats stats = assets.syncStats(Object.class);
+      assertEquals(1, stats.count());
+      assertEquals(8, stats.chunks());
+      assertTrue(stats.chunkEstimate(TimeUnit.MILLISECONDS) >= 2);
+    } finally {
+      assets.dispose();
+    }
+  }
+}
@@ -0,0 +1,228 @@
+package com.riiablo.attributes;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.netty.buffer.Unpooled;
+import java.util.Iterator;
+import java.util.Random;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+
+import com.riiablo.CharacterClass;
+import com.riiablo.RiiabloTest;
+import com.riiablo.codec.excel.CharStats;
+import com.riiablo.io.BitInput;
+import com.riiablo.io.ByteInput;
+import com.riiablo.logger.Level;
+import com.riiablo.logger.LogManager;
+
+public class IncrementalUpdateTest extends RiiabloTest {
+  @BeforeAll
+  public static void before() {
+    LogManager.setLevel("com.riiablo.attributes", Level.WARN);
+  }
+
+  private static Attributes genCharacterAttrs() {
+    byte[] data = Gdx.files.internal("test/Tirant.d2s").readBytes();
+    ByteInput in = ByteInput.wrap(Unpooled.wrappedBuffer(data, 0x2fd, 0x33));
+    BitInput bitInput = in.skipBytes(2).unalign(); // skip signature
+    Attributes attrs = Attributes.obtainLarge();
+    new StatListReader().read(attrs.base(), bitInput, true);
+    return attrs;
+  }
+
+  private static Attributes genSpiritAttrs() {
+    byte[] data = Gdx.files.internal("test/Spirit.d2i").readBytes();
+    ByteInput in = ByteInput.wrap(Unpooled.wrappedBuffer(data, 216 >> 3, 0x19));
+    BitInput bitInput = in.unalign();
+    Attributes attrs = Attributes.obtainStandard();
+    new StatListReader().read(attrs.list(), bitInput, StatListFlags.FLAG_MAGIC | StatListFlags.FLAG_RUNE);
+    return attrs;
+  }
+
+  private static Attributes genGemAttrs(String code) {
+    GemGenerator gems = new GemGenerator(new PropertiesGenerator());
+    return gems.set(Attributes.obtainCompact(), code);
+  }
+
+  /** remaining stats of items which would be aggregated onto a character */
+  private static Array<StatListRef> genItems(AttributesUpdater updater, Attributes character, CharStats.Entry charStats) {
+    Array<StatListRef> items = new Array<>();
+    updater.update(character, charStats).apply();
+    Attributes spirit = genSpiritAttrs();
+    updater.update(spirit, StatListFlags.FLAG_MAGIC | StatListFlags.FLAG_RUNE, character, charStats).apply();
+    items.add(spirit.remaining());
+    for (String code : new String[] {"r07", "r10", "r09", "r11", "gpv", "gpy", "gpb"}) {
+      Attributes gem = genGemAttrs(code);
+      items.add(gem.list(StatListFlags.GEM_WEAPON_LIST));
+      items.add(gem.list(StatListFlags.GEM_ARMOR_LIST));
+      items.add(gem.list(StatListFlags.GEM_SHIELD_LIST));
+    }
+
+    return items;
+  }
+
+  private static void assertSameStats(StatListRef expected, StatListRef actual) {
+    assertEquals(expected.size(), actual.size(), "size");
+    Iterator<StatRef> it = actual.iterator();
+    for (StatRef stat : expected) {
+      StatRef other = it.next();
+      String message = stat.debugString() + " != " + other.debugString();
+      assertEquals(stat.id(), other.id(), message);
+      assertEquals(stat.encodedParams(), other.encodedParams(), message);
+      assertEquals(stat.encodedValues(), other.encodedValues(), message);
+      assertEquals(stat.modified(), other.modified(), message);
+    }
+  }
+
+  private static void assertMatchesFull(
+      AttributesUpdater updater,
+      Attributes full,
+      Array<StatListRef> equipped,
+      CharStats.Entry charStats,
+      IncrementalUpdate incremental) {
+    UpdateSequence sequence = updater.update(full, charStats);
+    for (StatListRef stats : equipped) sequence.add(stats);
+    sequence.apply();
+    Attributes attrs = incremental.apply();
+    assertSameStats(full.aggregate(), attrs.aggregate());
+    assertSameStats(full.remaining(), attrs.remaining());
+  }
+
+  @Test
+  public void pooled_attributes_are_reused_cleared() {
+    Attributes attrs = Attributes.obtainLarge();
+    attrs.base().put(Stat.strength, 10);
+    attrs.list().freeze();
+    Attributes.free(attrs);
+    Attributes reused = Attributes.obtainLarge();
+    assertSame(attrs, reused);
+    assertTrue(reused.base().isEmpty());
+    assertEquals(0, reused.list().numLists());
+    assertTrue(reused.isType(Attributes.Type.LARGE));
+    Attributes.free(reused);
+  }
+
+  @Test
+  public void equip_unequip_matches_full_update() {
+    final CharStats.Entry sorc = CharacterClass.SORCERESS.entry();
+    AttributesUpdater updater = new AttributesUpdater();
+    Attributes full = genCharacterAttrs();
+    Attributes attrs = genCharacterAttrs();
+    Array<StatListRef> items = genItems(updater, attrs, sorc);
+    IncrementalUpdate incremental = updater.incremental(attrs, sorc);
+    Array<StatListRef> equipped = new Array<>();
+    assertMatchesFull(updater, full, equipped, sorc, incremental);
+
+    Random random = new Random(0);
+    for (int i = 0; i < 200; i++) {
+      StatListRef item = items.get(random.nextInt(items.size));
+      if (equipped.removeValue(item, true)) {
+        incremental.remove(item);
+      } else {
+        equipped.add(item);
+        incremental.add(item);
+      }
+
+      assertEquals(equipped.size, incremental.size());
+      assertMatchesFull(updater, full, equipped, sorc, incremental);
+    }
+
+    while (equipped.notEmpty()) incremental.remove(equipped.pop());
+    assertMatchesFull(updater, full, equipped, sorc, incremental);
+  }
+
+  private static Attributes genArmorAttrs(int armorclass) {
+    Attributes attrs = Attributes.obtainStandard();
+    attrs.base().put(Stat.armorclass, armorclass);
+    attrs.reset();
+    return attrs;
+  }
+
+  @Test
+  public void aggregate_unaggregate_matches_full_update() {
+    final CharStats.Entry sorc = CharacterClass.SORCERESS.entry();
+    AttributesUpdater updater = new AttributesUpdater();
+    Attributes full = genCharacterAttrs();
+    Attributes attrs = genCharacterAttrs();
+    Array<StatListRef> items = genItems(updater, attrs, sorc);
+    Attributes helm = genArmorAttrs(20);
+    Attributes shield = genArmorAttrs(35);
+    IncrementalUpdate incremental = updater.incremental(attrs, sorc);
+    incremental.add(items.first()).aggregate(helm.aggregate(), Stat.armorclass);
+    incremental.aggregate(shield.aggregate(), Stat.armorclass);
+
+    UpdateSequence sequence = updater.update(full, sorc).add(items.first());
+    full.aggregate().add(helm.get(Stat.armorclass));
+    full.aggregate().add(shield.get(Stat.armorclass));
+    sequence.apply();
+    assertSameStats(full.aggregate(), incremental.apply().aggregate());
+
+    incremental.unaggregate(helm.aggregate(), Stat.armorclass);
+    sequence = updater.update(full, sorc).add(items.first());
+    full.aggregate().add(shield.get(Stat.armorclass));
+    sequence.apply();
+    assertSameStats(full.aggregate(), incremental.apply().aggregate());
+
+    incremental.unaggregate(shield.aggregate(), Stat.armorclass);
+    assertMatchesFull(updater, full, new Array<>(new StatListRef[] {items.first()}), sorc, incremental);
+    assertThrows(IllegalArgumentException.class, () -> incremental.unaggregate(shield.aggregate(), Stat.armorclass));
+  }
+
+  @Test
+  public void remove_untracked_throws() {
+    final CharStats.Entry sorc = CharacterClass.SORCERESS.entry();
+    AttributesUpdater updater = new AttributesUpdater();
+    Attributes attrs = genCharacterAttrs();
+    IncrementalUpdate incremental = updater.incremental(attrs, sorc);
+    assertThrows(IllegalArgumentException.class, () -> incremental.remove(genGemAttrs("r07").list(StatListFlags.GEM_SHIELD_LIST)));
+  }
+
+  @Test
+  @Disabled
+  public void benchmark() {
+    LogManager.setLevel("com.riiablo.attributes", Level.OFF);
+    final CharStats.Entry sorc = CharacterClass.SORCERESS.entry();
+    AttributesUpdater updater = new AttributesUpdater();
+    Attributes attrs = genCharacterAttrs();
+    Array<StatListRef> items = genItems(updater, attrs, sorc);
+    final int numSwaps = 100_000;
+    final int numEquipped = items.size / 2;
+
+    // equip/unequip one item with every other item equipped, full update
+    Array<StatListRef> equipped = new Array<>();
+    for (int i = 0; i < numEquipped; i++) equipped.add(items.get(i));
+    long start = System.nanoTime();
+    for (int i = 0; i < numSwaps; i++) {
+      StatListRef item = items.get(numEquipped + i % (items.size - numEquipped));
+      UpdateSequence sequence = updater.update(attrs, sorc);
+      for (StatListRef stats : equipped) sequence.add(stats);
+      sequence.add(item).apply();
+      sequence = updater.update(attrs, sorc);
+      for (StatListRef stats : equipped) sequence.add(stats);
+      sequence.apply();
+    }
+    final long full = System.nanoTime() - start;
+
+    IncrementalUpdate incremental = updater.incremental(attrs, sorc);
+    for (StatListRef stats : equipped) incremental.add(stats);
+    start = System.nanoTime();
+    for (int i = 0; i < numSwaps; i++) {
+      StatListRef item = items.get(numEquipped + i % (items.size - numEquipped));
+      incremental.add(item).apply();
+      incremental.remove(item).apply();
+    }
+    final long incrementalTime = System.nanoTime() - start;
+
+    // item drops, obtaining and freeing attributes
+    start = System.nanoTime();
+    for (int i = 0; i < numSwaps; i++) Attributes.free(Attributes.obtainStandard());
+    final long pooled = System.nanoTime() - start;
+
+    System.out.printf("%d equipped, %d swaps: %.3f us/swap full, %.3f us/swap incremental, %.3f us/attrs pooled%n",
+        numEquipped, numSwaps,
+        full / 1e3 / numSwaps, incrementalTime / 1e3 / numSwaps, pooled / 1e3 / numSwaps);
+  }
+}
@@ -0,0 +1,144 @@
+package com.riiablo.codec.excel;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.utils.ObjectSet;
+
+import com.riiablo.Riiablo;
+import com.riiablo.mpq.MPQFileHandleResolver;
+import com.riiablo.util.InstallationFinder;
+
+class BinderTest {
+  static final Class[] EXCELS = { MonStats.class, ItemStatCost.class, Skills.class };
+
+  /** generates a txt with every column of the excel and random values */
+  static byte[] genTxt(Class excelClass, int numRows, long seed) {
+    Class<Excel.Entry> entryClass = Excel.getEntryClass(excelClass);
+    Set<String> columns = new LinkedHashSet<>();
+    for (Field field : entryClass.getFields()) {
+      if (field.getAnnotation(Excel.Entry.Column.class) == null) continue;
+      columns.addAll(Arrays.asList(Excel.getColumnNames(field)));
+    }
+
+    Random random = new Random(seed);
+    StringBuilder txt = new StringBuilder();
+    txt.append(String.join("\t", columns)).append("\r\n");
+    for (int row = 0; row < numRows; row++) {
+      int col = 0;
+      for (String ignored : columns) {
+        if (col++ > 0) txt.append('\t');
+        switch (random.nextInt(4)) {
+          case 0: break; // empty
+          case 1: txt.append(random.nextInt(2)); break;
+          case 2: txt.append(random.nextInt(100)); break;
+          default: txt.append("row").append(row);
+        }
+      }
+
+      txt.append("\r\n");
+    }
+
+    return txt.toString().getBytes(StandardCharsets.US_ASCII);
+  }
+
+  static TxtParser parse(byte[] txt) {
+    return TxtParser.loadFromStream(new ByteArrayInputStream(txt));
+  }
+
+  static void assertSameEntry(Excel.Entry expected, Excel.Entry actual) throws IllegalAccessException {
+    for (Field field : expected.getClass().getFields()) {
+      if (field.getAnnotation(Excel.Entry.Column.class) == null) continue;
+      Object e = field.get(expected), a = field.get(actual);
+      if (e != null && e.getClass().isArray()) {
+        assertEquals(Array.getLength(e), Array.getLength(a), field.getName());
+        for (int i = 0, s = Array.getLength(e); i < s; i++) {
+          assertEquals(Array.get(e, i), Array.get(a, i), field.getName() + "[" + i + "]");
+        }
+      } else {
+        assertEquals(e, a, field.getName());
+      }
+    }
+  }
+
+  @BeforeAll
+  static void setup() {
+    Gdx.app = new HeadlessApplication(new ApplicationAdapter() {});
+  }
+
+  @AfterAll
+  static void teardown() {
+    Gdx.app.exit();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void binders_match_reflection() throws Exception {
+    for (Class excelClass : EXCELS) {
+      byte[] txt = genTxt(excelClass, 64, 0);
+      Class<Excel.Entry> entryClass = Excel.getEntryClass(excelClass);
+      Excel<Excel.Entry> expected = Excel.reflectTxt(parse(txt), excelClass, entryClass, Excel.<String>emptySet());
+      Excel.Binder<Excel.Entry> binder = Excel.getBinder(excelClass);
+      assertNotNull(binder, excelClass.getSimpleName());
+      Excel<Excel.Entry> actual = Excel.bindTxt(parse(txt), excelClass, binder, Excel.<String>emptySet());
+      assertEquals(expected.size(), actual.size(), excelClass.getSimpleName());
+      assertEquals(expected.STRING_TO_ID.size, actual.STRING_TO_ID.size, excelClass.getSimpleName());
+      for (Excel.Entry entry : expected) {
+        int id = expected.entries.findKey(entry, true, Integer.MIN_VALUE);
+        assertSameEntry(entry, actual.get(id));
+      }
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void binders_skip_ignored_rows() throws Exception {
+    final Class excelClass = Skills.class;
+    byte[] txt = genTxt(excelClass, 16, 1);
+    ObjectSet<String> ignore = ObjectSet.with("row3", "row7");
+    Excel expected = Excel.reflectTxt(parse(txt), excelClass, Excel.getEntryClass(excelClass), ignore);
+    Excel actual = Excel.bindTxt(parse(txt), excelClass, new SkillsBinder(), ignore);
+    assertEquals(expected.size(), actual.size());
+  }
+
+  @Test
+  @Disabled
+  @SuppressWarnings("unchecked")
+  void benchmark() throws Exception {
+    Riiablo.home = InstallationFinder.getInstance().defaultHomeDir();
+    MPQFileHandleResolver mpqs = new MPQFileHandleResolver();
+    final int numLoads = 200;
+    for (Class excelClass : EXCELS) {
+      byte[] txt = mpqs.resolve("data\\global\\excel\\" + excelClass.getSimpleName() + ".txt").readBytes();
+      Class<Excel.Entry> entryClass = Excel.getEntryClass(excelClass);
+      Excel.Binder<Excel.Entry> binder = Excel.getBinder(excelClass);
+      for (int warmup = 0; warmup < numLoads; warmup++) {
+        Excel.reflectTxt(parse(txt), excelClass, entryClass, Excel.EXPANSION);
+        Excel.bindTxt(parse(txt), excelClass, binder, Excel.EXPANSION);
+      }
+
+      long start = System.nanoTime();
+      for (int i = 0; i < numLoads; i++) Excel.reflectTxt(parse(txt), excelClass, entryClass, Excel.EXPANSION);
+      final long reflection = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (int i = 0; i < numLoads; i++) Excel.bindTxt(parse(txt), excelClass, binder, Excel.EXPANSION);
+      final long bound = System.nanoTime() - start;
+
+      System.out.printf("%-12s %.3f ms/load reflection, %.3f ms/load binder%n",
+          excelClass.getSimpleName(), reflection / 1e6 / numLoads, bound / 1e6 / numLoads);
+    }
+  }
+}
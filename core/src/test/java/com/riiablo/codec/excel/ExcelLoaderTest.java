@@ -0,0 +1,80 @@
+package com.riiablo.codec.excel;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.riiablo.codec.excel.ExcelLoader.Task;
+
+class ExcelLoaderTest {
+  @Test
+  void dependencies_run_after_tables_load() {
+    final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+    ExcelLoader loader = new ExcelLoader(4);
+    final Task<String> sets = loader.load("Sets", () -> {
+      Thread.sleep(50);
+      order.add("Sets");
+      return "sets";
+    });
+    final Task<String> setItems = loader.load("SetItems", () -> {
+      order.add("SetItems");
+      return "setItems";
+    });
+    Task<String> index = loader.load("Sets.index", () -> {
+      order.add("Sets.index");
+      return sets.get() + "+" + setItems.get();
+    }, sets, setItems);
+    loader.await();
+
+    assertEquals("sets+setItems", index.get());
+    assertEquals(3, order.size());
+    assertEquals("Sets.index", order.get(2));
+    assertEquals(3, loader.tasks().size);
+    assertTrue(loader.report().startsWith("3 tables"));
+  }
+
+  @Test
+  void independent_tables_load_concurrently() throws InterruptedException {
+    final CountDownLatch latch = new CountDownLatch(2);
+    ExcelLoader loader = new ExcelLoader(2);
+    for (int i = 0; i < 2; i++) {
+      loader.load("table" + i, () -> {
+        latch.countDown();
+        return latch.await(5, TimeUnit.SECONDS);
+      });
+    }
+
+    loader.await();
+    for (Task<?> task : loader.tasks()) assertEquals(Boolean.TRUE, task.get());
+  }
+
+  @Test
+  void single_thread_loads_in_order() {
+    final List<Integer> order = new ArrayList<>();
+    ExcelLoader loader = new ExcelLoader(1);
+    for (int i = 0; i < 16; i++) {
+      final int id = i;
+      loader.run("table" + i, () -> order.add(id));
+    }
+
+    loader.await();
+    for (int i = 0; i < 16; i++) assertEquals(i, order.get(i));
+  }
+
+  @Test
+  void failures_are_rethrown() {
+    ExcelLoader loader = new ExcelLoader(2);
+    Task<Object> armor = loader.load("armor", () -> {
+      throw new IllegalStateException("armor");
+    });
+    Task<Void> dependent = loader.run("dependent", () -> fail("dependency failed"), armor);
+    IllegalStateException t = assertThrows(IllegalStateException.class, loader::await);
+    assertEquals("armor", t.getMessage());
+    assertThrows(IllegalStateException.class, dependent::get);
+  }
+}
@@ -0,0 +1,153 @@
+package com.riiablo.engine.client;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.google.flatbuffers.ByteBufferUtil;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.artemis.World;
+import com.artemis.WorldConfigurationBuilder;
+
+import com.badlogic.gdx.math.Vector2;
+
+import com.riiablo.engine.server.CofManager;
+import com.riiablo.engine.server.EntitySyncEncoder;
+import com.riiablo.engine.server.SerializationManager;
+import com.riiablo.engine.server.VelocityAdder;
+import com.riiablo.engine.server.component.Angle;
+import com.riiablo.engine.server.component.Class;
+import com.riiablo.engine.server.component.CofAlphas;
+import com.riiablo.engine.server.component.CofComponents;
+import com.riiablo.engine.server.component.CofTransforms;
+import com.riiablo.engine.server.component.Flags;
+import com.riiablo.engine.server.component.Position;
+import com.riiablo.engine.server.component.Velocity;
+import com.riiablo.net.packet.d2gs.ComponentP;
+import com.riiablo.net.packet.d2gs.D2GS;
+import com.riiablo.net.packet.d2gs.EntitySync;
+import com.riiablo.net.packet.d2gs.PositionDeltaP;
+import com.riiablo.net.packet.d2gs.PositionP;
+import com.riiablo.net.packet.d2gs.VelocityDeltaP;
+import com.riiablo.net.packet.d2gs.VelocityP;
+
+import net.mostlyoriginal.api.event.common.EventSystem;
+
+class SyncBaselinesTest {
+  static final float SERVER_DELTA = 1 / 25f;
+  static final float CLIENT_DELTA = 1 / 60f;
+
+  World server;
+  World client;
+  EntitySyncEncoder encoder;
+  SyncBaselines baselines;
+  final List<ByteBuffer> sent = new ArrayList<>();
+  final EntitySyncEncoder.Sink sink = new EntitySyncEncoder.Sink() {
+    @Override
+    public void send(int clients, ByteBuffer buffer) {
+      sent.add(buffer);
+    }
+  };
+  int deltas;
+
+  @BeforeEach
+  void setUp() {
+    server = new World(new WorldConfigurationBuilder()
+        .with(new EventSystem(), new CofManager(), new SerializationManager(), new VelocityAdder())
+        .build());
+    server.setDelta(SERVER_DELTA);
+    // VelocityAdder stands in for the Box2D systems, which move remote entities by their velocity in between syncs
+    client = new World(new WorldConfigurationBuilder()
+        .with(new VelocityAdder())
+        .build());
+    client.setDelta(CLIENT_DELTA);
+    encoder = new EntitySyncEncoder(server.getSystem(SerializationManager.class), 1);
+    baselines = new SyncBaselines();
+  }
+
+  static int createMonster(World world, float x, float y) {
+    int entityId = world.create();
+    world.getMapper(Class.class).create(entityId).type = Class.Type.MON;
+    world.getMapper(Flags.class).create(entityId);
+    world.getMapper(Position.class).create(entityId).position.set(x, y);
+    world.getMapper(Velocity.class).create(entityId).set(6, 9).velocity.set(3, 2);
+    world.getMapper(Angle.class).create(entityId);
+    world.getMapper(CofComponents.class).create(entityId);
+    world.getMapper(CofTransforms.class).create(entityId);
+    world.getMapper(CofAlphas.class).create(entityId);
+    return entityId;
+  }
+
+  /** applies the position and velocity of the sync like {@code ClientNetworkReceiver} */
+  void apply(EntitySync sync, int entityId) {
+    final int serverId = sync.entityId();
+    final Vector2 position = client.getMapper(Position.class).get(entityId).position;
+    final Vector2 velocity = client.getMapper(Velocity.class).get(entityId).velocity;
+    for (int i = 0, s = sync.componentTypeLength(); i < s; i++) {
+      switch (sync.componentType(i)) {
+        case ComponentP.PositionP:
+          position.set(baselines.position(serverId, (PositionP) sync.component(new PositionP(), i)));
+          break;
+        case ComponentP.PositionDeltaP:
+          deltas++;
+          position.set(baselines.position(serverId, (PositionDeltaP) sync.component(new PositionDeltaP(), i)));
+          break;
+        case ComponentP.VelocityP:
+          velocity.set(baselines.velocity(serverId, (VelocityP) sync.component(new VelocityP(), i)));
+          break;
+        case ComponentP.VelocityDeltaP:
+          velocity.set(baselines.velocity(serverId, (VelocityDeltaP) sync.component(new VelocityDeltaP(), i)));
+          break;
+      }
+    }
+  }
+
+  void tick(int serverId, int entityId) {
+    server.process();
+    int tick = encoder.begin();
+    encoder.sync(serverId, 0b1, sink);
+    for (ByteBuffer buffer : sent) {
+      D2GS packet = D2GS.getRootAsD2GS(ByteBufferUtil.removeSizePrefix(buffer.duplicate()));
+      apply((EntitySync) packet.data(new EntitySync()), entityId);
+    }
+    sent.clear();
+    encoder.ack(0, tick, false);
+  }
+
+  @Test
+  void deltas_do_not_accumulate_client_simulation() {
+    final int serverId = createMonster(server, 10, 10);
+    final int entityId = createMonster(client, 0, 0);
+    final Vector2 expected = server.getMapper(Position.class).get(serverId).position;
+    final Vector2 actual = client.getMapper(Position.class).get(entityId).position;
+    for (int i = 0; i < 200; i++) {
+      if (i % 50 == 25) server.getMapper(Velocity.class).get(serverId).velocity.rotate90(1);
+      tick(serverId, entityId);
+      assertEquals(expected.x, actual.x, 0.5f / SyncBaselines.QUANTIZE, "tick " + i);
+      assertEquals(expected.y, actual.y, 0.5f / SyncBaselines.QUANTIZE, "tick " + i);
+
+      // simulate the client at its own frame rate until the next sync arrives
+      client.process();
+      client.process();
+      assertNotEquals(expected.x, actual.x);
+    }
+
+    assertTrue(deltas > 150, "positions should have been sent as deltas, deltas=" + deltas);
+  }
+
+  @Test
+  void delta_without_baseline() {
+    final int serverId = createMonster(server, 10, 10);
+    final int entityId = createMonster(client, 0, 0);
+    tick(serverId, entityId);
+    baselines.remove(serverId);
+    server.process();
+    encoder.begin();
+    encoder.sync(serverId, 0b1, sink);
+    EntitySync sync = (EntitySync) D2GS.getRootAsD2GS(ByteBufferUtil.removeSizePrefix(sent.get(0).duplicate())).data(new EntitySync());
+    assertEquals(ComponentP.PositionDeltaP, sync.componentType(0));
+    assertNull(baselines.position(serverId, (PositionDeltaP) sync.component(new PositionDeltaP(), 0)));
+  }
+}
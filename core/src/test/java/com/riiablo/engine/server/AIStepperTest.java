@@ -0,0 +1,106 @@
+package com.riiablo.engine.server;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.artemis.World;
+import com.artemis.WorldConfigurationBuilder;
+
+import com.riiablo.ai.AI;
+import com.riiablo.engine.server.component.AIWrapper;
+import com.riiablo.engine.server.component.Class;
+import com.riiablo.engine.server.component.Monster;
+import com.riiablo.engine.server.component.Position;
+
+class AIStepperTest {
+  static final float DELTA = 1 / 25f;
+
+  static class CountingAI extends AI {
+    int updates;
+    float elapsed;
+
+    CountingAI(int entityId) {
+      super(entityId);
+    }
+
+    @Override
+    public void update(float delta) {
+      updates++;
+      elapsed += delta;
+    }
+  }
+
+  World world;
+  AIStepper stepper;
+
+  @BeforeEach
+  void setUp() {
+    world = new World(new WorldConfigurationBuilder()
+        .with(new ProximityManager())
+        .with(new AIStepper())
+        .build());
+    world.delta = DELTA;
+    stepper = world.getSystem(AIStepper.class);
+  }
+
+  int createPlayer(float x, float y) {
+    int entityId = world.create();
+    world.getMapper(Class.class).create(entityId).type = Class.Type.PLR;
+    world.getMapper(Position.class).create(entityId).position.set(x, y);
+    return entityId;
+  }
+
+  CountingAI createMonster(float x, float y) {
+    int entityId = world.create();
+    world.getMapper(Class.class).create(entityId).type = Class.Type.MON;
+    world.getMapper(Position.class).create(entityId).position.set(x, y);
+    world.getMapper(Monster.class).create(entityId);
+    CountingAI ai = new CountingAI(entityId);
+    world.getMapper(AIWrapper.class).create(entityId).ai = ai;
+    return ai;
+  }
+
+  @Test
+  void level_of_detail_by_distance_to_players() {
+    createPlayer(0, 0);
+    CountingAI active = createMonster(AIStepper.ACTIVE_RANGE - 1, 0);
+    CountingAI reduced = createMonster(0, AIStepper.ACTIVE_RANGE + 1);
+    CountingAI dormant = createMonster(AIStepper.REDUCED_RANGE + 1, 0);
+
+    final int ticks = AIStepper.REDUCED_INTERVAL * 4;
+    for (int i = 0; i < ticks; i++) world.process();
+
+    assertEquals(ticks, active.updates);
+    assertEquals(ticks * DELTA, active.elapsed, 1e-4);
+    assertEquals(ticks / AIStepper.REDUCED_INTERVAL, reduced.updates);
+    assertEquals(ticks * DELTA, reduced.elapsed, AIStepper.REDUCED_INTERVAL * DELTA);
+    assertEquals(0, dormant.updates);
+
+    AIStepper.Metrics metrics = stepper.metrics();
+    assertEquals(1, metrics.active);
+    assertEquals(1, metrics.reduced);
+    assertEquals(1, metrics.dormant);
+  }
+
+  @Test
+  void dormant_ai_wakes_without_elapsed_time() {
+    int player = createPlayer(1000, 0);
+    CountingAI ai = createMonster(0, 0);
+    for (int i = 0; i < 10; i++) world.process();
+    assertEquals(0, ai.updates);
+    assertEquals(0, stepper.metrics().updated);
+
+    world.getMapper(Position.class).get(player).position.set(1, 0);
+    world.process();
+    assertEquals(1, ai.updates);
+    assertEquals(DELTA, ai.elapsed, 1e-6);
+  }
+
+  @Test
+  void without_players_all_ai_is_dormant() {
+    for (int i = 0; i < 100; i++) createMonster(i, i);
+    world.process();
+    assertEquals(100, stepper.metrics().dormant);
+    assertEquals(0, stepper.metrics().updated);
+  }
+}
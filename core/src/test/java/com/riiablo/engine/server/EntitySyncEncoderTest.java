@@ -0,0 +1,295 @@
+package com.riiablo.engine.server;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.google.flatbuffers.ByteBufferUtil;
+import com.google.flatbuffers.FlatBufferBuilder;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.artemis.World;
+import com.artemis.WorldConfigurationBuilder;
+
+import com.badlogic.gdx.math.Vector2;
+
+import com.riiablo.engine.server.component.Angle;
+import com.riiablo.engine.server.component.Class;
+import com.riiablo.engine.server.component.CofAlphas;
+import com.riiablo.engine.server.component.CofComponents;
+import com.riiablo.engine.server.component.CofTransforms;
+import com.riiablo.engine.server.component.Flags;
+import com.riiablo.engine.server.component.Position;
+import com.riiablo.engine.server.component.Velocity;
+import com.riiablo.net.packet.d2gs.ComponentP;
+import com.riiablo.net.packet.d2gs.D2GS;
+import com.riiablo.net.packet.d2gs.EntitySync;
+
+import net.mostlyoriginal.api.event.common.EventSystem;
+
+class EntitySyncEncoderTest {
+  static class Sent {
+    final int clients;
+    final ByteBuffer buffer;
+
+    Sent(int clients, ByteBuffer buffer) {
+      this.clients = clients;
+      this.buffer = buffer;
+    }
+
+    EntitySync sync() {
+      ByteBuffer buffer = ByteBufferUtil.removeSizePrefix(this.buffer.duplicate());
+      return (EntitySync) D2GS.getRootAsD2GS(buffer).data(new EntitySync());
+    }
+
+    D2GS packet() {
+      return D2GS.getRootAsD2GS(ByteBufferUtil.removeSizePrefix(buffer.duplicate()));
+    }
+
+    boolean contains(byte componentType) {
+      EntitySync sync = sync();
+      for (int i = 0, s = sync.componentTypeLength(); i < s; i++) {
+        if (sync.componentType(i) == componentType) return true;
+      }
+      return false;
+    }
+  }
+
+  static class Sink implements EntitySyncEncoder.Sink {
+    final List<Sent> sent = new ArrayList<>();
+    final int[] bytes = new int[8];
+
+    @Override
+    public void send(int clients, ByteBuffer buffer) {
+      sent.add(new Sent(clients, buffer));
+      for (; clients != 0; clients &= clients - 1) {
+        bytes[Integer.numberOfTrailingZeros(clients)] += buffer.remaining();
+      }
+    }
+
+    List<Sent> drain() {
+      List<Sent> sent = new ArrayList<>(this.sent);
+      this.sent.clear();
+      return sent;
+    }
+  }
+
+  static World newWorld() {
+    return new World(new WorldConfigurationBuilder()
+        .with(new EventSystem(), new CofManager(), new SerializationManager())
+        .build());
+  }
+
+  static int createMonster(World world, float x, float y) {
+    int entityId = world.create();
+    world.getMapper(Class.class).create(entityId).type = Class.Type.MON;
+    world.getMapper(Flags.class).create(entityId);
+    world.getMapper(Position.class).create(entityId).position.set(x, y);
+    world.getMapper(Velocity.class).create(entityId).set(6, 9);
+    world.getMapper(Angle.class).create(entityId);
+    world.getMapper(CofComponents.class).create(entityId);
+    world.getMapper(CofTransforms.class).create(entityId);
+    world.getMapper(CofAlphas.class).create(entityId);
+    return entityId;
+  }
+
+  World world;
+  EntitySyncEncoder encoder;
+  Sink sink;
+
+  @BeforeEach
+  void setUp() {
+    world = newWorld();
+    encoder = new EntitySyncEncoder(world.getSystem(SerializationManager.class), 8);
+    sink = new Sink();
+  }
+
+  Vector2 position(int entityId) {
+    return world.getMapper(Position.class).get(entityId).position;
+  }
+
+  @Test
+  void unchanged_entities_are_not_sent() {
+    int entityId = createMonster(world, 10, 10);
+    encoder.begin();
+    encoder.sync(entityId, 0b11, sink);
+    List<Sent> sent = sink.drain();
+    assertEquals(1, sent.size());
+    assertEquals(0b11, sent.get(0).clients);
+    assertEquals(0, sent.get(0).sync().baseline());
+    assertTrue(sent.get(0).contains(ComponentP.CofComponentsP));
+
+    encoder.begin();
+    encoder.sync(entityId, 0b11, sink);
+    assertTrue(sink.drain().isEmpty());
+    assertEquals(2, encoder.unchanged());
+  }
+
+  @Test
+  void changed_components_only() {
+    int entityId = createMonster(world, 10, 10);
+    encoder.begin();
+    encoder.sync(entityId, 0b1, sink);
+    sink.drain();
+
+    position(entityId).add(0.5f, -0.25f);
+    int tick = encoder.begin();
+    encoder.sync(entityId, 0b1, sink);
+    List<Sent> sent = sink.drain();
+    assertEquals(1, sent.size());
+    EntitySync sync = sent.get(0).sync();
+    assertEquals(tick, sync.tick());
+    assertEquals(tick - 1, sync.baseline());
+    assertEquals(1, sync.componentTypeLength());
+    assertEquals(ComponentP.PositionDeltaP, sync.componentType(0));
+
+    position(entityId).add(1000, 0); // overflows a delta
+    encoder.begin();
+    encoder.sync(entityId, 0b1, sink);
+    sent = sink.drain();
+    assertEquals(1, sent.size());
+    assertTrue(sent.get(0).contains(ComponentP.PositionP));
+  }
+
+  @Test
+  void clients_with_different_baselines() {
+    int entityId = createMonster(world, 10, 10);
+    encoder.begin();
+    encoder.sync(entityId, 0b011, sink);
+    sink.drain();
+
+    position(entityId).add(1, 0);
+    encoder.begin();
+    encoder.sync(entityId, 0b111, sink);
+    List<Sent> sent = sink.drain();
+    assertEquals(2, sent.size());
+    assertEquals(0b011, sent.get(0).clients);
+    assertTrue(sent.get(0).contains(ComponentP.PositionDeltaP));
+    assertEquals(0b100, sent.get(1).clients);
+    assertEquals(0, sent.get(1).sync().baseline());
+
+    position(entityId).add(1, 0);
+    encoder.begin();
+    encoder.sync(entityId, 0b111, sink);
+    sent = sink.drain();
+    assertEquals(1, sent.size());
+    assertEquals(0b111, sent.get(0).clients);
+  }
+
+  @Test
+  void resync_and_timeout_send_full() {
+    int entityId = createMonster(world, 10, 10);
+    encoder.begin();
+    encoder.sync(entityId, 0b11, sink);
+    sink.drain();
+
+    encoder.ack(1, encoder.tick(), true);
+    position(entityId).add(1, 0);
+    encoder.begin();
+    encoder.sync(entityId, 0b11, sink);
+    List<Sent> sent = sink.drain();
+    assertEquals(2, sent.size());
+    assertEquals(0b01, sent.get(0).clients);
+    assertNotEquals(0, sent.get(0).sync().baseline());
+    assertEquals(0b10, sent.get(1).clients);
+    assertEquals(0, sent.get(1).sync().baseline());
+
+    for (int i = 0; i < ClientBaselines.ACK_TIMEOUT; i++) {
+      encoder.ack(1, encoder.tick(), false);
+      encoder.begin();
+    }
+
+    position(entityId).add(1, 0);
+    encoder.sync(entityId, 0b11, sink);
+    sent = sink.drain();
+    assertEquals(2, sent.size());
+    assertEquals(0b01, sent.get(0).clients);
+    assertEquals(0, sent.get(0).sync().baseline());
+    assertEquals(1, encoder.baselines(0).resyncs());
+  }
+
+  @Test
+  void round_trip() {
+    World client = newWorld();
+    SerializationManager deserializer = client.getSystem(SerializationManager.class);
+    Random random = new Random(0);
+    int[] entities = new int[50];
+    for (int i = 0; i < entities.length; i++) {
+      entities[i] = createMonster(world, random.nextFloat() * 100, random.nextFloat() * 100);
+      assertEquals(entities[i], createMonster(client, 0, 0));
+    }
+
+    for (int tick = 0; tick < 200; tick++) {
+      for (int entityId : entities) {
+        if (random.nextInt(4) == 0) position(entityId).add(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f);
+        if (random.nextInt(20) == 0) world.getMapper(Velocity.class).get(entityId).velocity.setToRandomDirection().scl(9);
+        if (random.nextInt(50) == 0) world.getMapper(CofComponents.class).get(entityId).component[random.nextInt(16)] = random.nextInt(8);
+      }
+
+      encoder.begin();
+      for (int entityId : entities) encoder.sync(entityId, 0b1, sink);
+      for (Sent sent : sink.drain()) deserializer.deserialize(sent.sync().entityId(), sent.packet());
+      client.process();
+
+      for (int entityId : entities) {
+        Vector2 expected = position(entityId);
+        Vector2 actual = client.getMapper(Position.class).get(entityId).position;
+        assertEquals(expected.x, actual.x, 1f / 256, "tick " + tick);
+        assertEquals(expected.y, actual.y, 1f / 256, "tick " + tick);
+        assertEquals(world.getMapper(Velocity.class).get(entityId).velocity.x,
+            client.getMapper(Velocity.class).get(entityId).velocity.x, 1f / 256);
+        assertArrayEquals(world.getMapper(CofComponents.class).get(entityId).component,
+            client.getMapper(CofComponents.class).get(entityId).component);
+      }
+    }
+  }
+
+  @Test
+  @Disabled
+  void benchmark() {
+    final int numPlayers = 8, numMonsters = 500, numTicks = 600;
+    final Random random = new Random(0);
+    final int[] monsters = new int[numMonsters];
+    for (int i = 0; i < numMonsters; i++) {
+      monsters[i] = createMonster(world, random.nextFloat() * 200, random.nextFloat() * 200);
+    }
+
+    final int everyone = (1 << numPlayers) - 1;
+    final Sink full = new Sink();
+    final SerializationManager serializer = world.getSystem(SerializationManager.class);
+    for (int tick = 0; tick < numTicks; tick++) {
+      for (int entityId : monsters) {
+        // ~20% of monsters are moving, and some occasionally change direction or animation
+        Velocity velocity = world.getMapper(Velocity.class).get(entityId);
+        if (random.nextInt(100) == 0) {
+          if (velocity.velocity.isZero() && random.nextInt(5) == 0) {
+            velocity.velocity.setToRandomDirection().scl(velocity.walkSpeed);
+          } else {
+            velocity.velocity.setZero();
+          }
+        }
+        position(entityId).mulAdd(velocity.velocity, 1 / 25f);
+        if (random.nextInt(200) == 0) world.getMapper(CofComponents.class).get(entityId).component[random.nextInt(16)] = random.nextInt(8);
+      }
+
+      int tick0 = encoder.begin();
+      for (int entityId : monsters) encoder.sync(entityId, everyone, sink);
+      for (int entityId : monsters) {
+        FlatBufferBuilder builder = new FlatBufferBuilder(0);
+        EntitySyncEncoder.finish(builder, serializer.serialize(builder, entityId));
+        full.send(everyone, builder.dataBuffer());
+      }
+      for (int i = 0; i < numPlayers; i++) encoder.ack(i, tick0, false);
+      sink.sent.clear();
+      full.sent.clear();
+    }
+
+    System.out.printf("%d players, %d monsters: %d B/tick/player full, %d B/tick/player delta "
+            + "(%d full, %d delta, %d unchanged syncs)%n",
+        numPlayers, numMonsters,
+        full.bytes[0] / numTicks, sink.bytes[0] / numTicks,
+        encoder.full(), encoder.deltas(), encoder.unchanged());
+  }
+}
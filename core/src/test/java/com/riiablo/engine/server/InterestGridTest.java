@@ -0,0 +1,145 @@
+package com.riiablo.engine.server;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+class InterestGridTest {
+  static class Events implements InterestGrid.Listener {
+    final List<String> events = new ArrayList<>();
+
+    @Override
+    public void onEnter(int viewer, int entityId) {
+      events.add("+" + viewer + ":" + entityId);
+    }
+
+    @Override
+    public void onLeave(int viewer, int entityId) {
+      events.add("-" + viewer + ":" + entityId);
+    }
+
+    List<String> drain() {
+      final List<String> events = new ArrayList<>(this.events);
+      this.events.clear();
+      return events;
+    }
+  }
+
+  static List<String> list(String... events) {
+    final List<String> list = new ArrayList<>();
+    for (String event : events) list.add(event);
+    return list;
+  }
+
+  static void tick(InterestGrid grid, Events events, float entityX, float viewerX) {
+    grid.begin();
+    grid.put(1, entityX, 0);
+    grid.view(0, viewerX, 0);
+    grid.end(events);
+  }
+
+  @Test
+  void enter_and_leave_with_hysteresis() {
+    final InterestGrid grid = new InterestGrid(8, 20, 30);
+    final Events events = new Events();
+    tick(grid, events, 25, 0);
+    assertEquals(0, grid.mask(1));
+    assertTrue(events.drain().isEmpty());
+
+    tick(grid, events, 20, 0);
+    assertEquals(1, grid.mask(1));
+    assertEquals(list("+0:1"), events.drain());
+
+    tick(grid, events, 28, 0); // within leave range
+    assertEquals(1, grid.mask(1));
+    assertTrue(events.drain().isEmpty());
+
+    tick(grid, events, 31, 0);
+    assertEquals(0, grid.mask(1));
+    assertEquals(list("-0:1"), events.drain());
+
+    tick(grid, events, 28, 0); // not within enter range
+    assertEquals(0, grid.mask(1));
+    assertTrue(events.drain().isEmpty());
+  }
+
+  @Test
+  void leaves_when_not_added() {
+    final InterestGrid grid = new InterestGrid(8, 20, 30);
+    final Events events = new Events();
+    tick(grid, events, 0, 0);
+    assertEquals(list("+0:1"), events.drain());
+    grid.begin();
+    grid.view(0, 0, 0);
+    grid.end(events);
+    assertEquals(list("-0:1"), events.drain());
+  }
+
+  @Test
+  void remove() {
+    final InterestGrid grid = new InterestGrid(8, 20, 30);
+    final Events events = new Events();
+    grid.begin();
+    grid.put(1, 0, 0);
+    grid.view(0, 0, 0);
+    grid.view(3, 10, 0);
+    grid.end(events);
+    assertEquals(list("+0:1", "+3:1"), events.drain());
+    assertEquals(0b1001, grid.remove(1));
+    grid.begin();
+    grid.view(0, 0, 0);
+    grid.end(events);
+    assertTrue(events.drain().isEmpty());
+  }
+
+  @Test
+  void globals() {
+    final InterestGrid grid = new InterestGrid(8, 20, 30);
+    final Events events = new Events();
+    grid.begin();
+    grid.putGlobal(7);
+    grid.view(1, 1000, 1000);
+    grid.view(2, -1000, -1000);
+    grid.end(events);
+    assertEquals(0b110, grid.mask(7));
+    assertEquals(list("+1:7", "+2:7"), events.drain());
+    assertEquals(1, grid.numVisible(1));
+    assertEquals(0, grid.numVisible(0));
+  }
+
+  @Test
+  void matches_brute_force() {
+    final InterestGrid grid = new InterestGrid(16, 48, 48);
+    final Events events = new Events();
+    final Random random = new Random(0);
+    final int numEntities = 2000, numViewers = 8;
+    final float[] x = new float[numEntities], y = new float[numEntities];
+    final float[] vx = new float[numViewers], vy = new float[numViewers];
+    for (int tick = 0; tick < 10; tick++) {
+      grid.begin();
+      for (int i = 0; i < numEntities; i++) {
+        x[i] = random.nextFloat() * 1000 - 500;
+        y[i] = random.nextFloat() * 1000 - 500;
+        grid.put(i, x[i], y[i]);
+      }
+      for (int v = 0; v < numViewers; v++) {
+        vx[v] = random.nextFloat() * 1000 - 500;
+        vy[v] = random.nextFloat() * 1000 - 500;
+        grid.view(v, vx[v], vy[v]);
+      }
+      grid.end(events);
+
+      for (int i = 0; i < numEntities; i++) {
+        int expected = 0;
+        for (int v = 0; v < numViewers; v++) {
+          final float dx = x[i] - vx[v], dy = y[i] - vy[v];
+          if (dx * dx + dy * dy <= 48 * 48) expected |= 1 << v;
+        }
+        assertEquals(expected, grid.mask(i), "entity " + i);
+      }
+    }
+  }
+}
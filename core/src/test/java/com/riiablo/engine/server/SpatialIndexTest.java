@@ -0,0 +1,185 @@
+package com.riiablo.engine.server;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import com.badlogic.gdx.utils.IntArray;
+
+class SpatialIndexTest {
+  static final int MON = 1 << 1;
+  static final int PLR = 1 << 2;
+
+  static int[] sorted(IntArray array) {
+    int[] items = array.toArray();
+    Arrays.sort(items);
+    return items;
+  }
+
+  @Test
+  void range_filters_types_and_exclude() {
+    SpatialIndex index = new SpatialIndex(8);
+    index.put(0, 0, 0, MON);
+    index.put(1, 3, 4, PLR);
+    index.put(2, -3, -4, MON);
+    index.put(3, 6, 8, PLR);
+    IntArray out = new IntArray();
+    assertEquals(2, index.range(0, 0, 5, MON, SpatialIndex.NONE, out));
+    assertArrayEquals(new int[] {0, 2}, sorted(out));
+    out.clear();
+    assertEquals(2, index.range(0, 0, 5, MON | PLR, 0, out));
+    assertArrayEquals(new int[] {1, 2}, sorted(out));
+    out.clear();
+    assertEquals(2, index.range(0, 0, 10, PLR, SpatialIndex.NONE, out));
+  }
+
+  @Test
+  void nearest() {
+    SpatialIndex index = new SpatialIndex(4);
+    index.put(0, 0, 0, MON);
+    index.put(1, 30, 0, PLR);
+    index.put(2, 0, -20, PLR);
+    index.put(3, 1, 1, MON);
+    assertEquals(2, index.nearest(0, 0, 50, PLR, 0));
+    assertEquals(3, index.nearest(0, 0, 50, MON, 0));
+    assertEquals(0, index.nearest(0, 0, 50, MON, SpatialIndex.NONE));
+    assertEquals(SpatialIndex.NONE, index.nearest(0, 0, 19, PLR, 0));
+
+    IntArray out = new IntArray();
+    assertEquals(3, index.nearest(0, 0, 50, 8, MON | PLR, 3, out));
+    assertArrayEquals(new int[] {0, 2, 1}, out.toArray());
+  }
+
+  @Test
+  void removed_entities_are_not_found() {
+    SpatialIndex index = new SpatialIndex(8);
+    index.put(5, 1, 1, PLR);
+    assertEquals(5, index.nearest(0, 0, 4, PLR, SpatialIndex.NONE));
+    index.remove(5);
+    assertFalse(index.contains(5));
+    assertEquals(SpatialIndex.NONE, index.nearest(0, 0, 4, PLR, SpatialIndex.NONE));
+    index.clear();
+    index.put(5, 1, 1, PLR);
+    assertEquals(5, index.nearest(0, 0, 4, PLR, SpatialIndex.NONE));
+  }
+
+  @Test
+  void matches_brute_force() {
+    final SpatialIndex index = new SpatialIndex(8);
+    final Random random = new Random(0);
+    final int numEntities = 2000;
+    final float[] x = new float[numEntities], y = new float[numEntities];
+    final int[] types = new int[numEntities];
+    final IntArray out = new IntArray();
+    for (int tick = 0; tick < 5; tick++) {
+      index.clear();
+      for (int i = 0; i < numEntities; i++) {
+        x[i] = random.nextFloat() * 400 - 200;
+        y[i] = random.nextFloat() * 400 - 200;
+        types[i] = random.nextInt(10) == 0 ? PLR : MON;
+        index.put(i, x[i], y[i], types[i]);
+      }
+
+      for (int query = 0; query < 100; query++) {
+        final float qx = random.nextFloat() * 400 - 200;
+        final float qy = random.nextFloat() * 400 - 200;
+        final float radius = random.nextFloat() * 50;
+        final int mask = random.nextBoolean() ? PLR : MON | PLR;
+        final int k = 1 + random.nextInt(5);
+
+        IntArray expected = new IntArray();
+        for (int i = 0; i < numEntities; i++) {
+          if ((types[i] & mask) == 0) continue;
+          final float dx = x[i] - qx, dy = y[i] - qy;
+          if (dx * dx + dy * dy <= radius * radius) expected.add(i);
+        }
+
+        out.clear();
+        index.range(qx, qy, radius, mask, SpatialIndex.NONE, out);
+        assertArrayEquals(sorted(expected), sorted(out));
+
+        final float[] dst2 = new float[numEntities];
+        for (int i = 0; i < numEntities; i++) {
+          final float dx = x[i] - qx, dy = y[i] - qy;
+          dst2[i] = dx * dx + dy * dy;
+        }
+
+        out.clear();
+        final int found = index.nearest(qx, qy, radius, k, mask, SpatialIndex.NONE, out);
+        assertEquals(Math.min(k, expected.size), found);
+        final float[] expectedDst2 = new float[expected.size];
+        for (int i = 0; i < expected.size; i++) expectedDst2[i] = dst2[expected.get(i)];
+        Arrays.sort(expectedDst2);
+        for (int i = 0; i < found; i++) {
+          assertEquals(expectedDst2[i], dst2[out.get(i)], "query " + query + " #" + i);
+        }
+      }
+    }
+  }
+
+  @Test
+  @Disabled
+  void benchmark() {
+    final int numMonsters = 5000, numPlayers = 8, numTicks = 100;
+    final float size = 1000, aggro = 25;
+    final Random random = new Random(0);
+    final int numEntities = numMonsters + numPlayers;
+    final float[] x = new float[numEntities], y = new float[numEntities];
+    for (int i = 0; i < numEntities; i++) {
+      x[i] = random.nextFloat() * size;
+      y[i] = random.nextFloat() * size;
+    }
+
+    final SpatialIndex index = new SpatialIndex(ProximityManager.CELL_SIZE);
+    long found = 0;
+    long start = System.nanoTime();
+    for (int tick = 0; tick < numTicks; tick++) {
+      index.clear();
+      for (int i = 0; i < numEntities; i++) index.put(i, x[i], y[i], i < numMonsters ? MON : PLR);
+      for (int i = 0; i < numMonsters; i++) {
+        if (index.nearest(x[i], y[i], aggro, PLR, i) != SpatialIndex.NONE) found++;
+      }
+    }
+    final long indexed = System.nanoTime() - start;
+
+    // targets of monsters once hirelings and summons are targeted, i.e., every entity
+    long foundAll = 0;
+    start = System.nanoTime();
+    for (int tick = 0; tick < numTicks; tick++) {
+      index.clear();
+      for (int i = 0; i < numEntities; i++) index.put(i, x[i], y[i], MON | PLR);
+      for (int i = 0; i < numMonsters; i++) {
+        if (index.nearest(x[i], y[i], aggro, MON | PLR, i) != SpatialIndex.NONE) foundAll++;
+      }
+    }
+    final long indexedAll = System.nanoTime() - start;
+
+    long bruteFound = 0;
+    start = System.nanoTime();
+    for (int tick = 0; tick < numTicks; tick++) {
+      for (int i = 0; i < numMonsters; i++) {
+        int nearest = SpatialIndex.NONE;
+        float nearestDst2 = aggro * aggro;
+        for (int j = 0; j < numEntities; j++) {
+          if (j == i) continue;
+          final float dx = x[j] - x[i], dy = y[j] - y[i];
+          final float d2 = dx * dx + dy * dy;
+          if (d2 <= nearestDst2) {
+            nearest = j;
+            nearestDst2 = d2;
+          }
+        }
+        if (nearest != SpatialIndex.NONE) bruteFound++;
+      }
+    }
+    final long brute = System.nanoTime() - start;
+
+    assertTrue(found <= foundAll);
+    assertEquals(bruteFound, foundAll);
+    System.out.printf("%d monsters, %d players: %.3f ms/tick indexed (players), %.3f ms/tick indexed (all), %.3f ms/tick brute force (all)%n",
+        numMonsters, numPlayers,
+        indexed / 1e6 / numTicks, indexedAll / 1e6 / numTicks, brute / 1e6 / numTicks);
+  }
+}
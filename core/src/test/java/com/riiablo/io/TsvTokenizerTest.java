@@ -0,0 +1,177 @@
+package com.riiablo.io;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.riiablo.Riiablo;
+import com.riiablo.logger.Level;
+import com.riiablo.logger.LogManager;
+import com.riiablo.mpq.MPQFileHandleResolver;
+import com.riiablo.util.InstallationFinder;
+
+public class TsvTokenizerTest {
+  @BeforeAll
+  public static void before() {
+    LogManager.setLevel("com.riiablo.io.TsvTokenizer", Level.ERROR);
+  }
+
+  private static TsvTokenizer tokenize(String tsv) {
+    return TsvTokenizer.tokenize(tsv.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  /** splits lines one byte at a time, as the tokenizer should */
+  private static List<String[]> reference(String tsv) {
+    List<String[]> lines = new ArrayList<>();
+    for (String line : tsv.split("\r\n|\n", -1)) {
+      String[] tokens = line.split("\t", -1);
+      if (lines.isEmpty()) {
+        lines.add(tokens);
+      } else if (tokens.length == lines.get(0).length && !tokens[0].equalsIgnoreCase("EXPANSION")) {
+        lines.add(tokens);
+      }
+    }
+
+    return lines;
+  }
+
+  private static void assertTokens(List<String[]> expected, TsvTokenizer actual) {
+    final int numFields = expected.get(0).length;
+    assertEquals(numFields, actual.numFields());
+    assertEquals(expected.size() - 1, actual.numRecords());
+    for (int f = 0; f < numFields; f++) assertEquals(expected.get(0)[f], actual.fieldName(f));
+    for (int r = 0; r < actual.numRecords(); r++) {
+      for (int f = 0; f < numFields; f++) {
+        final String token = expected.get(r + 1)[f];
+        assertEquals(token, actual.toString(r, f), r + ":" + f);
+        assertEquals(token, actual.toAsciiString(r, f).toString(), r + ":" + f);
+        assertEquals(token.isEmpty(), actual.isEmpty(r, f));
+      }
+    }
+  }
+
+  @Test
+  public void tokenizes_crlf_and_lf() {
+    String tsv = "Name\tId\tlevel\r\nfallen\t0\t1\r\nzombie\t1\t\nquill rat\t2\t3";
+    TsvTokenizer tokens = tokenize(tsv);
+    assertTokens(reference(tsv), tokens);
+    assertEquals(3, tokens.numRecords());
+    assertEquals("quill rat", tokens.toString(2, 0));
+    assertEquals("QUILL RAT", tokens.toUpperCase(2, 0));
+  }
+
+  @Test
+  public void skips_expansion_and_malformed_lines() {
+    String tsv = "Name\tId\r\nfallen\t0\r\nExpansion\t\r\nEXPANSION\r\nzombie\r\n\r\nquill rat\t2\r\n";
+    TsvTokenizer tokens = tokenize(tsv);
+    assertEquals(2, tokens.numRecords());
+    assertEquals("fallen", tokens.toString(0, 0));
+    assertEquals("quill rat", tokens.toString(1, 0));
+  }
+
+  @Test
+  public void matches_byte_at_a_time_scanning() {
+    final String alphabet = "ab-1\t\t\r\n";
+    Random random = new Random(0);
+    for (int i = 0; i < 256; i++) {
+      StringBuilder tsv = new StringBuilder("a\tb\tc\r\n");
+      for (int j = 0, s = random.nextInt(128); j < s; j++) {
+        final char c = alphabet.charAt(random.nextInt(alphabet.length()));
+        if (c == '\r') {
+          tsv.append("\r\n");
+        } else {
+          tsv.append(c);
+        }
+      }
+
+      assertTokens(reference(tsv.toString()), tokenize(tsv.toString()));
+    }
+  }
+
+  @Test
+  public void direct_buffers_are_tokenized_in_place() {
+    byte[] bytes = "Name\tId\r\nfallen\t-7\r\n".getBytes(StandardCharsets.US_ASCII);
+    ByteBuf buffer = Unpooled.directBuffer(bytes.length + 2).writeZero(2).writeBytes(bytes).skipBytes(2);
+    try {
+      TsvTokenizer tokens = TsvTokenizer.tokenize(buffer);
+      assertEquals(1, tokens.numRecords());
+      assertEquals("fallen", tokens.toAsciiString(0, 0).toString());
+      assertEquals(-7, tokens.parseInt(0, 1));
+    } finally {
+      buffer.release();
+    }
+  }
+
+  @Test
+  public void parses_numbers_from_bytes() {
+    TsvTokenizer tokens = tokenize("a\tb\tc\td\te\tf\r\n"
+        + "-3\t42\t\t2147483648\t1x\t-9223372036854775808\r\n");
+    assertEquals(-3, tokens.toInt(0, 0));
+    assertEquals(-3, tokens.parseInt(0, 0));
+    assertEquals(42, tokens.parseInt(0, 1));
+    assertEquals(0, tokens.toInt(0, 2));
+    assertThrows(NumberFormatException.class, () -> tokens.parseInt(0, 2));
+    assertEquals(2147483648L, tokens.toLong(0, 3));
+    assertEquals(2147483648L, tokens.parseLong(0, 3));
+    assertThrows(NumberFormatException.class, () -> tokens.parseInt(0, 3));
+    assertThrows(NumberFormatException.class, () -> tokens.parseInt(0, 4));
+    assertEquals(Long.MIN_VALUE, tokens.parseLong(0, 5));
+  }
+
+  @Test
+  public void empty_input() {
+    TsvTokenizer tokens = tokenize("");
+    assertEquals(0, tokens.numFields());
+    assertEquals(0, tokens.numRecords());
+  }
+
+  @Test
+  @Disabled
+  public void benchmark() throws Exception {
+    Riiablo.home = InstallationFinder.getInstance().defaultHomeDir();
+    MPQFileHandleResolver mpqs = new MPQFileHandleResolver();
+    final int numIterations = 500;
+    for (String name : new String[] {"Skills", "MonStats", "Missiles", "Objects", "Levels", "ItemStatCost"}) {
+      final byte[] bytes = mpqs.resolve("data\\global\\excel\\" + name + ".txt").readBytes();
+      final ByteBuf buffer = Unpooled.wrappedBuffer(bytes);
+      for (int i = 0; i < numIterations; i++) {
+        scanBytes(bytes);
+        TsvTokenizer.tokenize(buffer);
+      }
+
+      long start = System.nanoTime();
+      int delimiters = 0;
+      for (int i = 0; i < numIterations; i++) delimiters += scanBytes(bytes);
+      final long bytewise = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      long sum = 0;
+      for (int i = 0; i < numIterations; i++) {
+        TsvTokenizer tokens = TsvTokenizer.tokenize(buffer);
+        for (int r = 0, s = tokens.numRecords(); r < s; r++) sum += tokens.toInt(r, 1);
+      }
+      final long swar = System.nanoTime() - start;
+
+      System.out.printf("%-12s %7d bytes: %.3f ms/file byte-at-a-time, %.3f ms/file swar (%d, %d)%n",
+          name, bytes.length, bytewise / 1e6 / numIterations, swar / 1e6 / numIterations, delimiters, sum);
+    }
+  }
+
+  private static int scanBytes(byte[] bytes) {
+    int delimiters = 0;
+    for (byte b : bytes) {
+      switch (b) {
+        case '\t': case '\r': case '\n':
+          delimiters++;
+      }
+    }
+
+    return delimiters;
+  }
+}
@@ -0,0 +1,165 @@
+package com.riiablo.map;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+
+import com.riiablo.map.pfa.PathRequestQueue;
+
+import static com.riiablo.map.ZoneIndexTest.addZone;
+import static com.riiablo.map.ZoneIndexTest.stripMap;
+
+class FlagsSnapshotTest {
+  @Test
+  void matches_map() {
+    final Map map = stripMap(3, 12);
+    addZone(map, -300, 1000, 77, 33).flags[5] = 0x10; // isolated, unaligned
+    final FlagsSnapshot snapshot = map.snapshotFlags();
+    final Random random = new Random(0);
+    for (int i = 0; i < 200000; i++) {
+      final int x = random.nextInt(2400) - 400, y = random.nextInt(2400) - 400;
+      assertEquals(map.flags(x, y), snapshot.flags(x, y), x + "," + y);
+    }
+    assertEquals(0x10, snapshot.flags(-295, 1000));
+  }
+
+  @Test
+  void empty() {
+    final Map map = new Map(0, 0);
+    assertEquals(0xFF, map.snapshotFlags().flags(0, 0));
+  }
+
+  @Test
+  void reused_until_changed() {
+    final Map map = new Map(0, 0);
+    addZone(map, 0, 0, 40, 40);
+    final FlagsSnapshot snapshot = map.snapshotFlags();
+    assertSame(snapshot, map.snapshotFlags());
+    map.or(new Vector2(10, 10), 1, 1, DT1.Tile.FLAG_BLOCK_WALK);
+    final FlagsSnapshot changed = map.snapshotFlags();
+    assertNotSame(snapshot, changed);
+    assertEquals(0, snapshot.flags(10, 10));
+    assertEquals(DT1.Tile.FLAG_BLOCK_WALK, changed.flags(10, 10));
+  }
+
+  static int deliverAll(PathRequestQueue requests, PathRequestQueue.Listener listener) throws InterruptedException {
+    int delivered = 0;
+    for (long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5); requests.size() > 0; ) {
+      assertTrue(System.nanoTime() < deadline, "timed out");
+      delivered += requests.deliver(listener, 1, TimeUnit.SECONDS);
+      Thread.sleep(1);
+    }
+    return delivered;
+  }
+
+  @Test
+  void requests() throws InterruptedException {
+    final Map map = new Map(0, 0);
+    addZone(map, 0, 0, 80, 80);
+    final PathRequestQueue requests = new PathRequestQueue(map, 2);
+    try {
+      final IntMap<IntArray> paths = new IntMap<>();
+      final PathRequestQueue.Listener listener = new PathRequestQueue.Listener() {
+        @Override
+        public void onPath(int entityId, IntArray path) {
+          assertFalse(paths.containsKey(entityId));
+          paths.put(entityId, path == null ? null : new IntArray(path));
+        }
+      };
+
+      requests.request(1, 5, 5, 20, 5, DT1.Tile.FLAG_BLOCK_WALK, 0);
+      requests.request(2, 5, 5, 20, 5, DT1.Tile.FLAG_BLOCK_WALK, 0);
+      requests.request(3, 5, 5, 200, 5, DT1.Tile.FLAG_BLOCK_WALK, 0);
+      requests.request(4, 5, 5, 30, 30, DT1.Tile.FLAG_BLOCK_WALK, 0);
+      requests.cancel(4);
+      requests.request(5, 5, 5, 30, 30, DT1.Tile.FLAG_BLOCK_WALK, 0);
+      requests.request(5, 5, 5, 10, 10, DT1.Tile.FLAG_BLOCK_WALK, 0);
+
+      assertEquals(4, deliverAll(requests, listener));
+      assertEquals(6, requests.requested());
+      assertEquals(2, requests.coalesced());
+      assertEquals(1, requests.cancelled());
+      assertEquals(4, requests.solved());
+      assertEquals(2, requests.discarded());
+
+      final IntArray path = paths.get(1);
+      assertEquals(16 * 2, path.size);
+      assertEquals(5, path.get(0));
+      assertEquals(20, path.get(path.size - 2));
+      assertEquals(path, paths.get(2));
+      assertTrue(paths.containsKey(3));
+      assertNull(paths.get(3));
+      assertFalse(paths.containsKey(4));
+      assertEquals(6 * 2, paths.get(5).size);
+    } finally {
+      requests.dispose();
+    }
+  }
+
+  @Test
+  void requests_outside_grid_rejected() throws InterruptedException {
+    final Map map = new Map(0, 0);
+    addZone(map, 0, 0, 400, 20);
+    final PathRequestQueue requests = new PathRequestQueue(map, 1);
+    try {
+      final IntMap<IntArray> paths = new IntMap<>();
+      final PathRequestQueue.Listener listener = new PathRequestQueue.Listener() {
+        @Override
+        public void onPath(int entityId, IntArray path) {
+          paths.put(entityId, path == null ? null : new IntArray(path));
+        }
+      };
+
+      assertTrue(PathRequestQueue.fits(5, 5, 260, 5));
+      assertFalse(PathRequestQueue.fits(5, 5, 261, 5));
+      assertTrue(requests.request(1, 5, 5, 20, 5, DT1.Tile.FLAG_BLOCK_WALK, 0));
+      assertFalse(requests.request(1, 5, 5, 300, 5, DT1.Tile.FLAG_BLOCK_WALK, 0));
+      assertFalse(requests.isPending(1), "rejected request should replace the pending one");
+      assertEquals(0, deliverAll(requests, listener));
+      assertFalse(paths.containsKey(1));
+      assertEquals(2, requests.requested());
+      assertEquals(1, requests.rejected());
+      assertEquals(1, requests.cancelled());
+    } finally {
+      requests.dispose();
+    }
+  }
+
+  @Test
+  void requests_against_changed_map() throws InterruptedException {
+    final Map map = new Map(0, 0);
+    addZone(map, 0, 0, 80, 80);
+    final PathRequestQueue requests = new PathRequestQueue(map, 1);
+    try {
+      final IntMap<IntArray> paths = new IntMap<>();
+      final PathRequestQueue.Listener listener = new PathRequestQueue.Listener() {
+        @Override
+        public void onPath(int entityId, IntArray path) {
+          paths.put(entityId, path == null ? null : new IntArray(path));
+        }
+      };
+
+      requests.request(1, 5, 5, 20, 5, DT1.Tile.FLAG_BLOCK_WALK, 0);
+      deliverAll(requests, listener);
+      assertEquals(16 * 2, paths.get(1).size);
+
+      // the worker's finder is rebound to the new snapshot rather than searching the old one
+      map.or(new Vector2(12, 5), 1, 11, DT1.Tile.FLAG_BLOCK_WALK);
+      requests.request(2, 5, 5, 20, 5, DT1.Tile.FLAG_BLOCK_WALK, 0);
+      deliverAll(requests, listener);
+      final IntArray path = paths.get(2);
+      assertNotEquals(paths.get(1), path, "path should go around the wall");
+      for (int i = 0; i < path.size; i += 2) {
+        assertEquals(0, map.flags(path.get(i), path.get(i + 1)) & DT1.Tile.FLAG_BLOCK_WALK);
+      }
+    } finally {
+      requests.dispose();
+    }
+  }
+}
@@ -0,0 +1,178 @@
+package com.riiablo.map;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ForkJoinPool;
+
+import com.riiablo.codec.excel.Levels;
+import com.riiablo.codec.excel.LvlTypes;
+import com.riiablo.codec.excel.MonStats;
+
+class MapGenerateTest {
+  static final int NUM_TILE_IDS = 4;
+  static final int NUM_VARIANTS = 3;
+  static final MonStats.Entry MONSTER = new MonStats.Entry();
+
+  /** tiles are told apart by {@link DT1.Tile#direction}, which is otherwise unused here */
+  static DT1.Tile tile(int mainIndex, int variant) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(DT1.Tile.SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(0, (mainIndex << 8) | variant); // direction
+    buffer.putInt(20, Orientation.FLOOR); // orientation
+    buffer.putInt(24, mainIndex);
+    buffer.putInt(28, 0); // subIndex
+    buffer.putInt(32, 1 + variant); // rarity
+    for (int i = 0; i < DT1.Tile.NUM_SUBTILES; i++) {
+      buffer.put(40 + i, (byte) ((mainIndex + variant + i) % 3 == 0 ? DT1.Tile.FLAG_BLOCK_WALK : 0));
+    }
+
+    return new DT1.Tile(new ByteArrayInputStream(buffer.array()));
+  }
+
+  static DT1s dt1s() throws IOException {
+    DT1s dt1s = new DT1s();
+    for (int mainIndex = 0; mainIndex < NUM_TILE_IDS; mainIndex++) {
+      for (int variant = 0; variant < NUM_VARIANTS; variant++) {
+        dt1s.add(tile(mainIndex, variant));
+      }
+    }
+
+    return dt1s;
+  }
+
+  /** fills grids with random tiles and spawns a monster next to an occasional wall */
+  static final class TestGenerator implements Map.Zone.Generator {
+    @Override
+    public void init(Map.Zone zone) {}
+
+    @Override
+    public void generate(Map.Zone zone, DT1s dt1s, int tx, int ty) {
+      for (int x = tx, endX = tx + zone.gridSizeX; x < endX; x++) {
+        for (int y = ty, endY = ty + zone.gridSizeY; y < endY; y++) {
+          final int id = DT1.Tile.Index.create(Orientation.FLOOR, zone.random.nextInt(NUM_TILE_IDS), 0);
+          DT1.Tile tile = zone.tiles[Map.FLOOR_OFFSET][zone.tileIndex(x, y)] = dt1s.get(id, zone.random);
+          Map.Preset.or(zone, x, y, tile);
+          if (zone.random.nextInt(16) == 0) {
+            if (zone.tiles[Map.WALL_OFFSET] == null) {
+              zone.tiles[Map.WALL_OFFSET] = Map.Zone.obtainTileArray(zone.tilesX * zone.tilesY);
+            }
+
+            zone.tiles[Map.WALL_OFFSET][zone.tileIndex(x, y)] = dt1s.get(id, zone.random);
+            zone.spawn(MONSTER,
+                zone.getGlobalX(x * DT1.Tile.SUBTILE_SIZE) + zone.random.nextFloat(),
+                zone.getGlobalY(y * DT1.Tile.SUBTILE_SIZE) + zone.random.nextFloat());
+          }
+        }
+      }
+    }
+  }
+
+  static Map generate(int seed, ForkJoinPool pool) throws IOException {
+    final Map map = zones(seed);
+    map.generate(pool);
+    return map;
+  }
+
+  /** adds zones to fill with {@link TestGenerator} to a new map */
+  static Map zones(int seed) throws IOException {
+    final Map map = new Map(seed, 0);
+    final LvlTypes.Entry type = new LvlTypes.Entry();
+    type.Id = 1;
+    map.dt1s.put(type.Id, dt1s());
+    for (int i = 0; i < 12; i++) {
+      final Levels.Entry level = new Levels.Entry();
+      level.Id = 2 + i;
+      final Map.Zone zone = new Map.Zone();
+      zone.map = map;
+      zone.level = level;
+      zone.type = type;
+      zone.gridSizeX = zone.gridSizeY = 8;
+      zone.gridsX = 2 + (i % 4);
+      zone.gridsY = 2 + (i % 3);
+      zone.tilesX = zone.gridsX * zone.gridSizeX;
+      zone.tilesY = zone.gridsY * zone.gridSizeY;
+      zone.width = zone.tilesX * DT1.Tile.SUBTILE_SIZE;
+      zone.height = zone.tilesY * DT1.Tile.SUBTILE_SIZE;
+      zone.flags = Map.Zone.obtainByteArray(zone.width * zone.height);
+      zone.presets = new Map.Preset[zone.gridsX][zone.gridsY];
+      zone.generator = new TestGenerator();
+      zone.setPosition(i * 400, 0);
+      map.zones.add(zone);
+    }
+
+    return map;
+  }
+
+  static long hash(Map map) {
+    long hash = 17;
+    for (Map.Zone zone : map.zones) {
+      for (DT1.Tile[] layer : zone.tiles) {
+        if (layer == null) {
+          hash = 31 * hash;
+          continue;
+        }
+
+        for (int i = 0, s = zone.tilesX * zone.tilesY; i < s; i++) {
+          hash = 31 * hash + (layer[i] == null ? -1 : layer[i].direction);
+        }
+      }
+
+      for (int i = 0, s = zone.width * zone.height; i < s; i++) {
+        hash = 31 * hash + zone.flags[i];
+      }
+
+      for (int i = 0; i < zone.spawnPositions.size; i++) {
+        hash = 31 * hash + Float.floatToIntBits(zone.spawnPositions.get(i));
+      }
+    }
+
+    return hash;
+  }
+
+  static void free(Map map) {
+    for (Map.Zone zone : map.zones) {
+      Map.Zone.free(zone.flags);
+      for (DT1.Tile[] layer : zone.tiles) Map.Zone.free(layer);
+    }
+  }
+
+  @Test
+  void bit_identical_across_thread_counts() throws IOException {
+    final Map expected = generate(42, null);
+    final long expectedHash = hash(expected);
+    free(expected);
+    for (int parallelism : new int[] { 1, 2, 4, 8 }) {
+      final ForkJoinPool pool = new ForkJoinPool(parallelism);
+      try {
+        for (int i = 0; i < 4; i++) {
+          final Map actual = generate(42, pool);
+          assertEquals(expectedHash, hash(actual), "parallelism=" + parallelism);
+          free(actual);
+        }
+      } finally {
+        pool.shutdown();
+      }
+    }
+  }
+
+  @Test
+  void seeds_change_maps() throws IOException {
+    assertNotEquals(hash(generate(1, null)), hash(generate(2, null)));
+  }
+
+  @Test
+  void zone_streams_depend_on_level_and_index() {
+    final Map map = new Map(42, 0);
+    final Map.Zone zone = new Map.Zone();
+    zone.level = new Levels.Entry();
+    final String seed = map.zoneSeed(zone, 0).encode();
+    assertEquals(seed, new Map(42, 0).zoneSeed(zone, 0).encode());
+    assertNotEquals(seed, map.zoneSeed(zone, 1).encode());
+    zone.level.Id = 1;
+    assertNotEquals(seed, map.zoneSeed(zone, 0).encode());
+  }
+}
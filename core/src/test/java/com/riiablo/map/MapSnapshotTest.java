@@ -0,0 +1,152 @@
+package com.riiablo.map;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.badlogic.gdx.utils.IntMap;
+
+import com.riiablo.codec.excel.LvlPrest;
+import com.riiablo.codec.excel.MonStats;
+
+import static com.riiablo.map.MapGenerateTest.MONSTER;
+import static com.riiablo.map.MapGenerateTest.generate;
+import static com.riiablo.map.MapGenerateTest.hash;
+
+class MapSnapshotTest {
+  static final LvlPrest.Entry PRESET = new LvlPrest.Entry();
+  static {
+    PRESET.Def = 27;
+  }
+
+  static final MapSnapshot.Resolver RESOLVER = new MapSnapshot.Resolver() {
+    @Override
+    public LvlPrest.Entry preset(int def) {
+      assertEquals(PRESET.Def, def);
+      return PRESET;
+    }
+
+    @Override
+    public MonStats.Entry monster(String id) {
+      assertEquals(MONSTER.Id, id);
+      return MONSTER;
+    }
+  };
+
+  @BeforeAll
+  static void setup() {
+    MONSTER.Id = "fallen1";
+  }
+
+  /** generated map with the parts the test generator does not produce added by hand */
+  static Map generated(int seed) throws IOException {
+    final Map map = generate(seed, null);
+    final Map.Zone town = map.zones.get(0);
+    town.town = true;
+    final Map.Preset preset = Map.Preset.of(PRESET, "act1/town/townN1.ds1");
+    preset.popPads = new IntMap<>();
+    final Map.Preset.PopPad popPad = new Map.Preset.PopPad(Map.ID.POPPADS.first(), 5, 10);
+    popPad.setEnd(25, 30);
+    preset.popPads.put(popPad.id, popPad);
+    town.presets[0][0] = town.presets[1][1] = preset;
+    town.putCell(Map.WALL_OFFSET, 3, 4, new DS1.Cell().set(0x00215001, Orientation.SPECIAL_10));
+    town.setWarp(Map.ID.VIS_5_42, Map.ID.VIS_0_03);
+    return map;
+  }
+
+  /** restores the zones of the snapshot into a new map sharing the dt1s and levels of the original */
+  static Map restore(MapSnapshot snapshot, Map original) {
+    final Map map = new Map(snapshot.seed(), snapshot.diff());
+    for (IntMap.Entry<DT1s> entry : original.dt1s.entries()) map.dt1s.put(entry.key, entry.value);
+    for (int i = 0; i < snapshot.numZones(); i++) {
+      final Map.Zone zone = new Map.Zone();
+      zone.map = map;
+      zone.level = original.zones.get(i).level;
+      zone.type = original.zones.get(i).type;
+      snapshot.readZone(i, zone, RESOLVER);
+      snapshot.readTiles(i, zone, map.dt1s.get(zone.type.Id));
+      map.zones.add(zone);
+    }
+
+    return map;
+  }
+
+  @Test
+  void round_trip() throws IOException {
+    final Map expected = generated(42);
+    final MapSnapshot snapshot = MapSnapshot.wrap(ByteBuffer.wrap(MapSnapshot.write(expected, 0, 1, 2)));
+    assertEquals(42, snapshot.seed());
+    assertEquals(0, snapshot.diff());
+    assertEquals(0, snapshot.act());
+    assertEquals(1, snapshot.random0);
+    assertEquals(2, snapshot.random1);
+    assertEquals(expected.zones.size, snapshot.numZones());
+
+    final Map actual = restore(snapshot, expected);
+    assertNull(MapSnapshot.compare(expected, actual));
+    assertEquals(hash(expected), hash(actual));
+
+    final Map.Zone town = actual.zones.get(0);
+    assertTrue(town.isTown());
+    assertSame(town.presets[0][0], town.presets[1][1], "shared presets should stay shared");
+    assertEquals(1, town.presets[0][0].popPads.size);
+    assertEquals(Map.ID.VIS_0_03, town.getWarp(Map.ID.VIS_5_42));
+    assertEquals(Orientation.SPECIAL_10, town.specials.get(Map.Zone.tileHashCode(Map.WALL_OFFSET, 3, 4)).orientation);
+    assertTrue(town.spawns.size > 0 || actual.zones.get(1).spawns.size > 0);
+  }
+
+  @Test
+  void compare_finds_differences() throws IOException {
+    final Map expected = generated(42);
+    final Map actual = restore(MapSnapshot.wrap(ByteBuffer.wrap(MapSnapshot.write(expected, 0, 0, 0))), expected);
+    actual.zones.get(3).flags[7] ^= DT1.Tile.FLAG_BLOCK_LIGHT;
+    assertEquals("zone 3 flags[7]", MapSnapshot.compare(expected, actual).split(":")[0]);
+    actual.zones.get(3).flags[7] ^= DT1.Tile.FLAG_BLOCK_LIGHT;
+    actual.zones.get(5).spawnPositions.incr(0, 1);
+    assertNotNull(MapSnapshot.compare(expected, actual));
+    assertNotNull(MapSnapshot.compare(expected, generated(43)));
+  }
+
+  @Test
+  void rejects_other_versions() throws IOException {
+    final byte[] bytes = MapSnapshot.write(generated(42), 0, 0, 0);
+    ByteBuffer.wrap(bytes).putInt(4, MapSnapshot.VERSION + 1);
+    assertThrows(IllegalArgumentException.class, () -> MapSnapshot.wrap(ByteBuffer.wrap(bytes)));
+  }
+
+  @Test
+  void cache_is_bounded(@TempDir Path dir) throws IOException {
+    final MapSnapshotCache cache = new MapSnapshotCache(dir.toFile(), 2);
+    assertNull(cache.get(1, 0, 0));
+    for (int seed = 1; seed <= 3; seed++) {
+      cache.put(generated(seed), 0);
+      final File file = cache.file(seed, 0, 0);
+      assertTrue(file.setLastModified(seed * 1000L));
+    }
+
+    cache.trim();
+    assertNull(cache.get(1, 0, 0), "least recently used snapshot should be evicted");
+    assertEquals(2, cache.get(2, 0, 0).seed());
+    final MapSnapshot snapshot = cache.get(3, 0, 0);
+    assertEquals(3, snapshot.seed());
+    assertEquals(2, dir.toFile().listFiles().length);
+
+    final Map expected = generated(3);
+    assertNull(MapSnapshot.compare(expected, restore(snapshot, expected)));
+  }
+
+  @Test
+  void cache_discards_corrupt_snapshots(@TempDir Path dir) throws IOException {
+    final MapSnapshotCache cache = new MapSnapshotCache(dir.toFile(), 2);
+    final File file = cache.file(7, 1, 0);
+    Files.write(file.toPath(), new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+    assertNull(cache.get(7, 1, 0));
+    assertFalse(file.exists());
+  }
+}
@@ -0,0 +1,138 @@
+package com.riiablo.map;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.math.Vector2;
+
+import com.riiablo.map.pfa.Point2;
+
+class ZoneIndexTest {
+  static Map.Zone addZone(Map map, int x, int y, int width, int height) {
+    final Map.Zone zone = new Map.Zone();
+    zone.map = map;
+    zone.width = width;
+    zone.height = height;
+    zone.flags = new byte[width * height];
+    zone.setPosition(x, y);
+    map.zones.add(zone);
+    map.zoneIndex.invalidate();
+    return zone;
+  }
+
+  static Map.Zone linearZone(Map map, int x, int y) {
+    for (Map.Zone zone : map.zones) if (zone.contains(x, y)) return zone;
+    return null;
+  }
+
+  /** adjacent zones laid out in a winding strip, similar to the outdoor areas of an act */
+  static Map stripMap(long seed, int numZones) {
+    final Map map = new Map(0, 0);
+    final Random random = new Random(seed);
+    int x = 0, y = 0;
+    for (int i = 0; i < numZones; i++) {
+      final int width = (8 + random.nextInt(8)) * 8 * DT1.Tile.SUBTILE_SIZE;
+      final int height = (8 + random.nextInt(8)) * 8 * DT1.Tile.SUBTILE_SIZE;
+      final Map.Zone zone = addZone(map, x, y, width, height);
+      for (int j = 0, s = width * height / 64; j < s; j++) {
+        zone.flags[random.nextInt(zone.flags.length)] = (byte) DT1.Tile.FLAG_BLOCK_WALK;
+      }
+      if (random.nextBoolean()) x += width; else y += height;
+    }
+    return map;
+  }
+
+  @Test
+  void matches_linear_scan() {
+    final Map map = new Map(0, 0);
+    final Random random = new Random(0);
+    for (int i = 0; i < 32; i++) {
+      addZone(map,
+          random.nextInt(1000) - 500, random.nextInt(1000) - 500,
+          1 + random.nextInt(200), 1 + random.nextInt(200));
+    }
+
+    for (int i = 0; i < 100000; i++) {
+      final int x = random.nextInt(1600) - 800, y = random.nextInt(1600) - 800;
+      assertSame(linearZone(map, x, y), map.getZone(x, y), x + "," + y);
+    }
+  }
+
+  @Test
+  void empty() {
+    final Map map = new Map(0, 0);
+    assertNull(map.getZone(0, 0));
+    assertEquals(0xFF, map.flags(0, 0));
+  }
+
+  @Test
+  void invalidated_on_move() {
+    final Map map = new Map(0, 0);
+    final Map.Zone zone = addZone(map, 0, 0, 40, 40);
+    assertSame(zone, map.getZone(10, 10));
+    zone.setPosition(400, 400);
+    assertNull(map.getZone(10, 10));
+    assertSame(zone, map.getZone(410, 410));
+  }
+
+  @Test
+  void flags_reflect_or() {
+    final Map map = new Map(0, 0);
+    addZone(map, 0, 0, 40, 40);
+    addZone(map, 40, 0, 40, 40);
+    final int rebuilds = map.zoneIndex.rebuilds;
+    assertEquals(0, map.flags(39, 10));
+    assertEquals(0, map.flags(40, 10));
+    map.or(new Vector2(40, 10), 2, 1, DT1.Tile.FLAG_BLOCK_WALK);
+    assertEquals(DT1.Tile.FLAG_BLOCK_WALK, map.flags(39, 10));
+    assertEquals(DT1.Tile.FLAG_BLOCK_WALK, map.flags(40, 10));
+    assertEquals(rebuilds + 1, map.zoneIndex.rebuilds);
+  }
+
+  @Test
+  @Disabled
+  void benchmark() {
+    final Map indexed = stripMap(1, 40);
+    final Map linear = new Map(0, 0) {
+      @Override
+      public Zone getZone(int x, int y) {
+        return linearZone(this, x, y);
+      }
+    };
+    linear.zones.addAll(indexed.zones);
+
+    final int numSearches = 2000;
+    final int[] queries = new int[numSearches * 4];
+    final Random random = new Random(2);
+    for (int i = 0; i < queries.length; ) {
+      final Map.Zone zone = indexed.zones.get(random.nextInt(indexed.zones.size));
+      final int x0 = zone.x + random.nextInt(zone.width), y0 = zone.y + random.nextInt(zone.height);
+      final int x1 = x0 + random.nextInt(128) - 64, y1 = y0 + random.nextInt(128) - 64;
+      if (indexed.flags(x0, y0) != 0 || indexed.flags(x1, y1) != 0) continue;
+      queries[i++] = x0; queries[i++] = y0; queries[i++] = x1; queries[i++] = y1;
+    }
+
+    final GraphPath<Point2> path = new DefaultGraphPath<>();
+    for (int round = 0; round < 3; round++) {
+      for (Map map : new Map[] {linear, indexed}) {
+        int found = 0;
+        final long start = System.nanoTime();
+        for (int i = 0; i < queries.length; i += 4) {
+          if (map.findPath(
+              new Vector2(queries[i], queries[i + 1]),
+              new Vector2(queries[i + 2], queries[i + 3]),
+              path)) {
+            found++;
+          }
+        }
+        final long elapsed = System.nanoTime() - start;
+        System.out.printf("%-8s %8.2fus/search, %d/%d found%n",
+            map == indexed ? "indexed" : "linear", elapsed / 1000.0 / numSearches, found, numSearches);
+      }
+    }
+  }
+}
@@ -0,0 +1,226 @@
+package com.riiablo.map;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import io.netty.util.concurrent.Promise;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import com.riiablo.asset.Adapter;
+import com.riiablo.asset.AssetDesc;
+import com.riiablo.asset.AssetLoader;
+import com.riiablo.asset.AssetManager;
+import com.riiablo.asset.AssetParams;
+import com.riiablo.asset.LoadPriority;
+import com.riiablo.asset.adapter.GdxFileHandleAdapter;
+
+import static com.riiablo.map.ZoneIndexTest.addZone;
+
+class ZonePrefetcherTest {
+  static final int SIZE = 100;
+  static final int ASSETS_PER_ZONE = 6;
+
+  Map map;
+  Map.Zone west, east, north;
+  AssetManager assets;
+  ZonePrefetcher prefetcher;
+
+  /** the I/O of every asset waits on this s.t. loads stay in flight or queued */
+  Promise<Object> gate;
+
+  /** unique assets per zone, the first of which discovers a layer once loaded */
+  final ObjectMap<Map.Zone, Array<AssetDesc>> zoneAssets = new ObjectMap<>();
+
+  static AssetDesc<String> asset(String path) {
+    return AssetDesc.of(path, String.class, new AssetParams<>());
+  }
+
+  @BeforeEach
+  void setup() {
+    map = new Map(0, 0);
+    west = addZone(map, 0, 0, SIZE, SIZE);
+    east = addZone(map, SIZE, 0, SIZE, SIZE);
+    north = addZone(map, 0, 2 * SIZE, SIZE, SIZE);
+    int i = 0;
+    for (Map.Zone zone : map.zones) {
+      final Array<AssetDesc> descs = new Array<>();
+      for (int j = 0; j < ASSETS_PER_ZONE; j++) descs.add(asset("zone" + i + "." + j));
+      zoneAssets.put(zone, descs);
+      i++;
+    }
+
+    gate = ImmediateEventExecutor.INSTANCE.newPromise();
+    assets = new AssetManager()
+        .resolver(asset -> new FileHandle(asset.path()))
+        .adapter(FileHandle.class, new GdxFileHandleAdapter())
+        .loader(String.class, new AssetLoader<String>() {
+          @Override
+          protected <F extends FileHandle> Future<?> ioAsync0(
+              EventExecutor executor,
+              AssetManager assets,
+              AssetDesc<String> asset,
+              F handle,
+              Adapter<F> adapter
+          ) {
+            return gate;
+          }
+
+          @Override
+          protected <F extends FileHandle> String loadAsync0(
+              AssetManager assets,
+              AssetDesc<String> asset,
+              F handle,
+              Object data
+          ) {
+            return asset.path();
+          }
+        });
+    prefetcher = new ZonePrefetcher(map, assets, new ZonePrefetcher.ZoneAssets() {
+      @Override
+      public void assets(Map.Zone zone, Array<AssetDesc> assets) {
+        assets.addAll(zoneAssets.get(zone));
+      }
+
+      @Override
+      public void loaded(AssetDesc asset, Object object, Array<AssetDesc> assets) {
+        final String path = (String) object;
+        if (path.endsWith(".0")) assets.add(asset(path + ".layer"));
+      }
+
+      @Override
+      public void clear() {}
+    });
+    prefetcher.margin = 0;
+  }
+
+  @AfterEach
+  void teardown() {
+    finishLoading();
+    assets.dispose();
+  }
+
+  /** moves the position by the velocity over the specified seconds, updating in steps of 0.25s */
+  void walk(Vector2 position, float vx, float vy, float seconds) {
+    for (float t = 0; t < seconds; t += 0.25f) {
+      position.add(vx * 0.25f, vy * 0.25f);
+      prefetcher.update(0.25f);
+    }
+  }
+
+  /** opens the gate and syncs until every started load has been synced */
+  void finishLoading() {
+    gate.trySuccess(null);
+    final long deadline = System.currentTimeMillis() + 10_000;
+    do {
+      assets.sync(10);
+    } while ((assets.inFlight() > 0 || assets.loadQueue().size() > 0) && System.currentTimeMillis() < deadline);
+    assets.sync(10);
+  }
+
+  @Test
+  void predicts_neighbour_ahead() {
+    final Vector2 position = new Vector2(SIZE / 2, SIZE / 2);
+    prefetcher.watch(position);
+    prefetcher.update(0);
+    walk(position, 20, 0, 1);
+    assertTrue(prefetcher.prefetches.containsKey(west));
+    assertTrue(prefetcher.prefetches.containsKey(east), "zone ahead should be prefetched");
+    assertFalse(prefetcher.prefetches.containsKey(north), "zone not ahead should not be prefetched");
+    assertEquals(ASSETS_PER_ZONE, prefetcher.prefetches.get(east).assets.size);
+    assertEquals(2 * ASSETS_PER_ZONE, assets.inFlight() + assets.loadQueue().size());
+  }
+
+  @Test
+  void standing_still_only_prefetches_current_zone() {
+    final Vector2 position = new Vector2(SIZE / 2, SIZE / 2);
+    prefetcher.watch(position);
+    prefetcher.update(0);
+    walk(position, 0, 0, 1);
+    assertEquals(1, prefetcher.prefetches.size);
+    assertTrue(prefetcher.prefetches.containsKey(west));
+  }
+
+  @Test
+  void prefetches_with_prefetch_priority() {
+    final Vector2 position = new Vector2(SIZE / 2, SIZE / 2);
+    prefetcher.watch(position);
+    prefetcher.update(0);
+    walk(position, 20, 0, 1);
+    assertTrue(assets.loadQueue().size() > 0, "loads beyond the in-flight cap should stay queued");
+    assertEquals(0, assets.loadQueue().dequeued(LoadPriority.VISIBLE));
+    assertEquals(assets.inFlight(), assets.loadQueue().dequeued(LoadPriority.PREFETCH));
+  }
+
+  @Test
+  void turning_away_cancels_prefetch() {
+    final Vector2 position = new Vector2(SIZE / 2, SIZE / 2);
+    prefetcher.watch(position);
+    prefetcher.update(0);
+    walk(position, 20, 0, 1);
+    assertTrue(prefetcher.prefetches.containsKey(east));
+    final ZonePrefetcher.Prefetch prefetch = prefetcher.prefetches.get(east);
+
+    walk(position, -20, 0, prefetcher.cancelDelay + 1);
+    assertFalse(prefetcher.prefetches.containsKey(east));
+    assertTrue(prefetch.cancelled);
+    assertEquals(1, prefetcher.zonesCancelled());
+
+    finishLoading();
+    assertEquals(ASSETS_PER_ZONE, prefetch.assets.size, "cancelled prefetches should not discover assets");
+  }
+
+  @Test
+  void entering_bumps_queued_assets() {
+    final Vector2 position = new Vector2(SIZE - 10, SIZE / 2);
+    prefetcher.watch(position);
+    prefetcher.update(0);
+    walk(position, 0, 0, prefetcher.interval); // west fills the in-flight loads
+    walk(position, 20, 0, 1);
+    final int queued = assets.loadQueue().size();
+    assertTrue(queued > 0, "loads beyond the in-flight cap should stay queued");
+    prefetcher.entered(east);
+    prefetcher.entered(east);
+    prefetcher.entered(north);
+    assertEquals(queued, assets.loadQueue().bumps(), "queued assets of the entered zone should be bumped");
+    assertEquals(2, prefetcher.zonesPrefetched());
+    assertEquals(1, prefetcher.zonesUsed());
+    assertEquals(0.5, prefetcher.hitRate());
+    assertEquals(0, prefetcher.readyRate(), "nothing had loaded when entered");
+  }
+
+  @Test
+  void loaded_assets_discover_dependents() {
+    final Vector2 position = new Vector2(SIZE / 2, SIZE / 2);
+    prefetcher.watch(position);
+    prefetcher.update(0);
+    walk(position, 0, 0, prefetcher.interval);
+    finishLoading();
+    final ZonePrefetcher.Prefetch prefetch = prefetcher.prefetches.get(west);
+    assertEquals(ASSETS_PER_ZONE + 1, prefetch.assets.size);
+    assertEquals("zone0.0.layer", prefetch.assets.peek().path());
+    assertEquals(ASSETS_PER_ZONE + 1, prefetch.ready);
+
+    prefetcher.entered(west);
+    assertEquals(1.0, prefetcher.readyRate());
+  }
+
+  @Test
+  void dispose_releases_prefetches() {
+    final Vector2 position = new Vector2(SIZE / 2, SIZE / 2);
+    prefetcher.watch(position);
+    prefetcher.update(0);
+    walk(position, 20, 0, 1);
+    final ZonePrefetcher.Prefetch prefetch = prefetcher.prefetches.get(east);
+    prefetcher.dispose();
+    assertTrue(prefetch.cancelled);
+    assertEquals(0, prefetcher.prefetches.size);
+    assertEquals(0, prefetcher.watchers.size);
+  }
+}
@@ -0,0 +1,214 @@
+package com.riiablo.map.pfa;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+
+import com.riiablo.map.DT1;
+import com.riiablo.map.Map;
+import com.riiablo.map.MapGraph;
+
+class GridPathFinderTest {
+  static final int BLOCK = DT1.Tile.FLAG_BLOCK_WALK;
+
+  /** map backed by a grid of flags, unwalkable outside of the grid */
+  static class GridMap extends Map {
+    final int width, height;
+    final byte[] flags;
+
+    GridMap(int width, int height) {
+      super(0, 0);
+      this.width = width;
+      this.height = height;
+      this.flags = new byte[width * height];
+    }
+
+    GridMap block(int x0, int y0, int x1, int y1) {
+      for (int y = y0; y < y1; y++) {
+        for (int x = x0; x < x1; x++) {
+          flags[y * width + x] = (byte) BLOCK;
+        }
+      }
+      return this;
+    }
+
+    @Override
+    public int flags(int x, int y) {
+      if (x < 0 || x >= width || y < 0 || y >= height) return 0xFF;
+      return flags[y * width + x] & 0xFF;
+    }
+  }
+
+  static GridMap randomMap(long seed, int size, float density) {
+    final GridMap map = new GridMap(size, size);
+    final Random random = new Random(seed);
+    for (int i = 0, s = (int) (size * size * density / 16); i < s; i++) {
+      final int x = random.nextInt(size - 4), y = random.nextInt(size - 4);
+      map.block(x, y, x + 1 + random.nextInt(4), y + 1 + random.nextInt(4));
+    }
+    return map;
+  }
+
+  static float cost(GraphPath<Point2> path) {
+    float cost = 0;
+    for (int i = 1; i < path.getCount(); i++) {
+      final Point2 a = path.get(i - 1), b = path.get(i);
+      final int dx = Math.abs(a.x - b.x), dy = Math.abs(a.y - b.y);
+      assertTrue(dx <= 1 && dy <= 1 && dx + dy > 0, "not adjacent: " + a + " " + b);
+      cost += dx + dy == 2 ? GridPathFinder.DIAGONAL_COST : 1;
+    }
+    return cost;
+  }
+
+  static GraphPath<Point2> search(PathFinder finder, MapGraph graph, int x0, int y0, int x1, int y1, int size) {
+    final GraphPath<Point2> path = new DefaultGraphPath<>();
+    final boolean found = finder.search(graph.getOrCreate(x0, y0), graph.getOrCreate(x1, y1), BLOCK, size, path);
+    return found ? path : null;
+  }
+
+  @Test
+  void straight_line() {
+    final GridMap map = new GridMap(32, 32);
+    final MapGraph graph = new MapGraph(map);
+    final GraphPath<Point2> path = search(new GridPathFinder(map, graph), graph, 2, 5, 12, 5, 0);
+    assertNotNull(path);
+    assertEquals(11, path.getCount());
+    assertEquals(graph.getOrCreate(2, 5), path.get(0));
+    assertEquals(graph.getOrCreate(12, 5), path.get(10));
+    assertEquals(10, cost(path), 1e-4);
+  }
+
+  @Test
+  void around_wall() {
+    final GridMap map = new GridMap(32, 32).block(10, 0, 11, 20);
+    final MapGraph graph = new MapGraph(map);
+    final GraphPath<Point2> path = search(new GridPathFinder(map, graph), graph, 5, 5, 15, 5, 0);
+    assertNotNull(path);
+    for (Point2 p : path) assertEquals(0, map.flags(p.x, p.y), p.toString());
+    assertEquals(graph.getOrCreate(15, 5), path.get(path.getCount() - 1));
+  }
+
+  @Test
+  void unreachable() {
+    final GridMap map = new GridMap(32, 32).block(10, 0, 11, 32);
+    final MapGraph graph = new MapGraph(map);
+    assertNull(search(new GridPathFinder(map, graph), graph, 5, 5, 15, 5, 0));
+  }
+
+  @Test
+  void outside_grid() {
+    final GridMap map = new GridMap(64, 64);
+    final MapGraph graph = new MapGraph(map);
+    assertNull(search(new GridPathFinder(map, graph, 16, false), graph, 2, 2, 40, 2, 0));
+  }
+
+  @Test
+  void respects_clearance() {
+    // 1-wide gap at y=10 passable by size 1, large units must go around
+    final GridMap map = new GridMap(32, 32).block(10, 0, 11, 10).block(10, 11, 11, 28);
+    final MapGraph graph = new MapGraph(map);
+    final GridPathFinder finder = new GridPathFinder(map, graph);
+    final GraphPath<Point2> small = search(finder, graph, 5, 10, 15, 10, 1);
+    assertNotNull(small);
+    assertEquals(10, cost(small), 1e-4);
+    final GraphPath<Point2> large = search(finder, graph, 5, 10, 15, 10, 2);
+    assertNotNull(large);
+    for (Point2 p : large) assertTrue(p.y >= 28 || p.x != 10, p.toString());
+    assertTrue(cost(large) > cost(small));
+  }
+
+  @Test
+  void optimal_on_random_maps() {
+    final GridMap map = randomMap(0xC0FFEE, 64, 0.3f);
+    final MapGraph graph = new MapGraph(map);
+    final GridPathFinder finder = new GridPathFinder(map, graph, 128, false);
+    final Random random = new Random(1);
+    int found = 0;
+    for (int i = 0; i < 100; i++) {
+      final int x0 = random.nextInt(64), y0 = random.nextInt(64);
+      final int x1 = random.nextInt(64), y1 = random.nextInt(64);
+      if (map.flags(x0, y0) != 0 || map.flags(x1, y1) != 0) continue;
+      final GraphPath<Point2> path = search(finder, graph, x0, y0, x1, y1, 0);
+      final float expected = dijkstra(map, x0, y0, x1, y1);
+      if (Float.isInfinite(expected)) {
+        assertNull(path);
+        continue;
+      }
+      assertNotNull(path);
+      assertEquals(expected, cost(path), 1e-3);
+      found++;
+    }
+    assertTrue(found > 0);
+  }
+
+  /** reference shortest path cost, without any clearance requirement */
+  static float dijkstra(GridMap map, int x0, int y0, int x1, int y1) {
+    final int w = map.width, h = map.height;
+    final float[] dist = new float[w * h];
+    final boolean[] done = new boolean[w * h];
+    java.util.Arrays.fill(dist, Float.POSITIVE_INFINITY);
+    dist[y0 * w + x0] = 0;
+    for (;;) {
+      int best = -1;
+      for (int i = 0; i < dist.length; i++) {
+        if (!done[i] && dist[i] != Float.POSITIVE_INFINITY && (best == -1 || dist[i] < dist[best])) best = i;
+      }
+      if (best == -1) return Float.POSITIVE_INFINITY;
+      if (best == y1 * w + x1) return dist[best];
+      done[best] = true;
+      final int bx = best % w, by = best / w;
+      for (int d = 0; d < 8; d++) {
+        final int nx = bx + GridPathFinder.DX[d], ny = by + GridPathFinder.DY[d];
+        if (map.flags(nx, ny) != 0) continue;
+        final int n = ny * w + nx;
+        final float alt = dist[best] + (d < 4 ? 1 : GridPathFinder.DIAGONAL_COST);
+        if (alt < dist[n]) dist[n] = alt;
+      }
+    }
+  }
+
+  @Test
+  @Disabled
+  void benchmark() {
+    final GridMap map = randomMap(0xBEEF, 512, 0.25f);
+    final MapGraph graph = new MapGraph(map);
+    final PathFinder[] finders = {
+        new AStarPathFinder(graph, false),
+        new GridPathFinder(map, graph),
+    };
+
+    final int numSearches = 20000;
+    final int[] queries = new int[numSearches * 4];
+    final Random random = new Random(2);
+    for (int i = 0; i < queries.length; ) {
+      final int x0 = 32 + random.nextInt(448), y0 = 32 + random.nextInt(448);
+      final int x1 = x0 + random.nextInt(64) - 32, y1 = y0 + random.nextInt(64) - 32;
+      if (map.flags(x0, y0) != 0 || map.flags(x1, y1) != 0) continue;
+      queries[i++] = x0; queries[i++] = y0; queries[i++] = x1; queries[i++] = y1;
+    }
+
+    final GraphPath<Point2> path = new DefaultGraphPath<>();
+    for (int round = 0; round < 3; round++) {
+      for (PathFinder finder : finders) {
+        int found = 0;
+        final long start = System.nanoTime();
+        for (int i = 0; i < queries.length; i += 4) {
+          path.clear();
+          if (finder.search(
+              graph.getOrCreate(queries[i], queries[i + 1]),
+              graph.getOrCreate(queries[i + 2], queries[i + 3]),
+              BLOCK, 0, path)) {
+            found++;
+          }
+        }
+        final long elapsed = System.nanoTime() - start;
+        System.out.printf("%-16s %6.2fus/search, %d/%d found%n",
+            finder.getClass().getSimpleName(), elapsed / 1000.0 / numSearches, found, numSearches);
+      }
+    }
+  }
+}
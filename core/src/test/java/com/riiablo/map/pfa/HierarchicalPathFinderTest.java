@@ -0,0 +1,170 @@
+package com.riiablo.map.pfa;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+
+import com.riiablo.map.MapGraph;
+
+import static com.riiablo.map.pfa.GridPathFinderTest.BLOCK;
+import static com.riiablo.map.pfa.GridPathFinderTest.GridMap;
+import static com.riiablo.map.pfa.GridPathFinderTest.cost;
+import static com.riiablo.map.pfa.GridPathFinderTest.randomMap;
+import static com.riiablo.map.pfa.GridPathFinderTest.search;
+
+class HierarchicalPathFinderTest {
+  static HierarchicalPathFinder newFinder(GridMap map, MapGraph graph) {
+    return new HierarchicalPathFinder(map, graph, new GridPathFinder(map, graph), true);
+  }
+
+  static void assertWalkable(GridMap map, GraphPath<Point2> path) {
+    for (Point2 p : path) assertEquals(0, map.flags(p.x, p.y), p.toString());
+  }
+
+  static boolean contains(GraphPath<Point2> path, int x, int y) {
+    for (Point2 p : path) if (p.x == x && p.y == y) return true;
+    return false;
+  }
+
+  @Test
+  void near_optimal_on_random_maps() {
+    final GridMap map = randomMap(0xC0FFEE, 480, 0.25f);
+    final MapGraph graph = new MapGraph(map);
+    final HierarchicalPathFinder finder = newFinder(map, graph);
+    final GridPathFinder reference = new GridPathFinder(map, graph, 512, false);
+    final Random random = new Random(1);
+    int found = 0;
+    for (int i = 0; i < 50; i++) {
+      final int x0 = random.nextInt(480), y0 = random.nextInt(480);
+      final int x1 = random.nextInt(480), y1 = random.nextInt(480);
+      if (map.flags(x0, y0) != 0 || map.flags(x1, y1) != 0) continue;
+      final GraphPath<Point2> expected = search(reference, graph, x0, y0, x1, y1, 0);
+      final GraphPath<Point2> path = search(finder, graph, x0, y0, x1, y1, 0);
+      if (expected == null) {
+        assertNull(path);
+        continue;
+      }
+
+      assertNotNull(path, x0 + "," + y0 + " -> " + x1 + "," + y1);
+      assertEquals(graph.getOrCreate(x0, y0), path.get(0));
+      assertEquals(graph.getOrCreate(x1, y1), path.get(path.getCount() - 1));
+      assertWalkable(map, path);
+      assertTrue(cost(path) <= cost(expected) * 1.25f, cost(path) + " > " + cost(expected));
+      assertTrue(finder.metrics.visitedNodes < 1000, "visited " + finder.metrics.visitedNodes);
+      found++;
+    }
+    assertTrue(found > 0);
+  }
+
+  @Test
+  void unreachable() {
+    final GridMap map = new GridMap(256, 64).block(120, 0, 121, 64);
+    final MapGraph graph = new MapGraph(map);
+    assertNull(search(newFinder(map, graph), graph, 5, 5, 250, 5, 0));
+  }
+
+  @Test
+  void respects_clearance() {
+    // wall with a 1-wide gap at y=10 and a 3-wide gap at y=50
+    final GridMap map = new GridMap(256, 64)
+        .block(120, 0, 121, 10)
+        .block(120, 11, 121, 50)
+        .block(120, 53, 121, 64);
+    final MapGraph graph = new MapGraph(map);
+    final HierarchicalPathFinder finder = newFinder(map, graph);
+    final GraphPath<Point2> small = search(finder, graph, 5, 10, 250, 10, 1);
+    assertNotNull(small);
+    final GraphPath<Point2> large = search(finder, graph, 5, 10, 250, 10, 2);
+    assertNotNull(large);
+    for (Point2 p : large) assertTrue(p.x != 120 || p.y >= 50, p.toString());
+    assertTrue(cost(large) > cost(small));
+  }
+
+  @Test
+  void invalidate() {
+    // wall with gaps at y=10 and y=50
+    final GridMap map = new GridMap(256, 64)
+        .block(120, 0, 121, 10)
+        .block(120, 11, 121, 50)
+        .block(120, 51, 121, 64);
+    final MapGraph graph = new MapGraph(map);
+    final HierarchicalPathFinder finder = newFinder(map, graph);
+    final GraphPath<Point2> before = search(finder, graph, 5, 10, 250, 10, 0);
+    assertNotNull(before);
+    assertTrue(contains(before, 120, 10));
+
+    map.block(120, 10, 121, 11);
+    finder.invalidate(120, 10, 1, 1);
+    final GraphPath<Point2> after = search(finder, graph, 5, 10, 250, 10, 0);
+    assertNotNull(after);
+    assertWalkable(map, after);
+    assertTrue(contains(after, 120, 50));
+
+    map.block(120, 50, 121, 51);
+    finder.invalidate(120, 50, 1, 1);
+    assertNull(search(finder, graph, 5, 10, 250, 10, 0));
+  }
+
+  /** rooms separated by walls with a few doorways each, plus light clutter */
+  static GridMap roomMap(long seed, int size, int roomSize) {
+    final GridMap map = randomMap(seed, size, 0.05f);
+    final Random random = new Random(seed);
+    for (int i = roomSize; i < size; i += roomSize) {
+      map.block(i, 0, i + 2, size).block(0, i, size, i + 2);
+    }
+
+    for (int i = roomSize; i < size; i += roomSize) {
+      for (int j = 0; j < size; j += roomSize) {
+        for (int k = 0; k < 2; k++) {
+          final int door = j + 2 + random.nextInt(roomSize - 16), width = 4 + random.nextInt(8);
+          for (int d = door; d < door + width; d++) {
+            map.flags[d * size + i] = map.flags[d * size + i + 1] = 0;
+            map.flags[i * size + d] = map.flags[(i + 1) * size + d] = 0;
+          }
+        }
+      }
+    }
+    return map;
+  }
+
+  @Test
+  @Disabled
+  void benchmark() {
+    final GridMap map = roomMap(0xBEEF, 2048, 64);
+    final MapGraph graph = new MapGraph(map);
+    final HierarchicalPathFinder finder = newFinder(map, graph);
+    final int numSearches = 1000;
+    final int[] queries = new int[numSearches * 4];
+    final Random random = new Random(2);
+    for (int i = 0; i < queries.length; ) {
+      final int x0 = random.nextInt(2048), y0 = random.nextInt(2048);
+      final int x1 = random.nextInt(2048), y1 = random.nextInt(2048);
+      if (map.flags(x0, y0) != 0 || map.flags(x1, y1) != 0) continue;
+      queries[i++] = x0; queries[i++] = y0; queries[i++] = x1; queries[i++] = y1;
+    }
+
+    final GraphPath<Point2> path = new DefaultGraphPath<>();
+    for (int round = 0; round < 3; round++) {
+      int found = 0;
+      long visited = 0;
+      final long start = System.nanoTime();
+      for (int i = 0; i < queries.length; i += 4) {
+        path.clear();
+        if (finder.search(
+            graph.getOrCreate(queries[i], queries[i + 1]),
+            graph.getOrCreate(queries[i + 2], queries[i + 3]),
+            BLOCK, 0, path)) {
+          found++;
+        }
+        visited += finder.metrics.visitedNodes;
+      }
+      final long elapsed = System.nanoTime() - start;
+      System.out.printf("%8.2fus/search, %d/%d found, %.1f abstract nodes visited/search%n",
+          elapsed / 1000.0 / numSearches, found, numSearches, (double) visited / numSearches);
+    }
+  }
+}
@@ -8,6 +8,8 @@ import static org.junit.jupiter.api.Assertions.*;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
 import org.apache.commons.lang3.StringUtils;
 
 import com.badlogic.gdx.Gdx;
@@ -16,6 +18,7 @@ import com.badlogic.gdx.files.FileHandle;
 import com.riiablo.RiiabloTest;
 
 import static com.riiablo.mpq_bytebuf.Decrypter.BLOCK_TABLE_KEY;
+import static com.riiablo.mpq_bytebuf.Decrypter.ENCRYPTION;
 import static com.riiablo.mpq_bytebuf.Decrypter.HASH_ENCRYPTION_KEY;
 import static com.riiablo.mpq_bytebuf.Decrypter.HASH_TABLE_KEY;
 import static com.riiablo.mpq_bytebuf.Decrypter.NUM_TABLES;
@@ -159,4 +162,79 @@ class DecrypterTest extends RiiabloTest {
     ByteBuf expected = Unpooled.wrappedBuffer(handle_out.readBytes());
     assertTrue(ByteBufUtil.equals(expected, actual));
   }
+
+  static byte[] randomBytes(int length, long seed) {
+    final byte[] bytes = new byte[length];
+    new Random(seed).nextBytes(bytes);
+    return bytes;
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 1, 3, 4, 7, 8, 12, 0x1000, 0x1003})
+  void decrypt_words_equals_blocks(int length) {
+    final int key = ENCRYPTION.hash("decrypt_words_equals_blocks");
+    final byte[] expected = randomBytes(length + 5, length);
+    final byte[] actual = expected.clone();
+    final long expectedState = Decrypter.decryptBlocks(key, SEED2, expected, expected, 5, length);
+    final long actualState = Decrypter.decryptWords(key, SEED2, actual, actual, 5, length);
+    assertArrayEquals(expected, actual);
+    assertEquals(expectedState, actualState);
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 4, 7, 0x1000, 0x1003})
+  void decrypt_buffers_equals_blocks(int length) {
+    final int key = ENCRYPTION.hash("decrypt_buffers_equals_blocks");
+    final byte[] bytes = randomBytes(length + 5, length);
+    final ByteBuf expected = Unpooled.wrappedBuffer(bytes.clone());
+    Decrypter.decryptBlocks(key, SEED2, expected.array(), expected.array(), 5, length);
+
+    final ByteBuf heap = Unpooled.wrappedBuffer(bytes.clone()).readerIndex(5);
+    final ByteBuf direct = Unpooled.directBuffer(bytes.length).writeBytes(bytes).readerIndex(5);
+    final ByteBuf composite = Unpooled.wrappedBuffer(
+        Unpooled.wrappedBuffer(bytes, 0, bytes.length / 2).copy(),
+        Unpooled.wrappedBuffer(bytes, bytes.length / 2, bytes.length - bytes.length / 2).copy())
+        .readerIndex(5);
+    try {
+      for (ByteBuf actual : new ByteBuf[] {heap, direct, composite}) {
+        Decrypter.decrypt(key, SEED2, actual);
+        assertTrue(ByteBufUtil.equals(expected, 0, actual, 0, bytes.length), actual.toString());
+      }
+    } finally {
+      direct.release();
+    }
+  }
+
+  /**
+   * Compares throughput of {@link Decrypter#decryptBlocks} against
+   * {@link Decrypter#decryptWords} using sector sized buffers.
+   */
+  @Test
+  @Disabled
+  void benchmark_decrypt() {
+    final int sectorSize = 0x1000;
+    final int sectors = 0x1000;
+    final byte[] bytes = randomBytes(sectorSize * sectors, 0);
+    final int key = ENCRYPTION.hash("benchmark_decrypt");
+    for (int i = 0; i < 5; i++) {
+      long start = System.nanoTime();
+      for (int sector = 0; sector < sectors; sector++) {
+        Decrypter.decryptBlocks(key + sector, SEED2, bytes, bytes, sector * sectorSize, sectorSize);
+      }
+      final long blocks = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (int sector = 0; sector < sectors; sector++) {
+        Decrypter.decryptWords(key + sector, SEED2, bytes, bytes, sector * sectorSize, sectorSize);
+      }
+      final long words = System.nanoTime() - start;
+
+      System.out.printf("blocks: %.1f MB/s words: %.1f MB/s%n",
+          mbps(bytes.length, blocks), mbps(bytes.length, words));
+    }
+  }
+
+  static double mbps(long bytes, long nanos) {
+    return bytes / (1024.0 * 1024.0) / ((double) nanos / TimeUnit.SECONDS.toNanos(1));
+  }
 }
@@ -0,0 +1,85 @@
+package com.riiablo.mpq_bytebuf;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import java.io.File;
+
+import com.badlogic.gdx.files.FileHandle;
+
+class MpqFileCacheTest {
+  @TempDir
+  File dir;
+
+  static ByteBuf bytes(int size, int seed) {
+    ByteBuf buffer = Unpooled.buffer(size, size);
+    for (int i = 0; i < size; i++) buffer.writeByte(seed + i);
+    return buffer;
+  }
+
+  @Test
+  void miss() {
+    MpqFileCache cache = new MpqFileCache(new FileHandle(dir), 0x1000);
+    assertNull(cache.get("d2data-0-0-1", 0x10));
+    assertEquals(0, cache.hits());
+    assertEquals(1, cache.misses());
+  }
+
+  @Test
+  void hit() {
+    MpqFileCache cache = new MpqFileCache(new FileHandle(dir), 0x1000);
+    ByteBuf expected = bytes(0x100, 1);
+    cache.put("d2data-0-0-1", expected, 0x100);
+    ByteBuf actual = cache.get("d2data-0-0-1", 0x100);
+    assertNotNull(actual);
+    assertTrue(ByteBufUtil.equals(expected, actual));
+    assertEquals(1, cache.hits());
+    assertEquals(0x100, cache.residentBytes());
+  }
+
+  @Test
+  void size_mismatch_is_miss() {
+    MpqFileCache cache = new MpqFileCache(new FileHandle(dir), 0x1000);
+    cache.put("d2data-0-0-1", bytes(0x100, 1), 0x100);
+    assertNull(cache.get("d2data-0-0-1", 0x80));
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.residentBytes());
+  }
+
+  @Test
+  void evicts_least_recently_used() {
+    MpqFileCache cache = new MpqFileCache(new FileHandle(dir), 0x300);
+    cache.put("d2data-0-0-1", bytes(0x100, 1), 0x100);
+    cache.put("d2data-0-0-2", bytes(0x100, 2), 0x100);
+    cache.put("d2data-0-0-3", bytes(0x100, 3), 0x100);
+    assertNotNull(cache.get("d2data-0-0-1", 0x100));
+    cache.put("d2data-0-0-4", bytes(0x100, 4), 0x100);
+    assertEquals(3, cache.size());
+    assertEquals(1, cache.evictions());
+    assertNull(cache.get("d2data-0-0-2", 0x100));
+    assertNotNull(cache.get("d2data-0-0-1", 0x100));
+    assertNotNull(cache.get("d2data-0-0-4", 0x100));
+  }
+
+  @Test
+  void persists_across_instances() {
+    ByteBuf expected = bytes(0x100, 1);
+    new MpqFileCache(new FileHandle(dir), 0x1000).put("d2data-0-0-1", expected, 0x100);
+    MpqFileCache cache = new MpqFileCache(new FileHandle(dir), 0x1000);
+    assertEquals(1, cache.size());
+    ByteBuf actual = cache.get("d2data-0-0-1", 0x100);
+    assertNotNull(actual);
+    assertTrue(ByteBufUtil.equals(expected, actual));
+  }
+
+  @Test
+  void oversized_files_not_cached() {
+    MpqFileCache cache = new MpqFileCache(new FileHandle(dir), 0x80);
+    cache.put("d2data-0-0-1", bytes(0x100, 1), 0x100);
+    assertEquals(0, cache.size());
+  }
+}
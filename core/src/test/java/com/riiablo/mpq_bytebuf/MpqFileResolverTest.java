@@ -1,8 +1,20 @@
 package com.riiablo.mpq_bytebuf;
 
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.*;
+import org.junit.jupiter.params.provider.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import com.riiablo.RiiabloTest;
+import com.riiablo.asset.AssetDesc;
+import com.riiablo.asset.param.MpqParams;
 import com.riiablo.logger.Level;
 import com.riiablo.logger.LogManager;
 
@@ -12,4 +24,74 @@ class MpqFileResolverTest extends RiiabloTest {
     LogManager.setLevel("com.riiablo.mpq_bytebuf", Level.WARN);
     LogManager.setLevel("com.riiablo.mpq_bytebuf.MpqFileResolver", Level.TRACE);
   }
+
+  static final String[] FILENAMES = {
+      "data\\global\\missiles\\DopplezonExplode.dcc",
+      "data\\global\\chars\\ba\\hd\\bahdbhma11hs.dcc",
+      "data\\global\\chars\\ba\\lg\\balglittnhth.dcc",
+      "data\\global\\chars\\ba\\hd\\bahdlittnhth.dcc",
+      "data\\global\\chars\\ba\\s2\\bas2littnhth.dcc",
+      "data\\global\\chars\\so\\s2\\sos2medtnhth.dcc",
+      "data\\global\\chars\\ba\\tr\\batrlittnhth.dcc",
+  };
+
+  /**
+   * Resolves the same files from many threads, asserting that every thread
+   * receives the same interned handle and reporting resolution throughput,
+   * which should scale with the number of threads.
+   */
+  @ParameterizedTest
+  @ValueSource(ints = { 1, 2, 4, 8 })
+  void concurrent_resolve(final int nThreads) throws Exception {
+    LogManager.setLevel("com.riiablo.mpq_bytebuf.MpqFileResolver", Level.WARN);
+    final int iterations = 100_000;
+    final MpqParams<Object> params = MpqParams.of();
+    final MpqFileResolver resolver = new MpqFileResolver(testHome);
+    final ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+    try {
+      final int numFiles = FILENAMES.length;
+      final AssetDesc[] assets = new AssetDesc[numFiles];
+      final MpqFileHandle[] expected = new MpqFileHandle[numFiles];
+      for (int i = 0; i < numFiles; i++) {
+        assets[i] = AssetDesc.of(FILENAMES[i], Object.class, params);
+        expected[i] = resolver.resolve(assets[i], params);
+        assertNotNull(expected[i], FILENAMES[i]);
+      }
+
+      final CountDownLatch start = new CountDownLatch(1);
+      @SuppressWarnings("unchecked")
+      final Future<Void>[] futures = new Future[nThreads];
+      for (int t = 0; t < nThreads; t++) {
+        futures[t] = executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() throws Exception {
+            start.await();
+            for (int i = 0; i < iterations; i++) {
+              final int f = i % numFiles;
+              final MpqFileHandle handle = resolver.resolve(assets[f], params);
+              assertSame(expected[f], handle);
+              handle.release();
+            }
+            return null;
+          }
+        });
+      }
+
+      final long startTime = System.nanoTime();
+      start.countDown();
+      for (Future<Void> future : futures) future.get();
+      final long elapsed = System.nanoTime() - startTime;
+      System.out.printf("%d threads: %,.0f resolves/s%n",
+          nThreads, (double) nThreads * iterations / elapsed * TimeUnit.SECONDS.toNanos(1));
+
+      for (MpqFileHandle handle : expected) {
+        assertEquals(1, handle.refCnt());
+        handle.release();
+      }
+    } finally {
+      executor.shutdownNow();
+      resolver.dispose();
+      LogManager.setLevel("com.riiablo.mpq_bytebuf.MpqFileResolver", Level.TRACE);
+    }
+  }
 }
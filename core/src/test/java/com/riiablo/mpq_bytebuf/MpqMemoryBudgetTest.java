@@ -0,0 +1,178 @@
+package com.riiablo.mpq_bytebuf;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.riiablo.mpq_bytebuf.Mpq.Block.FLAG_EXISTS;
+
+class MpqMemoryBudgetTest {
+  static final int FILE_SIZE = 0x100;
+
+  static DecoderExecutorGroup decoder;
+
+  @BeforeAll
+  static void before() {
+    decoder = new DecoderExecutorGroup(1);
+  }
+
+  @AfterAll
+  static void after() {
+    decoder.shutdownGracefully();
+  }
+
+  /** creates an mpq containing 4 uncompressed files */
+  static Mpq newMpq(MpqMemoryBudget budget) {
+    ByteBuf map = Unpooled.buffer(FILE_SIZE * 4);
+    for (int i = 0; i < map.capacity(); i++) map.writeByte(i / FILE_SIZE);
+    Mpq mpq = new Mpq(null, map, 0, map.capacity(), 0, 3, 0x1000, 0, 0, 0, 0);
+    mpq.budget = budget;
+    return mpq;
+  }
+
+  /** creates an mpq containing 4 uncompressed files within a direct buffer */
+  static Mpq newDirectMpq(MpqMemoryBudget budget) {
+    ByteBuf map = Unpooled.directBuffer(FILE_SIZE * 4);
+    for (int i = 0; i < map.capacity(); i++) map.writeByte(i / FILE_SIZE);
+    Mpq mpq = new Mpq(null, map.asReadOnly(), 0, map.capacity(), 0, 3, 0x1000, 0, 0, 0, 0);
+    mpq.budget = budget;
+    return mpq;
+  }
+
+  static MpqFileHandle newHandle(Mpq mpq, int index) {
+    return new MpqFileHandle(decoder, mpq, index, "file" + index, index * FILE_SIZE, FILE_SIZE, FILE_SIZE, FLAG_EXISTS);
+  }
+
+  @Test
+  void charges_resident_bytes() {
+    MpqMemoryBudget budget = new MpqMemoryBudget(FILE_SIZE * 4);
+    Mpq mpq = newMpq(budget);
+    MpqFileHandle handle = newHandle(mpq, 0);
+    handle.buffer();
+    assertEquals(FILE_SIZE, budget.residentBytes());
+    assertEquals(FILE_SIZE, mpq.residentBytes());
+    handle.releaseBuffer();
+    assertEquals(0, budget.residentBytes());
+    assertEquals(0, mpq.residentBytes());
+  }
+
+  @Test
+  void evicts_least_recently_used() {
+    MpqMemoryBudget budget = new MpqMemoryBudget(FILE_SIZE * 2);
+    Mpq mpq = newMpq(budget);
+    MpqFileHandle handle0 = newHandle(mpq, 0);
+    MpqFileHandle handle1 = newHandle(mpq, 1);
+    MpqFileHandle handle2 = newHandle(mpq, 2);
+    handle0.buffer();
+    handle1.buffer();
+    handle0.buffer(); // touch
+    handle2.buffer();
+    assertEquals(1, budget.evictions());
+    assertEquals(FILE_SIZE * 2, budget.residentBytes());
+    assertNotNull(handle0.buffer);
+    assertNull(handle1.buffer);
+    assertNotNull(handle2.buffer);
+  }
+
+  @Test
+  void evicted_buffer_decoded_again() {
+    MpqMemoryBudget budget = new MpqMemoryBudget(FILE_SIZE);
+    Mpq mpq = newMpq(budget);
+    MpqFileHandle handle0 = newHandle(mpq, 0);
+    MpqFileHandle handle1 = newHandle(mpq, 1);
+    ByteBuf evicted = handle0.buffer();
+    handle1.buffer();
+    assertNull(handle0.buffer);
+    assertEquals(0, evicted.refCnt()); // evicted buffers are released
+    ByteBuf buffer = handle0.buffer();
+    assertEquals(FILE_SIZE, buffer.readableBytes());
+    for (int i = 0; i < FILE_SIZE; i++) assertEquals(0, buffer.getByte(i));
+    assertNull(handle1.buffer);
+  }
+
+  @Test
+  void retained_buffer_not_evicted() {
+    MpqMemoryBudget budget = new MpqMemoryBudget(FILE_SIZE);
+    Mpq mpq = newMpq(budget);
+    MpqFileHandle handle0 = newHandle(mpq, 0);
+    MpqFileHandle handle1 = newHandle(mpq, 1);
+    MpqFileHandle handle2 = newHandle(mpq, 2);
+    ByteBuf retained = handle0.retainedBufferAsync(ImmediateEventExecutor.INSTANCE, 0, FILE_SIZE).syncUninterruptibly().getNow();
+    handle1.buffer();
+    assertNotNull(handle0.buffer);
+    assertEquals(0, budget.evictions());
+    assertEquals(FILE_SIZE * 2, budget.residentBytes());
+    for (int i = 0; i < FILE_SIZE; i++) assertEquals(0, retained.getByte(i));
+
+    retained.release();
+    handle2.buffer();
+    assertNull(handle0.buffer);
+    assertNull(handle1.buffer);
+    assertEquals(2, budget.evictions());
+    assertEquals(FILE_SIZE, budget.residentBytes());
+  }
+
+  @Test
+  void concurrent_reads_after_eviction_charged_once() throws Exception {
+    final int numReaders = 4;
+    MpqMemoryBudget budget = new MpqMemoryBudget(FILE_SIZE);
+    Mpq mpq = newMpq(budget);
+    MpqFileHandle handle0 = newHandle(mpq, 0);
+    MpqFileHandle handle1 = newHandle(mpq, 1);
+    ExecutorService readers = Executors.newFixedThreadPool(numReaders);
+    try {
+      handle0.buffer();
+      for (int i = 0; i < 256; i++) {
+        handle1.buffer(); // evicts handle0
+        assertNull(handle0.buffer);
+        final CountDownLatch start = new CountDownLatch(1);
+        @SuppressWarnings("unchecked")
+        Future<ByteBuf>[] reads = new Future[numReaders];
+        for (int r = 0; r < numReaders; r++) {
+          reads[r] = readers.submit(() -> {
+            start.await();
+            return handle0.buffer();
+          });
+        }
+
+        start.countDown();
+        for (Future<ByteBuf> read : reads) {
+          ByteBuf buffer = read.get();
+          for (int j = 0; j < FILE_SIZE; j++) assertEquals(0, buffer.getByte(j));
+        }
+
+        assertEquals(1, handle0.buffer.refCnt());
+        assertEquals(FILE_SIZE, budget.residentBytes());
+        assertEquals(FILE_SIZE, mpq.residentBytes());
+      }
+    } finally {
+      readers.shutdownNow();
+    }
+  }
+
+  @Test
+  void uncompressed_mapped_not_charged() {
+    MpqMemoryBudget budget = new MpqMemoryBudget(FILE_SIZE);
+    Mpq mpq = newDirectMpq(budget);
+    Assumptions.assumeTrue(mpq.map().hasMemoryAddress(), "requires unsafe");
+    MpqFileHandle handle0 = newHandle(mpq, 0);
+    MpqFileHandle handle1 = newHandle(mpq, 1);
+    ByteBuf buffer0 = handle0.buffer();
+    ByteBuf buffer1 = handle1.buffer();
+    assertTrue(buffer1.isReadOnly());
+    assertEquals(mpq.map().memoryAddress() + FILE_SIZE, buffer1.memoryAddress());
+    for (int i = 0; i < FILE_SIZE; i++) assertEquals(1, buffer1.getByte(i));
+    assertEquals(0, buffer0.getByte(0));
+    assertEquals(0, budget.residentBytes());
+    assertEquals(0, mpq.residentBytes());
+    assertEquals(FILE_SIZE * 2, mpq.mappedBytes());
+    assertEquals(0, budget.evictions());
+  }
+}
@@ -0,0 +1,43 @@
+package com.riiablo.mpq_bytebuf;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.*;
+import org.junit.jupiter.params.provider.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.riiablo.mpq_bytebuf.Mpq.HashTable;
+
+class MpqPathTest {
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "DATA\\GLOBAL\\CHARS\\BA\\LG\\BALGLITTNHTH.DCC",
+      "data\\global\\chars\\ba\\lg\\balglittnhth.dcc",
+      "data/global/chars\\ba\\lg\\BALGlittnhth.dcc",
+  })
+  void hashes_case_folded(String filename) {
+    final String expected = "DATA\\GLOBAL\\CHARS\\BA\\LG\\BALGLITTNHTH.DCC";
+    MpqPath path = MpqPath.of(filename);
+    assertEquals(expected, path.toString());
+    assertEquals(HashTable.key(expected), path.key());
+    assertEquals(HashTable.hash(expected), path.hash());
+  }
+
+  @Test
+  void interned() {
+    MpqPath a = MpqPath.of("data\\global\\excel\\monstats.txt");
+    MpqPath b = MpqPath.of("DATA\\GLOBAL\\EXCEL\\MONSTATS.TXT");
+    MpqPath c = MpqPath.of("data/global/excel/MonStats.txt");
+    assertSame(a, b);
+    assertSame(a, c);
+    assertSame(a, MpqPath.of(new StringBuilder("data\\global\\excel\\monstats.txt")));
+  }
+
+  @Test
+  void pack() {
+    int packed = MpqFileResolver.pack(10, 0x7FFF);
+    assertEquals(10, MpqFileResolver.mpq(packed));
+    assertEquals(0x7FFF, MpqFileResolver.index(packed));
+    assertNotEquals(MpqFileResolver.NOT_FOUND, packed);
+    assertNotEquals(MpqFileResolver.NOT_PRERESOLVED, packed);
+  }
+}
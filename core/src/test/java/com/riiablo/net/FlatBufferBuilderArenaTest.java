@@ -0,0 +1,58 @@
+package com.riiablo.net;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.google.flatbuffers.ByteBufferUtil;
+import com.google.flatbuffers.FlatBufferBuilder;
+import java.nio.ByteBuffer;
+
+import com.riiablo.net.packet.d2gs.D2GS;
+import com.riiablo.net.packet.d2gs.D2GSData;
+import com.riiablo.net.packet.d2gs.Ping;
+
+class FlatBufferBuilderArenaTest {
+  static ByteBuffer ping(FlatBufferBuilder builder, int tickCount) {
+    int dataOffset = Ping.createPing(builder, tickCount, 0, 0, false);
+    int root = D2GS.createD2GS(builder, D2GSData.Ping, dataOffset);
+    D2GS.finishSizePrefixedD2GSBuffer(builder, root);
+    return builder.dataBuffer();
+  }
+
+  static int tickCount(ByteBuffer buffer) {
+    D2GS packet = D2GS.getRootAsD2GS(ByteBufferUtil.removeSizePrefix(buffer));
+    return ((Ping) packet.data(new Ping())).tickCount();
+  }
+
+  @Test
+  void builders_are_reused_after_reset() {
+    FlatBufferBuilderArena arena = new FlatBufferBuilderArena(16);
+    FlatBufferBuilder a = arena.obtain();
+    FlatBufferBuilder b = arena.obtain();
+    assertNotSame(a, b);
+    assertEquals(2, arena.size());
+    ByteBuffer first = ping(a, 1);
+    ByteBuffer second = ping(b, 2);
+    assertEquals(1, tickCount(first));
+    assertEquals(2, tickCount(second));
+
+    arena.reset();
+    assertEquals(0, arena.size());
+    assertSame(a, arena.obtain());
+    assertEquals(3, tickCount(ping(a, 3)));
+    assertEquals(2, arena.capacity());
+    assertEquals(2, arena.peak());
+  }
+
+  @Test
+  void grows_past_capacity() {
+    FlatBufferBuilderArena arena = new FlatBufferBuilderArena();
+    for (int tick = 0; tick < 3; tick++) {
+      for (int i = 0; i <= tick; i++) assertEquals(i, tickCount(ping(arena.obtain(), i)));
+      arena.reset();
+    }
+
+    assertEquals(3, arena.capacity());
+    assertEquals(3, arena.peak());
+  }
+}
@@ -0,0 +1,98 @@
+package com.riiablo.table;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+class BinParserTest {
+  static final String TSV = ""
+      + "Name\tId\tlevel\tmax\tratio\tflag\r\n"
+      + "Fallen\t0\t1\t4294967296\t1.5\t1\r\n"
+      + "zombie\t1\t-3\t7\t0.25\t0\r\n"
+      + "EXPANSION\t\t\t\t\t\r\n"
+      + "quill rat\t2\t\t\t2\t\r\n";
+
+  static TsvParser tsv() {
+    return TsvParser.parse(TSV.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  static byte[] snapshot(TsvParser parser) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinParser.write(parser, out);
+    return out.toByteArray();
+  }
+
+  static void assertSameInput(TsvParser expected, BinParser actual) {
+    assertEquals(expected.numRecords(), actual.numRecords());
+    assertEquals(expected.numFields(), actual.numFields());
+    for (int f = 0; f < expected.numFields(); f++) {
+      assertEquals(expected.fieldName(f), actual.fieldName(f));
+      assertEquals(expected.fieldId(expected.fieldName(f)), actual.fieldId(actual.fieldName(f)));
+      for (int r = 0; r < expected.numRecords(); r++) {
+        final String cell = r + ":" + f;
+        assertEquals(expected.parseString(r, f), actual.parseString(r, f), cell);
+        assertEquals(expected.parseInt(r, f), actual.parseInt(r, f), cell);
+        assertEquals(expected.parseLong(r, f), actual.parseLong(r, f), cell);
+        assertEquals(expected.parseShort(r, f), actual.parseShort(r, f), cell);
+        assertEquals(expected.parseByte(r, f), actual.parseByte(r, f), cell);
+      }
+    }
+
+    for (int r = 0; r < expected.numRecords(); r++) {
+      assertEquals(expected.recordName(r), actual.recordName(r));
+    }
+  }
+
+  @Test
+  void matches_tsv() throws IOException {
+    TsvParser expected = tsv();
+    BinParser actual = BinParser.wrap(ByteBuffer.wrap(snapshot(tsv())));
+    assertSameInput(expected, actual);
+    assertEquals(3, actual.numRecords());
+    assertEquals(4294967296L, actual.parseLong(0, actual.fieldId("max")));
+    assertEquals(1.5f, actual.parseFloat(0, actual.fieldId("ratio")));
+    assertTrue(actual.parseBoolean(0, actual.fieldId("flag")));
+    assertFalse(actual.parseBoolean(2, actual.fieldId("flag")));
+    assertEquals(0, actual.parseInt(0, -1));
+    assertNull(actual.parseString(0, -1));
+  }
+
+  @Test
+  void primary_key_upper_cases_record_names() throws IOException {
+    TsvParser expected = tsv();
+    BinParser actual = BinParser.wrap(ByteBuffer.wrap(snapshot(tsv())));
+    expected.primaryKey("name");
+    actual.primaryKey("name");
+    assertSameInput(expected, actual);
+    assertEquals("ZOMBIE", actual.recordName(1));
+    assertEquals(2, actual.recordId("Quill Rat"));
+    assertEquals(expected.recordId("fallen"), actual.recordId("fallen"));
+    assertEquals(-1, actual.recordId("andariel"));
+  }
+
+  @Test
+  void mapped(@TempDir File dir) throws IOException {
+    File file = new File(dir, "monstats.bin");
+    try (OutputStream out = new FileOutputStream(file)) {
+      BinParser.write(tsv(), out);
+    }
+
+    assertSameInput(tsv(), BinParser.map(file));
+  }
+
+  @Test
+  void rejects_invalid_snapshots() throws IOException {
+    byte[] bytes = snapshot(tsv());
+    assertThrows(IllegalArgumentException.class, () -> BinParser.wrap(ByteBuffer.wrap(bytes, 0, bytes.length - 1).slice()));
+    bytes[0] = 0;
+    assertThrows(IllegalArgumentException.class, () -> BinParser.wrap(ByteBuffer.wrap(bytes)));
+  }
+}
@@ -1,6 +1,7 @@
 package com.riiablo.server.d2gs;
 
 import com.google.flatbuffers.FlatBufferBuilder;
+import java.io.File;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
@@ -15,6 +16,7 @@ import java.util.Calendar;
 import java.util.Collection;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -57,12 +59,14 @@ import com.riiablo.engine.EntityFactory;
 import com.riiablo.engine.server.AIStepper;
 import com.riiablo.engine.server.Actioneer;
 import com.riiablo.engine.server.AnimDataResolver;
+import com.riiablo.engine.server.AttributesDisposer;
 import com.riiablo.engine.server.CofManager;
 import com.riiablo.engine.server.ItemInteractor;
 import com.riiablo.engine.server.ItemManager;
 import com.riiablo.engine.server.ObjectInitializer;
 import com.riiablo.engine.server.ObjectInteractor;
 import com.riiablo.engine.server.Pathfinder;
+import com.riiablo.engine.server.ProximityManager;
 import com.riiablo.engine.server.SerializationManager;
 import com.riiablo.engine.server.ServerEntityFactory;
 import com.riiablo.engine.server.ServerItemManager;
@@ -79,6 +83,7 @@ import com.riiablo.map.DT1;
 import com.riiablo.map.DT1Loader;
 import com.riiablo.map.Map;
 import com.riiablo.map.MapManager;
+import com.riiablo.map.MapSnapshotCache;
 import com.riiablo.mpq.MPQFileHandleResolver;
 import com.riiablo.net.packet.d2gs.BeltToCursor;
 import com.riiablo.net.packet.d2gs.BodyToCursor;
@@ -108,12 +113,15 @@ public class D2GS extends ApplicationAdapter {
 
   private static final int PORT = 6114;
   private static final int MAX_CLIENTS = Riiablo.MAX_PLAYERS;
+  private static final int MAX_MAP_SNAPSHOTS = 64;
 
   public static void main(String[] args) {
     Options options = new Options()
         .addOption("home", true, "directory containing D2 MPQ files")
         .addOption("seed", true, "seed used to generate map")
-        .addOption("diff", true, "difficulty (0-2)");
+        .addOption("diff", true, "difficulty (0-2)")
+        .addOption("mapcache", true, "directory to cache generated map snapshots in")
+        .addOption("validatemap", false, "validate cached map snapshots against live generation");
 
     CommandLine cmd = null;
     try {
@@ -159,9 +167,15 @@ public class D2GS extends ApplicationAdapter {
       }
     }
 
+    MapSnapshotCache mapCache = null;
+    if (cmd.hasOption("mapcache")) {
+      mapCache = new MapSnapshotCache(new File(cmd.getOptionValue("mapcache")), MAX_MAP_SNAPSHOTS)
+          .validate(cmd.hasOption("validatemap"));
+    }
+
     HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
     config.updatesPerSecond = (int) Animation.FRAMES_PER_SECOND;
-    new HeadlessApplication(new D2GS(home, seed, diff), config);
+    new HeadlessApplication(new D2GS(home, seed, diff, mapCache), config);
   }
 
   ServerSocket server;
@@ -184,6 +198,7 @@ public class D2GS extends ApplicationAdapter {
   FileHandle home;
   int seed;
   int diff;
+  MapSnapshotCache mapCache;
 
   World world;
   Map map;
@@ -195,10 +210,11 @@ public class D2GS extends ApplicationAdapter {
 
   protected ComponentMapper<Networked> mNetworked;
 
-  D2GS(FileHandle home, int seed, int diff) {
+  D2GS(FileHandle home, int seed, int diff, MapSnapshotCache mapCache) {
     this.home = home;
     this.seed = seed;
     this.diff = diff;
+    this.mapCache = mapCache;
   }
 
   @Override
@@ -246,12 +262,13 @@ public class D2GS extends ApplicationAdapter {
     mapManager = new MapManager();
     Gdx.app.log(TAG, "  generating act 1...");
     long start = TimeUtils.millis();
-    map.generate(0);
-    Gdx.app.log(TAG, "  act 1 generated in " + (TimeUtils.millis() - start) + "ms");
-
-    Gdx.app.log(TAG, "Loading act 1...");
-    map.load();
-    map.finishLoading();
+    if (mapCache != null) {
+      boolean restored = mapCache.load(map, 0, ForkJoinPool.commonPool());
+      Gdx.app.log(TAG, "  act 1 " + (restored ? "restored" : "generated") + " in " + (TimeUtils.millis() - start) + "ms");
+    } else {
+      MapSnapshotCache.generate(map, 0, ForkJoinPool.commonPool());
+      Gdx.app.log(TAG, "  act 1 generated in " + (TimeUtils.millis() - start) + "ms");
+    }
 
     factory = new ServerEntityFactory();
     itemManager = new ServerItemManager();
@@ -271,12 +288,14 @@ public class D2GS extends ApplicationAdapter {
         .with(new Actioneer())
 
         .with(new VendorGenerator())
+        .with(new ProximityManager())
         .with(new AIStepper())
         .with(new Pathfinder())
 
         .with(new VelocityAdder()) // FIXME: temp until proper physics implemented
 
         .with(factory)
+        .with(new AttributesDisposer())
         .with(sync)
         .with(new AnimDataResolver())
         ;
@@ -291,7 +310,6 @@ public class D2GS extends ApplicationAdapter {
     world.inject(map);
     world.inject(Act1MapBuilder.INSTANCE);
 
-    map.generate();
     mapManager.createEntities();
 
     mNetworked = world.getMapper(Networked.class);
@@ -0,0 +1,141 @@
+package com.riiablo.net.tcp;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import java.nio.ByteBuffer;
+
+import com.badlogic.gdx.Gdx;
+
+import com.riiablo.net.IntResolver;
+
+/**
+ * Packs the size prefixed packets sent to each client during a tick into a
+ * single frame, s.t. each client receives a single write and flush per tick
+ * regardless of the number of packets sent to it. Frames are allocated from
+ * the pooled allocator of their channel and are released by netty once
+ * written.
+ *
+ * Not thread-safe.
+ */
+public class FrameAggregator {
+  private static final String TAG = "FrameAggregator";
+
+  private static final boolean DEBUG = !true;
+  private static final boolean DEBUG_FLUSH = DEBUG && true;
+
+  /** initial capacity of frames in bytes */
+  static final int INITIAL_FRAME_SIZE = 4096;
+
+  private final IntResolver<Channel> channels;
+  private final ByteBuf[] frames;
+  private int pending;
+  private int appended;
+
+  private int tickWrites;
+  private int tickBytes;
+  private int tickPackets;
+  private long writes;
+  private long bytes;
+  private long packets;
+
+  public FrameAggregator(IntResolver<Channel> channels, int maxClients) {
+    this.channels = channels;
+    this.frames = new ByteBuf[maxClients];
+  }
+
+  /**
+   * Appends the remaining bytes of the buffer to the frame of the client
+   * without modifying the position of the buffer.
+   *
+   * @return whether or not the buffer was appended
+   */
+  public boolean append(int id, ByteBuffer buffer) {
+    ByteBuf frame = frames[id];
+    if (frame == null) {
+      Channel channel = channels.get(id);
+      if (channel == null) return false;
+      frames[id] = frame = channel.alloc().ioBuffer(Math.max(INITIAL_FRAME_SIZE, buffer.remaining()));
+      pending |= (1 << id);
+    }
+
+    frame.writeBytes(buffer.duplicate());
+    appended++;
+    return true;
+  }
+
+  /**
+   * Writes and flushes the pending frame of each client.
+   *
+   * @return number of frames written
+   */
+  public int flush() {
+    tickWrites = tickBytes = 0;
+    tickPackets = appended;
+    appended = 0;
+    for (; pending != 0; pending &= pending - 1) {
+      final int id = Integer.numberOfTrailingZeros(pending);
+      final ByteBuf frame = frames[id];
+      frames[id] = null;
+      final Channel channel = channels.get(id);
+      if (channel == null || !channel.isActive()) {
+        frame.release();
+        continue;
+      }
+
+      final int size = frame.readableBytes();
+      if (DEBUG_FLUSH) Gdx.app.debug(TAG, "flushing " + size + " bytes to " + id);
+      channel.writeAndFlush(frame);
+      tickWrites++;
+      tickBytes += size;
+    }
+
+    writes += tickWrites;
+    bytes += tickBytes;
+    packets += tickPackets;
+    return tickWrites;
+  }
+
+  /** releases the pending frame of the client, e.g., when it disconnects */
+  public void discard(int id) {
+    final ByteBuf frame = frames[id];
+    if (frame == null) return;
+    frames[id] = null;
+    pending &= ~(1 << id);
+    frame.release();
+  }
+
+  /** releases all pending frames */
+  public void clear() {
+    for (int id = 0; id < frames.length; id++) discard(id);
+  }
+
+  /** number of frames written by the last flush */
+  public int tickWrites() {
+    return tickWrites;
+  }
+
+  /** number of bytes written by the last flush */
+  public int tickBytes() {
+    return tickBytes;
+  }
+
+  /** number of packets appended to the frames of the last flush */
+  public int tickPackets() {
+    return tickPackets;
+  }
+
+  /** total number of frames written */
+  public long writes() {
+    return writes;
+  }
+
+  /** total number of bytes written */
+  public long bytes() {
+    return bytes;
+  }
+
+  /** total number of packets appended */
+  public long packets() {
+    return packets;
+  }
+}
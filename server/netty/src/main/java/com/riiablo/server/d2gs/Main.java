@@ -40,12 +40,14 @@ import com.riiablo.codec.StringTBLs;
 import com.riiablo.engine.EntityFactory;
 import com.riiablo.engine.server.AIStepper;
 import com.riiablo.engine.server.AnimDataResolver;
+import com.riiablo.engine.server.AttributesDisposer;
 import com.riiablo.engine.server.CofManager;
 import com.riiablo.engine.server.ItemInteractor;
 import com.riiablo.engine.server.ItemManager;
 import com.riiablo.engine.server.ObjectInitializer;
 import com.riiablo.engine.server.ObjectInteractor;
 import com.riiablo.engine.server.Pathfinder;
+import com.riiablo.engine.server.ProximityManager;
 import com.riiablo.engine.server.SerializationManager;
 import com.riiablo.engine.server.ServerEntityFactory;
 import com.riiablo.engine.server.ServerItemManager;
@@ -213,12 +215,14 @@ public class Main extends ApplicationAdapter {
         .with(new ObjectInitializer())
         .with(new ObjectInteractor(), new WarpInteractor(), new ItemInteractor())
 
+        .with(new ProximityManager())
         .with(new AIStepper())
         .with(new Pathfinder())
 
         .with(new VelocityAdder()) // FIXME: temp until proper physics implemented
 
         .with(factory)
+        .with(new AttributesDisposer())
         .with(sync)
         .with(new AnimDataResolver())
         ;
@@ -24,6 +24,7 @@ import com.riiablo.net.packet.d2gs.StoreToCursor;
 import com.riiablo.net.packet.d2gs.SwapBeltItem;
 import com.riiablo.net.packet.d2gs.SwapBodyItem;
 import com.riiablo.net.packet.d2gs.SwapStoreItem;
+import com.riiablo.net.packet.d2gs.SyncAck;
 import com.riiablo.net.tcp.D2GSOutboundPacketFactory;
 import com.riiablo.net.tcp.InboundPacket;
 import com.riiablo.net.tcp.OutboundPacket;
@@ -49,6 +50,9 @@ public class D2GSMessageProcessor {
       case D2GSData.EntitySync:
         onSynchronize(packet);
         break;
+      case D2GSData.SyncAck:
+        onSyncAck(packet);
+        break;
       case D2GSData.GroundToCursor:
         onGroundToCursor(packet);
         break;
@@ -99,6 +103,11 @@ public class D2GSMessageProcessor {
     sync.sync(entityId, packet.table());
   }
 
+  private void onSyncAck(InboundPacket<D2GS> packet) {
+    SyncAck syncAck = (SyncAck) packet.table().data(new SyncAck());
+    sync.ack(packet.id(), syncAck.tick(), syncAck.resync());
+  }
+
   private static ByteBuffer duplicate(ByteBuffer buffer) {
     final int size = buffer.rewind().remaining();
     return (ByteBuffer) ByteBuffer.wrap(new byte[size + 4])
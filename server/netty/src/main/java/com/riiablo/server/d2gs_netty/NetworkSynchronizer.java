@@ -1,6 +1,8 @@
 package com.riiablo.server.d2gs_netty;
 
 import com.google.flatbuffers.FlatBufferBuilder;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.concurrent.BlockingQueue;
 
 import com.artemis.BaseEntitySystem;
@@ -10,35 +12,73 @@ import com.artemis.annotations.Wire;
 import com.artemis.utils.IntBag;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.IntIntMap;
 
+import com.riiablo.engine.server.EntitySyncEncoder;
+import com.riiablo.engine.server.InterestGrid;
 import com.riiablo.engine.server.SerializationManager;
 import com.riiablo.engine.server.component.Class;
 import com.riiablo.engine.server.component.Flags;
 import com.riiablo.engine.server.component.Networked;
+import com.riiablo.engine.server.component.Position;
+import com.riiablo.net.FlatBufferBuilderArena;
 import com.riiablo.net.packet.d2gs.D2GS;
 import com.riiablo.net.packet.d2gs.D2GSData;
 import com.riiablo.net.packet.d2gs.EntityFlags;
 import com.riiablo.net.tcp.D2GSOutboundPacketFactory;
 import com.riiablo.net.tcp.OutboundPacket;
 
+/**
+ * Synchronizes networked entities with the clients which can see them. Each
+ * tick entities are filtered through an {@link InterestGrid} s.t. only those
+ * within the view range of a client's player are sent to it, and entities
+ * leaving the view of a client are sent to it as deleted. Syncs are delta
+ * encoded against what each client was last sent, see
+ * {@link EntitySyncEncoder}, using builders of the server's arena which is
+ * reset once the queued syncs have been written.
+ */
 @All(Networked.class)
-public class NetworkSynchronizer extends BaseEntitySystem {
+public class NetworkSynchronizer extends BaseEntitySystem implements InterestGrid.Listener, EntitySyncEncoder.Sink {
   private static final String TAG = "NetworkSynchronizer";
 
-  private static final boolean DEBUG      = true;
-  private static final boolean DEBUG_SYNC = DEBUG && !true;
+  private static final boolean DEBUG          = true;
+  private static final boolean DEBUG_SYNC     = DEBUG && !true;
+  private static final boolean DEBUG_INTEREST = DEBUG && !true;
+
+  /** sub-tiles */
+  static final float CELL_SIZE   = 16;
+  static final float ENTER_RANGE = 48;
+  static final float LEAVE_RANGE = 56;
+
+  static final int MAX_CLIENTS = Server.MAX_CLIENTS;
 
   protected SerializationManager serializer;
 
   @Wire(name = "outPackets")
   protected BlockingQueue<OutboundPacket> outPackets;
 
+  @Wire(name = "builders")
+  protected FlatBufferBuilderArena builders;
+
   @Wire(name = "player")
   protected IntIntMap players;
 
   protected ComponentMapper<Class> mClass;
   protected ComponentMapper<Flags> mFlags;
+  protected ComponentMapper<Position> mPosition;
+
+  final InterestGrid interest = new InterestGrid(CELL_SIZE, ENTER_RANGE, LEAVE_RANGE);
+  EntitySyncEncoder encoder;
+  final int[] tickBytes = new int[MAX_CLIENTS];
+  final int[] tickPackets = new int[MAX_CLIENTS];
+  final long[] bytesSent = new long[MAX_CLIENTS];
+  final long[] droppedPackets = new long[MAX_CLIENTS];
+
+  @Override
+  protected void initialize() {
+    encoder = new EntitySyncEncoder(serializer, MAX_CLIENTS, builders);
+  }
 
   @Override
   protected boolean checkProcessing() {
@@ -48,32 +88,154 @@ public class NetworkSynchronizer extends BaseEntitySystem {
   // FIXME: this assumes that removing Networked component implies deletion -- may not always be case
   @Override
   protected void removed(int entityId) {
+    int mask = interest.remove(entityId);
     Class.Type type = mClass.get(entityId).type;
     switch (type) {
       case PLR:
-        // TODO: handled by disconnection packet, need to handle here also
+        // deletion is sent to the other clients by the disconnection packet
         break;
       default:
         mFlags.get(entityId).flags |= EntityFlags.deleted;
-        process(entityId);
+        if (mask != 0) encoder.full(entityId, mask, this);
     }
+
+    encoder.remove(entityId);
+  }
+
+  @Override
+  protected void begin() {
+    encoder.begin();
+    interest.begin();
+    Arrays.fill(tickBytes, 0);
+    Arrays.fill(tickPackets, 0);
   }
 
   @Override
   protected void processSystem() {
     IntBag entities = subscription.getEntities();
     int[] entityIds = entities.getData();
+    for (int i = 0, s = entities.size(); i < s; i++) {
+      int entityId = entityIds[i];
+      Position position = mPosition.get(entityId);
+      if (position != null) {
+        interest.put(entityId, position.position.x, position.position.y);
+      } else {
+        interest.putGlobal(entityId);
+      }
+    }
+
+    for (IntIntMap.Entry player : players) {
+      Position position = mPosition.get(player.value);
+      if (position == null) continue;
+      Vector2 xy = position.position;
+      interest.view(player.key, xy.x, xy.y);
+    }
+
+    interest.end(this);
+
     for (int i = 0, s = entities.size(); i < s; i++) {
       process(entityIds[i]);
     }
   }
 
   protected void process(int entityId) {
-    FlatBufferBuilder builder = sync(new FlatBufferBuilder(0), entityId);
+    int mask = interest.mask(entityId);
     int id = players.findKey(entityId, -1); // TODO: replace with component referencing player id
-    OutboundPacket packet = D2GSOutboundPacketFactory.obtain(id != -1 ? ~(1 << id) : OutboundPacket.BROADCAST, D2GSData.EntitySync, builder.dataBuffer());
-    boolean success = outPackets.offer(packet);
-    assert success;
+    if (id != -1) mask &= ~(1 << id);
+    if (mask == 0) return;
+    encoder.sync(entityId, mask, this);
+  }
+
+  @Override
+  public void send(int mask, ByteBuffer buffer) {
+    OutboundPacket packet = D2GSOutboundPacketFactory.obtain(mask, D2GSData.EntitySync, buffer);
+    if (!outPackets.offer(packet)) {
+      dropped(mask);
+      return;
+    }
+
+    int bytes = packet.buffer().remaining();
+    for (int clients = mask & ((1 << MAX_CLIENTS) - 1); clients != 0; clients &= clients - 1) {
+      int id = Integer.numberOfTrailingZeros(clients);
+      tickBytes[id] += bytes;
+      tickPackets[id]++;
+      bytesSent[id] += bytes;
+    }
+  }
+
+  /**
+   * Called when a sync could not be queued because the outbound queue is
+   * full. The baselines of the clients no longer match what they received,
+   * so all of them are discarded s.t. their next syncs are full.
+   */
+  void dropped(int mask) {
+    for (int clients = mask & ((1 << MAX_CLIENTS) - 1); clients != 0; clients &= clients - 1) {
+      int id = Integer.numberOfTrailingZeros(clients);
+      if (droppedPackets[id]++ == 0 || DEBUG_SYNC) Gdx.app.error(TAG, "outbound queue full, resyncing client " + id);
+      encoder.baselines(id).reset();
+    }
+  }
+
+  @Override
+  public void onEnter(int client, int entityId) {
+    if (DEBUG_INTEREST) Gdx.app.debug(TAG, "entity " + entityId + " entered view of client " + client);
+    encoder.remove(client, entityId);
+  }
+
+  @Override
+  public void onLeave(int client, int entityId) {
+    if (DEBUG_INTEREST) Gdx.app.debug(TAG, "entity " + entityId + " left view of client " + client);
+    Flags flags = mFlags.get(entityId);
+    if (flags == null) return;
+    int prev = flags.flags;
+    flags.flags |= EntityFlags.deleted;
+    try {
+      encoder.full(entityId, 1 << client, this);
+    } finally {
+      flags.flags = prev;
+    }
+
+    encoder.remove(client, entityId);
+  }
+
+  /** @see EntitySyncEncoder#ack(int, int, boolean) */
+  public void ack(int client, int tick, boolean resync) {
+    if (DEBUG_SYNC && resync) Gdx.app.debug(TAG, "client " + client + " requested resync at " + tick);
+    encoder.ack(client, tick, resync);
+  }
+
+  /** discards all state of the client, e.g., when it disconnects */
+  public void disconnect(int client) {
+    encoder.clear(client);
+  }
+
+  public EntitySyncEncoder encoder() {
+    return encoder;
+  }
+
+  /** number of entities visible to the specified client this tick */
+  public int visible(int client) {
+    return interest.numVisible(client);
+  }
+
+  /** bytes of entity syncs sent to the specified client this tick */
+  public int tickBytes(int client) {
+    return tickBytes[client];
+  }
+
+  /** number of entity syncs sent to the specified client this tick */
+  public int tickPackets(int client) {
+    return tickPackets[client];
+  }
+
+  /** total bytes of entity syncs sent to the specified client */
+  public long bytesSent(int client) {
+    return bytesSent[client];
+  }
+
+  /** number of entity syncs to the specified client dropped because the outbound queue was full */
+  public long droppedPackets(int client) {
+    return droppedPackets[client];
   }
 
   public FlatBufferBuilder sync(FlatBufferBuilder builder, int entityId) {
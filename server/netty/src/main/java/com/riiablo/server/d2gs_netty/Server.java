@@ -49,6 +49,7 @@ import com.riiablo.engine.EntityFactory;
 import com.riiablo.engine.server.component.Player;
 import com.riiablo.map.Map;
 import com.riiablo.net.Endpoint;
+import com.riiablo.net.FlatBufferBuilderArena;
 import com.riiablo.net.InboundChannelHandler;
 import com.riiablo.net.IntResolver;
 import com.riiablo.net.MessageProcessor;
@@ -60,6 +61,7 @@ import com.riiablo.net.packet.d2gs.Disconnect;
 import com.riiablo.net.packet.d2gs.Ping;
 import com.riiablo.net.tcp.D2GSInboundPacketFactory;
 import com.riiablo.net.tcp.D2GSOutboundPacketFactory;
+import com.riiablo.net.tcp.FrameAggregator;
 import com.riiablo.net.tcp.InboundPacket;
 import com.riiablo.net.tcp.OutboundPacket;
 import com.riiablo.net.tcp.TcpEndpoint;
@@ -95,18 +97,23 @@ public class Server implements MessageProcessor {
 
   private Endpoint<?> endpoint;
   private IntResolver<?> channels;
+  private FrameAggregator frames;
 
   private final ChannelInboundHandler connectionLimiter = new ConnectionLimiter(MAX_CLIENTS);
   private final ChannelInboundHandler connectionListener = new ConnectionListener();
 
   private final BlockingQueue<InboundPacket<D2GS>> inPackets = new ArrayBlockingQueue<>(32);
   private final Collection<InboundPacket<D2GS>> inCache = new ArrayList<>(32);
-  final BlockingQueue<OutboundPacket> outPackets = new ArrayBlockingQueue<>(MAX_CLIENTS * 32);
-  private final Collection<OutboundPacket> outCache = new ArrayList<>(MAX_CLIENTS * 32);
+  final BlockingQueue<OutboundPacket> outPackets = new ArrayBlockingQueue<>(MAX_CLIENTS * 512);
+  private final Collection<OutboundPacket> outCache = new ArrayList<>(MAX_CLIENTS * 512);
+
+  /** builders of packets queued from the main thread, reset once they've been written */
+  final FlatBufferBuilderArena builders = new FlatBufferBuilderArena();
 
   static final BitVector ignoredPackets = new BitVector(D2GSData.names.length); {
     ignoredPackets.set(D2GSData.EntitySync);
     ignoredPackets.set(D2GSData.Ping);
+    ignoredPackets.set(D2GSData.SyncAck);
   }
 
   private int connectedFlags;
@@ -155,6 +162,11 @@ public class Server implements MessageProcessor {
     return new TcpEndpoint((IntResolver<Channel>) channelResolver, messageProcessor);
   }
 
+  @SuppressWarnings("unchecked")
+  private static FrameAggregator createFrameAggregator(IntResolver<?> channelResolver) {
+    return new FrameAggregator((IntResolver<Channel>) channelResolver, MAX_CLIENTS);
+  }
+
   @SuppressWarnings("unchecked")
   private static <T> InboundChannelHandler<T> createInboundChannelHandler(Class<T> packetType, Endpoint<?> endpoint) {
     return new InboundChannelHandler<>(packetType, (Endpoint<T>) endpoint);
@@ -166,6 +178,7 @@ public class Server implements MessageProcessor {
 
   public void create() {
     endpoint = createEndpoint(channels, this);
+    frames = createFrameAggregator(channels);
     parentGroup = new NioEventLoopGroup();
     childGroup = new NioEventLoopGroup();
     bootstrap = new ServerBootstrap()
@@ -265,7 +278,7 @@ public class Server implements MessageProcessor {
           if (!client.connected) continue;
           try {
             if (DEBUG_SENT_PACKETS && !ignoredPackets.get(packet.dataType())) Gdx.app.debug(TAG, "  " + "Dispatching packet to " + i);
-            sendMessage(i, packet);
+            appendMessage(i, packet);
           } catch (Throwable t) {
             Gdx.app.error(TAG, t.getMessage(), t);
           }
@@ -273,17 +286,36 @@ public class Server implements MessageProcessor {
       }
     }
     outCache.clear();
+    frames.flush();
+    builders.reset();
   }
 
-  private void sendMessage(int id, OutboundPacket packet) {
-    packet.buffer().mark();
-    endpoint.sendMessage(id, packet.buffer(), -1);
-    packet.buffer().reset();
+  /**
+   * Appends the packet to the frame of the client, which is written along with
+   * all other packets sent to the client this tick.
+   */
+  private void appendMessage(int id, OutboundPacket packet) {
+    frames.append(id, packet.buffer());
     if ((connectedFlags & (1 << id)) == 0 && packet.dataType() == D2GSData.Connection) {
       connectedFlags |= (1 << id);
     }
   }
 
+  /** number of frames written to clients last tick */
+  public int tickWrites() {
+    return frames.tickWrites();
+  }
+
+  /** number of bytes written to clients last tick */
+  public int tickBytes() {
+    return frames.tickBytes();
+  }
+
+  /** number of packets written to clients last tick */
+  public int tickPackets() {
+    return frames.tickPackets();
+  }
+
   @Override
   public void processMessage(ChannelHandlerContext ctx, SocketAddress sender, ByteBuf msg) {
     if (DEBUG_RECEIVED_CACHE) Gdx.app.debug(TAG, "Queueing packet from " + sender);
@@ -491,6 +523,7 @@ public class Server implements MessageProcessor {
     outPackets.offer(broadcast);
 
     main.world.delete(entityId);
+    main.sync.disconnect(id);
     player.remove(id, Engine.INVALID_ENTITY);
   }
 
@@ -506,7 +539,7 @@ public class Server implements MessageProcessor {
         if (id == InboundPacket.INVALID_CLIENT) return;
         OutboundPacket response = D2GSOutboundPacketFactory.obtain(1 << id, D2GSData.Ping, builder.dataBuffer());
         if (DEBUG_SENT_PACKETS && !ignoredPackets.get(packet.dataType())) Gdx.app.debug(TAG, "  " + "Dispatching " + response);
-        sendMessage(id, response);
+        endpoint.sendMessage(id, response.buffer(), -1); // bypasses frames to keep rtt samples accurate
       } catch (Throwable t) {
         Gdx.app.error(TAG, t.getMessage(), t);
       }
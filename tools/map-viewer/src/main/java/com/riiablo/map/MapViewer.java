@@ -77,6 +77,7 @@ import com.riiablo.engine.server.ItemManager;
 import com.riiablo.engine.server.ObjectInitializer;
 import com.riiablo.engine.server.ObjectInteractor;
 import com.riiablo.engine.server.Pathfinder;
+import com.riiablo.engine.server.ProximityManager;
 import com.riiablo.engine.server.WarpInteractor;
 import com.riiablo.engine.server.component.Class;
 import com.riiablo.engine.server.component.Classname;
@@ -325,6 +326,7 @@ public class MapViewer extends Tool {
         .with(new Actioneer())
 
         .with(box2DPhysics = new Box2DPhysics(1 / 60f))
+        .with(new ProximityManager())
         .with(new Pathfinder())
 
         .with(new ClientEntityFactory())